@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.LockModeType;
+import javax.persistence.TypedQuery;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a {@link CriteriaBuilder} that can be executed many times with different parameter values.
+ * The query string, the select clause and the parameter transformations are determined once when compiling,
+ * so that an execution only has to bind the parameters. A compiled query is thread safe and can be shared.
+ * Every query created by a compiled query uses a new object builder.
+ *
+ * Parameter values that were set on the criteria builder at compile time are bound as default values
+ * and can be overridden through the query returned by {@link #createQuery(EntityManager)}.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public interface CompiledQuery<T> {
+
+    /**
+     * Returns the JPQL query string that is executed.
+     *
+     * @return The query string
+     */
+    public String getQueryString();
+
+    /**
+     * Returns the names of the parameters that can be bound on the queries created by this compiled query.
+     *
+     * @return The parameter names
+     */
+    public Set<String> getParameterNames();
+
+    /**
+     * Returns a compiled query that additionally sets the given hint on every created query.
+     *
+     * @param hintName The name of the hint
+     * @param value The value of the hint
+     * @return A new compiled query
+     */
+    public CompiledQuery<T> withHint(String hintName, Object value);
+
+    /**
+     * Returns a compiled query that sets the given lock mode on every created query.
+     *
+     * @param lockMode The lock mode
+     * @return A new compiled query
+     */
+    public CompiledQuery<T> withLockMode(LockModeType lockMode);
+
+    /**
+     * Returns a compiled query that sets the given flush mode on every created query.
+     *
+     * @param flushMode The flush mode
+     * @return A new compiled query
+     */
+    public CompiledQuery<T> withFlushMode(FlushModeType flushMode);
+
+    /**
+     * Creates a new query for the given entity manager with the default parameter values, hints, lock mode and flush mode applied.
+     * The returned query is not thread safe and is meant to be used only for a single execution.
+     *
+     * @param entityManager The entity manager to use for the query
+     * @return A new query
+     */
+    public TypedQuery<T> createQuery(EntityManager entityManager);
+}
@@ -97,6 +97,18 @@ public final class ConfigurationProperties {
      */
     public static final String EXPRESSION_CACHE_CLASS = "com.blazebit.persistence.expression.cache_class";
 
+    /**
+     * The maximum number of entries per cache name of a bounded expression cache like
+     * <code>com.blazebit.persistence.parser.expression.BoundedExpressionCache</code>.
+     * The maximum size for a specific cache name can be configured by appending the cache name to the property name
+     * e.g. <code>com.blazebit.persistence.expression.cache_maximum_size.PathExpression</code>.
+     * Valid values for this property are positive integers.
+     * Default is <code>2048</code>
+     *
+     * @since 1.6.14
+     */
+    public static final String EXPRESSION_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.expression.cache_maximum_size";
+
     /**
      * If set to false, tuples of a VALUES clause with all null values won't be filtered out.
      * Valid values for this property are <code>true</code> or <code>false</code>.
@@ -181,6 +193,19 @@ public final class ConfigurationProperties {
      */
     public static final String QUERY_PLAN_CACHE_ENABLED = "com.blazebit.persistence.query_plan_cache_enabled";
 
+    /**
+     * If set to true, the JPQL query strings of criteria builders are cached by the shape of the query builder and reused
+     * for criteria builders with the same shape, regardless of the parameter values.
+     * The query strings are stored in the cache configured via {@link #EXPRESSION_CACHE_CLASS} if that is a bounded cache,
+     * otherwise in a separate bounded cache. The cache name is <code>QueryString</code> and its size can be configured via
+     * {@link #EXPRESSION_CACHE_MAXIMUM_SIZE}.
+     * Valid values for this property are <code>true</code> and <code>false</code>.
+     * Default is <code>false</code>.
+     *
+     * @since 1.6.14
+     */
+    public static final String QUERY_STRING_CACHE_ENABLED = "com.blazebit.persistence.query_string_cache_enabled";
+
     /**
      * If set to true, JPA Criteria predicates are wrapped in a negation predicate instead of copied with negation being propagated.
      * Valid values for this property are <code>true</code> and <code>false</code>.
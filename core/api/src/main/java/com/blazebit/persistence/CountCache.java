@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.Map;
+
+/**
+ * A cache for the results of count queries of a {@link PaginatedCriteriaBuilder}.
+ * Entries are keyed by the count query string and the values bound to its parameters,
+ * so that requesting further pages of the same result can reuse a recently computed total count.
+ *
+ * Implementations must be thread safe as a cache is usually shared between requests.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ * @see PaginatedCriteriaBuilder#withCountCache(CountCache)
+ */
+public interface CountCache {
+
+    /**
+     * Returns the cached count for the given count query and parameter values, or <code>null</code> if no valid entry exists.
+     *
+     * @param countQueryString The count query string
+     * @param parameterValues The parameter values bound to the count query
+     * @return The cached count or <code>null</code>
+     */
+    public Long getCount(String countQueryString, Map<String, Object> parameterValues);
+
+    /**
+     * Caches the count for the given count query and parameter values.
+     *
+     * @param countQueryString The count query string
+     * @param parameterValues The parameter values bound to the count query
+     * @param count The count
+     */
+    public void putCount(String countQueryString, Map<String, Object> parameterValues, long count);
+
+    /**
+     * Removes the cached counts of the given count query for all parameter values.
+     *
+     * @param countQueryString The count query string
+     */
+    public void invalidate(String countQueryString);
+
+    /**
+     * Removes all cached counts.
+     */
+    public void invalidateAll();
+}
@@ -51,6 +51,22 @@ public interface CriteriaBuilderFactory extends ServiceProvider, ConfigurationSo
      */
     public <T> CriteriaBuilder<T> create(EntityManager entityManager, Class<T> resultClass);
 
+    /**
+     * Compiles the given criteria builder into an immutable {@link CompiledQuery} that only needs parameters to be bound
+     * for an execution. The criteria builder must have been created by this criteria builder factory and must be
+     * renderable to a plain JPQL query i.e. it must not make use of CTEs, entity functions, VALUES clauses or set operations.
+     * Custom object builders are only supported if they implement {@link com.blazebit.persistence.spi.CopyableObjectBuilder} and are not bound
+     * to the criteria builder, like the ones of entity views without subviews, correlations, collections or view parameters.
+     *
+     * @param criteriaBuilder The criteria builder to compile
+     * @param <T> The type of the result class
+     * @return The compiled query
+     * @throws IllegalArgumentException If the criteria builder was not created by this factory
+     * @throws IllegalStateException If the criteria builder can not be compiled
+     * @since 1.6.14
+     */
+    public <T> CompiledQuery<T> compile(CriteriaBuilder<T> criteriaBuilder);
+
     /**
      * Creates a new criteria builder with the given result class. The result class will be used as default from class.
      * The alias will be used as default alias for the from class. Both can be overridden by invoking
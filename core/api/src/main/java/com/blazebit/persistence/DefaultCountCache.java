@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simple default implementation for the {@link CountCache} interface that is bounded in size
+ * and evicts the least recently used entries first. Entries expire after the configured time to live.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class DefaultCountCache implements CountCache {
+
+    private final ExpiringQueryCache<Long> cache;
+
+    /**
+     * Creates a new {@link CountCache}.
+     *
+     * @param maximumSize The maximum number of cached counts
+     * @param timeToLive The duration after which a cached count expires
+     * @param unit The time unit of the time to live
+     */
+    public DefaultCountCache(int maximumSize, long timeToLive, TimeUnit unit) {
+        this.cache = new ExpiringQueryCache<>(maximumSize, timeToLive, unit);
+    }
+
+    @Override
+    public Long getCount(String countQueryString, Map<String, Object> parameterValues) {
+        return cache.get(countQueryString, parameterValues);
+    }
+
+    @Override
+    public void putCount(String countQueryString, Map<String, Object> parameterValues, long count) {
+        cache.put(countQueryString, parameterValues, count);
+    }
+
+    @Override
+    public void invalidate(String countQueryString) {
+        cache.invalidate(countQueryString);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of cached counts, including expired ones that were not yet evicted.
+     *
+     * @return The number of cached counts
+     */
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simple default implementation for the {@link KeysetIndexCache} interface that is bounded in size
+ * and evicts the least recently used entries first. Entries expire after the configured time to live.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class DefaultKeysetIndexCache implements KeysetIndexCache {
+
+    private final ExpiringQueryCache<KeysetIndex> cache;
+
+    /**
+     * Creates a new {@link KeysetIndexCache}.
+     *
+     * @param maximumSize The maximum number of cached keyset indexes
+     * @param timeToLive The duration after which a cached keyset index expires
+     * @param unit The time unit of the time to live
+     */
+    public DefaultKeysetIndexCache(int maximumSize, long timeToLive, TimeUnit unit) {
+        this.cache = new ExpiringQueryCache<>(maximumSize, timeToLive, unit);
+    }
+
+    @Override
+    public KeysetIndex getKeysetIndex(String keysetIndexQueryString, Map<String, Object> parameterValues) {
+        return cache.get(keysetIndexQueryString, parameterValues);
+    }
+
+    @Override
+    public void putKeysetIndex(String keysetIndexQueryString, Map<String, Object> parameterValues, KeysetIndex keysetIndex) {
+        cache.put(keysetIndexQueryString, parameterValues, keysetIndex);
+    }
+
+    @Override
+    public void invalidate(String keysetIndexQueryString) {
+        cache.invalidate(keysetIndexQueryString);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of cached keyset indexes, including expired ones that were not yet evicted.
+     *
+     * @return The number of cached keyset indexes
+     */
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache for values computed by queries, keyed by the query string and parameter values, that is bounded in size
+ * and evicts the least recently used entries first. Entries expire after the configured time to live.
+ *
+ * @param <V> The value type
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+final class ExpiringQueryCache<V> {
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final Map<Key, Entry<V>> entries;
+
+    ExpiringQueryCache(int maximumSize, long timeToLive, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.entries = new LinkedHashMap<Key, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry<V>> eldest) {
+                return size() > ExpiringQueryCache.this.maximumSize;
+            }
+        };
+    }
+
+    V get(String queryString, Map<String, Object> parameterValues) {
+        Key key = new Key(queryString, parameterValues);
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.created > timeToLiveNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    void put(String queryString, Map<String, Object> parameterValues, V value) {
+        // Copy the parameter values since the caller might reuse the map
+        Key key = new Key(queryString, new HashMap<>(parameterValues));
+        Entry<V> entry = new Entry<>(value, System.nanoTime());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    void invalidate(String queryString) {
+        synchronized (entries) {
+            Iterator<Key> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().queryString.equals(queryString)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static final class Key {
+        private final String queryString;
+        private final Map<String, Object> parameterValues;
+        private final int hashCode;
+
+        private Key(String queryString, Map<String, Object> parameterValues) {
+            this.queryString = queryString;
+            this.parameterValues = parameterValues;
+            this.hashCode = 31 * queryString.hashCode() + parameterValues.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashCode == key.hashCode && queryString.equals(key.queryString) && parameterValues.equals(key.parameterValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * @param <V> The value type
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long created;
+
+        private Entry(V value, long created) {
+            this.value = value;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.io.Serializable;
+
+/**
+ * A {@link Keyset} that gives access to the elements of the key set tuple without materializing it as array.
+ * The keysets of all rows extracted by a {@link PaginatedCriteriaBuilder} implement this interface and read the elements from the result row on access,
+ * so consumers like the {@link KeysetCodec} should prefer this access over {@link #getTuple()}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public interface IndexedKeyset extends Keyset {
+
+    /**
+     * Returns the number of elements of the key set tuple.
+     *
+     * @return The number of elements
+     */
+    public int size();
+
+    /**
+     * Returns the element of the key set tuple at the given index.
+     *
+     * @param index The index of the element
+     * @return The element at the given index
+     */
+    public Serializable get(int index);
+}
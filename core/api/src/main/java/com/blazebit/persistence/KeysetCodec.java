@@ -0,0 +1,516 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A compact binary encoding for keysets that is suitable for cursors.
+ * Elements of common key types are written with a one byte type tag followed by a variable length encoding of the value,
+ * elements of other types fall back to Java serialization. The encoding does not contain class names for the common key types,
+ * so decoding them requires no class resolution.
+ * Since cursors are usually supplied by clients, Java serialization is only used for the classes that are passed to
+ * {@link #KeysetCodec(Class[])}, and deserialization rejects all other classes.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class KeysetCodec {
+
+    /**
+     * A shared instance that only supports the common key types and rejects elements that need Java serialization.
+     */
+    public static final KeysetCodec INSTANCE = new KeysetCodec();
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_INTEGER = 2;
+    private static final int TAG_LONG = 3;
+    private static final int TAG_SHORT = 4;
+    private static final int TAG_BYTE = 5;
+    private static final int TAG_BOOLEAN_FALSE = 6;
+    private static final int TAG_BOOLEAN_TRUE = 7;
+    private static final int TAG_CHARACTER = 8;
+    private static final int TAG_FLOAT = 9;
+    private static final int TAG_DOUBLE = 10;
+    private static final int TAG_BIG_INTEGER = 11;
+    private static final int TAG_BIG_DECIMAL = 12;
+    private static final int TAG_UUID = 13;
+    private static final int TAG_DATE = 14;
+    private static final int TAG_SQL_DATE = 15;
+    private static final int TAG_SQL_TIME = 16;
+    private static final int TAG_SQL_TIMESTAMP = 17;
+    private static final int TAG_INSTANT = 18;
+    private static final int TAG_LOCAL_DATE = 19;
+    private static final int TAG_LOCAL_TIME = 20;
+    private static final int TAG_LOCAL_DATE_TIME = 21;
+    private static final int TAG_OFFSET_DATE_TIME = 22;
+    private static final int TAG_SERIALIZED = 23;
+
+    private final Set<String> serializableClassNames;
+
+    /**
+     * Creates a codec that encodes elements of the given classes through Java serialization.
+     * Deserialization only resolves the given classes, so all classes of the serialized object graphs, including super classes, must be given.
+     *
+     * @param serializableClasses The classes that may be encoded through Java serialization
+     */
+    public KeysetCodec(Class<?>... serializableClasses) {
+        Set<String> serializableClassNames = new HashSet<>(serializableClasses.length);
+        for (Class<?> serializableClass : serializableClasses) {
+            serializableClassNames.add(serializableClass.getName());
+        }
+        this.serializableClassNames = Collections.unmodifiableSet(serializableClassNames);
+    }
+
+    /**
+     * Encodes the given keyset.
+     *
+     * @param keyset The keyset to encode
+     * @return The encoded keyset
+     */
+    public byte[] encode(Keyset keyset) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            encode(keyset, baos);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Couldn't encode keyset", e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Encodes the given keyset to the given output stream.
+     *
+     * @param keyset The keyset to encode
+     * @param os The output stream to write to
+     * @throws IOException if writing to the output stream fails
+     */
+    public void encode(Keyset keyset, OutputStream os) throws IOException {
+        if (keyset instanceof IndexedKeyset) {
+            IndexedKeyset indexedKeyset = (IndexedKeyset) keyset;
+            int size = indexedKeyset.size();
+            writeVarInt(os, size + 1);
+            for (int i = 0; i < size; i++) {
+                writeElement(os, indexedKeyset.get(i));
+            }
+        } else {
+            Serializable[] tuple = keyset == null ? null : keyset.getTuple();
+            if (tuple == null) {
+                // A zero length denotes a keyset without tuple
+                writeVarInt(os, 0);
+            } else {
+                writeVarInt(os, tuple.length + 1);
+                for (int i = 0; i < tuple.length; i++) {
+                    writeElement(os, tuple[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes the given encoded keyset.
+     *
+     * @param bytes The encoded keyset
+     * @return The decoded keyset
+     * @throws IllegalArgumentException if the bytes are no valid encoding of a keyset
+     */
+    public Keyset decode(byte[] bytes) {
+        ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        try {
+            Keyset keyset = decode(is);
+            if (is.available() != 0) {
+                throw new IllegalArgumentException("Trailing bytes after the encoded keyset");
+            }
+            return keyset;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Couldn't decode keyset", e);
+        }
+    }
+
+    /**
+     * Decodes a keyset from the given input stream.
+     *
+     * @param is The input stream to read from
+     * @return The decoded keyset
+     * @throws IOException if reading from the input stream fails or the content is no valid encoding of a keyset
+     */
+    public Keyset decode(InputStream is) throws IOException {
+        int size = readVarInt(is);
+        if (size == 0) {
+            return new DefaultKeyset(null);
+        }
+        Serializable[] tuple = new Serializable[size - 1];
+        for (int i = 0; i < tuple.length; i++) {
+            tuple[i] = readElement(is);
+        }
+        return new DefaultKeyset(tuple);
+    }
+
+    /**
+     * Returns whether the class with the given name may be encoded and decoded through Java serialization.
+     * The default implementation only allows the classes that were passed to {@link #KeysetCodec(Class[])}.
+     *
+     * @param className The fully qualified class name
+     * @return whether the class may be used for Java serialization
+     */
+    protected boolean isSerializable(String className) {
+        return serializableClassNames.contains(className);
+    }
+
+    /**
+     * Creates the object input stream through which elements of types without a dedicated encoding are deserialized.
+     * The default implementation only resolves classes for which {@link #isSerializable(String)} returns <code>true</code>.
+     *
+     * @param is The input stream containing the serialized element
+     * @return The object input stream
+     * @throws IOException if creating the object input stream fails
+     */
+    protected ObjectInputStream createObjectInputStream(InputStream is) throws IOException {
+        return new ObjectInputStream(is) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                if (!isSerializable(desc.getName())) {
+                    throw new InvalidClassException(desc.getName(), "Class is not allowed for keyset elements");
+                }
+                return super.resolveClass(desc);
+            }
+
+            @Override
+            protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+                throw new InvalidClassException("Proxy classes are not allowed for keyset elements");
+            }
+        };
+    }
+
+    private void writeElement(OutputStream os, Serializable value) throws IOException {
+        if (value == null) {
+            os.write(TAG_NULL);
+            return;
+        }
+        // Only match exact classes, as subclasses might carry state that the dedicated encodings would lose
+        switch (value.getClass().getName()) {
+            case "java.lang.String":
+                os.write(TAG_STRING);
+                writeBytes(os, ((String) value).getBytes(StandardCharsets.UTF_8));
+                break;
+            case "java.lang.Integer":
+                os.write(TAG_INTEGER);
+                writeVarLong(os, zigZag((Integer) value));
+                break;
+            case "java.lang.Long":
+                os.write(TAG_LONG);
+                writeVarLong(os, zigZag((Long) value));
+                break;
+            case "java.lang.Short":
+                os.write(TAG_SHORT);
+                writeVarLong(os, zigZag((Short) value));
+                break;
+            case "java.lang.Byte":
+                os.write(TAG_BYTE);
+                os.write((Byte) value);
+                break;
+            case "java.lang.Boolean":
+                os.write((Boolean) value ? TAG_BOOLEAN_TRUE : TAG_BOOLEAN_FALSE);
+                break;
+            case "java.lang.Character":
+                os.write(TAG_CHARACTER);
+                writeVarInt(os, (Character) value);
+                break;
+            case "java.lang.Float":
+                os.write(TAG_FLOAT);
+                writeFixed(os, Float.floatToIntBits((Float) value), 4);
+                break;
+            case "java.lang.Double":
+                os.write(TAG_DOUBLE);
+                writeFixed(os, Double.doubleToLongBits((Double) value), 8);
+                break;
+            case "java.math.BigInteger":
+                os.write(TAG_BIG_INTEGER);
+                writeBytes(os, ((BigInteger) value).toByteArray());
+                break;
+            case "java.math.BigDecimal":
+                os.write(TAG_BIG_DECIMAL);
+                writeVarLong(os, zigZag(((BigDecimal) value).scale()));
+                writeBytes(os, ((BigDecimal) value).unscaledValue().toByteArray());
+                break;
+            case "java.util.UUID":
+                os.write(TAG_UUID);
+                writeFixed(os, ((UUID) value).getMostSignificantBits(), 8);
+                writeFixed(os, ((UUID) value).getLeastSignificantBits(), 8);
+                break;
+            case "java.util.Date":
+                os.write(TAG_DATE);
+                writeVarLong(os, zigZag(((Date) value).getTime()));
+                break;
+            case "java.sql.Date":
+                os.write(TAG_SQL_DATE);
+                writeVarLong(os, zigZag(((Date) value).getTime()));
+                break;
+            case "java.sql.Time":
+                os.write(TAG_SQL_TIME);
+                writeVarLong(os, zigZag(((Date) value).getTime()));
+                break;
+            case "java.sql.Timestamp":
+                os.write(TAG_SQL_TIMESTAMP);
+                writeVarLong(os, zigZag(((Date) value).getTime()));
+                writeVarInt(os, ((java.sql.Timestamp) value).getNanos());
+                break;
+            case "java.time.Instant":
+                os.write(TAG_INSTANT);
+                JavaTimeSupport.writeInstant(os, value);
+                break;
+            case "java.time.LocalDate":
+                os.write(TAG_LOCAL_DATE);
+                JavaTimeSupport.writeLocalDate(os, value);
+                break;
+            case "java.time.LocalTime":
+                os.write(TAG_LOCAL_TIME);
+                JavaTimeSupport.writeLocalTime(os, value);
+                break;
+            case "java.time.LocalDateTime":
+                os.write(TAG_LOCAL_DATE_TIME);
+                JavaTimeSupport.writeLocalDateTime(os, value);
+                break;
+            case "java.time.OffsetDateTime":
+                os.write(TAG_OFFSET_DATE_TIME);
+                JavaTimeSupport.writeOffsetDateTime(os, value);
+                break;
+            default:
+                if (!isSerializable(value.getClass().getName())) {
+                    throw new IllegalArgumentException("Keyset element of type " + value.getClass().getName() + " has no dedicated encoding and is not registered for Java serialization");
+                }
+                os.write(TAG_SERIALIZED);
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+                    oos.writeObject(value);
+                }
+                writeBytes(os, baos.toByteArray());
+                break;
+        }
+    }
+
+    private Serializable readElement(InputStream is) throws IOException {
+        int tag = readByte(is);
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return new String(readBytes(is), StandardCharsets.UTF_8);
+            case TAG_INTEGER:
+                return (int) unZigZag(readVarLong(is));
+            case TAG_LONG:
+                return unZigZag(readVarLong(is));
+            case TAG_SHORT:
+                return (short) unZigZag(readVarLong(is));
+            case TAG_BYTE:
+                return (byte) readByte(is);
+            case TAG_BOOLEAN_FALSE:
+                return Boolean.FALSE;
+            case TAG_BOOLEAN_TRUE:
+                return Boolean.TRUE;
+            case TAG_CHARACTER:
+                return (char) readVarInt(is);
+            case TAG_FLOAT:
+                return Float.intBitsToFloat((int) readFixed(is, 4));
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(readFixed(is, 8));
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readBytes(is));
+            case TAG_BIG_DECIMAL:
+                int scale = (int) unZigZag(readVarLong(is));
+                return new BigDecimal(new BigInteger(readBytes(is)), scale);
+            case TAG_UUID:
+                return new UUID(readFixed(is, 8), readFixed(is, 8));
+            case TAG_DATE:
+                return new Date(unZigZag(readVarLong(is)));
+            case TAG_SQL_DATE:
+                return new java.sql.Date(unZigZag(readVarLong(is)));
+            case TAG_SQL_TIME:
+                return new java.sql.Time(unZigZag(readVarLong(is)));
+            case TAG_SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(unZigZag(readVarLong(is)));
+                timestamp.setNanos(readVarInt(is));
+                return timestamp;
+            case TAG_INSTANT:
+                return JavaTimeSupport.readInstant(is);
+            case TAG_LOCAL_DATE:
+                return JavaTimeSupport.readLocalDate(is);
+            case TAG_LOCAL_TIME:
+                return JavaTimeSupport.readLocalTime(is);
+            case TAG_LOCAL_DATE_TIME:
+                return JavaTimeSupport.readLocalDateTime(is);
+            case TAG_OFFSET_DATE_TIME:
+                return JavaTimeSupport.readOffsetDateTime(is);
+            case TAG_SERIALIZED:
+                try (ObjectInputStream ois = createObjectInputStream(new ByteArrayInputStream(readBytes(is)))) {
+                    return (Serializable) ois.readObject();
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new IOException("Couldn't deserialize keyset element", e);
+                }
+            default:
+                throw new IOException("Unknown keyset element type tag: " + tag);
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(OutputStream os, int value) throws IOException {
+        writeVarLong(os, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(OutputStream os, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            os.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        os.write((int) value);
+    }
+
+    private static void writeFixed(OutputStream os, long value, int bytes) throws IOException {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            os.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeBytes(OutputStream os, byte[] bytes) throws IOException {
+        writeVarInt(os, bytes.length);
+        os.write(bytes);
+    }
+
+    private static int readByte(InputStream is) throws IOException {
+        int b = is.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of encoded keyset");
+        }
+        return b;
+    }
+
+    private static int readVarInt(InputStream is) throws IOException {
+        long value = readVarLong(is);
+        if ((value & ~0xFFFFFFFFL) != 0) {
+            throw new IOException("Invalid variable length integer in encoded keyset");
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(InputStream is) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(is);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid variable length long in encoded keyset");
+    }
+
+    private static long readFixed(InputStream is, int bytes) throws IOException {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | readByte(is);
+        }
+        return value;
+    }
+
+    private static byte[] readBytes(InputStream is) throws IOException {
+        int length = readVarInt(is);
+        if (length < 0 || is instanceof ByteArrayInputStream && length > is.available()) {
+            throw new IOException("Invalid length in encoded keyset: " + length);
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int read = is.read(bytes, offset, length - offset);
+            if (read == -1) {
+                throw new EOFException("Unexpected end of encoded keyset");
+            }
+            offset += read;
+        }
+        return bytes;
+    }
+
+    // The java.time types are handled in a separate class so that the codec can be loaded on runtimes without java.time
+    private static final class JavaTimeSupport {
+
+        private JavaTimeSupport() {
+        }
+
+        static void writeInstant(OutputStream os, Object value) throws IOException {
+            java.time.Instant instant = (java.time.Instant) value;
+            writeVarLong(os, zigZag(instant.getEpochSecond()));
+            writeVarInt(os, instant.getNano());
+        }
+
+        static void writeLocalDate(OutputStream os, Object value) throws IOException {
+            writeVarLong(os, zigZag(((java.time.LocalDate) value).toEpochDay()));
+        }
+
+        static void writeLocalTime(OutputStream os, Object value) throws IOException {
+            writeVarLong(os, ((java.time.LocalTime) value).toNanoOfDay());
+        }
+
+        static void writeLocalDateTime(OutputStream os, Object value) throws IOException {
+            java.time.LocalDateTime localDateTime = (java.time.LocalDateTime) value;
+            writeVarLong(os, zigZag(localDateTime.toLocalDate().toEpochDay()));
+            writeVarLong(os, localDateTime.toLocalTime().toNanoOfDay());
+        }
+
+        static void writeOffsetDateTime(OutputStream os, Object value) throws IOException {
+            java.time.OffsetDateTime offsetDateTime = (java.time.OffsetDateTime) value;
+            writeLocalDateTime(os, offsetDateTime.toLocalDateTime());
+            writeVarLong(os, zigZag(offsetDateTime.getOffset().getTotalSeconds()));
+        }
+
+        static Serializable readInstant(InputStream is) throws IOException {
+            long epochSecond = unZigZag(readVarLong(is));
+            return java.time.Instant.ofEpochSecond(epochSecond, readVarInt(is));
+        }
+
+        static Serializable readLocalDate(InputStream is) throws IOException {
+            return java.time.LocalDate.ofEpochDay(unZigZag(readVarLong(is)));
+        }
+
+        static Serializable readLocalTime(InputStream is) throws IOException {
+            return java.time.LocalTime.ofNanoOfDay(readVarLong(is));
+        }
+
+        static Serializable readLocalDateTime(InputStream is) throws IOException {
+            java.time.LocalDate localDate = java.time.LocalDate.ofEpochDay(unZigZag(readVarLong(is)));
+            return java.time.LocalDateTime.of(localDate, java.time.LocalTime.ofNanoOfDay(readVarLong(is)));
+        }
+
+        static Serializable readOffsetDateTime(InputStream is) throws IOException {
+            java.time.LocalDateTime localDateTime = (java.time.LocalDateTime) readLocalDateTime(is);
+            return java.time.OffsetDateTime.of(localDateTime, java.time.ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong(is))));
+        }
+    }
+}
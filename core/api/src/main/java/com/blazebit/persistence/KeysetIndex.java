@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.io.Serializable;
+
+/**
+ * A sampled index of keyset boundaries of a paginated query that allows to jump to arbitrary pages by seeking.
+ * The boundary at index <code>i</code> is the keyset of the row at position <code>(i + 1) * interval - 1</code>,
+ * so a page starting at <code>firstResult</code> can be reached by filtering for rows after the nearest preceding boundary
+ * and skipping at most <code>interval - 1</code> rows.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ * @see PaginatedCriteriaBuilder#withKeysetIndex(KeysetIndexCache, int)
+ */
+public final class KeysetIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int interval;
+    private final Serializable[][] boundaries;
+
+    /**
+     * Creates a new keyset index.
+     *
+     * @param interval The number of rows between two boundaries
+     * @param boundaries The keyset tuples of every <code>interval</code>-th row
+     */
+    public KeysetIndex(int interval, Serializable[][] boundaries) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.interval = interval;
+        this.boundaries = boundaries;
+    }
+
+    /**
+     * Returns the number of rows between two boundaries.
+     *
+     * @return The interval
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the number of boundaries.
+     *
+     * @return The number of boundaries
+     */
+    public int size() {
+        return boundaries.length;
+    }
+
+    /**
+     * Returns the position of the first row after the nearest boundary preceding the given row,
+     * or 0 if there is no such boundary.
+     *
+     * @param firstResult The position of the row to seek to
+     * @return The position of the row following the boundary
+     */
+    public int getSeekPosition(int firstResult) {
+        int boundaryIndex = Math.min(firstResult / interval, boundaries.length);
+        return boundaryIndex * interval;
+    }
+
+    /**
+     * Returns the keyset of the nearest boundary preceding the given row, or <code>null</code> if there is no such boundary.
+     *
+     * @param firstResult The position of the row to seek to
+     * @return The keyset of the boundary or <code>null</code>
+     */
+    public Keyset getSeekKeyset(int firstResult) {
+        int boundaryIndex = Math.min(firstResult / interval, boundaries.length);
+        if (boundaryIndex == 0) {
+            return null;
+        }
+        return new DefaultKeyset(boundaries[boundaryIndex - 1]);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.Map;
+
+/**
+ * A cache for the {@link KeysetIndex} objects of a {@link PaginatedCriteriaBuilder}.
+ * Entries are keyed by the keyset index query string and the values bound to its parameters,
+ * so that jumps to arbitrary pages of the same result can reuse a previously built index.
+ *
+ * Implementations must be thread safe as a cache is usually shared between requests.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ * @see PaginatedCriteriaBuilder#withKeysetIndex(KeysetIndexCache, int)
+ */
+public interface KeysetIndexCache {
+
+    /**
+     * Returns the cached keyset index for the given query and parameter values, or <code>null</code> if no valid entry exists.
+     *
+     * @param keysetIndexQueryString The keyset index query string
+     * @param parameterValues The parameter values bound to the keyset index query
+     * @return The cached keyset index or <code>null</code>
+     */
+    public KeysetIndex getKeysetIndex(String keysetIndexQueryString, Map<String, Object> parameterValues);
+
+    /**
+     * Caches the keyset index for the given query and parameter values.
+     *
+     * @param keysetIndexQueryString The keyset index query string
+     * @param parameterValues The parameter values bound to the keyset index query
+     * @param keysetIndex The keyset index
+     */
+    public void putKeysetIndex(String keysetIndexQueryString, Map<String, Object> parameterValues, KeysetIndex keysetIndex);
+
+    /**
+     * Removes the cached keyset indexes of the given query for all parameter values.
+     *
+     * @param keysetIndexQueryString The keyset index query string
+     */
+    public void invalidate(String keysetIndexQueryString);
+
+    /**
+     * Removes all cached keyset indexes.
+     */
+    public void invalidateAll();
+}
@@ -6,6 +6,7 @@
 package com.blazebit.persistence;
 
 import javax.persistence.TypedQuery;
+import java.util.concurrent.Executor;
 
 /**
  * A builder for paginated criteria queries.
@@ -193,6 +194,120 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public boolean isWithInlineCountQuery();
 
+    /**
+     * Sets the cache from which the total count is retrieved, rather than executing the count query for every page.
+     * Counts are cached by count query string and bound parameter values, so a cache is usually shared between requests.
+     * Since a cached count can only be reused if it is computed separately, setting a cache disables the inlining of the count query.
+     *
+     * @param countCache the count cache to use or <code>null</code> to always execute the count query
+     * @return The query builder for chaining calls
+     * @since 1.6.14
+     * @see DefaultCountCache
+     */
+    public PaginatedCriteriaBuilder<T> withCountCache(CountCache countCache);
+
+    /**
+     * Returns the count cache that is used for the total count or <code>null</code>.
+     *
+     * @return the count cache or <code>null</code>
+     * @since 1.6.14
+     */
+    public CountCache getCountCache();
+
+    /**
+     * Sets the executor on which the count query is run concurrently to the id and object queries.
+     * The count query is executed with a separate {@link javax.persistence.EntityManager} created from the factory of the
+     * entity manager of this query, so it does not see uncommitted changes of the current transaction.
+     * Since an inlined count can't be executed concurrently, setting an executor disables the inlining of the count query.
+     * Count queries that require CTEs, entity functions or bounded counting are still executed sequentially.
+     *
+     * @param executor the executor for the count query or <code>null</code> to execute it sequentially
+     * @return The query builder for chaining calls
+     * @since 1.6.14
+     */
+    public PaginatedCriteriaBuilder<T> withCountQueryExecutor(Executor executor);
+
+    /**
+     * Returns the executor on which the count query is run concurrently or <code>null</code>.
+     *
+     * @return the executor or <code>null</code>
+     * @since 1.6.14
+     */
+    public Executor getCountQueryExecutor();
+
+    /**
+     * Enables the estimated count mode in which the total count is taken from the row estimate of the query planner of the DBMS
+     * if that estimate is greater or equal to the given threshold. The exact count query is only executed if the estimate is below
+     * the threshold or if the DBMS has no support for estimating row counts, see {@link com.blazebit.persistence.spi.DbmsDialect#getEstimatedRowCountSql(String)}.
+     * Since an estimate can deviate significantly from the actual row count, this mode is meant for large results for which
+     * displaying an approximate total is enough. Setting a threshold disables the inlining of the count query.
+     * Count queries that require CTEs, entity functions, bounded counting or parameter values of non-basic types are always executed exactly.
+     *
+     * @param exactCountThreshold the estimated count below which the exact count query is executed or {@link Long#MAX_VALUE} to always execute the exact count query
+     * @return The query builder for chaining calls
+     * @since 1.6.14
+     */
+    public PaginatedCriteriaBuilder<T> withEstimatedCount(long exactCountThreshold);
+
+    /**
+     * Returns the estimated count below which the exact count query is executed, or {@link Long#MAX_VALUE} if the estimated count mode is disabled.
+     *
+     * @return the exact count threshold
+     * @since 1.6.14
+     */
+    public long getEstimatedCountThreshold();
+
+    /**
+     * Enables seeking to arbitrary pages through a sampled index of keyset boundaries which is cached in the given cache.
+     * The index contains the keyset of every <code>interval</code>-th row and is built explicitly through {@link #buildKeysetIndex()}.
+     * When a page is requested for which no adjacent keyset page is available and the cache contains an index,
+     * the query filters for rows after the nearest preceding boundary and skips at most <code>interval - 1</code> rows instead of all rows before the page.
+     * Without a cached index, the page is determined through the offset as usual.
+     * Since the index is a snapshot, entries should be invalidated via {@link #getKeysetIndexQueryString()} when the data changes.
+     * Seeking is not used for bounded counting or when navigating to the page of an entity.
+     *
+     * @param keysetIndexCache the cache for keyset indexes or <code>null</code> to disable seeking
+     * @param interval the number of rows between two sampled keyset boundaries
+     * @return The query builder for chaining calls
+     * @since 1.6.14
+     * @see DefaultKeysetIndexCache
+     */
+    public PaginatedCriteriaBuilder<T> withKeysetIndex(KeysetIndexCache keysetIndexCache, int interval);
+
+    /**
+     * Returns the cache for keyset indexes or <code>null</code>.
+     *
+     * @return the keyset index cache or <code>null</code>
+     * @since 1.6.14
+     */
+    public KeysetIndexCache getKeysetIndexCache();
+
+    /**
+     * Returns the number of rows between two sampled keyset boundaries of the keyset index.
+     *
+     * @return the keyset index interval
+     * @since 1.6.14
+     */
+    public int getKeysetIndexInterval();
+
+    /**
+     * Returns the query string of the query that builds the keyset index, which is also used as key in the {@link KeysetIndexCache}.
+     *
+     * @return the keyset index query string
+     * @since 1.6.14
+     */
+    public String getKeysetIndexQueryString();
+
+    /**
+     * Builds the keyset index by executing a query that selects just the order by items of all rows, puts it into the keyset index cache and returns it.
+     * Since this reads the keysets of the whole result, it should be invoked ahead of time or in a background job rather than for every request.
+     *
+     * @return the keyset index
+     * @throws IllegalStateException if no keyset index cache is configured or an order by item value is not {@link java.io.Serializable}
+     * @since 1.6.14
+     */
+    public KeysetIndex buildKeysetIndex();
+
     /**
      * Creates and returns a new {@link CriteriaBuilder} that can be used to query the id values for the current page.
      *
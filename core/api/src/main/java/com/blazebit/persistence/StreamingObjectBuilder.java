@@ -0,0 +1,29 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence;
+
+import java.util.stream.Stream;
+
+/**
+ * An object builder that is capable of transforming a stream of tuples without materializing the whole result list.
+ * This is useful for object builders that combine multiple tuples into a single object in {@link #buildList},
+ * because such builders can't build objects from a single tuple through {@link #build(Object[])}.
+ *
+ * @param <T> The type that this builder produces
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public interface StreamingObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Transforms the given stream of result tuples into a stream of objects of the target type <code>T</code>.
+     * Closing the returned stream must close the given tuple stream.
+     *
+     * @param tupleStream The stream of result tuples
+     * @return The stream of target objects
+     */
+    public Stream<T> buildStream(Stream<Object[]> tupleStream);
+}
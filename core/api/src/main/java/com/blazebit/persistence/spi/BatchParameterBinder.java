@@ -0,0 +1,29 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * Binds the parameter values of the entries of a batch update to the participating queries.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public interface BatchParameterBinder {
+
+    /**
+     * Returns the number of entries in the batch.
+     *
+     * @return The number of batch entries
+     */
+    public int size();
+
+    /**
+     * Binds the parameter values of the batch entry with the given index to the participating queries.
+     *
+     * @param index The index of the batch entry
+     */
+    public void bind(int index);
+}
@@ -0,0 +1,29 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.spi;
+
+import com.blazebit.persistence.ObjectBuilder;
+
+/**
+ * An object builder that can create copies of itself for further executions of a query.
+ * A {@link com.blazebit.persistence.CompiledQuery} uses a new copy for every created query,
+ * which allows to compile queries that use such an object builder.
+ *
+ * @param <T> The type of the object
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public interface CopyableObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Returns a copy of this object builder that does not share execution state with this object builder
+     * or <code>null</code> if this object builder is bound to the query builder or entity manager it was created for.
+     * A stateless object builder may return itself.
+     *
+     * @return The copy of this object builder or <code>null</code>
+     */
+    public ObjectBuilder<T> copy();
+}
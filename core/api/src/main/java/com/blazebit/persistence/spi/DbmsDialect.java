@@ -336,6 +336,43 @@ public interface DbmsDialect {
      */
     public LateralStyle getLateralStyle();
 
+    /**
+     * Returns a SQL statement that lets the dbms estimate the number of rows produced by the given SQL query, usually through the query planner,
+     * or <code>null</code> if the dbms has no support for estimating row counts.
+     * The returned statement must use the JDBC parameters of the given SQL query in the same order.
+     *
+     * @param sql The SQL query for which to estimate the row count
+     * @return the SQL statement for the estimate or <code>null</code>
+     * @since 1.6.14
+     */
+    public String getEstimatedRowCountSql(String sql);
+
+    /**
+     * Extracts the estimated row count from the result rows of the statement returned by {@link #getEstimatedRowCountSql(String)}.
+     * Every element of the list is either a single column value or an <code>Object[]</code> for multi column results.
+     *
+     * @param resultRows The result rows of the estimate statement
+     * @return the estimated row count or -1 if no estimate could be extracted
+     * @since 1.6.14
+     */
+    public long extractEstimatedRowCount(List<?> resultRows);
+
+    /**
+     * Returns the maximum number of JDBC parameters that can be bound to a single statement or {@link Integer#MAX_VALUE} if there is no known limit.
+     *
+     * @return the maximum number of bind parameters
+     * @since 1.6.14
+     */
+    public int getMaxBindParameters();
+
+    /**
+     * Returns the maximum number of elements of a single IN list or {@link Integer#MAX_VALUE} if there is no known limit.
+     *
+     * @return the maximum number of IN list elements
+     * @since 1.6.14
+     */
+    public int getMaxInListSize();
+
     /**
      * Returns the name of the physical row id if the DBMS has such a concept, otherwise null.
      *
@@ -168,6 +168,23 @@ public interface ExtendedQuerySupport {
      */
     public int executeUpdate(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, boolean queryPlanCacheEnabled);
 
+    /**
+     * Executes the Query once for every entry of the given batch parameter binder by replacing the SQL with the given overriding SQL query
+     * and returns the update counts of the entries. Implementations should execute the entries as JDBC batch if possible.
+     * An update count may be {@link java.sql.Statement#SUCCESS_NO_INFO} if the JDBC driver does not report the count of a batched statement.
+     *
+     * @param serviceProvider The service provider to access {@linkplain EntityManager} and others
+     * @param participatingQueries The list of participating queries from which to combine parameters
+     * @param baseQuery The base query which represents the original modification query
+     * @param query The main query to execute
+     * @param sqlOverride The actual SQL query to execute instead of the query's original SQL
+     * @param batchParameterBinder The binder for the parameter values of the batch entries
+     * @param queryPlanCacheEnabled Designates whether query plans can be cached and reused
+     * @return The update counts of the batch entries
+     * @since 1.6.14
+     */
+    public int[] executeBatchUpdate(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, BatchParameterBinder batchParameterBinder, boolean queryPlanCacheEnabled);
+
     /**
      * Executes and returns the returning result of the Query by replacing the SQL with the given overriding SQL query.
      *
@@ -181,6 +198,21 @@ public interface ExtendedQuerySupport {
      */
     public ReturningResult<Object[]> executeReturning(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled);
 
+    /**
+     * Executes the given native SQL query with the values of the JDBC parameters of the given query and returns the result rows.
+     * The native SQL query must use the JDBC parameters of the SQL returned by {@link #getSql(EntityManager, Query)} in the same order.
+     * If the connection is part of a transaction, the native SQL query is executed within a savepoint, so that a failure does not affect the transaction.
+     * Every element of the returned list is either a single column value or an <code>Object[]</code> for multi column results.
+     *
+     * @param em The entity manager the query is associated to
+     * @param query The JPA query providing the parameter values
+     * @param sql The native SQL query to execute
+     * @return The result rows or <code>null</code> if the parameter values of the query can't be bound to the native SQL query
+     * @throws javax.persistence.PersistenceException if the execution of the native SQL query fails
+     * @since 1.6.14
+     */
+    public List<Object> getNativeResultList(EntityManager em, Query query, String sql);
+
     /**
      * Provides SQL information about a FROM element.
      *
@@ -0,0 +1,117 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.parser.FunctionKind;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
+import com.blazebit.persistence.parser.predicate.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of expressions through {@link ExpressionFactoryImpl} and the overhead of the caching
+ * expression factories for a warm cache.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionFactoryBenchmark {
+
+    @Param({ "PATH", "ARITHMETIC", "FUNCTION", "CASE" })
+    public String kind;
+
+    private String expression;
+    private String predicate;
+    private ExpressionFactory uncachedFactory;
+    private ExpressionFactory cachingFactory;
+    private ExpressionFactory boundedCachingFactory;
+
+    @Setup
+    public void setUp() {
+        switch (kind) {
+            case "PATH":
+                expression = "d.owner.partnerDocument.owner.name";
+                predicate = "d.owner.partnerDocument.owner.name = :name";
+                break;
+            case "ARITHMETIC":
+                expression = "(d.age + 1) * 2 - d.owner.age / 3";
+                predicate = "(d.age + 1) * 2 - d.owner.age / 3 > 10 AND d.age < :maxAge";
+                break;
+            case "FUNCTION":
+                expression = "COALESCE(UPPER(SUBSTRING(d.name, 1, 3)), LOWER(d.owner.name), '')";
+                predicate = "COALESCE(UPPER(SUBSTRING(d.name, 1, 3)), LOWER(d.owner.name), '') LIKE :pattern";
+                break;
+            case "CASE":
+                expression = "CASE WHEN d.age > 10 THEN 'old' WHEN d.age > 5 THEN 'medium' ELSE 'new' END";
+                predicate = "CASE WHEN d.age > 10 THEN 'old' WHEN d.age > 5 THEN 'medium' ELSE 'new' END IN ('old', 'new')";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown expression kind: " + kind);
+        }
+
+        Map<String, FunctionKind> functions = new HashMap<>();
+        functions.put("coalesce", FunctionKind.DETERMINISTIC);
+        functions.put("upper", FunctionKind.DETERMINISTIC);
+        functions.put("lower", FunctionKind.DETERMINISTIC);
+        functions.put("substring", FunctionKind.DETERMINISTIC);
+        uncachedFactory = new ExpressionFactoryImpl(functions, true, true);
+        cachingFactory = new SimpleCachingExpressionFactory(uncachedFactory, new ConcurrentHashMapExpressionCache<>());
+        boundedCachingFactory = new SimpleCachingExpressionFactory(uncachedFactory, new BoundedExpressionCache<>());
+        // Warm the caches
+        parseCached();
+        parseBoundedCached();
+        parsePredicateCached();
+    }
+
+    @Benchmark
+    public Expression parseUncached() {
+        return uncachedFactory.createSimpleExpression(expression, false);
+    }
+
+    @Benchmark
+    public Expression parseCached() {
+        return cachingFactory.createSimpleExpression(expression, false);
+    }
+
+    @Benchmark
+    public Expression parseBoundedCached() {
+        return boundedCachingFactory.createSimpleExpression(expression, false);
+    }
+
+    @Benchmark
+    public Predicate parsePredicateUncached() {
+        return uncachedFactory.createBooleanExpression(predicate, false);
+    }
+
+    @Benchmark
+    public Predicate parsePredicateCached() {
+        return cachingFactory.createBooleanExpression(predicate, false);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.benchmark.entity.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.Tuple;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generation of the count, id and object query strings of a paginated criteria builder.
+ * Every invocation uses a new paginated criteria builder because the query strings are cached by the builder.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginatedCriteriaBuilderBenchmark {
+
+    private PaginatedCriteriaBuilder<Tuple> criteriaBuilder;
+
+    @Setup(Level.Invocation)
+    public void setUp(PersistenceState persistence) {
+        criteriaBuilder = persistence.cbf.create(persistence.em, Tuple.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .select("d.owner.name")
+                .select("p.name")
+                .leftJoin("d.partners", "p")
+                .where("d.owner.age").gt(10L)
+                .orderByAsc("d.owner.name")
+                .orderByAsc("d.id")
+                .page(0, 10);
+    }
+
+    @Benchmark
+    public String countQueryString() {
+        return criteriaBuilder.getPageCountQueryString();
+    }
+
+    @Benchmark
+    public String idQueryString() {
+        return criteriaBuilder.getPageIdQueryString();
+    }
+
+    @Benchmark
+    public String objectQueryString() {
+        return criteriaBuilder.getQueryString();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+/**
+ * Boots the benchmark persistence unit on an in-memory H2 database and creates a criteria builder factory for it.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Benchmark)
+public class PersistenceState {
+
+    public EntityManagerFactory emf;
+    public EntityManager em;
+    public CriteriaBuilderFactory cbf;
+
+    @Setup
+    public void setUp() {
+        emf = Persistence.createEntityManagerFactory("benchmark");
+        em = emf.createEntityManager();
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        configure(config);
+        cbf = config.createCriteriaBuilderFactory(emf);
+    }
+
+    protected void configure(CriteriaBuilderConfiguration config) {
+    }
+
+    @TearDown
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+}
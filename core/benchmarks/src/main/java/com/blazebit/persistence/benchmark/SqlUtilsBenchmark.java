@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.impl.util.SqlUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pattern finding in SQL strings through {@link SqlUtils}, which is used when SQL has to be adapted.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlUtilsBenchmark {
+
+    @Param({ "1", "10" })
+    public int selectItems;
+
+    private String sql;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("select ");
+        for (int i = 0; i < selectItems; i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            sb.append("document0_.\"name ").append(i).append("\" as col_").append(i).append("_0_");
+        }
+        sb.append(" from document document0_")
+                .append(" left outer join person person1_ on document0_.owner_id=person1_.id")
+                .append(" where document0_.id in (select document2_.id from document document2_ where document2_.name like 'from%')")
+                .append(" and person1_.age>? group by document0_.id having count(*)>1 order by document0_.name asc");
+        sql = sb.toString();
+    }
+
+    @Benchmark
+    public int indexOfFrom() {
+        return SqlUtils.indexOfFrom(sql);
+    }
+
+    @Benchmark
+    public int indexOfWhere() {
+        return SqlUtils.indexOfWhere(sql);
+    }
+
+    @Benchmark
+    public int indexOfOrderBy() {
+        return SqlUtils.indexOfOrderBy(sql);
+    }
+
+    @Benchmark
+    public String[] selectItemAliases() {
+        return SqlUtils.getSelectItemAliases(sql, SqlUtils.indexOfSelect(sql));
+    }
+}
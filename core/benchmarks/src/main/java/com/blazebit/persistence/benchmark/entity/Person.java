@@ -0,0 +1,92 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.benchmark.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@Entity
+public class Person {
+
+    private Long id;
+    private String name;
+    private long age;
+    private Person friend;
+    private Document partnerDocument;
+    private Set<Document> ownedDocuments = new HashSet<>();
+
+    public Person() {
+    }
+
+    public Person(String name, long age) {
+        this.name = name;
+        this.age = age;
+    }
+
+    @Id
+    @GeneratedValue
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getAge() {
+        return age;
+    }
+
+    public void setAge(long age) {
+        this.age = age;
+    }
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    public Person getFriend() {
+        return friend;
+    }
+
+    public void setFriend(Person friend) {
+        this.friend = friend;
+    }
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    public Document getPartnerDocument() {
+        return partnerDocument;
+    }
+
+    public void setPartnerDocument(Document partnerDocument) {
+        this.partnerDocument = partnerDocument;
+    }
+
+    @OneToMany(mappedBy = "owner")
+    public Set<Document> getOwnedDocuments() {
+        return ownedDocuments;
+    }
+
+    public void setOwnedDocuments(Set<Document> ownedDocuments) {
+        this.ownedDocuments = ownedDocuments;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.benchmark.PersistenceState;
+import com.blazebit.persistence.benchmark.entity.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the implicit join resolution of the {@link JoinManager} that happens when a query builder is prepared.
+ * This lives in the implementation package to be able to prepare a query builder without rendering it.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinManagerBenchmark {
+
+    static CriteriaBuilder<Tuple> createCriteriaBuilder(CriteriaBuilderFactory cbf, EntityManager em) {
+        return cbf.create(em, Tuple.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .select("d.owner.name")
+                .select("d.owner.friend.name")
+                .select("d.owner.partnerDocument.owner.friend.name")
+                .where("d.owner.friend.age").gt(10L)
+                .where("d.owner.partnerDocument.name").like().value("doc%").noEscape()
+                .orderByAsc("d.owner.partnerDocument.name")
+                .orderByAsc("d.id");
+    }
+
+    @Benchmark
+    public Object createAndResolve(PersistenceState persistence) {
+        AbstractCommonQueryBuilder<?, ?, ?, ?, ?> criteriaBuilder = (AbstractCommonQueryBuilder<?, ?, ?, ?, ?>) createCriteriaBuilder(persistence.cbf, persistence.em);
+        criteriaBuilder.prepareAndCheck(null);
+        return criteriaBuilder;
+    }
+
+    @Benchmark
+    public Object resolve(UnpreparedState state) {
+        state.criteriaBuilder.prepareAndCheck(null);
+        return state.criteriaBuilder;
+    }
+
+    /**
+     * Provides a new query builder for every invocation, so that only the preparation is measured.
+     *
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    @State(Scope.Thread)
+    public static class UnpreparedState {
+
+        AbstractCommonQueryBuilder<?, ?, ?, ?, ?> criteriaBuilder;
+
+        @Setup(Level.Invocation)
+        public void setUp(PersistenceState persistence) {
+            criteriaBuilder = (AbstractCommonQueryBuilder<?, ?, ?, ?, ?>) createCriteriaBuilder(persistence.cbf, persistence.em);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.benchmark.PersistenceState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rendering of a prepared query builder through the {@link ResolvingQueryGenerator}.
+ * This lives in the implementation package to be able to render a query builder without the query string caching.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryGeneratorBenchmark {
+
+    private AbstractCommonQueryBuilder<?, ?, ?, ?, ?> criteriaBuilder;
+
+    @Setup
+    public void setUp(PersistenceState persistence) {
+        criteriaBuilder = (AbstractCommonQueryBuilder<?, ?, ?, ?, ?>) JoinManagerBenchmark.createCriteriaBuilder(persistence.cbf, persistence.em);
+        criteriaBuilder.prepareAndCheck(null);
+    }
+
+    @Benchmark
+    public String renderQueryString() {
+        return criteriaBuilder.buildBaseQueryString(false);
+    }
+
+    @Benchmark
+    public String renderExternalQueryString() {
+        return criteriaBuilder.buildBaseQueryString(true);
+    }
+}
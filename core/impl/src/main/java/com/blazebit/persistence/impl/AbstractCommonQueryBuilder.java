@@ -71,6 +71,7 @@ import com.blazebit.persistence.parser.EntityMetamodel;
 import com.blazebit.persistence.parser.PathTargetResolvingExpressionVisitor;
 import com.blazebit.persistence.parser.expression.ArrayExpression;
 import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContextForQuery;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContextMap;
@@ -146,6 +147,7 @@ import java.util.Set;
 public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, SetReturn, SubquerySetReturn, FinalSetReturn extends BaseFinalSetOperationBuilderImpl<?, ?, ?>> implements ServiceProvider, ConfigurationSource {
 
     public static final String ID_PARAM_NAME = "ids";
+    private static final String QUERY_STRING_CACHE_NAME = "com.blazebit.persistence.impl.cache.QueryString";
 
     protected final MainQuery mainQuery;
     protected final QueryContext queryContext;
@@ -196,6 +198,9 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     protected boolean hasCollections = false;
     // Fetch owner's are evaluated during implicit joining
     protected Set<JoinNode> nodesToFetch;
+    // The fingerprint is computed from the unresolved state, so it is only available until the first modification after the first check
+    protected String queryShapeFingerprint;
+    private boolean queryShapeAnalyzed;
 
     private boolean checkSetBuilderEnded = true;
     private boolean implicitJoinsApplied = false;
@@ -2912,6 +2917,77 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return applyObjectBuilder(query);
     }
 
+    protected CompiledQueryImpl<QueryResultType> compileQuery() {
+        if (!isMainQuery || finalSetOperationBuilder != null || setOperationEnded) {
+            throw new IllegalStateException("Compiling set operation queries is not supported!");
+        }
+        if (parameterManager.getCriteriaNameMapping() != null) {
+            throw new IllegalStateException("Compiling queries that were created through the JPA Criteria API is not supported!");
+        }
+        String baseQueryString = getBaseQueryStringWithCheck(null, null);
+        if (needsSqlReplacement(getKeyRestrictedLeftJoins())) {
+            throw new IllegalStateException("Compiling queries that make use of CTEs, entity functions or other SQL level features is not supported!");
+        }
+        // Custom object builders can only be used if they can be copied for every execution without being bound to the query builder
+        SelectObjectBuilderFactory<QueryResultType> objectBuilderFactory = selectManager.getSelectObjectBuilderFactory();
+        if (objectBuilderFactory == null) {
+            throw new IllegalStateException("Compiling queries that use a custom object builder which is bound to the query builder is not supported!");
+        }
+
+        // Determine the parameters of the JPQL query once, so that executions only need to bind values
+        Set<String> queryParameterNames = new HashSet<>();
+        for (Parameter<?> p : em.createQuery(baseQueryString).getParameters()) {
+            queryParameterNames.add(p.getName() == null ? p.getPosition().toString() : p.getName());
+        }
+
+        Set<String> parameterNames = new HashSet<>(queryParameterNames);
+        Map<String, Object> defaultValues = new HashMap<>();
+        Map<String, ParameterValueTransformer> transformers = new HashMap<>();
+        Set<String> splitParameterNames = new HashSet<>();
+        Set<String> splitSubParameterNames = new HashSet<>();
+        for (ParameterManager.ParameterImpl<?> parameter : parameterManager.getParameterImpls()) {
+            String name = parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName();
+            ParameterValueTransformer transformer = parameter.getTransformer();
+            if (transformer instanceof SplittingParameterTransformer) {
+                splitSubParameterNames.addAll(Arrays.asList(((SplittingParameterTransformer) transformer).getParameterNames()));
+                parameterNames.add(name);
+                splitParameterNames.add(name);
+                transformers.put(name, transformer);
+                // The splitting transformer returns the original value, which is split again when binding the default value
+                if (parameter.isValueSet()) {
+                    defaultValues.put(name, parameter.getValue());
+                }
+            } else if (queryParameterNames.contains(name)) {
+                if (transformer != null) {
+                    transformers.put(name, transformer);
+                }
+                if (parameter.isValueSet()) {
+                    if (parameter.getParameterValue() == null) {
+                        defaultValues.put(name, parameter.getValue());
+                    } else {
+                        defaultValues.put(name, parameter.getParameterValue().copy());
+                    }
+                }
+            }
+        }
+        parameterNames.removeAll(splitSubParameterNames);
+        defaultValues.keySet().removeAll(splitSubParameterNames);
+
+        return new CompiledQueryImpl<>(
+                baseQueryString,
+                selectManager.getExpectedQueryResultType(),
+                objectBuilderFactory,
+                mainQuery.jpaProvider,
+                isCacheable(),
+                firstResult,
+                maxResults,
+                parameterNames,
+                defaultValues,
+                transformers,
+                splitParameterNames
+        );
+    }
+
     protected boolean needsSqlReplacement(Set<JoinNode> keyRestrictedLeftJoins) {
         return isMainQuery && mainQuery.cteManager.hasCtes() || joinManager.hasEntityFunctions() || !keyRestrictedLeftJoins.isEmpty() || !isMainQuery && hasLimit();
     }
@@ -3575,12 +3651,35 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             return buildLateralBaseQueryString(lateralSb, lateralJoinNode);
         }
         if (cachedQueryString == null) {
-            cachedQueryString = buildBaseQueryString(false);
+            if (queryShapeFingerprint == null) {
+                cachedQueryString = buildBaseQueryString(false);
+            } else {
+                cachedQueryString = getOrBuildCachedBaseQueryString(queryShapeFingerprint);
+            }
         }
 
         return cachedQueryString;
     }
 
+    private String getOrBuildCachedBaseQueryString(String fingerprint) {
+        ExpressionCache<String> cache = cbf.getQueryStringCache();
+        ExpressionCache.Key key = new ExpressionCache.Key(fingerprint, false, false, false);
+        String queryString = cache.get(QUERY_STRING_CACHE_NAME, key);
+        if (queryString == null) {
+            queryGenerator.setQueryStringCacheable(true);
+            queryString = buildBaseQueryString(false);
+            if (queryGenerator.isQueryStringCacheable()) {
+                cache.putIfAbsent(QUERY_STRING_CACHE_NAME, key, queryString);
+            }
+        }
+
+        return queryString;
+    }
+
+    protected boolean supportsQueryStringCache() {
+        return false;
+    }
+
     protected String getExternalQueryString() {
         if (cachedExternalQueryString == null) {
             cachedExternalQueryString = buildExternalQueryString();
@@ -3606,6 +3705,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         needsCheck = true;
         cachedQueryString = null;
         cachedExternalQueryString = null;
+        queryShapeFingerprint = null;
         cachedGroupByIdentifierExpressions = null;
         keyRestrictedLeftJoins = null;
         implicitJoinsApplied = false;
@@ -3659,6 +3759,12 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
 
         verifyBuilderEnded();
         prepareAndCheckCtes();
+        if (!queryShapeAnalyzed) {
+            queryShapeAnalyzed = true;
+            if (supportsQueryStringCache() && mainQuery.getQueryConfiguration().isQueryStringCacheEnabled()) {
+                queryShapeFingerprint = new QueryShapeFingerprintGenerator().generate(this);
+            }
+        }
         prepareSelect();
         // resolve unresolved aliases, object model etc.
         // we must do implicit joining at the end because we can only do
@@ -396,6 +396,13 @@ public abstract class BaseUpdateCriteriaBuilderImpl<T, X extends BaseUpdateCrite
                     aliasMapping.put(tableAlias + "." + idColumn, "tmp.c" + aliasMapping.size());
                 }
                 SqlUtils.buildAliasMappingForTopLevelSelects(extendedQuerySupport.getSql(em, baseQuery), "tmp", aliasMapping);
+                if (mainQuery.dbmsDialect.getUpdateJoinStyle() == UpdateJoinStyle.MERGE || mainQuery.dbmsDialect.getUpdateJoinStyle() == UpdateJoinStyle.REFERENCE) {
+                    // The set clause expressions are rendered into the group by and may refer to columns of joined tables,
+                    // so we also have to expose these columns through the derived table
+                    int groupByIndex = SqlUtils.indexOfGroupBy(sql, fromIndex);
+                    String setExpressionsSql = "select " + sql.substring(groupByIndex + SqlUtils.GROUP_BY.length()) + sql.substring(fromIndex, groupByIndex);
+                    SqlUtils.buildAliasMappingForTopLevelSelects(setExpressionsSql, "tmp", aliasMapping);
+                }
             }
         }
 
@@ -0,0 +1,162 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.CompiledQuery;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
+import com.blazebit.persistence.impl.query.ParameterTransformingTypedQuery;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.LockModeType;
+import javax.persistence.TypedQuery;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class CompiledQueryImpl<T> implements CompiledQuery<T> {
+
+    private final String queryString;
+    private final Class<?> queryResultType;
+    private final SelectObjectBuilderFactory<T> objectBuilderFactory;
+    private final JpaProvider jpaProvider;
+    private final boolean cacheable;
+    private final int firstResult;
+    private final int maxResults;
+    private final Set<String> parameterNames;
+    private final Map<String, Object> defaultValues;
+    private final Map<String, ParameterValueTransformer> transformers;
+    private final Set<String> splitParameterNames;
+    private final Map<String, Object> hints;
+    private final LockModeType lockMode;
+    private final FlushModeType flushMode;
+
+    public CompiledQueryImpl(String queryString, Class<?> queryResultType, SelectObjectBuilderFactory<T> objectBuilderFactory, JpaProvider jpaProvider, boolean cacheable, int firstResult, int maxResults,
+                             Set<String> parameterNames, Map<String, Object> defaultValues, Map<String, ParameterValueTransformer> transformers, Set<String> splitParameterNames) {
+        this(queryString, queryResultType, objectBuilderFactory, jpaProvider, cacheable, firstResult, maxResults, Collections.unmodifiableSet(parameterNames), Collections.unmodifiableMap(defaultValues),
+                Collections.unmodifiableMap(transformers), Collections.unmodifiableSet(splitParameterNames), Collections.<String, Object>emptyMap(), null, null);
+    }
+
+    private CompiledQueryImpl(String queryString, Class<?> queryResultType, SelectObjectBuilderFactory<T> objectBuilderFactory, JpaProvider jpaProvider, boolean cacheable, int firstResult, int maxResults,
+                              Set<String> parameterNames, Map<String, Object> defaultValues, Map<String, ParameterValueTransformer> transformers, Set<String> splitParameterNames,
+                              Map<String, Object> hints, LockModeType lockMode, FlushModeType flushMode) {
+        this.queryString = queryString;
+        this.queryResultType = queryResultType;
+        this.objectBuilderFactory = objectBuilderFactory;
+        this.jpaProvider = jpaProvider;
+        this.cacheable = cacheable;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        this.parameterNames = parameterNames;
+        this.defaultValues = defaultValues;
+        this.transformers = transformers;
+        this.splitParameterNames = splitParameterNames;
+        this.hints = hints;
+        this.lockMode = lockMode;
+        this.flushMode = flushMode;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    @Override
+    public CompiledQuery<T> withHint(String hintName, Object value) {
+        Map<String, Object> newHints = new LinkedHashMap<>(hints);
+        newHints.put(hintName, value);
+        return new CompiledQueryImpl<>(queryString, queryResultType, objectBuilderFactory, jpaProvider, cacheable, firstResult, maxResults, parameterNames, defaultValues,
+                transformers, splitParameterNames, Collections.unmodifiableMap(newHints), lockMode, flushMode);
+    }
+
+    @Override
+    public CompiledQuery<T> withLockMode(LockModeType lockMode) {
+        return new CompiledQueryImpl<>(queryString, queryResultType, objectBuilderFactory, jpaProvider, cacheable, firstResult, maxResults, parameterNames, defaultValues,
+                transformers, splitParameterNames, hints, lockMode, flushMode);
+    }
+
+    @Override
+    public CompiledQuery<T> withFlushMode(FlushModeType flushMode) {
+        return new CompiledQueryImpl<>(queryString, queryResultType, objectBuilderFactory, jpaProvider, cacheable, firstResult, maxResults, parameterNames, defaultValues,
+                transformers, splitParameterNames, hints, lockMode, flushMode);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public TypedQuery<T> createQuery(EntityManager entityManager) {
+        TypedQuery<Object> query = (TypedQuery<Object>) entityManager.createQuery(queryString, queryResultType);
+        if (firstResult != 0) {
+            query.setFirstResult(firstResult);
+        }
+        if (maxResults != Integer.MAX_VALUE) {
+            query.setMaxResults(maxResults);
+        }
+        if (cacheable) {
+            jpaProvider.setCacheable(query);
+        }
+        for (Map.Entry<String, Object> entry : hints.entrySet()) {
+            query.setHint(entry.getKey(), entry.getValue());
+        }
+        if (lockMode != null) {
+            query.setLockMode(lockMode);
+        }
+        if (flushMode != null) {
+            query.setFlushMode(flushMode);
+        }
+
+        // The default values were already transformed by the query builder
+        for (Map.Entry<String, Object> entry : defaultValues.entrySet()) {
+            String name = entry.getKey();
+            if (splitParameterNames.contains(name)) {
+                continue;
+            }
+            Object value = entry.getValue();
+            // Positional parameters are registered with their position as name
+            boolean positional = Character.isDigit(name.charAt(0));
+            if (value instanceof ParameterManager.ParameterValue) {
+                if (positional) {
+                    ((ParameterManager.ParameterValue) value).bind(query, Integer.parseInt(name));
+                } else {
+                    ((ParameterManager.ParameterValue) value).bind(query, name);
+                }
+            } else if (positional) {
+                query.setParameter(Integer.parseInt(name), value);
+            } else {
+                query.setParameter(name, value);
+            }
+        }
+
+        if (!transformers.isEmpty()) {
+            query = new ParameterTransformingTypedQuery<>(query, transformers, splitParameterNames);
+            // Split parameters keep the original value which is split into the actual query parameters by the transformer
+            for (String name : splitParameterNames) {
+                if (defaultValues.containsKey(name)) {
+                    query.setParameter(name, defaultValues.get(name));
+                }
+            }
+        }
+
+        // Object builders may hold state of an execution, so every query gets a new one
+        ObjectBuilder<T> objectBuilder = objectBuilderFactory.createObjectBuilder();
+        if (objectBuilder != null) {
+            return new ObjectBuilderTypedQuery<>(query, null, objectBuilder);
+        }
+        return (TypedQuery<T>) query;
+    }
+}
@@ -5,6 +5,8 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.CompiledQuery;
+import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.DeleteCriteriaBuilder;
@@ -13,6 +15,7 @@ import com.blazebit.persistence.LeafOngoingFinalSetOperationCriteriaBuilder;
 import com.blazebit.persistence.StartOngoingSetOperationCriteriaBuilder;
 import com.blazebit.persistence.UpdateCriteriaBuilder;
 import com.blazebit.persistence.parser.FunctionKind;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
 import com.blazebit.persistence.parser.expression.ExpressionCache;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
@@ -53,6 +56,7 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     private final Map<String, FunctionKind> functions;
     private final Map<Class<?>, String> namedTypes;
     private final ExpressionCache expressionCache;
+    private final ExpressionCache<String> queryStringCache;
     private final ExpressionFactory expressionFactory;
     private final ExpressionFactory subqueryExpressionFactory;
     private final QueryConfiguration queryConfiguration;
@@ -106,7 +110,8 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         this.namedTypes = resolveNamedTypes(config.getNamedTypes());
 
         ExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize);
-        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass());
+        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass(), config);
+        this.queryStringCache = createQueryStringCache(expressionCache, config);
         ExpressionFactory cachingExpressionFactory = new SimpleCachingExpressionFactory(originalExpressionFactory, expressionCache);
         ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize, originalExpressionFactory));
         this.macroConfiguration = MacroConfiguration.of(JpqlMacroAdapter.createMacros(config.getMacros(), cachingExpressionFactory));
@@ -115,14 +120,58 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         this.subqueryExpressionFactory = new JpqlMacroAwareExpressionFactory(cachingSubqueryExpressionFactory, macroStorage);
     }
 
-    private ExpressionCache createCache(String className) {
+    private ExpressionCache createCache(String className, CriteriaBuilderConfigurationImpl config) {
         try {
-            return (ExpressionCache) Class.forName(className).newInstance();
+            Class<?> cacheClass = Class.forName(className);
+            if (BoundedExpressionCache.class.isAssignableFrom(cacheClass)) {
+                return (ExpressionCache) cacheClass.getConstructor(int.class, Map.class).newInstance(getExpressionCacheMaximumSize(config), getExpressionCacheMaximumSizes(config));
+            }
+            return (ExpressionCache) cacheClass.newInstance();
         } catch (Exception ex) {
             throw new IllegalArgumentException("Could not instantiate expression cache: " + className, ex);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static ExpressionCache<String> createQueryStringCache(ExpressionCache<?> expressionCache, CriteriaBuilderConfigurationImpl config) {
+        // Query strings are only cached in a bounded cache as the number of query shapes is not bounded
+        if (expressionCache instanceof BoundedExpressionCache<?>) {
+            return (ExpressionCache<String>) expressionCache;
+        }
+        return new BoundedExpressionCache<>(getExpressionCacheMaximumSize(config), getExpressionCacheMaximumSizes(config));
+    }
+
+    private static int getExpressionCacheMaximumSize(CriteriaBuilderConfigurationImpl config) {
+        String value = config.getProperty(ConfigurationProperties.EXPRESSION_CACHE_MAXIMUM_SIZE);
+        if (value == null) {
+            return BoundedExpressionCache.DEFAULT_MAXIMUM_SIZE;
+        }
+        return parsePositiveInteger(ConfigurationProperties.EXPRESSION_CACHE_MAXIMUM_SIZE, value);
+    }
+
+    private static Map<String, Integer> getExpressionCacheMaximumSizes(CriteriaBuilderConfigurationImpl config) {
+        Map<String, Integer> maximumSizes = new HashMap<>();
+        String prefix = ConfigurationProperties.EXPRESSION_CACHE_MAXIMUM_SIZE + ".";
+        for (String propertyName : config.getProperties().stringPropertyNames()) {
+            if (propertyName.startsWith(prefix)) {
+                maximumSizes.put(propertyName.substring(prefix.length()), parsePositiveInteger(propertyName, config.getProperty(propertyName)));
+            }
+        }
+        return maximumSizes;
+    }
+
+    private static int parsePositiveInteger(String propertyName, String value) {
+        try {
+            int size = Integer.parseInt(value.trim());
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+        throw new IllegalArgumentException("Illegal value '" + value + "' for positive integer property '" + propertyName + "'");
+    }
+
     private static Map<String, FunctionKind> resolveFunctions(Map<String, JpqlFunctionGroup> functions, Map<String, JpqlFunction> configuredFunctions) {
         Map<String, FunctionKind> map = new HashMap<>();
         for (Map.Entry<String, JpqlFunctionGroup> entry : functions.entrySet()) {
@@ -213,6 +262,10 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return expressionCache;
     }
 
+    public ExpressionCache<String> getQueryStringCache() {
+        return queryStringCache;
+    }
+
     public ExpressionFactory getExpressionFactory() {
         return expressionFactory;
     }
@@ -274,6 +327,14 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return cb;
     }
 
+    @Override
+    public <T> CompiledQuery<T> compile(CriteriaBuilder<T> criteriaBuilder) {
+        if (!(criteriaBuilder instanceof CriteriaBuilderImpl<?>) || ((CriteriaBuilderImpl<T>) criteriaBuilder).cbf != this) {
+            throw new IllegalArgumentException("The given criteria builder was not created by this criteria builder factory: " + criteriaBuilder);
+        }
+        return ((CriteriaBuilderImpl<T>) criteriaBuilder).compileQuery();
+    }
+
     @Override
     public <T> DeleteCriteriaBuilder<T> delete(EntityManager entityManager, Class<T> deleteClass) {
         return delete(entityManager, deleteClass, null);
@@ -40,6 +40,11 @@ public class CriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T, Criteria
         cachedExternalQueryRootCountQueryString = null;
     }
 
+    @Override
+    protected boolean supportsQueryStringCache() {
+        return isMainQuery && finalSetOperationBuilder == null && !setOperationEnded;
+    }
+
     @Override
     public TypedQuery<Long> getQueryRootCountQuery() {
         prepareAndCheck(null);
@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Estimates the result of a count query through the query planner of the DBMS.
+ * The estimate statement is executed through {@link ExtendedQuerySupport#getNativeResultList(EntityManager, Query, String)},
+ * which binds the JDBC parameter values of the count query in the order of the SQL and protects a surrounding transaction from a failing estimate.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class EstimatedCountQuery {
+
+    private static final Logger LOG = Logger.getLogger(EstimatedCountQuery.class.getName());
+
+    private final EntityManager em;
+    private final ExtendedQuerySupport extendedQuerySupport;
+    private final DbmsDialect dbmsDialect;
+    private final long exactCountThreshold;
+
+    public EstimatedCountQuery(EntityManager em, ExtendedQuerySupport extendedQuerySupport, DbmsDialect dbmsDialect, long exactCountThreshold) {
+        this.em = em;
+        this.extendedQuerySupport = extendedQuerySupport;
+        this.dbmsDialect = dbmsDialect;
+        this.exactCountThreshold = exactCountThreshold;
+    }
+
+    /**
+     * Returns the estimated count for the given count query if it is at least the exact count threshold, otherwise <code>null</code>.
+     *
+     * @param countQuery The count query
+     * @return The estimated count or <code>null</code> if the exact count query should be executed
+     */
+    public Long estimate(Query countQuery) {
+        String sql = extendedQuerySupport.getSql(em, countQuery);
+        String estimateSql = dbmsDialect.getEstimatedRowCountSql(sql);
+        if (estimateSql == null) {
+            return null;
+        }
+        List<Object> resultRows;
+        try {
+            resultRows = extendedQuerySupport.getNativeResultList(em, countQuery, estimateSql);
+        } catch (PersistenceException ex) {
+            // The estimate is only an optimization, so we fall back to the exact count
+            LOG.log(Level.FINE, "Could not estimate the row count of the following SQL query: " + sql, ex);
+            return null;
+        }
+        if (resultRows == null) {
+            return null;
+        }
+        long estimate = dbmsDialect.extractEstimatedRowCount(resultRows);
+        if (estimate < exactCountThreshold) {
+            return null;
+        }
+        return estimate;
+    }
+}
@@ -183,6 +183,13 @@ public class GroupByManager extends AbstractManager<ExpressionModifier> {
         }
     }
 
+    void buildQueryShape(StringBuilder sb, Visitor v) {
+        for (NodeInfo groupBy : groupByInfos) {
+            sb.append(", ");
+            groupBy.getExpression().accept(v);
+        }
+    }
+
     public boolean hasGroupBys() {
         return groupByInfos.size() > 0;
     }
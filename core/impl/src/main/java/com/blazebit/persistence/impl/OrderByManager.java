@@ -316,6 +316,18 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
         }
     }
 
+    void buildQueryShape(StringBuilder sb, Expression.Visitor v) {
+        List<OrderByInfo> infos = orderByInfos;
+        int size = infos.size();
+        for (int i = 0; i < size; i++) {
+            final OrderByInfo orderByInfo = infos.get(i);
+            sb.append(", ");
+            orderByInfo.getExpression().accept(v);
+            sb.append(orderByInfo.ascending ? " ASC" : " DESC");
+            sb.append(orderByInfo.nullFirst ? " NULLS FIRST" : " NULLS LAST");
+        }
+    }
+
     <X> X acceptVisitor(Expression.ResultVisitor<X> v, X stopValue) {
         List<OrderByInfo> infos = orderByInfos;
         int size = infos.size();
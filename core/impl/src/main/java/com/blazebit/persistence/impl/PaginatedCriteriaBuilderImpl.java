@@ -7,10 +7,13 @@ package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.CaseWhenStarterBuilder;
 import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CountCache;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.HavingOrBuilder;
 import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.KeysetIndex;
+import com.blazebit.persistence.KeysetIndexCache;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.MultipleSubqueryInitiator;
 import com.blazebit.persistence.ObjectBuilder;
@@ -43,6 +46,7 @@ import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.impl.query.QuerySpecification;
 import com.blazebit.persistence.impl.query.TypedQueryWrapper;
 import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import com.blazebit.persistence.parser.expression.FunctionExpression;
 import com.blazebit.persistence.parser.expression.NumericLiteral;
 import com.blazebit.persistence.parser.expression.NumericType;
@@ -57,6 +61,7 @@ import com.blazebit.persistence.spi.AttributeAccessor;
 
 import javax.persistence.Parameter;
 import javax.persistence.TypedQuery;
+import java.io.Serializable;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -64,9 +69,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  *
@@ -88,6 +97,11 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private boolean withInlineCountQuery;
     private long maximumCount = Long.MAX_VALUE;
     private int highestOffset = 0;
+    private CountCache countCache;
+    private Executor countQueryExecutor;
+    private long estimatedCountThreshold = Long.MAX_VALUE;
+    private KeysetIndexCache keysetIndexCache;
+    private int keysetIndexInterval;
     private final KeysetPage keysetPage;
     private final ResolvedExpression[] identifierExpressions;
 
@@ -98,6 +112,8 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private String[] identifierToUseSelectAliases;
     private KeysetMode keysetMode;
     private boolean forceFirstResult;
+    private boolean keysetIndexSeek;
+    private int keysetOffset;
 
     // Cache
     private String cachedIdQueryString;
@@ -160,6 +176,10 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         builder.withCountQuery(withCountQuery);
         builder.withForceIdQuery(withForceIdQuery);
         builder.withHighestKeysetOffset(highestOffset);
+        builder.withCountCache(countCache);
+        builder.withCountQueryExecutor(countQueryExecutor);
+        builder.withEstimatedCount(estimatedCountThreshold);
+        builder.withKeysetIndex(keysetIndexCache, keysetIndexInterval);
         return builder;
     }
 
@@ -239,6 +259,9 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     private void updateKeysetMode() {
         KeysetMode oldMode = this.keysetMode;
+        boolean wasKeysetIndexSeek = this.keysetIndexSeek;
+        this.keysetIndexSeek = false;
+        this.keysetOffset = 0;
         this.keysetMode = KeysetPaginationHelper.getKeysetMode(keysetPage, entityId, firstResult, maxResults);
         if (keysetMode == KeysetMode.NONE) {
             this.keysetManager.setKeysetLink(null);
@@ -248,7 +271,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             this.keysetManager.setKeysetLink(new SimpleKeysetLink(keysetPage.getLowest(), keysetMode));
         }
 
-        if (keysetMode != oldMode) {
+        if (keysetMode != oldMode || wasKeysetIndexSeek) {
             prepareForModification(ClauseType.WHERE);
         }
     }
@@ -387,6 +410,235 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return this;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withCountCache(CountCache countCache) {
+        if (countCache != null && withInlineCountQuery) {
+            // The inlined count is computed by the object query, so it could never be skipped
+            withInlineCountQuery(false);
+        }
+        this.countCache = countCache;
+        return this;
+    }
+
+    @Override
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withCountQueryExecutor(Executor countQueryExecutor) {
+        if (countQueryExecutor != null && withInlineCountQuery) {
+            // The inlined count is computed by the object query, so it can't run concurrently
+            withInlineCountQuery(false);
+        }
+        this.countQueryExecutor = countQueryExecutor;
+        return this;
+    }
+
+    @Override
+    public Executor getCountQueryExecutor() {
+        return countQueryExecutor;
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withEstimatedCount(long exactCountThreshold) {
+        if (exactCountThreshold < 0) {
+            throw new IllegalArgumentException("Invalid negative exact count threshold: " + exactCountThreshold);
+        }
+        if (exactCountThreshold != Long.MAX_VALUE && withInlineCountQuery) {
+            // The inlined count is computed by the object query, so it could never be replaced by an estimate
+            withInlineCountQuery(false);
+        }
+        this.estimatedCountThreshold = exactCountThreshold;
+        return this;
+    }
+
+    @Override
+    public long getEstimatedCountThreshold() {
+        return estimatedCountThreshold;
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withKeysetIndex(KeysetIndexCache keysetIndexCache, int interval) {
+        if (keysetIndexCache != null && interval <= 0) {
+            throw new IllegalArgumentException("Invalid non-positive keyset index interval: " + interval);
+        }
+        this.keysetIndexCache = keysetIndexCache;
+        this.keysetIndexInterval = interval;
+        return this;
+    }
+
+    @Override
+    public KeysetIndexCache getKeysetIndexCache() {
+        return keysetIndexCache;
+    }
+
+    @Override
+    public int getKeysetIndexInterval() {
+        return keysetIndexInterval;
+    }
+
+    @Override
+    public String getKeysetIndexQueryString() {
+        Map<String, String> parameterNameMapping = new HashMap<>();
+        CriteriaBuilderImpl<Object[]> keysetIndexQueryBuilder = createKeysetIndexQuery(parameterNameMapping);
+        return getKeysetIndexQueryString(keysetIndexQueryBuilder, parameterNameMapping);
+    }
+
+    private CriteriaBuilderImpl<Object[]> createKeysetIndexQuery(Map<String, String> parameterNameMapping) {
+        prepareAndCheck(null);
+        MainQuery mainQuery = cbf.createMainQuery(getEntityManager());
+        mainQuery.copyConfiguration(this.mainQuery.getQueryConfiguration());
+        CriteriaBuilderImpl<Object[]> newBuilder = new CriteriaBuilderImpl<>(mainQuery, true, Object[].class, null);
+        newBuilder.fromClassExplicitlySet = true;
+        ExpressionCopyContext expressionCopyContext = newBuilder.applyFrom(this, true, false, false, false, ID_QUERY_GROUP_BY_CLAUSE_EXCLUSIONS, getIdentifierExpressionsToUseNonRootJoinNodes(), new IdentityHashMap<JoinManager, JoinManager>(), ExpressionCopyContext.EMPTY);
+        newBuilder.setFirstResult(0);
+        newBuilder.setMaxResults(Integer.MAX_VALUE);
+        // Copying renames implicit parameters depending on all registered parameters, so remember the original names for a stable cache key
+        for (ParameterManager.ParameterImpl<?> parameter : parameterManager.getParameterImpls()) {
+            String parameterName = parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName();
+            parameterNameMapping.put(expressionCopyContext.getNewParameterName(parameterName), parameterName);
+        }
+
+        // The index query selects just the keyset, i.e. the resolved order by items, in the order of the paginated query
+        List<OrderByExpression> orderByExpressions = orderByManager.getOrderByExpressions(false, whereManager.rootPredicate.getPredicate(), hasGroupBy ? Arrays.asList(getIdentifierExpressions()) : Collections.<ResolvedExpression>emptyList(), null);
+        for (OrderByExpression orderByExpression : orderByExpressions) {
+            newBuilder.selectManager.select(orderByExpression.getExpression().copy(expressionCopyContext), null);
+            newBuilder.orderByManager.orderBy(orderByExpression.getExpression().copy(expressionCopyContext), orderByExpression.isAscending(), orderByExpression.isNullFirst());
+        }
+        if (hasCollections && !hasGroupBy) {
+            // Since the last order by item is unique, distinct keysets correspond to distinct rows of the paginated query
+            newBuilder.distinct();
+        }
+        return newBuilder;
+    }
+
+    private static String getKeysetIndexQueryString(CriteriaBuilderImpl<Object[]> keysetIndexQueryBuilder, Map<String, String> parameterNameMapping) {
+        String queryString = keysetIndexQueryBuilder.getQueryString();
+        StringBuilder sb = new StringBuilder(queryString.length());
+        int length = queryString.length();
+        boolean quoted = false;
+        for (int i = 0; i < length; i++) {
+            char c = queryString.charAt(i);
+            sb.append(c);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && (c == ':' || c == '?')) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(queryString.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1) {
+                    String parameterName = queryString.substring(i + 1, end);
+                    String originalParameterName = parameterNameMapping.get(parameterName);
+                    sb.append(originalParameterName == null ? parameterName : originalParameterName);
+                    i = end - 1;
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private Map<String, Object> getKeysetIndexParameterValues(TypedQuery<Object[]> keysetIndexQuery, Map<String, String> parameterNameMapping) {
+        Set<Parameter<?>> parameters = keysetIndexQuery.getParameters();
+        Map<String, Object> parameterValues = new HashMap<>(parameters.size());
+        for (Parameter<?> parameter : parameters) {
+            if (keysetIndexQuery.isBound(parameter)) {
+                String name = parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName();
+                String originalName = parameterNameMapping.get(name);
+                parameterValues.put(originalName == null ? name : originalName, keysetIndexQuery.getParameterValue(parameter));
+            }
+        }
+        return parameterValues;
+    }
+
+    private KeysetIndex getCachedKeysetIndex() {
+        Map<String, String> parameterNameMapping = new HashMap<>();
+        CriteriaBuilderImpl<Object[]> keysetIndexQueryBuilder = createKeysetIndexQuery(parameterNameMapping);
+        String keysetIndexQueryString = getKeysetIndexQueryString(keysetIndexQueryBuilder, parameterNameMapping);
+        Map<String, Object> parameterValues = getKeysetIndexParameterValues(keysetIndexQueryBuilder.getQuery(), parameterNameMapping);
+        return keysetIndexCache.getKeysetIndex(keysetIndexQueryString, parameterValues);
+    }
+
+    @Override
+    public KeysetIndex buildKeysetIndex() {
+        if (keysetIndexCache == null) {
+            throw new IllegalStateException("No keyset index cache configured! Use withKeysetIndex to configure one.");
+        }
+        Map<String, String> parameterNameMapping = new HashMap<>();
+        CriteriaBuilderImpl<Object[]> keysetIndexQueryBuilder = createKeysetIndexQuery(parameterNameMapping);
+        String keysetIndexQueryString = getKeysetIndexQueryString(keysetIndexQueryBuilder, parameterNameMapping);
+        TypedQuery<Object[]> keysetIndexQuery = keysetIndexQueryBuilder.getQuery();
+        Map<String, Object> parameterValues = getKeysetIndexParameterValues(keysetIndexQuery, parameterNameMapping);
+
+        List<Serializable[]> boundaries = new ArrayList<>();
+        int position = 0;
+        // Stream the keysets so that only the sampled boundaries are retained
+        Stream<Object[]> stream = keysetIndexQuery.getResultStream();
+        try {
+            Iterator<?> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Object row = iterator.next();
+                if (++position % keysetIndexInterval == 0) {
+                    Object[] tuple = row instanceof Object[] ? (Object[]) row : new Object[]{ row };
+                    Serializable[] keyset = new Serializable[tuple.length];
+                    for (int i = 0; i < tuple.length; i++) {
+                        if (tuple[i] != null && !(tuple[i] instanceof Serializable)) {
+                            throw new IllegalStateException("Can't build a keyset index because the value of the order by item '"
+                                    + keysetIndexQueryBuilder.selectManager.getSelectInfos().get(i).getExpression() + "' of type " + tuple[i].getClass().getName() + " is not serializable!");
+                        }
+                        keyset[i] = (Serializable) tuple[i];
+                    }
+                    boundaries.add(keyset);
+                }
+            }
+        } finally {
+            stream.close();
+        }
+        KeysetIndex keysetIndex = new KeysetIndex(keysetIndexInterval, boundaries.toArray(new Serializable[boundaries.size()][]));
+        keysetIndexCache.putKeysetIndex(keysetIndexQueryString, parameterValues, keysetIndex);
+        return keysetIndex;
+    }
+
+    private void applyKeysetIndex() {
+        if (keysetIndexCache == null || forceFirstResult) {
+            return;
+        }
+        KeysetMode keysetMode = keysetIndexSeek ? KeysetPaginationHelper.getKeysetMode(keysetPage, entityId, firstResult, maxResults) : this.keysetMode;
+        Keyset seekKeyset = null;
+        int seekOffset = 0;
+        // Prefer the keyset of an adjacent page and only seek when offset pagination would skip at least one interval
+        if (keysetMode == KeysetMode.NONE && entityId == null && maximumCount == Long.MAX_VALUE && firstResult >= keysetIndexInterval) {
+            // Only a previously built index is used, building it has to be triggered explicitly through buildKeysetIndex()
+            KeysetIndex keysetIndex = getCachedKeysetIndex();
+            if (keysetIndex != null) {
+                seekKeyset = keysetIndex.getSeekKeyset(firstResult);
+                seekOffset = firstResult - keysetIndex.getSeekPosition(firstResult);
+            }
+        }
+        if (keysetIndexSeek) {
+            if (seekKeyset != null && keysetOffset == seekOffset && Arrays.equals(seekKeyset.getTuple(), keysetManager.getKeysetLink().getKeyset().getTuple())) {
+                return;
+            }
+            updateKeysetMode();
+        }
+        if (seekKeyset == null) {
+            return;
+        }
+        this.keysetMode = KeysetMode.NEXT;
+        this.keysetIndexSeek = true;
+        this.keysetOffset = seekOffset;
+        this.keysetManager.setKeysetLink(new SimpleKeysetLink(seekKeyset, keysetMode));
+        prepareForModification(ClauseType.WHERE);
+    }
+
+    private int getQueryOffset() {
+        if (keysetMode == KeysetMode.NONE || keysetManager.getKeysetLink().getKeyset().getTuple() == null) {
+            return firstResult;
+        }
+        return keysetOffset;
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> setProperty(String propertyName, String propertyValue) {
         super.setProperty(propertyName, propertyValue);
@@ -507,6 +759,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     @Override
     public PaginatedTypedQueryImpl<T> getQuery() {
+        applyKeysetIndex();
         prepareAndCheck(null);
         // We can only use the query directly if we have no ctes, entity functions or hibernate bugs
         Set<JoinNode> keyRestrictedLeftJoins = getKeyRestrictedLeftJoins();
@@ -571,6 +824,14 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             objectBuilder = entry.getValue();
             inlinedIdQuery = isWithInlineIdQuery() && (hasCollections || withForceIdQuery);
         }
+        // Only a count query that is a plain JPQL query can be recreated on a different entity manager
+        boolean plainCountQuery = entityId == null && maximumCount == Long.MAX_VALUE && normalQueryMode
+                && isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS) && parameterManager.getCriteriaNameMapping() == null;
+        boolean concurrentCountQuery = countQueryExecutor != null && plainCountQuery;
+        EstimatedCountQuery estimatedCountQuery = null;
+        if (estimatedCountThreshold != Long.MAX_VALUE && plainCountQuery && mainQuery.cbf.getExtendedQuerySupport() != null && mainQuery.cbf.getExtendedQuerySupport().supportsAdvancedSql()) {
+            estimatedCountQuery = new EstimatedCountQuery(em, mainQuery.cbf.getExtendedQuerySupport(), mainQuery.dbmsDialect, estimatedCountThreshold);
+        }
         PaginatedTypedQueryImpl<T> query = new PaginatedTypedQueryImpl<>(
                 withExtractAllKeysets,
                 firstResult < maximumCount && withCountQuery,
@@ -589,10 +850,16 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 needsNewIdList,
                 keysetToSelectIndexMapping,
                 keysetMode,
-                keysetPage,
+                keysetIndexSeek ? null : keysetPage,
+                keysetOffset,
                 forceFirstResult,
                 inlinedIdQuery,
-                inlinedCountQuery
+                inlinedCountQuery,
+                countCache,
+                countQueryString,
+                concurrentCountQuery ? countQueryExecutor : null,
+                concurrentCountQuery ? em.getEntityManagerFactory() : null,
+                estimatedCountQuery
         );
         return query;
     }
@@ -643,6 +910,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     @Override
     public String getPageIdQueryString() {
+        applyKeysetIndex();
         prepareAndCheck(null);
         return getExternalPageIdQueryString();
     }
@@ -665,6 +933,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     @Override
     public String getQueryString() {
+        applyKeysetIndex();
         prepareAndCheck(null);
         return getExternalQueryString();
     }
@@ -1247,9 +1516,10 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             sbSelectFrom.append(" LIMIT ");
             sbSelectFrom.append(maxResults);
 
-            if (firstResult != 0 && (keysetMode == KeysetMode.NONE || keysetManager.getKeysetLink().getKeyset().getTuple() == null)) {
+            int offset = getQueryOffset();
+            if (offset != 0) {
                 sbSelectFrom.append(" OFFSET ");
-                sbSelectFrom.append(firstResult);
+                sbSelectFrom.append(offset);
             }
         }
     }
@@ -1517,8 +1787,9 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                     sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(LimitFunction.FUNCTION_NAME, 1));
                     appendPageIdQueryAsSubquery(sbSelectFrom, externalRepresentation);
                     sbSelectFrom.append(',').append(maxResults);
-                    if (firstResult != 0 && (keysetMode == KeysetMode.NONE || keysetManager.getKeysetLink().getKeyset().getTuple() == null)) {
-                        sbSelectFrom.append(',').append(firstResult);
+                    int offset = getQueryOffset();
+                    if (offset != 0) {
+                        sbSelectFrom.append(',').append(offset);
                     }
                     sbSelectFrom.append(')');
                 }
@@ -1553,8 +1824,9 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                     sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(LimitFunction.FUNCTION_NAME, 1));
                     appendPageIdQueryAsSubquery(sbSelectFrom, externalRepresentation);
                     sbSelectFrom.append(',').append(maxResults);
-                    if (firstResult != 0 && (keysetMode == KeysetMode.NONE || keysetManager.getKeysetLink().getKeyset().getTuple() == null)) {
-                        sbSelectFrom.append(',').append(firstResult);
+                    int offset = getQueryOffset();
+                    if (offset != 0) {
+                        sbSelectFrom.append(',').append(offset);
                     }
                     sbSelectFrom.append(')');
                 }
@@ -5,6 +5,9 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.CountCache;
+import com.blazebit.persistence.DefaultKeyset;
+import com.blazebit.persistence.Keyset;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.PagedArrayList;
@@ -15,8 +18,11 @@ import com.blazebit.persistence.impl.builder.object.KeysetExtractionObjectBuilde
 import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.DefaultKeysetPage;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
+import com.blazebit.persistence.impl.keyset.TupleKeyset;
 import com.blazebit.persistence.impl.util.SetView;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
 import javax.persistence.NoResultException;
@@ -39,6 +45,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Christian Beikov
@@ -67,12 +78,20 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     private final int keysetSuffix;
     private final KeysetMode keysetMode;
     private final KeysetPage keysetPage;
+    private final int keysetOffset;
     private final boolean forceFirstResult;
     private final boolean inlinedIdQuery;
     private final boolean inlinedCountQuery;
+    private final CountCache countCache;
+    private final String countQueryString;
+    private final Executor countQueryExecutor;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EstimatedCountQuery estimatedCountQuery;
 
     public PaginatedTypedQueryImpl(boolean withExtractAllKeysets, boolean withCount, boolean boundedCount, int highestOffset, TypedQuery<?> countQuery, TypedQuery<?> idQuery, TypedQuery<X> objectQuery, ObjectBuilder<X> objectBuilder, Collection<ParameterManager.ParameterImpl<?>> parameters, Map<ParameterExpression<?>, String> criteriaNameMapping,
-                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery) {
+                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, int keysetOffset, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery,
+                                   CountCache countCache, String countQueryString, Executor countQueryExecutor, EntityManagerFactory entityManagerFactory,
+                                   EstimatedCountQuery estimatedCountQuery) {
         this.withExtractAllKeysets = withExtractAllKeysets;
         this.withCount = withCount;
         this.boundedCount = boundedCount;
@@ -90,9 +109,15 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         this.keysetToSelectIndexMapping = keysetToSelectIndexMapping;
         this.keysetMode = keysetMode;
         this.keysetPage = keysetPage;
+        this.keysetOffset = keysetOffset;
         this.forceFirstResult = forceFirstResult;
         this.inlinedIdQuery = inlinedIdQuery;
         this.inlinedCountQuery = inlinedCountQuery;
+        this.countCache = countCache;
+        this.countQueryString = countQueryString;
+        this.countQueryExecutor = countQueryExecutor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.estimatedCountQuery = estimatedCountQuery;
         this.criteriaNameMapping = criteriaNameMapping;
 
         Map<String, Parameter<?>> params = new HashMap<>(parameters.size());
@@ -165,14 +190,88 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
     @Override
     public long getTotalCount() {
-        return ((Number) countQuery.getSingleResult()).longValue();
+        if (countCache == null) {
+            return ((Number) countQuery.getSingleResult()).longValue();
+        }
+        Map<String, Object> parameterValues = getCountQueryParameterValues();
+        Long count = countCache.getCount(countQueryString, parameterValues);
+        if (count == null) {
+            return getExactCount(parameterValues);
+        }
+        return count;
+    }
+
+    private long getExactCount(Map<String, Object> parameterValues) {
+        long count = ((Number) countQuery.getSingleResult()).longValue();
+        if (countCache != null) {
+            countCache.putCount(countQueryString, parameterValues, count);
+        }
+        return count;
+    }
+
+    private FutureTask<Long> submitCountQuery(final Map<String, Object> parameterValues) {
+        FutureTask<Long> countTask = new FutureTask<>(new Callable<Long>() {
+            @Override
+            public Long call() {
+                EntityManager entityManager = entityManagerFactory.createEntityManager();
+                try {
+                    TypedQuery<Long> query = entityManager.createQuery(countQueryString, Long.class);
+                    for (Map.Entry<String, Object> entry : parameterValues.entrySet()) {
+                        String name = entry.getKey();
+                        // Positional parameters are registered with their position as name
+                        if (Character.isDigit(name.charAt(0))) {
+                            query.setParameter(Integer.parseInt(name), entry.getValue());
+                        } else {
+                            query.setParameter(name, entry.getValue());
+                        }
+                    }
+                    return ((Number) query.getSingleResult()).longValue();
+                } finally {
+                    entityManager.close();
+                }
+            }
+        });
+        try {
+            countQueryExecutor.execute(countTask);
+        } catch (RejectedExecutionException ex) {
+            countTask.run();
+        }
+        return countTask;
+    }
+
+    private static long awaitCount(FutureTask<Long> countTask) {
+        try {
+            return countTask.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while waiting for the count query", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PersistenceException("The count query failed", cause);
+        }
+    }
+
+    private Map<String, Object> getCountQueryParameterValues() {
+        Set<Parameter<?>> countParameters = countQuery.getParameters();
+        Map<String, Object> parameterValues = new HashMap<>(countParameters.size());
+        for (Parameter<?> parameter : countParameters) {
+            if (countQuery.isBound(parameter)) {
+                parameterValues.put(getParameterName(parameter), countQuery.getParameterValue(parameter));
+            }
+        }
+        return parameterValues;
     }
 
     @Override
     public List<X> getPageResultList() {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
-        return getResultList(queryFirstResult, firstRow, -1L);
+        return getResultList(queryFirstResult, firstRow, -1L, false);
     }
 
     @Override
@@ -181,9 +280,26 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
         long totalSize = -1L;
+        Map<String, Object> countParameterValues = null;
+        FutureTask<Long> countTask = null;
         if (withCount && !inlinedCountQuery) {
             if (entityId == null) {
-                totalSize = ((Number) countQuery.getSingleResult()).longValue();
+                if (countQueryExecutor == null && estimatedCountQuery == null) {
+                    totalSize = getTotalCount();
+                } else {
+                    countParameterValues = getCountQueryParameterValues();
+                    Long count = countCache == null ? null : countCache.getCount(countQueryString, countParameterValues);
+                    if (count == null && estimatedCountQuery != null) {
+                        count = estimatedCountQuery.estimate(countQuery);
+                    }
+                    if (count != null) {
+                        totalSize = count;
+                    } else if (countQueryExecutor == null) {
+                        totalSize = getExactCount(countParameterValues);
+                    } else {
+                        countTask = submitCountQuery(countParameterValues);
+                    }
+                }
             } else {
                 Object[] result = (Object[]) countQuery.getSingleResult();
                 totalSize = ((Number) result[0]).longValue();
@@ -204,17 +320,33 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
             return new PagedArrayList<X>(null, totalSize, queryFirstResult, pageSize);
         }
 
-        return getResultList(queryFirstResult, firstRow, totalSize);
+        if (countTask == null) {
+            return getResultList(queryFirstResult, firstRow, totalSize, false);
+        }
+
+        PagedList<X> pagedList;
+        try {
+            pagedList = getResultList(queryFirstResult, firstRow, totalSize, true);
+        } catch (RuntimeException ex) {
+            countTask.cancel(false);
+            throw ex;
+        }
+        long count = awaitCount(countTask);
+        if (countCache != null) {
+            countCache.putCount(countQueryString, countParameterValues, count);
+        }
+        // The page was built without the count, so it only contains the lower bound for the total size derived from the page
+        return new PagedArrayList<X>(pagedList, pagedList.getKeysetPage(), Math.max(count, pagedList.getTotalSize()), queryFirstResult, pageSize);
     }
 
-    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize) {
+    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize, boolean countPending) {
         if (idQuery != null) {
             idQuery.setMaxResults(pageSize);
 
             if (forceFirstResult || keysetMode == KeysetMode.NONE) {
                 idQuery.setFirstResult(firstRow);
             } else {
-                idQuery.setFirstResult(0);
+                idQuery.setFirstResult(keysetOffset);
             }
 
             List<?> ids = idQuery.getResultList();
@@ -226,7 +358,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     newKeysetPage = keysetPage;
                 }
                 long size;
-                if (withCount && totalSize == -1) {
+                if (withCount && totalSize == -1 && !countPending) {
                     size = getTotalCount();
                 } else {
                     size = totalSize;
@@ -241,9 +373,9 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 return new PagedArrayList<X>(newKeysetPage, size, queryFirstResult, pageSize);
             }
 
-            Serializable[] lowest = null;
-            Serializable[] highest = null;
-            Serializable[][] keysets = null;
+            Keyset lowest = null;
+            Keyset highest = null;
+            List<Keyset> keysets = null;
 
             if (needsNewIdList) {
                 if (keysetToSelectIndexMapping != null) {
@@ -260,41 +392,34 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                         highestIndex = size - 1;
                     }
                     if (ids.get(0) instanceof Object[]) {
+                        int[] keysetPositions = KeysetPaginationHelper.getKeysetPositions(keysetToSelectIndexMapping, ((Object[]) ids.get(0)).length, keysetSuffix);
                         if (withExtractAllKeysets) {
-                            keysets = new Serializable[size][];
+                            keysets = new ArrayList<>(size);
                             for (int i = 0; i < size; i++) {
-                                keysets[i] = KeysetPaginationHelper.extractKey((Object[]) ids.get(i), keysetToSelectIndexMapping, keysetSuffix);
+                                keysets.add(new TupleKeyset((Object[]) ids.get(i), keysetPositions));
                             }
-                            lowest = keysets[lowestIndex];
-                            highest = keysets[highestIndex];
-                        } else {
-                            lowest = KeysetPaginationHelper.extractKey((Object[]) ids.get(lowestIndex), keysetToSelectIndexMapping, keysetSuffix);
-                            highest = KeysetPaginationHelper.extractKey((Object[]) ids.get(highestIndex), keysetToSelectIndexMapping, keysetSuffix);
                         }
+                        // The lowest and highest keysets are retained as reference point for the next page, so don't reference the result row
+                        lowest = new TupleKeyset((Object[]) ids.get(lowestIndex), keysetPositions).copy();
+                        highest = new TupleKeyset((Object[]) ids.get(highestIndex), keysetPositions).copy();
                     } else {
                         if (withExtractAllKeysets) {
-                            keysets = new Serializable[size][];
+                            keysets = new ArrayList<>(size);
                             for (int i = 0; i < size; i++) {
-                                keysets[i] = new Serializable[]{ (Serializable) (ids.get(i)) };
+                                keysets.add(new DefaultKeyset(new Serializable[]{ (Serializable) (ids.get(i)) }));
                             }
-                            lowest = keysets[lowestIndex];
-                            highest = keysets[highestIndex];
+                            lowest = keysets.get(lowestIndex);
+                            highest = keysets.get(highestIndex);
                         } else {
-                            lowest = new Serializable[]{ (Serializable) ids.get(lowestIndex) };
-                            highest = new Serializable[]{ (Serializable) ids.get(highestIndex) };
+                            lowest = new DefaultKeyset(new Serializable[]{ (Serializable) ids.get(lowestIndex) });
+                            highest = new DefaultKeyset(new Serializable[]{ (Serializable) ids.get(highestIndex) });
                         }
                     }
 
                     // Swap keysets as we have inverse ordering when going to the previous page
                     if (keysetMode == KeysetMode.PREVIOUS) {
                         if (withExtractAllKeysets) {
-                            // Reverse the keysets
-                            Serializable[] tmp;
-                            for (int i = 0, mid = size >> 1, j = size - 1; i < mid; i++, j--) {
-                                tmp = keysets[i];
-                                keysets[i] = keysets[j];
-                                keysets[j] = tmp;
-                            }
+                            Collections.reverse(keysets);
                         }
                     }
                 }
@@ -370,7 +495,11 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
             KeysetPage newKeyset = null;
 
             if (keysetToSelectIndexMapping != null) {
-                newKeyset = new DefaultKeysetPage(firstRow, pageSize, lowest, highest, keysets);
+                if (lowest == null) {
+                    newKeyset = new DefaultKeysetPage(firstRow, pageSize, new DefaultKeyset(null), new DefaultKeyset(null), Collections.<Keyset>emptyList());
+                } else {
+                    newKeyset = new DefaultKeysetPage(firstRow, pageSize, lowest, highest, keysets == null ? Collections.<Keyset>emptyList() : keysets);
+                }
             }
 
             totalSize = Math.max(totalSize, firstRow + ids.size());
@@ -385,7 +514,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 if (forceFirstResult || keysetMode == KeysetMode.NONE) {
                     objectQuery.setFirstResult(firstRow);
                 } else {
-                    objectQuery.setFirstResult(0);
+                    objectQuery.setFirstResult(keysetOffset);
                 }
             }
 
@@ -401,7 +530,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 if (totalSize == -1) {
                     if (inlinedCountQuery && firstRow == 0) {
                         totalSize = 0L;
-                    } else if (withCount) {
+                    } else if (withCount && !countPending) {
                         totalSize = getTotalCount();
                     }
                 }
@@ -439,9 +568,9 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     }
                 } else if (objectBuilder instanceof KeysetExtractionObjectBuilder<?>) {
                     KeysetExtractionObjectBuilder<?> keysetExtractionObjectBuilder = (KeysetExtractionObjectBuilder<?>) objectBuilder;
-                    Serializable[] lowest = keysetExtractionObjectBuilder.getLowest();
-                    Serializable[] highest = keysetExtractionObjectBuilder.getHighest();
-                    Serializable[][] keysets = keysetExtractionObjectBuilder.getKeysets();
+                    Keyset lowest = keysetExtractionObjectBuilder.getLowest();
+                    Keyset highest = keysetExtractionObjectBuilder.getHighest();
+                    List<Keyset> keysets = keysetExtractionObjectBuilder.getKeysets();
                     // extract count
                     if (inlinedCountQuery) {
                         totalSize = keysetExtractionObjectBuilder.getCount();
@@ -55,4 +55,6 @@ public interface QueryConfiguration {
     public boolean isCacheable();
 
     public boolean isQueryPlanCacheEnabled();
+
+    public boolean isQueryStringCacheEnabled();
 }
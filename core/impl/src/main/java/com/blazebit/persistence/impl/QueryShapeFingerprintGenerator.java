@@ -0,0 +1,169 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.parser.SimpleQueryGenerator;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.expression.SubqueryExpression;
+import com.blazebit.persistence.parser.predicate.CompoundPredicate;
+import com.blazebit.persistence.parser.predicate.InPredicate;
+import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Renders the unresolved state of a query builder into a string that identifies the shape of the query.
+ * Two query builders with the same fingerprint render to the same JPQL query string, parameter values are not part of the fingerprint,
+ * except for the emptiness of collection values which decides whether an IN predicate is rendered as boolean literal.
+ * Query builders that make use of features which render differently depending on external state produce no fingerprint.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+class QueryShapeFingerprintGenerator extends SimpleQueryGenerator {
+
+    private boolean cacheable;
+    private boolean parameterAllowed;
+
+    public String generate(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+        if (queryBuilder.mainQuery.cteManager.hasCtes()
+                || queryBuilder.joinManager.hasEntityFunctions()
+                || queryBuilder.keysetManager.getKeysetLink() != null
+                || !queryBuilder.windowManager.getWindows().isEmpty()) {
+            return null;
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        setQueryBuffer(sb);
+        setBooleanLiteralRenderingContext(BooleanLiteralRenderingContext.PLAIN);
+        cacheable = true;
+
+        sb.append(queryBuilder.resultType.getName());
+        QueryConfiguration queryConfiguration = queryBuilder.mainQuery.getQueryConfiguration();
+        if (queryConfiguration != queryBuilder.cbf.getQueryConfiguration()) {
+            sb.append(new TreeMap<>(queryConfiguration.getProperties()));
+        }
+
+        // Parameters are only value independent in the FROM and WHERE clause
+        parameterAllowed = true;
+        queryBuilder.joinManager.acceptVisitor(new JoinNodeVisitor() {
+            @Override
+            public void visit(JoinNode node) {
+                if (node.getValueCount() > 0 || node.isLateral() || node.getCorrelationParent() != null) {
+                    cacheable = false;
+                    return;
+                }
+                sb.append(" JOIN ").append(node.getAlias());
+                sb.append(' ').append(node.getJoinType());
+                sb.append(' ').append(JpaMetamodelUtils.getTypeName(node.getNodeType()));
+                if (node.getTreatType() != null) {
+                    sb.append(" TREAT ").append(JpaMetamodelUtils.getTypeName(node.getTreatType()));
+                }
+                if (node.getParent() != null) {
+                    sb.append(" PARENT ").append(node.getParent().getAlias());
+                }
+                if (node.getParentTreeNode() != null) {
+                    sb.append(" RELATION ").append(node.getParentTreeNode().getRelationName());
+                }
+                if (node.getQualificationExpression() != null) {
+                    sb.append(" QUALIFIED ").append(node.getQualificationExpression());
+                }
+                if (node.getAliasInfo().isImplicit()) {
+                    sb.append(" IMPLICIT");
+                }
+                if (node.isDefaultJoinNode()) {
+                    sb.append(" DEFAULT");
+                }
+                if (node.isFetch()) {
+                    sb.append(" FETCH");
+                }
+                CompoundPredicate onPredicate = node.getOnPredicate();
+                if (onPredicate != null) {
+                    sb.append(" ON ");
+                    onPredicate.accept(QueryShapeFingerprintGenerator.this);
+                }
+            }
+        });
+
+        sb.append(" WHERE ");
+        queryBuilder.whereManager.rootPredicate.getPredicate().accept(this);
+
+        parameterAllowed = false;
+        SelectManager<?> selectManager = queryBuilder.selectManager;
+        sb.append(" SELECT ");
+        if (selectManager.isDistinct()) {
+            sb.append("DISTINCT ");
+        }
+        ObjectBuilder<?> objectBuilder = selectManager.getSelectObjectBuilder();
+        if (objectBuilder != null) {
+            sb.append(objectBuilder.getClass().getName());
+        }
+        List<SelectInfo> selectInfos = selectManager.getSelectInfos();
+        for (int i = 0; i < selectInfos.size(); i++) {
+            SelectInfo selectInfo = selectInfos.get(i);
+            sb.append(", ");
+            selectInfo.getExpression().accept(this);
+            if (selectInfo.getAlias() != null) {
+                sb.append(" AS ").append(selectInfo.getAlias());
+            }
+        }
+
+        sb.append(" GROUP BY ");
+        queryBuilder.groupByManager.buildQueryShape(sb, this);
+        sb.append(" HAVING ");
+        queryBuilder.havingManager.rootPredicate.getPredicate().accept(this);
+        sb.append(" ORDER BY ");
+        queryBuilder.orderByManager.buildQueryShape(sb, this);
+
+        setQueryBuffer(null);
+        return cacheable ? sb.toString() : null;
+    }
+
+    @Override
+    public void visit(ParameterExpression expression) {
+        if (!parameterAllowed) {
+            // The rendering of parameters in these clauses might depend on the parameter value
+            cacheable = false;
+        }
+        sb.append(':').append(expression.getName());
+        if (expression.isCollectionValued()) {
+            sb.append("[]");
+            // An IN predicate with an empty collection value is rendered as boolean literal
+            Object value = expression.getValue();
+            if (value != null) {
+                sb.append(((Collection<?>) value).isEmpty() ? "EMPTY" : "NON_EMPTY");
+            }
+        }
+    }
+
+    @Override
+    public void visit(InPredicate predicate) {
+        // Render the parameters explicitly instead of the value dependent rendering of the super class
+        predicate.getLeft().accept(this);
+        if (predicate.isNegated()) {
+            sb.append(" NOT");
+        }
+        sb.append(" IN (");
+        List<Expression> right = predicate.getRight();
+        for (int i = 0; i < right.size(); i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            right.get(i).accept(this);
+        }
+        sb.append(')');
+    }
+
+    @Override
+    public void visit(SubqueryExpression expression) {
+        // A subquery has its own state, so we don't try to fingerprint it
+        cacheable = false;
+    }
+}
@@ -83,6 +83,8 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
     private boolean resolveSelectAliases = true;
     private boolean externalRepresentation;
     private boolean quantifiedPredicate;
+    // Set to false when the rendered string depends on parameter values or the rendering registered parameter transformers
+    private boolean queryStringCacheable = true;
     private Set<JoinNode> renderedJoinNodes;
     private ClauseType clauseType;
     private final EntityMetamodel entityMetamodel;
@@ -832,11 +834,20 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
 
     @Override
     protected String getLiteralParameterValue(ParameterExpression expression) {
+        queryStringCacheable = false;
         // We can't render enum values as literals directly, only in the context of a predicate, so we need the BooleanLiteralRenderingContext.PLAIN
         boolean renderEnumAsLiteral = getBooleanLiteralRenderingContext() == BooleanLiteralRenderingContext.PLAIN;
         return parameterManager.getLiteralParameterValue(expression, renderEnumAsLiteral);
     }
 
+    public boolean isQueryStringCacheable() {
+        return queryStringCacheable;
+    }
+
+    public void setQueryStringCacheable(boolean queryStringCacheable) {
+        this.queryStringCacheable = queryStringCacheable;
+    }
+
     public void setResolveSelectAliases(boolean replaceSelectAliases) {
         this.resolveSelectAliases = replaceSelectAliases;
     }
@@ -972,6 +983,7 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
                 String parameterName = parameterExpression.getName();
                 Map<String, List<String>> parameterAccessPaths = new HashMap<>();
                 ParameterManager.ParameterImpl<?> parameter = parameterManager.getParameter(parameterName);
+                queryStringCacheable = false;
                 sb.append('(');
                 for (Attribute<?, ?> attribute : embeddableType.getAttributes()) {
                     ((JoinNode) pathReference.getBaseNode()).appendDeReference(sb, pathReference.getField() + "." + attribute.getName(), externalRepresentation);
@@ -1057,6 +1069,7 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
         ParameterExpression parameterExpression = (ParameterExpression) expression;
         ParameterManager.ParameterImpl<Object> param = (ParameterManager.ParameterImpl<Object>) parameterManager.getParameter(parameterExpression.getName());
         param.setTransformer(parameterTransformerFactory.getToIdTransformer());
+        queryStringCacheable = false;
     }
 
     @Override
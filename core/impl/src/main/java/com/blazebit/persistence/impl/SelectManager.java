@@ -21,11 +21,8 @@ import com.blazebit.persistence.impl.builder.expression.SimpleCaseWhenBuilderImp
 import com.blazebit.persistence.impl.builder.expression.SuperExpressionSubqueryBuilderListener;
 import com.blazebit.persistence.impl.builder.object.ClassObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.ConstructorObjectBuilder;
-import com.blazebit.persistence.impl.builder.object.DelegatingTupleObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.MultisetTransformingObjectBuilder;
-import com.blazebit.persistence.impl.builder.object.PreProcessingObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.SelectObjectBuilderImpl;
-import com.blazebit.persistence.impl.builder.object.TupleObjectBuilder;
 import com.blazebit.persistence.impl.function.param.ParamFunction;
 import com.blazebit.persistence.impl.transform.ExpressionModifierVisitor;
 import com.blazebit.persistence.parser.EntityMetamodel;
@@ -45,12 +42,12 @@ import com.blazebit.persistence.parser.expression.PropertyExpression;
 import com.blazebit.persistence.parser.expression.StringLiteral;
 import com.blazebit.persistence.parser.expression.Subquery;
 import com.blazebit.persistence.parser.expression.SubqueryExpression;
+import com.blazebit.persistence.spi.CopyableObjectBuilder;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spi.JpaProvider;
 import com.blazebit.persistence.spi.JpqlFunction;
 import com.blazebit.persistence.spi.JpqlFunctionProcessor;
 
-import javax.persistence.Tuple;
 import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.IdentifiableType;
 import javax.persistence.metamodel.ManagedType;
@@ -125,19 +122,28 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
     }
 
     ObjectBuilder<T> getSelectObjectBuilder() {
-        ObjectBuilder<T> builder = objectBuilder;
-        if (builder == null) {
-            if (resultClazz.equals(Tuple.class)) {
-                if (jpqlFunctionProcessors.isEmpty()) {
-                    return (ObjectBuilder<T>) new TupleObjectBuilder(selectInfos, selectAliasToPositionMap);
-                } else {
-                    return (ObjectBuilder<T>) new DelegatingTupleObjectBuilder(new MultisetTransformingObjectBuilder(jpqlFunctionProcessors, selectInfos), selectInfos, selectAliasToPositionMap);
-                }
+        return SelectObjectBuilderFactory.createObjectBuilder(resultClazz, objectBuilder, selectInfos, selectAliasToPositionMap, jpqlFunctionProcessors);
+    }
+
+    /**
+     * Returns a factory for object builders of the current select clause that does not share state with this select manager.
+     * A custom object builder passed to selectNew can only be re-created if it is a {@link CopyableObjectBuilder}
+     * that is not bound to the query builder, so <code>null</code> is returned otherwise.
+     *
+     * @return The object builder factory or <code>null</code>
+     */
+    SelectObjectBuilderFactory<T> getSelectObjectBuilderFactory() {
+        ObjectBuilder<T> objectBuilder = this.objectBuilder;
+        if (objectBuilder instanceof CopyableObjectBuilder<?>) {
+            // The copy serves as template for the object builders of the executions, so it must not be used by this query builder
+            objectBuilder = ((CopyableObjectBuilder<T>) objectBuilder).copy();
+            if (objectBuilder == null) {
+                return null;
             }
-        } else if (!jpqlFunctionProcessors.isEmpty()) {
-            builder = new PreProcessingObjectBuilder<>(new MultisetTransformingObjectBuilder(jpqlFunctionProcessors, selectInfos), builder);
+        } else if (objectBuilder != null && !(objectBuilder instanceof ClassObjectBuilder) && !(objectBuilder instanceof ConstructorObjectBuilder)) {
+            return null;
         }
-        return builder;
+        return new SelectObjectBuilderFactory<>(resultClazz, objectBuilder, selectInfos, selectAliasToPositionMap, jpqlFunctionProcessors);
     }
 
     public List<SelectInfo> getSelectInfos() {
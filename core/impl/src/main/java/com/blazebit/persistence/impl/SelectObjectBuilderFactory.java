@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.impl.builder.object.DelegatingTupleObjectBuilder;
+import com.blazebit.persistence.impl.builder.object.MultisetTransformingObjectBuilder;
+import com.blazebit.persistence.impl.builder.object.PreProcessingObjectBuilder;
+import com.blazebit.persistence.impl.builder.object.TupleObjectBuilder;
+import com.blazebit.persistence.spi.CopyableObjectBuilder;
+import com.blazebit.persistence.spi.JpqlFunctionProcessor;
+
+import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the object builder for a snapshot of a select clause. The object builder passed to the factory
+ * must be stateless, since it is shared by all created object builders, unless it is a {@link CopyableObjectBuilder}
+ * which is copied for every created object builder.
+ *
+ * @param <T> The result type
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+class SelectObjectBuilderFactory<T> {
+
+    private final Class<?> resultClazz;
+    private final ObjectBuilder<T> objectBuilder;
+    private final List<SelectInfo> selectInfos;
+    private final Map<String, Integer> selectAliasToPositionMap;
+    private final Map<Integer, JpqlFunctionProcessor<?>> jpqlFunctionProcessors;
+
+    SelectObjectBuilderFactory(Class<?> resultClazz, ObjectBuilder<T> objectBuilder, List<SelectInfo> selectInfos, Map<String, Integer> selectAliasToPositionMap, Map<Integer, JpqlFunctionProcessor<?>> jpqlFunctionProcessors) {
+        this.resultClazz = resultClazz;
+        this.objectBuilder = objectBuilder;
+        this.selectInfos = new ArrayList<>(selectInfos);
+        this.selectAliasToPositionMap = new HashMap<>(selectAliasToPositionMap);
+        this.jpqlFunctionProcessors = new HashMap<>(jpqlFunctionProcessors);
+    }
+
+    public ObjectBuilder<T> createObjectBuilder() {
+        ObjectBuilder<T> builder = objectBuilder;
+        if (builder instanceof CopyableObjectBuilder<?>) {
+            builder = ((CopyableObjectBuilder<T>) builder).copy();
+        }
+        return createObjectBuilder(resultClazz, builder, selectInfos, selectAliasToPositionMap, jpqlFunctionProcessors);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> ObjectBuilder<T> createObjectBuilder(Class<?> resultClazz, ObjectBuilder<T> objectBuilder, List<SelectInfo> selectInfos, Map<String, Integer> selectAliasToPositionMap, Map<Integer, JpqlFunctionProcessor<?>> jpqlFunctionProcessors) {
+        ObjectBuilder<T> builder = objectBuilder;
+        if (builder == null) {
+            if (resultClazz.equals(Tuple.class)) {
+                if (jpqlFunctionProcessors.isEmpty()) {
+                    return (ObjectBuilder<T>) new TupleObjectBuilder(selectInfos, selectAliasToPositionMap);
+                } else {
+                    return (ObjectBuilder<T>) new DelegatingTupleObjectBuilder(new MultisetTransformingObjectBuilder(jpqlFunctionProcessors, selectInfos), selectInfos, selectAliasToPositionMap);
+                }
+            }
+        } else if (!jpqlFunctionProcessors.isEmpty()) {
+            builder = new PreProcessingObjectBuilder<>(new MultisetTransformingObjectBuilder(jpqlFunctionProcessors, selectInfos), builder);
+        }
+        return builder;
+    }
+}
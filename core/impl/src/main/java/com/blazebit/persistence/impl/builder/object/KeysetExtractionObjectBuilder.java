@@ -5,15 +5,18 @@
 
 package com.blazebit.persistence.impl.builder.object;
 
-import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import com.blazebit.persistence.DefaultKeyset;
+import com.blazebit.persistence.Keyset;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
 import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
+import com.blazebit.persistence.impl.keyset.TupleKeyset;
 
 /**
  *
@@ -35,6 +38,7 @@ public class KeysetExtractionObjectBuilder<T> implements ObjectBuilder<T> {
     private Object[] highest;
     private int size;
     private long count = -1;
+    private int[] keysetPositions;
 
     public KeysetExtractionObjectBuilder(int[] keysetToSelectIndexMapping, KeysetMode keysetMode, int pageSize, int highestOffset, boolean unwrap, boolean extractAll, boolean extractCount) {
         this.keysetToSelectIndexMapping = keysetToSelectIndexMapping;
@@ -130,17 +134,18 @@ public class KeysetExtractionObjectBuilder<T> implements ObjectBuilder<T> {
         return true;
     }
 
-    public Serializable[] getLowest() {
+    public Keyset getLowest() {
         if (first == null) {
-            return null;
+            return new DefaultKeyset(null);
         }
 
-        return KeysetPaginationHelper.extractKey(first, keysetToSelectIndexMapping, keysetSuffix + (extractCount ? 1 : 0));
+        // The lowest and highest keysets are retained as reference point for the next page, so don't reference the result row
+        return new TupleKeyset(first, getKeysetPositions(first)).copy();
     }
 
-    public Serializable[] getHighest() {
+    public Keyset getHighest() {
         if (last == null) {
-            return null;
+            return new DefaultKeyset(null);
         }
         Object[] keyset;
         if (size > keysetSize) {
@@ -149,20 +154,28 @@ public class KeysetExtractionObjectBuilder<T> implements ObjectBuilder<T> {
             keyset = last;
         }
 
-        return KeysetPaginationHelper.extractKey(keyset, keysetToSelectIndexMapping, keysetSuffix + (extractCount ? 1 : 0));
+        return new TupleKeyset(keyset, getKeysetPositions(keyset)).copy();
     }
 
-    public Serializable[][] getKeysets() {
-        if (keysets == null) {
-            return null;
+    public List<Keyset> getKeysets() {
+        if (keysets == null || keysets.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        Serializable[][] keysetArray = new Serializable[keysets.size()][];
-        for (int i = 0; i < keysetArray.length; i++) {
-            keysetArray[i] = KeysetPaginationHelper.extractKey(keysets.get(i), keysetToSelectIndexMapping, keysetSuffix + (extractCount ? 1 : 0));
+        int[] positions = getKeysetPositions(keysets.get(0));
+        List<Keyset> keysetList = new ArrayList<>(keysets.size());
+        for (int i = 0; i < keysets.size(); i++) {
+            keysetList.add(new TupleKeyset(keysets.get(i), positions));
         }
 
-        return keysetArray;
+        return keysetList;
+    }
+
+    private int[] getKeysetPositions(Object[] tuple) {
+        if (keysetPositions == null) {
+            keysetPositions = KeysetPaginationHelper.getKeysetPositions(keysetToSelectIndexMapping, tuple.length, keysetSuffix + (extractCount ? 1 : 0));
+        }
+        return keysetPositions;
     }
 
     public long getCount() {
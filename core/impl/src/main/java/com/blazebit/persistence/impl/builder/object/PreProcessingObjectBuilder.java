@@ -7,15 +7,18 @@ package com.blazebit.persistence.impl.builder.object;
 
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  *
  * @author Christian Beikov
  * @since 1.5.0
  */
-public class PreProcessingObjectBuilder<T> implements ObjectBuilder<T> {
+public class PreProcessingObjectBuilder<T> implements StreamingObjectBuilder<T> {
 
     private final ObjectBuilder<Object[]> preProcessor;
     private final ObjectBuilder<T> objectBuilder;
@@ -39,4 +42,24 @@ public class PreProcessingObjectBuilder<T> implements ObjectBuilder<T> {
     public List<T> buildList(List<T> list) {
         return objectBuilder.buildList(list);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<T> buildStream(Stream<Object[]> tupleStream) {
+        Stream<Object[]> preProcessedStream = tupleStream.map(new Function<Object[], Object[]>() {
+            @Override
+            public Object[] apply(Object[] tuple) {
+                return preProcessor.build(tuple);
+            }
+        });
+        if (objectBuilder instanceof StreamingObjectBuilder<?>) {
+            return ((StreamingObjectBuilder<T>) objectBuilder).buildStream(preProcessedStream);
+        }
+        return preProcessedStream.map(new Function<Object[], T>() {
+            @Override
+            public T apply(Object[] tuple) {
+                return objectBuilder.build(tuple);
+            }
+        });
+    }
 }
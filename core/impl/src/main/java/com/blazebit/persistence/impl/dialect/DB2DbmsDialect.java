@@ -51,6 +51,11 @@ public class DB2DbmsDialect extends DefaultDbmsDialect {
         return "with";
     }
 
+    @Override
+    public int getMaxBindParameters() {
+        return 32767;
+    }
+
     @Override
     public DeleteJoinStyle getDeleteJoinStyle() {
         return DeleteJoinStyle.MERGE;
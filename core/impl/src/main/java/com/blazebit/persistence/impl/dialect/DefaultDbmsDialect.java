@@ -161,6 +161,26 @@ public class DefaultDbmsDialect implements DbmsDialect {
         return LateralStyle.LATERAL;
     }
 
+    @Override
+    public String getEstimatedRowCountSql(String sql) {
+        return null;
+    }
+
+    @Override
+    public long extractEstimatedRowCount(List<?> resultRows) {
+        return -1L;
+    }
+
+    @Override
+    public int getMaxBindParameters() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaxInListSize() {
+        return Integer.MAX_VALUE;
+    }
+
     @Override
     public DeleteJoinStyle getDeleteJoinStyle() {
         return DeleteJoinStyle.NONE;
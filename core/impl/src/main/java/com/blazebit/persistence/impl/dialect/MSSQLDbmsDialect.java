@@ -68,6 +68,11 @@ public class MSSQLDbmsDialect extends DefaultDbmsDialect {
         return LateralStyle.APPLY;
     }
 
+    @Override
+    public int getMaxBindParameters() {
+        return 2100;
+    }
+
     @Override
     public DeleteJoinStyle getDeleteJoinStyle() {
         return DeleteJoinStyle.FROM;
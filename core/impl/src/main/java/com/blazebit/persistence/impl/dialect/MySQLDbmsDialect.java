@@ -13,6 +13,7 @@ import com.blazebit.persistence.spi.UpdateJoinStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -73,11 +74,63 @@ public class MySQLDbmsDialect extends DefaultDbmsDialect {
         return LateralStyle.NONE;
     }
 
+    @Override
+    public int getMaxBindParameters() {
+        // The prepared statement protocol uses an unsigned 16 bit parameter count
+        return 65535;
+    }
+
     @Override
     public DeleteJoinStyle getDeleteJoinStyle() {
         return DeleteJoinStyle.FROM;
     }
 
+    @Override
+    public String getEstimatedRowCountSql(String sql) {
+        // We use the tabular format because the plan structure of FORMAT=JSON differs between MySQL and MariaDB
+        return "explain " + sql;
+    }
+
+    @Override
+    public long extractEstimatedRowCount(List<?> resultRows) {
+        // The estimated join cardinality of the outermost select is the product of the examined rows
+        // and the filtered percentage of all its tables
+        double estimate = 1d;
+        Object selectId = null;
+        for (Object row : resultRows) {
+            if (!(row instanceof Object[])) {
+                return -1L;
+            }
+            Object[] columns = (Object[]) row;
+            Object rows;
+            Object filtered;
+            if (columns.length >= 12) {
+                // id, select_type, table, partitions, type, possible_keys, key, key_len, ref, rows, filtered, Extra
+                rows = columns[9];
+                filtered = columns[10];
+            } else if (columns.length == 10) {
+                // The MariaDB layout without partitions and filtered columns
+                rows = columns[8];
+                filtered = null;
+            } else {
+                return -1L;
+            }
+            if (selectId == null) {
+                selectId = columns[0];
+            } else if (!selectId.equals(columns[0])) {
+                continue;
+            }
+            if (!(rows instanceof Number)) {
+                return -1L;
+            }
+            estimate *= ((Number) rows).doubleValue();
+            if (filtered instanceof Number) {
+                estimate *= ((Number) filtered).doubleValue() / 100d;
+            }
+        }
+        return selectId == null ? -1L : Math.round(estimate);
+    }
+
     @Override
     public UpdateJoinStyle getUpdateJoinStyle() {
         return UpdateJoinStyle.REFERENCE;
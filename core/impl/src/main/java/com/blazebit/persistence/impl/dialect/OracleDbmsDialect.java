@@ -144,6 +144,17 @@ public class OracleDbmsDialect extends DefaultDbmsDialect {
         return "ROWID";
     }
 
+    @Override
+    public int getMaxBindParameters() {
+        return 65535;
+    }
+
+    @Override
+    public int getMaxInListSize() {
+        // ORA-01795: maximum number of expressions in a list is 1000
+        return 1000;
+    }
+
     @Override
     public DeleteJoinStyle getDeleteJoinStyle() {
         return DeleteJoinStyle.MERGE;
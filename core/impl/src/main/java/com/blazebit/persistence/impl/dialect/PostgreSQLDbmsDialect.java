@@ -32,6 +32,12 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         super(childSqlTypes);
     }
 
+    @Override
+    public int getMaxBindParameters() {
+        // The JDBC driver sends the parameter count as signed 16 bit integer
+        return 32767;
+    }
+
     @Override
     public DeleteJoinStyle getDeleteJoinStyle() {
         return DeleteJoinStyle.USING;
@@ -42,6 +48,59 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.FROM;
     }
 
+    @Override
+    public String getEstimatedRowCountSql(String sql) {
+        return "explain " + sql;
+    }
+
+    @Override
+    public long extractEstimatedRowCount(List<?> resultRows) {
+        // Every row is a line of the textual plan. Aggregate and gather nodes on top of the plan produce the count,
+        // so the estimate of interest is the one of the first plan node below them
+        int workers = 0;
+        for (Object row : resultRows) {
+            String line = row.toString().trim();
+            if (line.startsWith("Workers Planned:")) {
+                try {
+                    workers = Integer.parseInt(line.substring("Workers Planned:".length()).trim());
+                } catch (NumberFormatException ex) {
+                    // An unknown worker count makes the estimate of parallel nodes unusable
+                    workers = -1;
+                }
+                continue;
+            }
+            int rowsIndex = line.indexOf(" rows=");
+            if (rowsIndex == -1) {
+                continue;
+            }
+            if (line.startsWith("->")) {
+                line = line.substring(2).trim();
+                rowsIndex = line.indexOf(" rows=");
+            }
+            if (line.startsWith("Gather") || line.startsWith("Aggregate") || line.contains(" Aggregate") || line.startsWith("HashAggregate") || line.startsWith("GroupAggregate")) {
+                continue;
+            }
+            int start = rowsIndex + " rows=".length();
+            int end = start;
+            while (end < line.length() && Character.isDigit(line.charAt(end))) {
+                end++;
+            }
+            if (start == end) {
+                return -1L;
+            }
+            long rows = Long.parseLong(line.substring(start, end));
+            if (line.startsWith("Parallel")) {
+                if (workers == -1) {
+                    return -1L;
+                }
+                // Parallel nodes estimate the rows per process, the leader participates as well
+                rows *= workers + 1;
+            }
+            return rows;
+        }
+        return -1L;
+    }
+
     @Override
     public Character getDefaultEscapeCharacter() {
         // PostgreSQL is non SQL-standard compliant in this regard
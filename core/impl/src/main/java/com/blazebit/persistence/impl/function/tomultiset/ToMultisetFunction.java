@@ -9,6 +9,7 @@ import com.blazebit.persistence.impl.SubqueryInternalBuilder;
 import com.blazebit.persistence.impl.function.tostringjson.AbstractToStringJsonFunction;
 import com.blazebit.persistence.impl.function.tostringxml.AbstractToStringXmlFunction;
 import com.blazebit.persistence.impl.util.SqlUtils;
+import com.blazebit.persistence.parser.JsonFieldIndex;
 import com.blazebit.persistence.parser.expression.Subquery;
 import com.blazebit.persistence.parser.expression.SubqueryExpression;
 import com.blazebit.persistence.spi.FunctionRenderContext;
@@ -52,16 +53,17 @@ public class ToMultisetFunction implements JpqlFunction, JpqlFunctionProcessor<C
     public Object process(CharSequence result, List<Object> arguments) {
         SubqueryExpression subqueryExpression = (SubqueryExpression) arguments.get(0);
         Subquery subquery = subqueryExpression.getSubquery();
-        String[] fields;
+        JsonFieldIndex fieldIndex;
         if (subquery instanceof SubqueryInternalBuilder<?>) {
-            fields = createFields(((SubqueryInternalBuilder<?>) subquery).getSelectExpressions().size());
+            // The field index is cached per size, so the field names are not recreated for every processed result
+            fieldIndex = JsonFieldIndex.forMultiset(((SubqueryInternalBuilder<?>) subquery).getSelectExpressions().size());
         } else {
             throw new IllegalArgumentException("Can't handle: " + subquery);
         }
         if (toJsonFunction == null) {
-            return toXmlFunction.process(result, fields);
+            return toXmlFunction.process(result, fieldIndex.getFields());
         } else {
-            return toJsonFunction.process(result, fields);
+            return toJsonFunction.process(result, fieldIndex);
         }
     }
 
@@ -80,19 +82,11 @@ public class ToMultisetFunction implements JpqlFunction, JpqlFunctionProcessor<C
         } else {
             selectItemExpressions = SqlUtils.getSelectItemExpressions(subquery, SqlUtils.SELECT_FINDER.indexIn(subquery, 1));
         }
-        String[] fields = createFields(selectItemExpressions.length);
+        String[] fields = JsonFieldIndex.forMultiset(selectItemExpressions.length).getFields();
         if (toJsonFunction == null) {
             toXmlFunction.render(context, fields, selectItemExpressions, subquery, fromIndex);
         } else {
             toJsonFunction.render(context, fields, selectItemExpressions, subquery, fromIndex);
         }
     }
-
-    private static String[] createFields(int length) {
-        String[] fields = new String[length];
-        for (int i = 0; i < fields.length; i++) {
-            fields[i] = "f" + i;
-        }
-        return fields;
-    }
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ package com.blazebit.persistence.impl.function.tostringjson;
 
 import com.blazebit.persistence.impl.util.JpqlFunctionUtil;
 import com.blazebit.persistence.impl.util.SqlUtils;
+import com.blazebit.persistence.parser.JsonFieldIndex;
 import com.blazebit.persistence.parser.JsonParser;
 import com.blazebit.persistence.spi.FunctionRenderContext;
 import com.blazebit.persistence.spi.JpqlFunction;
@@ -60,5 +61,12 @@ public abstract class AbstractToStringJsonFunction implements JpqlFunction {
         return JsonParser.parseStringOnly(result, fields);
     }
 
+    public Object process(CharSequence result, JsonFieldIndex fieldIndex) {
+        if (result == null) {
+            return null;
+        }
+        return JsonParser.parse(result, fieldIndex);
+    }
+
     public abstract void render(FunctionRenderContext context, String[] fields, String[] selectItemExpressions, String subquery, int fromIndex);
 }
\ No newline at end of file
@@ -34,6 +34,20 @@ public class KeysetPaginationHelper {
         return key;
     }
 
+    public static int[] getKeysetPositions(int[] mapping, int tupleLength, int suffixLength) {
+        int[] positions = new int[mapping.length];
+        int suffixIndex = tupleLength - suffixLength;
+        for (int i = 0; i < mapping.length; i++) {
+            int index = mapping[i];
+            if (index == -1) {
+                positions[i] = suffixIndex++;
+            } else {
+                positions[i] = index;
+            }
+        }
+        return positions;
+    }
+
     public static KeysetMode getKeysetMode(KeysetPage keysetPage, Object entityId, int firstRow, int pageSize) {
         // a keyset must be given
         if (keysetPage == null) {
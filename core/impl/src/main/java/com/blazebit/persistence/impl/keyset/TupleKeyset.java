@@ -0,0 +1,86 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.keyset;
+
+import com.blazebit.persistence.DefaultKeyset;
+import com.blazebit.persistence.IndexedKeyset;
+import com.blazebit.persistence.Keyset;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A keyset that reads its elements from a result row through the select positions of the keyset elements.
+ * The key set tuple array is only created when {@link #getTuple()} is invoked, so extracting the keysets of all rows of a page
+ * does not copy any elements. Since a keyset references the whole result row, keysets that have to outlive the result list,
+ * like the lowest and highest keyset of a page, should be detached via {@link #copy()}.
+ * Serialization always writes a copy of the keyset elements.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public final class TupleKeyset implements IndexedKeyset {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object[] row;
+    private final transient int[] positions;
+    private transient Serializable[] tuple;
+
+    public TupleKeyset(Object[] row, int[] positions) {
+        this.row = row;
+        this.positions = positions;
+    }
+
+    @Override
+    public int size() {
+        return positions.length;
+    }
+
+    @Override
+    public Serializable get(int index) {
+        return (Serializable) row[positions[index]];
+    }
+
+    @Override
+    public Serializable[] getTuple() {
+        Serializable[] tuple = this.tuple;
+        if (tuple == null) {
+            tuple = new Serializable[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                tuple[i] = (Serializable) row[positions[i]];
+            }
+            this.tuple = tuple;
+        }
+        return tuple;
+    }
+
+    /**
+     * Returns a keyset with a copy of the keyset elements that doesn't reference the result row.
+     *
+     * @return The detached keyset
+     */
+    public Keyset copy() {
+        return new DefaultKeyset(getTuple());
+    }
+
+    @Override
+    public int hashCode() {
+        // Must be consistent with DefaultKeyset
+        return 53 * 5 + Arrays.deepHashCode(getTuple());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Keyset && Arrays.deepEquals(getTuple(), ((Keyset) obj).getTuple());
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        // Don't serialize the whole result row
+        return copy();
+    }
+}
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.spi.BatchParameterBinder;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.ServiceProvider;
 
@@ -41,4 +42,9 @@ public class CustomModificationQueryPlan implements ModificationQueryPlan {
         return extendedQuerySupport.executeUpdate(serviceProvider, participatingQueries, baseQuery, delegate, sql, queryPlanCacheEnabled);
     }
 
+    @Override
+    public int[] executeBatchUpdate(BatchParameterBinder batchParameterBinder) {
+        return extendedQuerySupport.executeBatchUpdate(serviceProvider, participatingQueries, baseQuery, delegate, sql, batchParameterBinder, queryPlanCacheEnabled);
+    }
+
 }
@@ -8,6 +8,7 @@ package com.blazebit.persistence.impl.plan;
 import com.blazebit.persistence.ReturningObjectBuilder;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.impl.DefaultReturningResult;
+import com.blazebit.persistence.spi.BatchParameterBinder;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.ServiceProvider;
@@ -60,6 +61,16 @@ public class CustomReturningModificationQueryPlan<T> implements ModificationQuer
         return result.getUpdateCount();
     }
 
+    @Override
+    public int[] executeBatchUpdate(BatchParameterBinder batchParameterBinder) {
+        int[] updateCounts = new int[batchParameterBinder.size()];
+        for (int i = 0; i < updateCounts.length; i++) {
+            batchParameterBinder.bind(i);
+            updateCounts[i] = executeUpdate();
+        }
+        return updateCounts;
+    }
+
     @Override
     public List<ReturningResult<T>> getResultList() {
         return Arrays.asList(getSingleResult());
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.spi.BatchParameterBinder;
 import com.blazebit.persistence.spi.DbmsStatementType;
 
 import javax.persistence.Query;
@@ -38,4 +39,14 @@ public class DefaultModificationQueryPlan implements ModificationQueryPlan {
         return query.executeUpdate();
     }
 
+    @Override
+    public int[] executeBatchUpdate(BatchParameterBinder batchParameterBinder) {
+        int[] updateCounts = new int[batchParameterBinder.size()];
+        for (int i = 0; i < updateCounts.length; i++) {
+            batchParameterBinder.bind(i);
+            updateCounts[i] = executeUpdate();
+        }
+        return updateCounts;
+    }
+
 }
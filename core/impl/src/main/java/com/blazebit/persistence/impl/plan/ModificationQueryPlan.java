@@ -5,6 +5,8 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.spi.BatchParameterBinder;
+
 /**
  *
  * @author Christian Beikov
@@ -14,4 +16,6 @@ public interface ModificationQueryPlan {
 
     public int executeUpdate();
 
+    public int[] executeBatchUpdate(BatchParameterBinder batchParameterBinder);
+
 }
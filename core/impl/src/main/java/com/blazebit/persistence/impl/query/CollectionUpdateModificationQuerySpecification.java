@@ -34,6 +34,12 @@ public class CollectionUpdateModificationQuerySpecification<T> extends UpdateMod
         this.columnExpressionRemappings = columnExpressionRemappings;
     }
 
+    @Override
+    protected Map<String, String> getSetClauseRemappings() {
+        // Column references of the set clause are remapped to the collection table through the column expression remappings
+        return null;
+    }
+
     @Override
     protected StringBuilder applyCtes(StringBuilder sqlSb, Query baseQuery, List<Query> participatingQueries) {
         SqlUtils.remapColumnExpressions(sqlSb, columnExpressionRemappings);
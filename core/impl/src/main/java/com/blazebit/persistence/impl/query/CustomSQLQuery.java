@@ -7,6 +7,7 @@ package com.blazebit.persistence.impl.query;
 
 import com.blazebit.persistence.impl.ParameterValueTransformer;
 import com.blazebit.persistence.impl.ValuesParameterBinder;
+import com.blazebit.persistence.spi.BatchParameterBinder;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
@@ -51,6 +52,37 @@ public class CustomSQLQuery extends AbstractCustomQuery<Object> {
         return querySpecification.createModificationPlan(firstResult, maxResults).executeUpdate();
     }
 
+    /**
+     * Executes this query once for every given map of parameter values, as JDBC batch if the persistence provider supports it.
+     * Parameters that are not contained in a map keep the value of the previous execution.
+     *
+     * @param batchParameterValues The parameter values by parameter name for every execution
+     * @return The update counts of the executions
+     * @since 1.6.14
+     */
+    public int[] executeBatchUpdate(final List<Map<String, Object>> batchParameterValues) {
+        BatchParameterBinder batchParameterBinder = new BatchParameterBinder() {
+            @Override
+            public int size() {
+                return batchParameterValues.size();
+            }
+
+            @Override
+            public void bind(int index) {
+                for (Map.Entry<String, Object> entry : batchParameterValues.get(index).entrySet()) {
+                    setParameter(entry.getKey(), entry.getValue());
+                }
+                bindParameters();
+            }
+        };
+        if (batchParameterValues.isEmpty()) {
+            return new int[0];
+        }
+        // The modification plan is created with the parameter values of the first entry bound
+        batchParameterBinder.bind(0);
+        return querySpecification.createModificationPlan(firstResult, maxResults).executeBatchUpdate(batchParameterBinder);
+    }
+
     @Override
     public Query setHint(String hintName, Object value) {
         delegate.setHint(hintName, value);
@@ -6,6 +6,7 @@
 package com.blazebit.persistence.impl.query;
 
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -68,6 +69,24 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
 
     public Stream<X> getResultStream() {
         final Stream<X> resultStream = super.getResultStream();
+        if (builder instanceof StreamingObjectBuilder<?>) {
+            Stream<Object[]> tupleStream = resultStream.map(new Function<X, Object[]>() {
+                @Override
+                public Object[] apply(X tuple) {
+                    if (tuple instanceof Object[]) {
+                        return (Object[]) tuple;
+                    } else {
+                        return new Object[]{ tuple };
+                    }
+                }
+            }).onClose(new Runnable() {
+                @Override
+                public void run() {
+                    resultStream.close();
+                }
+            });
+            return ((StreamingObjectBuilder<X>) builder).buildStream(tupleStream);
+        }
         return resultStream.map(new Function<X, X>() {
             @Override
             public X apply(X tuple) {
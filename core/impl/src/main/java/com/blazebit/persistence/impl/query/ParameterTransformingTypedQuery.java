@@ -0,0 +1,173 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.ParameterValueTransformer;
+
+import javax.persistence.Parameter;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A typed query that applies the parameter value transformers of a query builder when binding parameters.
+ * Parameters that are split into multiple query parameters are bound through the transformer only.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class ParameterTransformingTypedQuery<X> extends TypedQueryWrapper<X> {
+
+    private final Map<String, ParameterValueTransformer> transformers;
+    private final Set<String> splitParameterNames;
+
+    public ParameterTransformingTypedQuery(TypedQuery<X> delegate, Map<String, ParameterValueTransformer> transformers, Set<String> splitParameterNames) {
+        super(delegate, null);
+        Map<String, ParameterValueTransformer> newTransformers = new HashMap<>(transformers.size());
+        for (Map.Entry<String, ParameterValueTransformer> entry : transformers.entrySet()) {
+            newTransformers.put(entry.getKey(), entry.getValue().forQuery(delegate));
+        }
+        this.transformers = newTransformers;
+        this.splitParameterNames = splitParameterNames;
+    }
+
+    @Override
+    public <T> TypedQuery<X> setParameter(Parameter<T> prmtr, T t) {
+        if (prmtr.getName() != null) {
+            if (transformers.containsKey(prmtr.getName())) {
+                return setParameter(prmtr.getName(), t);
+            }
+        } else if (prmtr.getPosition() != null && transformers.containsKey(prmtr.getPosition().toString())) {
+            return setParameter(prmtr.getPosition(), t);
+        }
+        return super.setParameter(prmtr, t);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(String string, Object o) {
+        ParameterValueTransformer transformer = transformers.get(string);
+        if (transformer == null) {
+            return super.setParameter(string, o);
+        }
+        if (splitParameterNames.contains(string)) {
+            // The transformer binds the split parameters
+            transformer.transform(o);
+            return this;
+        }
+        return super.setParameter(string, transform(transformer, o));
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(int i, Object o) {
+        // Positional parameters are registered with their position as name
+        String name = Integer.toString(i);
+        ParameterValueTransformer transformer = transformers.get(name);
+        if (transformer == null) {
+            return super.setParameter(i, o);
+        }
+        if (splitParameterNames.contains(name)) {
+            transformer.transform(o);
+            return this;
+        }
+        return super.setParameter(i, transform(transformer, o));
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(Parameter<Calendar> prmtr, Calendar clndr, TemporalType tt) {
+        if (prmtr.getName() != null) {
+            if (transformers.containsKey(prmtr.getName())) {
+                return setParameter(prmtr.getName(), clndr, tt);
+            }
+        } else if (prmtr.getPosition() != null && transformers.containsKey(prmtr.getPosition().toString())) {
+            return setParameter(prmtr.getPosition(), clndr, tt);
+        }
+        return super.setParameter(prmtr, clndr, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(Parameter<Date> prmtr, Date date, TemporalType tt) {
+        if (prmtr.getName() != null) {
+            if (transformers.containsKey(prmtr.getName())) {
+                return setParameter(prmtr.getName(), date, tt);
+            }
+        } else if (prmtr.getPosition() != null && transformers.containsKey(prmtr.getPosition().toString())) {
+            return setParameter(prmtr.getPosition(), date, tt);
+        }
+        return super.setParameter(prmtr, date, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(String string, Calendar clndr, TemporalType tt) {
+        ParameterValueTransformer transformer = transformers.get(string);
+        if (transformer == null) {
+            return super.setParameter(string, clndr, tt);
+        }
+        return setTemporalParameter(string, transformer, clndr, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(String string, Date date, TemporalType tt) {
+        ParameterValueTransformer transformer = transformers.get(string);
+        if (transformer == null) {
+            return super.setParameter(string, date, tt);
+        }
+        return setTemporalParameter(string, transformer, date, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(int i, Calendar clndr, TemporalType tt) {
+        ParameterValueTransformer transformer = transformers.get(Integer.toString(i));
+        if (transformer == null) {
+            return super.setParameter(i, clndr, tt);
+        }
+        return setTemporalParameter(Integer.toString(i), transformer, clndr, tt);
+    }
+
+    @Override
+    public TypedQuery<X> setParameter(int i, Date date, TemporalType tt) {
+        ParameterValueTransformer transformer = transformers.get(Integer.toString(i));
+        if (transformer == null) {
+            return super.setParameter(i, date, tt);
+        }
+        return setTemporalParameter(Integer.toString(i), transformer, date, tt);
+    }
+
+    private TypedQuery<X> setTemporalParameter(String name, ParameterValueTransformer transformer, Object o, TemporalType tt) {
+        Object value = transformer.transform(o);
+        if (splitParameterNames.contains(name)) {
+            // The transformer binds the split parameters
+            return this;
+        }
+        // Positional parameters are registered with their position as name
+        boolean positional = Character.isDigit(name.charAt(0));
+        // The temporal type only applies if the transformer retains a temporal value
+        if (value instanceof Calendar) {
+            return positional ? super.setParameter(Integer.parseInt(name), (Calendar) value, tt) : super.setParameter(name, (Calendar) value, tt);
+        } else if (value instanceof Date) {
+            return positional ? super.setParameter(Integer.parseInt(name), (Date) value, tt) : super.setParameter(name, (Date) value, tt);
+        }
+        return positional ? super.setParameter(Integer.parseInt(name), value) : super.setParameter(name, value);
+    }
+
+    private static Object transform(ParameterValueTransformer transformer, Object o) {
+        if (o instanceof Collection<?>) {
+            Collection<?> values = (Collection<?>) o;
+            List<Object> list = new ArrayList<>(values.size());
+            for (Object value : values) {
+                list.add(transformer.transform(value));
+            }
+            return list;
+        }
+        return transformer.transform(o);
+    }
+}
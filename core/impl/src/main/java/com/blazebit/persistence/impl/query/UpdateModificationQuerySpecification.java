@@ -77,7 +77,7 @@ public class UpdateModificationQuerySpecification<T> extends ModificationQuerySp
                         sb.append(tableToUpdate);
                     }
                     sb.append(" set ");
-                    applySetClause(sb, Arrays.asList(SqlUtils.getSelectItemExpressions(sql, 0)));
+                    applySetClause(sb, Arrays.asList(SqlUtils.getSelectItemExpressions(sql, 0)), null);
                     sb.append(sql, fromIndex, sql.length());
                     if (dbmsDialect.getUpdateJoinStyle() == UpdateJoinStyle.FROM) {
                         sb.append(" and ").append(tableToUpdate).append('.').append(idColumns[0]).append(" = ").append(tableAlias).append(".").append(idColumns[0]);
@@ -101,7 +101,7 @@ public class UpdateModificationQuerySpecification<T> extends ModificationQuerySp
                     sb.append(") tmp ");
 
                     sb.append("set ");
-                    applySetClause(sb, SqlUtils.getExpressionItems(sql, groupByIndex + SqlUtils.GROUP_BY.length(), sql.length()));
+                    applySetClause(sb, SqlUtils.getExpressionItems(sql, groupByIndex + SqlUtils.GROUP_BY.length(), sql.length()), getSetClauseRemappings());
 
                     sb.append(" where ");
                     sb.append(tableToUpdate).append('.').append(idColumns[0]).append(" = tmp.c0");
@@ -129,7 +129,7 @@ public class UpdateModificationQuerySpecification<T> extends ModificationQuerySp
                         sb.append(" and ").append(tableToUpdate).append('.').append(idColumn).append(" = tmp.c").append(i);
                     }
                     sb.append(") when matched then update set ");
-                    applySetClause(sb, SqlUtils.getExpressionItems(sql, groupByIndex + SqlUtils.GROUP_BY.length(), sql.length()));
+                    applySetClause(sb, SqlUtils.getExpressionItems(sql, groupByIndex + SqlUtils.GROUP_BY.length(), sql.length()), getSetClauseRemappings());
 
                     break;
                 default:
@@ -158,14 +158,29 @@ public class UpdateModificationQuerySpecification<T> extends ModificationQuerySp
         this.dirty = false;
     }
 
-    private void applySetClause(StringBuilder sb, List<String> selectItemExpressions) {
+    /**
+     * Returns the column expression remappings to apply to the set clause expressions when the set clause is rendered
+     * outside of the derived table that contains the joined tables, or <code>null</code> if no remapping should be done.
+     *
+     * @return the column expression remappings or <code>null</code>
+     */
+    protected Map<String, String> getSetClauseRemappings() {
+        return aliasMapping;
+    }
+
+    private void applySetClause(StringBuilder sb, List<String> selectItemExpressions, Map<String, String> columnExpressionRemappings) {
         for (int i = 0; i < selectItemExpressions.size(); i++) {
             if (i != 0) {
                 sb.append(", ");
             }
             String item = selectItemExpressions.get(i);
             sb.append(setColumns.get(i)).append(" = ");
+            int startIndex = sb.length();
             sb.append(item, item.indexOf('=') + 1, item.lastIndexOf(" then "));
+            if (columnExpressionRemappings != null) {
+                // Column references of the set clause expression must go through the derived table
+                SqlUtils.remapColumnExpressions(sb, columnExpressionRemappings, startIndex, sb.length());
+            }
         }
     }
 }
@@ -0,0 +1,72 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.dialect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class EstimatedRowCountTest {
+
+    @Test
+    public void postgresqlPlan() {
+        Assert.assertEquals(12345L, new PostgreSQLDbmsDialect().extractEstimatedRowCount(Arrays.asList(
+                "Aggregate  (cost=10.00..10.01 rows=1 width=8)",
+                "  ->  Seq Scan on document d  (cost=0.00..9.00 rows=12345 width=0)",
+                "        Filter: ((name)::text = $1)"
+        )));
+    }
+
+    @Test
+    public void postgresqlParallelPlan() {
+        Assert.assertEquals(3000L, new PostgreSQLDbmsDialect().extractEstimatedRowCount(Arrays.asList(
+                "Finalize Aggregate  (cost=10.00..10.01 rows=1 width=8)",
+                "  ->  Gather  (cost=9.00..10.00 rows=2 width=8)",
+                "        Workers Planned: 2",
+                "        ->  Partial Aggregate  (cost=9.00..9.01 rows=1 width=8)",
+                "              ->  Parallel Seq Scan on document d  (cost=0.00..8.00 rows=1000 width=0)"
+        )));
+    }
+
+    @Test
+    public void postgresqlParallelPlanUnknownWorkers() {
+        Assert.assertEquals(-1L, new PostgreSQLDbmsDialect().extractEstimatedRowCount(Arrays.asList(
+                "Finalize Aggregate  (cost=10.00..10.01 rows=1 width=8)",
+                "  ->  Gather  (cost=9.00..10.00 rows=2 width=8)",
+                "        Workers Planned: unknown",
+                "        ->  Partial Aggregate  (cost=9.00..9.01 rows=1 width=8)",
+                "              ->  Parallel Seq Scan on document d  (cost=0.00..8.00 rows=1000 width=0)"
+        )));
+    }
+
+    @Test
+    public void postgresqlNoPlan() {
+        Assert.assertEquals(-1L, new PostgreSQLDbmsDialect().extractEstimatedRowCount(Collections.emptyList()));
+    }
+
+    @Test
+    public void mysqlPlan() {
+        Assert.assertEquals(250L, new MySQLDbmsDialect().extractEstimatedRowCount(Arrays.asList(
+                new Object[]{ BigInteger.ONE, "SIMPLE", "d", null, "ALL", null, null, null, null, BigInteger.valueOf(1000), 50d, "Using where" },
+                new Object[]{ BigInteger.ONE, "SIMPLE", "p", null, "eq_ref", "PRIMARY", "PRIMARY", "8", "d.owner_id", BigInteger.ONE, 50d, "Using where" }
+        )));
+    }
+
+    @Test
+    public void mariadbPlan() {
+        Assert.assertEquals(1000L, new MariaDBDbmsDialect().extractEstimatedRowCount(Collections.singletonList(
+                new Object[]{ BigInteger.ONE, "SIMPLE", "d", "ALL", null, null, null, null, BigInteger.valueOf(1000), "Using where" }
+        )));
+    }
+
+    @Test
+    public void unsupported() {
+        Assert.assertNull(new H2DbmsDialect().getEstimatedRowCountSql("select count(*) from document"));
+    }
+}
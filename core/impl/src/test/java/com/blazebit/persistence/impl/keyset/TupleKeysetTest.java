@@ -0,0 +1,143 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.keyset;
+
+import com.blazebit.persistence.DefaultKeyset;
+import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.KeysetCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+
+public class TupleKeysetTest {
+
+    @Test
+    public void readsElementsThroughPositions() {
+        // Select items: name, id, then the keyset suffix element and the inlined count
+        Object[] row = { "doc", 1L, 42, 10L };
+        int[] positions = KeysetPaginationHelper.getKeysetPositions(new int[]{ -1, 1 }, row.length, 2);
+        TupleKeyset keyset = new TupleKeyset(row, positions);
+
+        Assert.assertEquals(2, keyset.size());
+        Assert.assertEquals(42, keyset.get(0));
+        Assert.assertEquals(1L, keyset.get(1));
+        Assert.assertArrayEquals(new Serializable[]{ 42, 1L }, keyset.getTuple());
+        Assert.assertSame(keyset.getTuple(), keyset.getTuple());
+    }
+
+    @Test
+    public void equalsDefaultKeyset() {
+        TupleKeyset keyset = new TupleKeyset(new Object[]{ "doc", 1L }, new int[]{ 0, 1 });
+        DefaultKeyset defaultKeyset = new DefaultKeyset(new Serializable[]{ "doc", 1L });
+
+        Assert.assertEquals(defaultKeyset, keyset);
+        Assert.assertEquals(keyset, defaultKeyset);
+        Assert.assertEquals(defaultKeyset.hashCode(), keyset.hashCode());
+    }
+
+    @Test
+    public void serializesAsDefaultKeyset() throws Exception {
+        TupleKeyset keyset = new TupleKeyset(new Object[]{ new Object(), 1L }, new int[]{ 1 });
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(keyset);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            Object result = ois.readObject();
+            Assert.assertEquals(DefaultKeyset.class, result.getClass());
+            Assert.assertArrayEquals(new Serializable[]{ 1L }, ((Keyset) result).getTuple());
+        }
+    }
+
+    @Test
+    public void codecRoundTrip() {
+        Timestamp timestamp = new Timestamp(1_600_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        Serializable[] tuple = {
+            null, "text ä€", Integer.MIN_VALUE, -1, Long.MAX_VALUE, (short) -3, (byte) -128, true, false, 'x', 1.5f, -2.25d,
+            new BigInteger("-123456789012345678901234567890"), new BigDecimal("-12345.6789"), UUID.randomUUID(),
+            new Date(-1000L), new java.sql.Date(86_400_000L), new java.sql.Time(3_600_000L), timestamp,
+            Instant.ofEpochSecond(-5, 7), LocalDate.of(1900, 1, 1), LocalTime.of(23, 59, 59, 999_999_999),
+            LocalDateTime.of(2020, 2, 29, 12, 0), OffsetDateTime.of(2020, 2, 29, 12, 0, 0, 0, ZoneOffset.ofHours(-5)), Locale.GERMANY
+        };
+        Object[] row = new Object[tuple.length + 1];
+        int[] positions = new int[tuple.length];
+        for (int i = 0; i < tuple.length; i++) {
+            row[i + 1] = tuple[i];
+            positions[i] = i + 1;
+        }
+
+        KeysetCodec codec = new KeysetCodec(Locale.class);
+        byte[] bytes = codec.encode(new TupleKeyset(row, positions));
+        Keyset decoded = codec.decode(bytes);
+
+        Assert.assertArrayEquals(tuple, decoded.getTuple());
+        for (int i = 0; i < tuple.length; i++) {
+            if (tuple[i] != null) {
+                Assert.assertEquals(tuple[i].getClass(), decoded.getTuple()[i].getClass());
+            }
+        }
+        Assert.assertArrayEquals(bytes, codec.encode(new DefaultKeyset(tuple)));
+    }
+
+    @Test
+    public void copyDoesNotReferenceRow() {
+        Object[] row = { new Object(), 1L };
+        TupleKeyset keyset = new TupleKeyset(row, new int[]{ 1 });
+        Keyset copy = keyset.copy();
+        row[1] = 2L;
+
+        Assert.assertEquals(DefaultKeyset.class, copy.getClass());
+        Assert.assertEquals(2L, keyset.get(0));
+        Assert.assertArrayEquals(new Serializable[]{ 1L }, copy.getTuple());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void codecRejectsUnregisteredSerializableElementOnEncode() {
+        KeysetCodec.INSTANCE.encode(new DefaultKeyset(new Serializable[]{ Locale.GERMANY }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void codecRejectsUnregisteredSerializableElementOnDecode() {
+        byte[] bytes = new KeysetCodec(Locale.class).encode(new DefaultKeyset(new Serializable[]{ Locale.GERMANY }));
+        KeysetCodec.INSTANCE.decode(bytes);
+    }
+
+    @Test
+    public void codecCompactness() {
+        byte[] bytes = KeysetCodec.INSTANCE.encode(new DefaultKeyset(new Serializable[]{ 1L, "a" }));
+        // Length, long tag and value, string tag, length and character
+        Assert.assertEquals(6, bytes.length);
+    }
+
+    @Test
+    public void codecKeysetWithoutTuple() {
+        Assert.assertNull(KeysetCodec.INSTANCE.decode(KeysetCodec.INSTANCE.encode(new DefaultKeyset(null))).getTuple());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void codecRejectsTruncatedInput() {
+        byte[] bytes = KeysetCodec.INSTANCE.encode(new DefaultKeyset(new Serializable[]{ "abc" }));
+        KeysetCodec.INSTANCE.decode(java.util.Arrays.copyOf(bytes, bytes.length - 1));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.ParameterValueTransformer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class ParameterTransformingTypedQueryTest {
+
+    private static final ParameterValueTransformer UPPER_CASE = new ParameterValueTransformer() {
+        @Override
+        public ParameterValueTransformer forQuery(Query query) {
+            return this;
+        }
+
+        @Override
+        public Object transform(Object originalValue) {
+            return ((String) originalValue).toUpperCase();
+        }
+    };
+
+    private static final long ONE_DAY = 24 * 60 * 60 * 1000L;
+    private static final ParameterValueTransformer NEXT_DAY = new ParameterValueTransformer() {
+        @Override
+        public ParameterValueTransformer forQuery(Query query) {
+            return this;
+        }
+
+        @Override
+        public Object transform(Object originalValue) {
+            if (originalValue instanceof Calendar) {
+                Calendar calendar = (Calendar) ((Calendar) originalValue).clone();
+                calendar.add(Calendar.DAY_OF_MONTH, 1);
+                return calendar;
+            }
+            return new Date(((Date) originalValue).getTime() + ONE_DAY);
+        }
+    };
+
+    private final Map<Object, Object> boundValues = new HashMap<>();
+    private final Map<Object, Object> boundTemporalTypes = new HashMap<>();
+
+    @Test
+    public void transformsNamedParameter() {
+        TypedQuery<Object> query = createQuery(Collections.singletonMap("name", UPPER_CASE));
+        query.setParameter("name", "value");
+        query.setParameter("other", "value");
+        Assert.assertEquals("VALUE", boundValues.get("name"));
+        Assert.assertEquals("value", boundValues.get("other"));
+    }
+
+    @Test
+    public void transformsPositionalParameter() {
+        TypedQuery<Object> query = createQuery(Collections.singletonMap("1", UPPER_CASE));
+        query.setParameter(1, "value");
+        query.setParameter(2, "value");
+        Assert.assertEquals("VALUE", boundValues.get(1));
+        Assert.assertEquals("value", boundValues.get(2));
+    }
+
+    @Test
+    public void transformsCollectionElements() {
+        TypedQuery<Object> query = createQuery(Collections.singletonMap("1", UPPER_CASE));
+        query.setParameter(1, Arrays.asList("a", "b"));
+        Assert.assertEquals(Arrays.asList("A", "B"), boundValues.get(1));
+    }
+
+    @Test
+    public void transformsTemporalDateParameter() {
+        TypedQuery<Object> query = createQuery(Collections.singletonMap("date", NEXT_DAY));
+        query.setParameter("date", new Date(0L), TemporalType.DATE);
+        query.setParameter("other", new Date(0L), TemporalType.DATE);
+        Assert.assertEquals(new Date(ONE_DAY), boundValues.get("date"));
+        Assert.assertEquals(TemporalType.DATE, boundTemporalTypes.get("date"));
+        Assert.assertEquals(new Date(0L), boundValues.get("other"));
+    }
+
+    @Test
+    public void transformsTemporalCalendarParameter() {
+        TypedQuery<Object> query = createQuery(Collections.singletonMap("1", NEXT_DAY));
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(0L);
+        query.setParameter(1, calendar, TemporalType.TIMESTAMP);
+        Assert.assertEquals(ONE_DAY, ((Calendar) boundValues.get(1)).getTimeInMillis());
+        Assert.assertEquals(TemporalType.TIMESTAMP, boundTemporalTypes.get(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<Object> createQuery(Map<String, ParameterValueTransformer> transformers) {
+        TypedQuery<Object> delegate = (TypedQuery<Object>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ TypedQuery.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("setParameter".equals(method.getName())) {
+                    boundValues.put(args[0], args[1]);
+                    if (args.length == 3) {
+                        boundTemporalTypes.put(args[0], args[2]);
+                    }
+                }
+                return proxy;
+            }
+        });
+        return new ParameterTransformingTypedQuery<>(delegate, transformers, Collections.<String>emptySet());
+    }
+}
@@ -85,4 +85,64 @@ public final class CharSequenceUtils {
         }
     }
 
+    public static int parseInt(CharSequence charSequence) {
+        return parseInt(charSequence, 0, charSequence.length());
+    }
+
+    public static int parseInt(CharSequence charSequence, int start, int end) {
+        long value = parseLong(charSequence, start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range: " + charSequence.subSequence(start, end));
+        }
+        return (int) value;
+    }
+
+    public static long parseLong(CharSequence charSequence) {
+        return parseLong(charSequence, 0, charSequence.length());
+    }
+
+    /**
+     * Parses the decimal long value in the given range of the char sequence without creating an intermediate string.
+     *
+     * @param charSequence The char sequence
+     * @param start The start index, inclusive
+     * @param end The end index, exclusive
+     * @return The parsed value
+     * @throws NumberFormatException If the range does not contain a parsable long
+     */
+    public static long parseLong(CharSequence charSequence, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Empty number at: " + start);
+        }
+        int i = start;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        char first = charSequence.charAt(i);
+        if (first == '-' || first == '+') {
+            if (end - start == 1) {
+                throw new NumberFormatException("Invalid number: " + charSequence.subSequence(start, end));
+            }
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            }
+            i++;
+        }
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        // Accumulate negatively like Long.parseLong to be able to represent Long.MIN_VALUE
+        for (; i < end; i++) {
+            int digit = charSequence.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw new NumberFormatException("Invalid number: " + charSequence.subSequence(start, end));
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("Invalid number: " + charSequence.subSequence(start, end));
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser;
+
+/**
+ * A precomputed lookup from JSON object keys to field positions that can be shared between parse invocations.
+ * Keys are matched directly against the parsed character region, so no key strings are created while parsing.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public final class JsonFieldIndex {
+
+    private static final int CACHED_MULTISET_SIZES = 64;
+    private static final JsonFieldIndex[] MULTISET_INDEXES = new JsonFieldIndex[CACHED_MULTISET_SIZES];
+
+    static {
+        for (int i = 0; i < CACHED_MULTISET_SIZES; i++) {
+            MULTISET_INDEXES[i] = new JsonFieldIndex(createMultisetFields(i), true);
+        }
+    }
+
+    private final String[] fields;
+    private final boolean multiset;
+
+    private JsonFieldIndex(String[] fields, boolean multiset) {
+        this.fields = fields;
+        this.multiset = multiset;
+    }
+
+    /**
+     * Creates a field index for the given field names.
+     *
+     * @param fields The field names in the order of the positions they should be mapped to
+     * @return The field index
+     */
+    public static JsonFieldIndex of(String... fields) {
+        return new JsonFieldIndex(fields.clone(), false);
+    }
+
+    /**
+     * Returns the field index for the keys <code>f0</code> to <code>f(size - 1)</code> as produced by the multiset functions.
+     *
+     * @param size The number of fields
+     * @return The field index
+     */
+    public static JsonFieldIndex forMultiset(int size) {
+        if (size < CACHED_MULTISET_SIZES) {
+            return MULTISET_INDEXES[size];
+        }
+        return new JsonFieldIndex(createMultisetFields(size), true);
+    }
+
+    private static String[] createMultisetFields(int size) {
+        String[] fields = new String[size];
+        for (int i = 0; i < size; i++) {
+            fields[i] = "f" + i;
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the field names. The returned array is shared and must not be modified.
+     *
+     * @return The field names
+     */
+    public String[] getFields() {
+        return fields;
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Returns the position of the field whose name equals the given character region, or -1 if there is no such field.
+     * Since JSON objects produced by the JSON functions list keys in field order, the expected position is checked first.
+     *
+     * @param sequence The sequence containing the key
+     * @param start The start index of the key, inclusive
+     * @param end The end index of the key, exclusive
+     * @param expectedIndex The position that is expected for the key
+     * @return The field position or -1
+     */
+    public int indexOf(CharSequence sequence, int start, int end, int expectedIndex) {
+        if (multiset) {
+            int length = end - start;
+            if (length < 2 || length > 10 || sequence.charAt(start) != 'f' || (length > 2 && sequence.charAt(start + 1) == '0')) {
+                return -1;
+            }
+            int index = 0;
+            for (int i = start + 1; i < end; i++) {
+                int digit = sequence.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                index = index * 10 + digit;
+            }
+            return index < fields.length ? index : -1;
+        }
+        if (expectedIndex >= 0 && expectedIndex < fields.length && regionEquals(fields[expectedIndex], sequence, start, end)) {
+            return expectedIndex;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (i != expectedIndex && regionEquals(fields[i], sequence, start, end)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(String field, CharSequence sequence, int start, int end) {
+        int length = end - start;
+        if (field.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (field.charAt(i) != sequence.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -6,9 +6,7 @@
 package com.blazebit.persistence.parser;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This is a specialized parser for the JSON structure that will be produced by the JSON functions in Blaze-Persistence.
@@ -19,102 +17,116 @@ import java.util.Map;
  */
 public final class JsonParser {
 
+    private static final ThreadLocal<StringBuilder> ESCAPE_BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder();
+        }
+    };
+
     private JsonParser() {
     }
 
     public static List<Object[]> parseStringOnly(CharSequence json, String... fields) {
+        return parse(json, JsonFieldIndex.of(fields));
+    }
+
+    /**
+     * Parses the JSON array of objects into a list of tuples with the positions given by the field index.
+     * String values without escapes, unquoted scalars like numbers or booleans and nested arrays are returned as
+     * {@link SubSequence} of the input, so that consumers can decode them without an intermediate string.
+     * Only strings that contain escape sequences are materialized, using a per-thread buffer.
+     *
+     * @param json The JSON to parse
+     * @param fieldIndex The field index to determine tuple positions
+     * @return The list of tuples
+     */
+    public static List<Object[]> parse(CharSequence json, JsonFieldIndex fieldIndex) {
         List<Object[]> list = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
         if (json != null && json.length() != 0) {
-            Map<String, Integer> fieldMap = new HashMap<>(fields.length);
-            for (int i = 0; i < fields.length; i++) {
-                fieldMap.put(fields[i], i);
-            }
-
+            int size = fieldIndex.size();
             int start = CharSequenceUtils.indexOf(json, '[') + 1;
             int end = CharSequenceUtils.lastIndexOf(json, ']');
             for (int i = start; i < end; i++) {
-                Object[] object = new Object[fields.length];
-                boolean quoteMode = false;
-                int fieldIndex = -1;
-                boolean escapes = false;
-                i = CharSequenceUtils.indexOf(json, '{', i) + 1;
+                i = CharSequenceUtils.indexOf(json, '{', i, end);
+                if (i == -1) {
+                    break;
+                }
+                i++;
+                Object[] object = new Object[size];
+                boolean expectKey = true;
+                int fieldPosition = -1;
+                int lastFieldPosition = -1;
                 for (; i < end; i++) {
                     char c = json.charAt(i);
-                    if (!quoteMode) {
-                        if (c == '"') {
-                            quoteMode = true;
-                        } else if (c == '}') {
-                            break;
-                        } else if (c != ':' && c != ',' && !Character.isWhitespace(c)) {
-                            // non-string value
-                            switch (c) {
-                                case 'n':
-                                    object[fieldIndex] = null;
-                                    i += 3;
-                                    fieldIndex = -1;
-                                    escapes = false;
-                                    break;
-                                case '[':
-                                    // Nested object handling
-                                    int nestedEnd = findEnd(json, i);
-                                    object[fieldIndex] = new SubSequence(json, i, nestedEnd);
-                                    fieldIndex = -1;
-                                    i = nestedEnd - 1;
-                                    break;
-                                default:
-                                    throw new IllegalArgumentException("Non-String value unsupported! Found at: " + i);
+                    if (c == '"') {
+                        int stringStart = i + 1;
+                        int stringEnd = stringStart;
+                        StringBuilder sb = null;
+                        for (; stringEnd < end; stringEnd++) {
+                            c = json.charAt(stringEnd);
+                            if (c == '"') {
+                                break;
+                            } else if (c == '\\') {
+                                if (sb == null) {
+                                    sb = ESCAPE_BUFFER.get();
+                                    sb.setLength(0);
+                                    sb.append(json, stringStart, stringEnd);
+                                }
+                                stringEnd = unescape(json, stringEnd + 1, sb);
+                            } else if (sb != null) {
+                                sb.append(c);
                             }
                         }
-                    } else {
-                        if (c == '\\') {
-                            escapes = true;
-                            c = json.charAt(++i);
-                            switch (c) {
-                                case 'b':
-                                    c = '\b';
-                                    break;
-                                case 'f':
-                                    c = '\f';
-                                    break;
-                                case 'r':
-                                    c = '\r';
-                                    break;
-                                case 'n':
-                                    c = '\n';
-                                    break;
-                                case 't':
-                                    c = '\t';
-                                    break;
-                                case 'u':
-                                    c = (char) Integer.parseInt(json.subSequence(i + 1, i + 5).toString(), 16);
-                                    i += 4;
-                                    break;
-                                case '"':
-                                case '\\':
-                                case '/':
-                                    break;
-                                default:
-                                    throw new IllegalStateException("Unexpected escape sequence at position: " + i);
-                            }
-                            sb.append(c);
-                        } else if (c == '"') {
-                            if (fieldIndex == -1) {
-                                fieldIndex = fieldMap.get(sb.toString());
+                        if (expectKey) {
+                            if (sb == null) {
+                                fieldPosition = fieldIndex.indexOf(json, stringStart, stringEnd, lastFieldPosition + 1);
                             } else {
-                                if (escapes) {
-                                    object[fieldIndex] = sb.toString();
+                                fieldPosition = fieldIndex.indexOf(sb, 0, sb.length(), lastFieldPosition + 1);
+                            }
+                            expectKey = false;
+                        } else {
+                            if (fieldPosition != -1) {
+                                if (sb == null) {
+                                    object[fieldPosition] = new SubSequence(json, stringStart, stringEnd);
                                 } else {
-                                    object[fieldIndex] = new SubSequence(json, i - sb.length(), i);
+                                    object[fieldPosition] = sb.toString();
                                 }
-                                fieldIndex = -1;
-                                escapes = false;
+                                lastFieldPosition = fieldPosition;
                             }
-                            sb.setLength(0);
-                            quoteMode = false;
+                            expectKey = true;
+                        }
+                        i = stringEnd;
+                    } else if (c == '}') {
+                        break;
+                    } else if (c != ':' && c != ',' && !Character.isWhitespace(c)) {
+                        if (expectKey) {
+                            throw new IllegalArgumentException("Expected an object key at: " + i);
+                        }
+                        // non-string value
+                        int valueEnd;
+                        Object value;
+                        if (c == '[') {
+                            // Nested object handling
+                            valueEnd = findEnd(json, i);
+                            value = new SubSequence(json, i, valueEnd);
+                        } else if (c == '{') {
+                            throw new IllegalArgumentException("Nested object value unsupported! Found at: " + i);
                         } else {
-                            sb.append(c);
+                            valueEnd = findScalarEnd(json, i, end);
+                            if (c == 'n' && valueEnd - i == 4) {
+                                value = null;
+                            } else {
+                                // Numbers and booleans are left for the consumer to decode
+                                value = new SubSequence(json, i, valueEnd);
+                            }
                         }
+                        if (fieldPosition != -1) {
+                            object[fieldPosition] = value;
+                            lastFieldPosition = fieldPosition;
+                        }
+                        expectKey = true;
+                        i = valueEnd - 1;
                     }
                 }
                 list.add(object);
@@ -123,6 +135,57 @@ public final class JsonParser {
         return list;
     }
 
+    private static int unescape(CharSequence json, int i, StringBuilder sb) {
+        char c = json.charAt(i);
+        switch (c) {
+            case 'b':
+                c = '\b';
+                break;
+            case 'f':
+                c = '\f';
+                break;
+            case 'r':
+                c = '\r';
+                break;
+            case 'n':
+                c = '\n';
+                break;
+            case 't':
+                c = '\t';
+                break;
+            case 'u':
+                int codePoint = 0;
+                for (int j = 1; j < 5; j++) {
+                    int digit = Character.digit(json.charAt(i + j), 16);
+                    if (digit == -1) {
+                        throw new IllegalStateException("Unexpected unicode escape sequence at position: " + i);
+                    }
+                    codePoint = (codePoint << 4) | digit;
+                }
+                c = (char) codePoint;
+                i += 4;
+                break;
+            case '"':
+            case '\\':
+            case '/':
+                break;
+            default:
+                throw new IllegalStateException("Unexpected escape sequence at position: " + i);
+        }
+        sb.append(c);
+        return i;
+    }
+
+    private static int findScalarEnd(CharSequence json, int i, int end) {
+        for (i++; i < end; i++) {
+            final char c = json.charAt(i);
+            if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                return i;
+            }
+        }
+        return i;
+    }
+
     private static int findEnd(CharSequence json, int i) {
         int arrayLevel = 1;
         int end = json.length();
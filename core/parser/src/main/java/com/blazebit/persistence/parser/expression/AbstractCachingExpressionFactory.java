@@ -186,6 +186,7 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
             }
         }
 
+        // Only immutable nodes like literals are shared, the other nodes are copied because the query builders modify them in place
         return (E) expr.copy(ExpressionCopyContext.EMPTY);
     }
 
@@ -0,0 +1,254 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An expression cache that bounds the number of entries per cache name with a segmented LRU policy.
+ *
+ * New entries enter a probationary segment and are promoted to a protected segment when they are accessed again before
+ * being considered for eviction. Eviction only ever removes entries from the probationary segment, so that a burst of
+ * one-off expressions can't displace the frequently used ones. Accesses are only recorded through a flag so that the read
+ * path stays lock free, the reordering is done lazily on insert which makes this a CLOCK approximation of SLRU.
+ *
+ * A maximum size can be configured for a cache name, which can either be the fully qualified cache name or the simple name
+ * i.e. the part after the last dot. Cache names without a configured maximum size use the default maximum size.
+ *
+ * @param <T> The cache value type
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class BoundedExpressionCache<T> implements ExpressionCache<T> {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 2048;
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final ConcurrentMap<String, Segment<T>> cacheManager;
+    private final int defaultMaximumSize;
+    private final Map<String, Integer> maximumSizes;
+
+    public BoundedExpressionCache() {
+        this(DEFAULT_MAXIMUM_SIZE, Collections.<String, Integer>emptyMap());
+    }
+
+    public BoundedExpressionCache(int defaultMaximumSize, Map<String, Integer> maximumSizes) {
+        if (defaultMaximumSize < 1) {
+            throw new IllegalArgumentException("Invalid maximum size: " + defaultMaximumSize);
+        }
+        for (Map.Entry<String, Integer> entry : maximumSizes.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() < 1) {
+                throw new IllegalArgumentException("Invalid maximum size for cache '" + entry.getKey() + "': " + entry.getValue());
+            }
+        }
+        this.cacheManager = new ConcurrentHashMap<>();
+        this.defaultMaximumSize = defaultMaximumSize;
+        this.maximumSizes = new HashMap<>(maximumSizes);
+    }
+
+    @Override
+    public T get(String cacheName, Key key) {
+        final Segment<T> cache = cacheManager.get(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(key);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, Key key, T value) {
+        return getOrCreateSegment(cacheName).putIfAbsent(key, value);
+    }
+
+    /**
+     * Returns the number of cache hits for the given cache name.
+     *
+     * @param cacheName The cache name
+     * @return The hit count
+     */
+    public long getHitCount(String cacheName) {
+        Segment<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0L : cache.hits.get();
+    }
+
+    /**
+     * Returns the number of cache misses for the given cache name.
+     *
+     * @param cacheName The cache name
+     * @return The miss count
+     */
+    public long getMissCount(String cacheName) {
+        Segment<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0L : cache.misses.get();
+    }
+
+    /**
+     * Returns the number of evicted entries for the given cache name.
+     *
+     * @param cacheName The cache name
+     * @return The eviction count
+     */
+    public long getEvictionCount(String cacheName) {
+        Segment<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0L : cache.evictions.get();
+    }
+
+    /**
+     * Returns the current number of entries for the given cache name.
+     *
+     * @param cacheName The cache name
+     * @return The number of entries
+     */
+    public int getSize(String cacheName) {
+        Segment<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0 : cache.map.size();
+    }
+
+    /**
+     * Returns the maximum number of entries for the given cache name.
+     *
+     * @param cacheName The cache name
+     * @return The maximum number of entries
+     */
+    public int getMaximumSize(String cacheName) {
+        Integer maximumSize = maximumSizes.get(cacheName);
+        if (maximumSize == null) {
+            maximumSize = maximumSizes.get(cacheName.substring(cacheName.lastIndexOf('.') + 1));
+            if (maximumSize == null) {
+                return defaultMaximumSize;
+            }
+        }
+        return maximumSize;
+    }
+
+    private Segment<T> getOrCreateSegment(String cacheName) {
+        Segment<T> cache = cacheManager.get(cacheName);
+
+        if (cache == null) {
+            cache = new Segment<>(getMaximumSize(cacheName));
+            Segment<T> oldCache = cacheManager.putIfAbsent(cacheName, cache);
+
+            if (oldCache != null) {
+                cache = oldCache;
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static final class Entry<T> {
+        final Key key;
+        final T value;
+        volatile boolean referenced;
+
+        Entry(Key key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static final class Segment<T> {
+        final ConcurrentMap<Key, Entry<T>> map;
+        final int maximumSize;
+        final int protectedMaximumSize;
+        final ArrayDeque<Entry<T>> probation;
+        final ArrayDeque<Entry<T>> protectedQueue;
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+
+        Segment(int maximumSize) {
+            this.map = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+            this.maximumSize = maximumSize;
+            this.protectedMaximumSize = Math.max(1, (int) ((long) maximumSize * PROTECTED_PERCENTAGE / 100));
+            this.probation = new ArrayDeque<>();
+            this.protectedQueue = new ArrayDeque<>();
+        }
+
+        T get(Key key) {
+            Entry<T> entry = map.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            // Avoid the volatile write if possible
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.value;
+        }
+
+        T putIfAbsent(Key key, T value) {
+            Entry<T> entry = new Entry<>(key, value);
+            Entry<T> oldEntry = map.putIfAbsent(key, entry);
+            if (oldEntry != null) {
+                return oldEntry.value;
+            }
+
+            synchronized (this) {
+                probation.addLast(entry);
+                evictIfNecessary();
+            }
+
+            return value;
+        }
+
+        private void evictIfNecessary() {
+            while (probation.size() + protectedQueue.size() > maximumSize) {
+                Entry<T> candidate = probation.pollFirst();
+                if (candidate == null) {
+                    demoteProtectedHead();
+                    continue;
+                }
+                if (candidate.referenced) {
+                    // Give the candidate a second chance by promoting it into the protected segment
+                    candidate.referenced = false;
+                    protectedQueue.addLast(candidate);
+                    if (protectedQueue.size() > protectedMaximumSize) {
+                        demoteProtectedHead();
+                    }
+                } else {
+                    map.remove(candidate.key, candidate);
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        private void demoteProtectedHead() {
+            Entry<T> entry;
+            while ((entry = protectedQueue.pollFirst()) != null) {
+                if (entry.referenced) {
+                    // Recently used entries stay in the protected segment
+                    entry.referenced = false;
+                    protectedQueue.addLast(entry);
+                    if (protectedQueue.size() <= protectedMaximumSize) {
+                        return;
+                    }
+                } else {
+                    probation.addLast(entry);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -22,7 +22,8 @@ public class DateLiteral extends TemporalLiteral {
 
     @Override
     public Expression copy(ExpressionCopyContext copyContext) {
-        return new DateLiteral((Date) value.clone());
+        // We can do this since this is immutable
+        return this;
     }
 
     @Override
@@ -31,7 +31,8 @@ public class EntityLiteral extends AbstractExpression implements LiteralExpressi
 
     @Override
     public Expression copy(ExpressionCopyContext copyContext) {
-        return new EntityLiteral(value, originalExpression);
+        // We can do this since this is immutable
+        return this;
     }
 
     @Override
@@ -31,7 +31,8 @@ public class EnumLiteral extends AbstractExpression implements LiteralExpression
 
     @Override
     public Expression copy(ExpressionCopyContext copyContext) {
-        return new EnumLiteral(value, originalExpression);
+        // We can do this since this is immutable
+        return this;
     }
 
     @Override
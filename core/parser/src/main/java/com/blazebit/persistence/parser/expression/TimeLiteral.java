@@ -22,7 +22,8 @@ public class TimeLiteral extends TemporalLiteral {
 
     @Override
     public Expression copy(ExpressionCopyContext copyContext) {
-        return new TimeLiteral((Date) value.clone());
+        // We can do this since this is immutable
+        return this;
     }
 
     @Override
@@ -23,7 +23,8 @@ public class TimestampLiteral extends TemporalLiteral {
 
     @Override
     public Expression copy(ExpressionCopyContext copyContext) {
-        return new TimestampLiteral((Date) value.clone());
+        // We can do this since this is immutable
+        return this;
     }
 
     @Override
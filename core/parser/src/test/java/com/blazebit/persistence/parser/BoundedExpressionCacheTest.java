@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class BoundedExpressionCacheTest {
+
+    private static final String CACHE_NAME = "com.blazebit.persistence.parser.expression.cache.PathExpression";
+
+    @Test
+    public void testEvictsWhenFull() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(10, Collections.<String, Integer>emptyMap());
+        for (int i = 0; i < 100; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("expr" + i), "value" + i);
+        }
+
+        Assert.assertEquals(10, cache.getSize(CACHE_NAME));
+        Assert.assertEquals(90, cache.getEvictionCount(CACHE_NAME));
+    }
+
+    @Test
+    public void testFrequentlyUsedEntriesSurvive() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(10, Collections.<String, Integer>emptyMap());
+        cache.putIfAbsent(CACHE_NAME, key("hot"), "hot");
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("hot", cache.get(CACHE_NAME, key("hot")));
+            cache.putIfAbsent(CACHE_NAME, key("expr" + i), "value" + i);
+        }
+
+        Assert.assertEquals("hot", cache.get(CACHE_NAME, key("hot")));
+        Assert.assertNull(cache.get(CACHE_NAME, key("expr0")));
+        Assert.assertEquals(101, cache.getHitCount(CACHE_NAME));
+        Assert.assertEquals(1, cache.getMissCount(CACHE_NAME));
+    }
+
+    @Test
+    public void testPutIfAbsentReturnsExistingValue() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>();
+        Assert.assertEquals("a", cache.putIfAbsent(CACHE_NAME, key("expr"), "a"));
+        Assert.assertEquals("a", cache.putIfAbsent(CACHE_NAME, key("expr"), "b"));
+        Assert.assertEquals(1, cache.getSize(CACHE_NAME));
+    }
+
+    @Test
+    public void testMaximumSizePerCacheName() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(100, Collections.singletonMap("PathExpression", 5));
+
+        Assert.assertEquals(5, cache.getMaximumSize(CACHE_NAME));
+        Assert.assertEquals(100, cache.getMaximumSize("com.blazebit.persistence.parser.expression.cache.SimpleExpression"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new BoundedExpressionCache<>(0, Collections.<String, Integer>emptyMap());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSizePerCacheName() {
+        new BoundedExpressionCache<>(100, Collections.singletonMap("PathExpression", 0));
+    }
+
+    private static ExpressionCache.Key key(String expression) {
+        return new ExpressionCache.Key(expression, false, false, false);
+    }
+}
@@ -23,4 +23,22 @@ public class CharSequenceUtilsTest {
         assertEquals(6, CharSequenceUtils.lastIndexOf(new SubSequence(new SubSequence("[{x:[{y:[{z:0}]}]}]", 4, 17), 4, 11), ']'));
     }
 
+    @Test
+    public void testParseLong() {
+        assertEquals(12L, CharSequenceUtils.parseLong("12"));
+        assertEquals(-9223372036854775808L, CharSequenceUtils.parseLong("-9223372036854775808"));
+        assertEquals(9223372036854775807L, CharSequenceUtils.parseLong("+9223372036854775807"));
+        assertEquals(-1, CharSequenceUtils.parseInt("x-1y", 1, 3));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseIntOverflow() {
+        CharSequenceUtils.parseInt("2147483648");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseLongInvalid() {
+        CharSequenceUtils.parseLong("1a");
+    }
+
 }
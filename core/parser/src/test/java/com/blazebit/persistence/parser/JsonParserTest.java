@@ -8,6 +8,8 @@ package com.blazebit.persistence.parser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertArrayEquals;
 
 /**
@@ -44,6 +46,30 @@ public class JsonParserTest {
         assertEquals(new Object[]{ "1", "test" }, JsonParser.parseStringOnly("[{\"age\": \"1\", \"name\": \"test\"}, {\"age\": \"1\", \"name\": \"test\"}]", "age", "name").get(1));
     }
 
+    @Test
+    public void testUnquotedScalars() {
+        Object[] object = JsonParser.parseStringOnly("[{\"name\": \"test\", \"age\": 12, \"active\": true, \"deleted\": false, \"parent\": null}]", "name", "age", "active", "deleted", "parent").get(0);
+        assertEquals(new Object[]{ "test", "12", "true", "false", null }, object);
+        Assert.assertEquals(12L, CharSequenceUtils.parseLong((CharSequence) object[1]));
+    }
+
+    @Test
+    public void testMultisetFieldIndex() {
+        JsonFieldIndex fieldIndex = JsonFieldIndex.forMultiset(3);
+        Assert.assertSame(fieldIndex, JsonFieldIndex.forMultiset(3));
+        assertArrayEquals(new String[]{ "f0", "f1", "f2" }, fieldIndex.getFields());
+        List<Object[]> objects = JsonParser.parse("[{\"f2\":\"c\",\"f0\":\"a\",\"f3\":\"x\",\"f1\":[{\"f0\":\"b\"}]},{\"f0\":\"d\"}]", fieldIndex);
+        Assert.assertEquals(2, objects.size());
+        assertEquals(new Object[]{ "a", "[{\"f0\":\"b\"}]", "c" }, objects.get(0));
+        assertEquals(new Object[]{ "d", null, null }, objects.get(1));
+        assertEquals(new Object[]{ "b" }, JsonParser.parse((CharSequence) objects.get(0)[1], JsonFieldIndex.forMultiset(1)).get(0));
+    }
+
+    @Test
+    public void testEscapedKey() {
+        assertEquals(new Object[]{ "test", "1" }, JsonParser.parseStringOnly("[{\"na\\u006De\": \"test\", \"age\": \"1\"}]", "name", "age").get(0));
+    }
+
     private static void assertEquals(Object[] array1, Object[] array2) {
         Assert.assertEquals(array1.length, array2.length);
         for (int i = 0; i < array1.length; i++) {
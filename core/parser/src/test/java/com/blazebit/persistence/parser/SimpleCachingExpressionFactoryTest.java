@@ -9,6 +9,7 @@ import com.blazebit.persistence.parser.expression.ArrayExpression;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.FunctionExpression;
 import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.MacroFunction;
 import com.blazebit.persistence.parser.expression.PathElementExpression;
@@ -93,4 +94,20 @@ public class SimpleCachingExpressionFactoryTest {
         Assert.assertFalse(expr1 == expr2);
         Assert.assertEquals(expr1, expr2);
     }
+
+    @Test
+    public void testCreateSimpleExpressionCacheSharesImmutableNodes() {
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true));
+        String expressionString = "COALESCE(Hello.world, 'abc', 1, {d '1991-05-21'})";
+
+        FunctionExpression expr1 = (FunctionExpression) ef.createSimpleExpression(expressionString, false, true, false, null, null);
+        FunctionExpression expr2 = (FunctionExpression) ef.createSimpleExpression(expressionString, false, true, false, null, null);
+
+        Assert.assertFalse(expr1 == expr2);
+        Assert.assertFalse(expr1.getExpressions().get(0) == expr2.getExpressions().get(0));
+        Assert.assertTrue(expr1.getExpressions().get(1) == expr2.getExpressions().get(1));
+        Assert.assertTrue(expr1.getExpressions().get(2) == expr2.getExpressions().get(2));
+        Assert.assertTrue(expr1.getExpressions().get(3) == expr2.getExpressions().get(3));
+        Assert.assertEquals(expr1, expr2);
+    }
 }
@@ -206,6 +206,26 @@ public class DelegatingDbmsDialect implements DbmsDialect {
         return delegate.getLateralStyle();
     }
 
+    @Override
+    public String getEstimatedRowCountSql(String sql) {
+        return delegate.getEstimatedRowCountSql(sql);
+    }
+
+    @Override
+    public long extractEstimatedRowCount(List<?> resultRows) {
+        return delegate.extractEstimatedRowCount(resultRows);
+    }
+
+    @Override
+    public int getMaxBindParameters() {
+        return delegate.getMaxBindParameters();
+    }
+
+    @Override
+    public int getMaxInListSize() {
+        return delegate.getMaxInListSize();
+    }
+
     @Override
     public String getPhysicalRowId() {
         return delegate.getPhysicalRowId();
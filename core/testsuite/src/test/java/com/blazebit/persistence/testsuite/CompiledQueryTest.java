@@ -0,0 +1,194 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CompiledQuery;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.IntIdEntity;
+import com.blazebit.persistence.testsuite.entity.NameObject;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.LockModeType;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class CompiledQueryTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                IntIdEntity i1 = new IntIdEntity("i1");
+                Document doc1 = new Document("doc1");
+                Document doc2 = new Document("doc2");
+                Document doc3 = new Document("doc3");
+                doc1.setOwner(o1);
+                doc2.setOwner(o1);
+                doc3.setOwner(o2);
+                doc1.setNameObject(new NameObject("doc1Primary", "doc1Secondary", i1));
+                doc3.setNameObject(new NameObject("doc3Primary", "doc3Secondary", i1));
+
+                em.persist(i1);
+                em.persist(o1);
+                em.persist(o2);
+                em.persist(doc1);
+                em.persist(doc2);
+                em.persist(doc3);
+            }
+        });
+    }
+
+    @Test
+    public void testRebindParameters() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eqExpression(":name")
+                .orderByAsc("d.name");
+        CompiledQuery<Document> compiledQuery = cbf.compile(criteria);
+
+        List<Document> karl1Documents = compiledQuery.createQuery(em).setParameter("name", "Karl1").getResultList();
+        List<Document> karl2Documents = compiledQuery.createQuery(em).setParameter("name", "Karl2").getResultList();
+
+        assertEquals(criteria.getQueryString(), compiledQuery.getQueryString());
+        assertEquals(Collections.singleton("name"), compiledQuery.getParameterNames());
+        assertEquals(2, karl1Documents.size());
+        assertEquals("doc1", karl1Documents.get(0).getName());
+        assertEquals("doc2", karl1Documents.get(1).getName());
+        assertEquals(1, karl2Documents.size());
+        assertEquals("doc3", karl2Documents.get(0).getName());
+    }
+
+    @Test
+    public void testDefaultParameterValues() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq("Karl1")
+                .where("d.name").inExpressions(":names")
+                .setParameter("names", Arrays.asList("doc1", "doc3"));
+        CompiledQuery<Document> compiledQuery = cbf.compile(criteria);
+
+        // Changing the builder after compilation must not affect the compiled query
+        criteria.setParameter("names", Collections.singletonList("doc2"));
+
+        assertEquals(1, compiledQuery.createQuery(em).getResultList().size());
+        assertEquals(2, compiledQuery.createQuery(em).setParameter("names", Arrays.asList("doc1", "doc2")).getResultList().size());
+    }
+
+    @Test
+    public void testDefaultEmbeddableParameterValue() {
+        IntIdEntity i1 = cbf.create(em, IntIdEntity.class).getSingleResult();
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.nameObject").eqExpression(":nameObject")
+                .setParameter("nameObject", new NameObject("doc1Primary", "doc1Secondary", i1));
+        CompiledQuery<Document> compiledQuery = cbf.compile(criteria);
+
+        List<Document> doc1Result = compiledQuery.createQuery(em).getResultList();
+        List<Document> doc3Result = compiledQuery.createQuery(em).setParameter("nameObject", new NameObject("doc3Primary", "doc3Secondary", i1)).getResultList();
+
+        assertEquals(Collections.singleton("nameObject"), compiledQuery.getParameterNames());
+        assertEquals(1, doc1Result.size());
+        assertEquals("doc1", doc1Result.get(0).getName());
+        assertEquals(1, doc3Result.size());
+        assertEquals("doc3", doc3Result.get(0).getName());
+    }
+
+    @Test
+    public void testPositionalParameter() {
+        Person karl2 = cbf.create(em, Person.class, "p").where("p.name").eq("Karl2").getSingleResult();
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner").eqExpression("?1");
+        CompiledQuery<Document> compiledQuery = cbf.compile(criteria);
+
+        List<Document> result = compiledQuery.createQuery(em).setParameter(1, karl2).getResultList();
+        assertEquals(1, result.size());
+        assertEquals("doc3", result.get(0).getName());
+    }
+
+    @Test
+    public void testQueryOptions() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eqExpression(":name");
+        CompiledQuery<Document> compiledQuery = cbf.compile(criteria)
+                .withHint("javax.persistence.query.timeout", 1000)
+                .withLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .withFlushMode(FlushModeType.COMMIT);
+
+        TypedQuery<Document> query = compiledQuery.createQuery(em);
+        assertEquals(1000, query.getHints().get("javax.persistence.query.timeout"));
+        assertEquals(LockModeType.PESSIMISTIC_WRITE, query.getLockMode());
+        assertEquals(FlushModeType.COMMIT, query.getFlushMode());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCompileQueryWithCustomObjectBuilder() {
+        CriteriaBuilder<String> criteria = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .selectNew(new ObjectBuilder<String>() {
+
+                    @Override
+                    public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+                        selectBuilder.select("d.name");
+                    }
+
+                    @Override
+                    public String build(Object[] tuple) {
+                        return (String) tuple[0];
+                    }
+
+                    @Override
+                    public List<String> buildList(List<String> list) {
+                        return list;
+                    }
+                });
+        cbf.compile(criteria);
+    }
+
+    @Test
+    public void testObjectBuilder() {
+        CriteriaBuilder<Tuple> criteria = cbf.create(em, Tuple.class)
+                .from(Document.class, "d")
+                .select("d.name", "name")
+                .where("d.owner.name").eqExpression(":name")
+                .orderByAsc("d.name");
+        CompiledQuery<Tuple> compiledQuery = cbf.compile(criteria);
+
+        List<Tuple> result = compiledQuery.createQuery(em).setParameter("name", "Karl2").getResultList();
+        assertEquals(1, result.size());
+        assertEquals("doc3", result.get(0).get("name"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testCompileQueryWithEntityFunction() {
+        CriteriaBuilder<Long> criteria = cbf.create(em, Long.class)
+                .fromValues(Long.class, "allowedAge", Collections.singleton(1L))
+                .select("allowedAge");
+        cbf.compile(criteria);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.DefaultCountCache;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class PaginationConcurrentCountTest extends AbstractCoreTest {
+
+    private ExecutorService executorService;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(i < 3 ? o1 : o2);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Before
+    public void startExecutor() {
+        executorService = Executors.newSingleThreadExecutor();
+        executions.set(0);
+    }
+
+    @After
+    public void stopExecutor() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void testConcurrentCountQuery() {
+        PaginatedCriteriaBuilder<Document> builder = page("Karl1", 0);
+        assertFalse(builder.isWithInlineCountQuery());
+
+        PagedList<Document> firstPage = builder.getResultList();
+        assertEquals(2, firstPage.size());
+        assertEquals(3, firstPage.getTotalSize());
+        assertEquals(1, executions.get());
+
+        PagedList<Document> secondPage = page("Karl1", 2).getResultList();
+        assertEquals(1, secondPage.size());
+        assertEquals(3, secondPage.getTotalSize());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testConcurrentCountQueryBeyondLastPage() {
+        PagedList<Document> page = page("Karl2", 4).getResultList();
+        assertEquals(0, page.size());
+        assertEquals(2, page.getTotalSize());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testConcurrentCountQueryUsesCountCache() {
+        DefaultCountCache countCache = new DefaultCountCache(10, 1, TimeUnit.MINUTES);
+        assertEquals(3, page("Karl1", 0).withCountCache(countCache).getResultList().getTotalSize());
+        assertEquals(3, page("Karl1", 2).withCountCache(countCache).getResultList().getTotalSize());
+        assertEquals(1, executions.get());
+    }
+
+    private PaginatedCriteriaBuilder<Document> page(String ownerName, int firstResult) {
+        return cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq(ownerName)
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(firstResult, 2)
+                .withCountQueryExecutor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        executions.incrementAndGet();
+                        executorService.execute(command);
+                    }
+                });
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.DefaultCountCache;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class PaginationCountCacheTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(i < 3 ? o1 : o2);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testCountIsReusedForFurtherPages() {
+        DefaultCountCache countCache = new DefaultCountCache(10, 1, TimeUnit.MINUTES);
+        PagedList<Document> firstPage = page(countCache, "Karl1", 0).getResultList();
+        assertEquals(3, firstPage.getTotalSize());
+        assertEquals(1, countCache.size());
+
+        // Delete a document behind the back of the cache so that a re-executed count query would be noticed
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.createQuery("DELETE FROM Document d WHERE d.name = 'doc0'").executeUpdate();
+            }
+        });
+        try {
+            PagedList<Document> secondPage = page(countCache, "Karl1", 2).getResultList();
+            assertEquals(3, secondPage.getTotalSize());
+
+            countCache.invalidate(page(countCache, "Karl1", 0).getPageCountQueryString());
+            assertEquals(2, page(countCache, "Karl1", 0).getResultList().getTotalSize());
+        } finally {
+            transactional(new TxVoidWork() {
+                @Override
+                public void work(EntityManager em) {
+                    Document doc = new Document("doc0");
+                    doc.setOwner(em.createQuery("SELECT p FROM Person p WHERE p.name = 'Karl1'", Person.class).getSingleResult());
+                    em.persist(doc);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testCountIsKeyedByParameterValues() {
+        DefaultCountCache countCache = new DefaultCountCache(10, 1, TimeUnit.MINUTES);
+        assertEquals(3, page(countCache, "Karl1", 0).getResultList().getTotalSize());
+        assertEquals(2, page(countCache, "Karl2", 0).getResultList().getTotalSize());
+        assertEquals(2, countCache.size());
+        assertEquals(3, page(countCache, "Karl1", 0).getQuery().getTotalCount());
+    }
+
+    @Test
+    public void testCountCacheDisablesInlineCountQuery() {
+        PaginatedCriteriaBuilder<Document> builder = page(new DefaultCountCache(10, 1, TimeUnit.MINUTES), "Karl1", 0);
+        assertFalse(builder.isWithInlineCountQuery());
+    }
+
+    private PaginatedCriteriaBuilder<Document> page(DefaultCountCache countCache, String ownerName, int firstResult) {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq(ownerName)
+                .orderByAsc("d.name")
+                .orderByAsc("d.id");
+        return criteria.page(firstResult, 2).withCountCache(countCache);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.impl.dialect.H2DbmsDialect;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+public class PaginationEstimatedCountTest extends AbstractCoreTest {
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        if ("h2".equals(dbms)) {
+            // H2 has no row estimates, so the estimate is faked by a query that still binds the parameters of the count query
+            config.registerDialect("h2", new DelegatingDbmsDialect(new H2DbmsDialect()) {
+                @Override
+                public String getEstimatedRowCountSql(String sql) {
+                    return "select 5000 * t.cnt from (" + sql + ") t(cnt)";
+                }
+
+                @Override
+                public long extractEstimatedRowCount(List<?> resultRows) {
+                    return ((Number) resultRows.get(0)).longValue();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(i < 3 ? o1 : o2);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testEstimateAboveThreshold() {
+        Assume.assumeTrue(dbmsDialect instanceof DelegatingDbmsDialect);
+        PaginatedCriteriaBuilder<Document> builder = page("Karl1").withEstimatedCount(10000);
+        assertFalse(builder.isWithInlineCountQuery());
+        PagedList<Document> result = builder.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(15000, result.getTotalSize());
+    }
+
+    @Test
+    public void testExactCountBelowThreshold() {
+        Assume.assumeTrue(dbmsDialect instanceof DelegatingDbmsDialect);
+        PagedList<Document> result = page("Karl2").withEstimatedCount(20000).getResultList();
+        assertEquals(2, result.size());
+        assertEquals(2, result.getTotalSize());
+    }
+
+    @Test
+    public void testExactCountWithoutThreshold() {
+        assertEquals(3, page("Karl1").withEstimatedCount(Long.MAX_VALUE).getResultList().getTotalSize());
+    }
+
+    @Test
+    public void testEstimateBindsParametersInSqlOrder() {
+        Assume.assumeTrue(dbmsDialect instanceof DelegatingDbmsDialect);
+        // The estimate only reaches the threshold if duplicated and collection valued parameters are bound like in the count query
+        PaginatedCriteriaBuilder<Document> builder = cbf.create(em, Document.class, "d")
+                .whereExpression("(d.owner.name = :owner OR d.name = :owner) AND d.name IN :names AND d.owner.name <> :other")
+                .setParameter("owner", "Karl1")
+                .setParameter("names", Arrays.asList("doc0", "doc1", "doc3"))
+                .setParameter("other", "Karl2")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withEstimatedCount(10000);
+        PagedList<Document> result = builder.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(10000, result.getTotalSize());
+    }
+
+    private PaginatedCriteriaBuilder<Document> page(String ownerName) {
+        return cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq(ownerName)
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.DefaultKeysetIndexCache;
+import com.blazebit.persistence.KeysetIndex;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class PaginationKeysetIndexTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+                for (int i = 0; i < 10; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(o1);
+                    em.persist(doc);
+                }
+                Document doc = new Document("other");
+                doc.setOwner(o2);
+                em.persist(doc);
+            }
+        });
+    }
+
+    @Test
+    public void testJumpToPage() {
+        DefaultKeysetIndexCache keysetIndexCache = buildKeysetIndex();
+        PaginatedCriteriaBuilder<Document> builder = page(keysetIndexCache, 7);
+        PagedList<Document> page = builder.getResultList();
+        assertTrue(builder.getQueryString().contains("_keysetParameter_0"));
+        assertEquals(1, keysetIndexCache.size());
+        assertEquals(2, page.size());
+        assertEquals("doc7", page.get(0).getName());
+        assertEquals("doc8", page.get(1).getName());
+        assertEquals(7, page.getFirstResult());
+        assertEquals(10, page.getTotalSize());
+
+        page = page(keysetIndexCache, 9).getResultList();
+        assertEquals(1, keysetIndexCache.size());
+        assertEquals(1, page.size());
+        assertEquals("doc9", page.get(0).getName());
+    }
+
+    @Test
+    public void testQueryStringMatchesQuery() {
+        DefaultKeysetIndexCache keysetIndexCache = buildKeysetIndex();
+        PaginatedCriteriaBuilder<Document> builder = page(keysetIndexCache, 7);
+        String queryString = builder.getQueryString();
+        assertTrue(queryString.contains("_keysetParameter_0"));
+        builder.getResultList();
+        assertEquals(queryString, builder.getQueryString());
+
+        // Pages before the first boundary don't seek
+        builder = page(keysetIndexCache, 2);
+        assertFalse(builder.getQueryString().contains("_keysetParameter_0"));
+        assertEquals("doc2", builder.getResultList().get(0).getName());
+    }
+
+    @Test
+    public void testJumpToBoundary() {
+        DefaultKeysetIndexCache keysetIndexCache = buildKeysetIndex();
+        PagedList<Document> page = page(keysetIndexCache, 6).getResultList();
+        assertEquals(2, page.size());
+        assertEquals("doc6", page.get(0).getName());
+        assertEquals("doc7", page.get(1).getName());
+    }
+
+    @Test
+    public void testJumpToPageWithIdQuery() {
+        DefaultKeysetIndexCache keysetIndexCache = buildKeysetIndex();
+        PagedList<Document> page = page(keysetIndexCache, 7).withForceIdQuery(true).withInlineIdQuery(false).getResultList();
+        assertEquals(2, page.size());
+        assertEquals("doc7", page.get(0).getName());
+        assertEquals("doc8", page.get(1).getName());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testJumpToPageWithInlineIdQuery() {
+        DefaultKeysetIndexCache keysetIndexCache = buildKeysetIndex();
+        PagedList<Document> page = page(keysetIndexCache, 7).withForceIdQuery(true).withInlineIdQuery(true).getResultList();
+        assertEquals(2, page.size());
+        assertEquals("doc7", page.get(0).getName());
+        assertEquals("doc8", page.get(1).getName());
+    }
+
+    @Test
+    public void testQueryDoesNotBuildIndex() {
+        DefaultKeysetIndexCache keysetIndexCache = new DefaultKeysetIndexCache(10, 1, TimeUnit.MINUTES);
+        PaginatedCriteriaBuilder<Document> builder = page(keysetIndexCache, 7);
+        PagedList<Document> page = builder.getResultList();
+        assertEquals(0, keysetIndexCache.size());
+        assertFalse(builder.getQueryString().contains("_keysetParameter_0"));
+        assertEquals("doc7", page.get(0).getName());
+        assertEquals("doc8", page.get(1).getName());
+    }
+
+    @Test
+    public void testBuildKeysetIndex() {
+        DefaultKeysetIndexCache keysetIndexCache = new DefaultKeysetIndexCache(10, 1, TimeUnit.MINUTES);
+        KeysetIndex keysetIndex = page(keysetIndexCache, 0).buildKeysetIndex();
+        assertEquals(1, keysetIndexCache.size());
+        assertEquals(3, keysetIndex.size());
+        assertEquals("doc2", keysetIndex.getSeekKeyset(3).getTuple()[0]);
+        assertEquals("doc8", keysetIndex.getSeekKeyset(10).getTuple()[0]);
+    }
+
+    @Test
+    public void testInvalidate() {
+        DefaultKeysetIndexCache keysetIndexCache = buildKeysetIndex();
+        PaginatedCriteriaBuilder<Document> builder = page(keysetIndexCache, 4);
+        assertEquals(1, keysetIndexCache.size());
+        keysetIndexCache.invalidate(builder.getKeysetIndexQueryString());
+        assertEquals(0, keysetIndexCache.size());
+    }
+
+    private DefaultKeysetIndexCache buildKeysetIndex() {
+        DefaultKeysetIndexCache keysetIndexCache = new DefaultKeysetIndexCache(10, 1, TimeUnit.MINUTES);
+        page(keysetIndexCache, 0).buildKeysetIndex();
+        return keysetIndexCache;
+    }
+
+    private PaginatedCriteriaBuilder<Document> page(DefaultKeysetIndexCache keysetIndexCache, int firstResult) {
+        return cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq("Karl1")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(firstResult, 2)
+                .withKeysetIndex(keysetIndexCache, 3);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class QueryStringCacheTest extends AbstractCoreTest {
+
+    private static final String CACHE_NAME = "com.blazebit.persistence.impl.cache.QueryString";
+
+    private CriteriaBuilderFactory cachingCbf;
+    private BoundedExpressionCache<?> cache;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                Document doc1 = new Document("doc1");
+                Document doc2 = new Document("doc2");
+                Document doc3 = new Document("doc3");
+                doc1.setOwner(o1);
+                doc2.setOwner(o1);
+                doc3.setOwner(o2);
+
+                em.persist(o1);
+                em.persist(o2);
+                em.persist(doc1);
+                em.persist(doc2);
+                em.persist(doc3);
+            }
+        });
+    }
+
+    @Before
+    public void setUpCachingCbf() {
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        configure(config);
+        config.setProperty(ConfigurationProperties.EXPRESSION_CACHE_CLASS, BoundedExpressionCache.class.getName());
+        config.setProperty(ConfigurationProperties.QUERY_STRING_CACHE_ENABLED, "true");
+        cachingCbf = config.createCriteriaBuilderFactory(em.getEntityManagerFactory());
+        cache = (BoundedExpressionCache<?>) cachingCbf.getService(ExpressionCache.class);
+    }
+
+    @Test
+    public void testSameShapeWithDifferentParameterValuesSharesQueryString() {
+        List<Document> karl1Documents = documentsByOwnerName("Karl1");
+        List<Document> karl2Documents = documentsByOwnerName("Karl2");
+
+        assertEquals(2, karl1Documents.size());
+        assertEquals("doc1", karl1Documents.get(0).getName());
+        assertEquals("doc2", karl1Documents.get(1).getName());
+        assertEquals(1, karl2Documents.size());
+        assertEquals("doc3", karl2Documents.get(0).getName());
+        assertEquals(1, cache.getSize(CACHE_NAME));
+        assertEquals(1, cache.getHitCount(CACHE_NAME));
+    }
+
+    @Test
+    public void testDifferentShapesDontShareQueryString() {
+        List<Document> ascending = cachingCbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .getResultList();
+        List<Document> descending = cachingCbf.create(em, Document.class, "d")
+                .orderByDesc("d.name")
+                .getResultList();
+
+        assertEquals("doc1", ascending.get(0).getName());
+        assertEquals("doc3", descending.get(0).getName());
+        assertEquals(2, cache.getSize(CACHE_NAME));
+        assertEquals(0, cache.getHitCount(CACHE_NAME));
+    }
+
+    @Test
+    public void testModifiedBuilderIsNotCached() {
+        CriteriaBuilder<Document> criteria = cachingCbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq("Karl1")
+                .orderByAsc("d.name");
+        assertEquals(2, criteria.getResultList().size());
+
+        criteria.where("d.name").eq("doc1");
+        assertEquals(1, criteria.getResultList().size());
+        assertEquals(1, cache.getSize(CACHE_NAME));
+    }
+
+    @Test
+    public void testParameterInSelectIsNotCached() {
+        List<Long> result = cachingCbf.create(em, Long.class)
+                .from(Document.class, "d")
+                .select("d.id + :offset")
+                .setParameter("offset", 1L)
+                .getResultList();
+
+        assertEquals(3, result.size());
+        assertEquals(0, cache.getSize(CACHE_NAME));
+    }
+
+    @Test
+    public void testEmptyAndNonEmptyCollectionParametersDontShareQueryString() {
+        List<Long> ids = cbf.create(em, Long.class)
+                .from(Document.class, "d")
+                .select("d.id")
+                .where("d.name").eq("doc1")
+                .getResultList();
+
+        assertEquals(0, documentsByIds(Collections.<Long>emptyList()).size());
+        assertEquals(1, documentsByIds(ids).size());
+        assertEquals(0, documentsByIds(Collections.<Long>emptyList()).size());
+        assertEquals(1, documentsByIds(ids).size());
+        assertEquals(2, cache.getSize(CACHE_NAME));
+        assertEquals(2, cache.getHitCount(CACHE_NAME));
+    }
+
+    private List<Document> documentsByIds(List<Long> ids) {
+        return cachingCbf.create(em, Document.class, "d")
+                .where("d.id").in(ids)
+                .orderByAsc("d.name")
+                .getResultList();
+    }
+
+    private List<Document> documentsByOwnerName(String name) {
+        return cachingCbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq(name)
+                .orderByAsc("d.name")
+                .getResultList();
+    }
+}
@@ -173,6 +173,91 @@ public class UpdateTest extends AbstractCoreTest {
         });
     }
 
+    // NOTE: This requires advanced SQL support
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testImplicitJoinSetExpression() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                final UpdateCriteriaBuilder<Document> cb = cbf.update(em, Document.class, "d");
+                cb.setExpression("name", "owner.name");
+                cb.where("name").eq("D1");
+                cb.where("owner.name").eq("P1");
+                String expected = "UPDATE Document d SET d.name = owner_1.name FROM Document d JOIN d.owner owner_1 WHERE d.name = :param_0 AND owner_1.name = :param_1";
+
+                assertEquals(expected, cb.getQueryString());
+
+                int updateCount = cb.executeUpdate();
+                assertEquals(1, updateCount);
+                em.clear();
+                assertEquals("P1", em.find(Document.class, doc1.getId()).getName());
+                assertEquals("D2", em.find(Document.class, doc2.getId()).getName());
+            }
+        });
+    }
+
+    // NOTE: This requires advanced SQL support
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testImplicitJoinSetExpressionWithUpdatedEntity() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                final UpdateCriteriaBuilder<Document> cb = cbf.update(em, Document.class, "d");
+                cb.setExpression("name", "CONCAT(d.name, owner.name)");
+                cb.set("age", 10L);
+                cb.where("owner.name").eq("P1");
+                cb.where("name").notEq("D3");
+                String expected = "UPDATE Document d SET d.name = CONCAT(d.name,owner_1.name), d.age = :param_0 FROM Document d JOIN d.owner owner_1 WHERE owner_1.name = :param_1 AND d.name <> :param_2";
+
+                assertEquals(expected, cb.getQueryString());
+
+                int updateCount = cb.executeUpdate();
+                assertEquals(2, updateCount);
+                em.clear();
+                Document document1 = em.find(Document.class, doc1.getId());
+                assertEquals("D1P1", document1.getName());
+                assertEquals(10L, document1.getAge());
+                Document document2 = em.find(Document.class, doc2.getId());
+                assertEquals("D2P1", document2.getName());
+                assertEquals(10L, document2.getAge());
+                Document document3 = em.find(Document.class, doc3.getId());
+                assertEquals("D3", document3.getName());
+                assertEquals(0L, document3.getAge());
+            }
+        });
+    }
+
+    // NOTE: This requires advanced SQL support
+    // NOTE: MySQL does not like referencing the table that is being updated in a subquery in the set clause
+    @Test
+    @Category({ NoMySQL.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testImplicitJoinSetSubquery() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                final UpdateCriteriaBuilder<Document> cb = cbf.update(em, Document.class, "d");
+                cb.set("name")
+                        .from(Document.class, "subD")
+                        .select("CONCAT('New', subD.name)")
+                        .where("subD.id").eqExpression("d.id")
+                        .end();
+                cb.where("owner.name").eq("P1");
+                cb.where("name").eq("D1");
+                String expected = "UPDATE Document d SET d.name = (SELECT CONCAT('New',subD.name) FROM Document subD WHERE subD.id = d.id) FROM Document d JOIN d.owner owner_1 WHERE owner_1.name = :param_0 AND d.name = :param_1";
+
+                assertEquals(expected, cb.getQueryString());
+
+                int updateCount = cb.executeUpdate();
+                assertEquals(1, updateCount);
+                em.clear();
+                assertEquals("NewD1", em.find(Document.class, doc1.getId()).getName());
+                assertEquals("D2", em.find(Document.class, doc2.getId()).getName());
+            }
+        });
+    }
+
     // Test for issue #1615
     // NOTE: This requires advanced SQL support
     @Test
@@ -197,6 +282,38 @@ public class UpdateTest extends AbstractCoreTest {
         });
     }
 
+    // NOTE: This requires advanced SQL support
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testValuesJoinSetExpression() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Document newDoc1 = new Document("NewD1");
+                newDoc1.setId(doc1.getId());
+                Document newDoc2 = new Document("NewD2");
+                newDoc2.setId(doc2.getId());
+                final UpdateCriteriaBuilder<Document> cb = cbf.update(em, Document.class, "d");
+                cb.fromValues(Document.class, "v", 2);
+                cb.setExpression("name", "v.name");
+                cb.where("d.id").eqExpression("v.id");
+                cb.setParameter("v", Arrays.asList(newDoc1, newDoc2));
+                String expected = "UPDATE Document d SET d.name = v.name " +
+                    "FROM Document d, Document(2 VALUES) v " +
+                    "WHERE d.id = v.id";
+
+                assertEquals(expected, cb.getQueryString());
+
+                int updateCount = cb.executeUpdate();
+                assertEquals(2, updateCount);
+                em.clear();
+                assertEquals("NewD1", em.find(Document.class, doc1.getId()).getName());
+                assertEquals("NewD2", em.find(Document.class, doc2.getId()).getName());
+                assertEquals("D3", em.find(Document.class, doc3.getId()).getName());
+            }
+        });
+    }
+
     @Test
     public void testParameterExpression() {
         transactional(new TxVoidWork() {
@@ -92,6 +92,20 @@ public final class ConfigurationProperties {
      * @since 1.3.0
      */
     public static final String EXPECT_BATCH_MODE = "com.blazebit.persistence.view.batch_mode";
+    /**
+     * A boolean flag that allows to enable the adaptive choice of the batch size for attributes fetched via {@link FetchStrategy#SELECT}.
+     * The batch size is chosen per query from the number of distinct correlation values, is limited by the batch size configured for an attribute
+     * and the bind parameter and IN list limits of the dbms, and is lowered while batch queries are slow. To avoid one query plan per batch size,
+     * the batch size is rounded to a power of two. If the configured batch size is 1, the batch size is at most 1024.
+     * By default the adaptive batch size is disabled i.e. the default value is <code>false</code>.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     *
+     * To enable the adaptive batch size for a specific attribute, append the attribute name after the "adaptive_batch_size" like
+     * e.g. <code>com.blazebit.persistence.view.adaptive_batch_size.subProperty</code>
+     *
+     * @since 1.6.14
+     */
+    public static final String ADAPTIVE_BATCH_SIZE = "com.blazebit.persistence.view.adaptive_batch_size";
     /**
      * A boolean flag to make it possible to prepare the entity view updater cache on startup.
      * By default the eager loading of entity view updates is disabled to have a better startup performance.
@@ -156,6 +170,19 @@ public final class ConfigurationProperties {
      */
     public static final String UPDATER_ERROR_ON_INVALID_PLURAL_SETTER = "com.blazebit.persistence.view.updater.error_on_invalid_plural_setter";
 
+    /**
+     * A boolean flag to make it possible to flush the updates of multiple entity views with the same dirty attributes via a single
+     * <code>UPDATE</code> statement that joins a <code>VALUES</code> clause, when flushing via {@link EntityViewManager#saveAll(javax.persistence.EntityManager, Iterable)}.
+     * The join is rendered according to the update join style of the DBMS e.g. as <code>MERGE</code> statement. Updates that can't be rendered that way,
+     * like updates of embeddables, associations or non-numeric versions, are still flushed with one statement per entity view.
+     * Note that the update statements are deferred until all entity views of a group are flushed.
+     * By default the use is disabled i.e. the default value is <code>false</code>.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     *
+     * @since 1.6.14
+     */
+    public static final String UPDATER_VALUES_JOIN = "com.blazebit.persistence.view.updater.values_join";
+
     /**
      * A boolean flag that allows to disable a count query for a paginated criteria builder.
      *
@@ -246,6 +273,32 @@ public final class ConfigurationProperties {
      */
     public static final String CREATE_EMPTY_FLAT_VIEWS = "com.blazebit.persistence.view.create_empty_flat_views";
 
+    /**
+     * A {@link java.util.concurrent.Executor} on which the batch queries of independent {@link FetchStrategy#SELECT} correlated attributes are run concurrently.
+     * Only correlated attributes with basic results that are not managed by JPA i.e. no entities, embeddables or subviews, are run on the executor.
+     * Every concurrently executed correlation uses a separate {@link javax.persistence.EntityManager} created from the factory configured via
+     * {@link #CORRELATION_ENTITY_MANAGER_FACTORY}, so it runs outside of the current transaction and does not see uncommitted changes
+     * or state of the current entity manager like Hibernate filters or the tenant.
+     * All other correlations, including the correlations of correlated or multiset fetched subviews, are executed on the current thread.
+     *
+     * By default correlations are executed sequentially i.e. the default value is <code>null</code>.
+     * The property can only be set via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     *
+     * @since 1.6.14
+     */
+    public static final String CORRELATION_EXECUTOR = "com.blazebit.persistence.view.correlation_executor";
+
+    /**
+     * The {@link javax.persistence.EntityManagerFactory} from which the entity managers for concurrently executed correlations are created,
+     * e.g. the factory of a read-only replica. See {@link #CORRELATION_EXECUTOR}.
+     *
+     * By default the factory of the entity manager of the query is used.
+     * The property can only be set via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     *
+     * @since 1.6.14
+     */
+    public static final String CORRELATION_ENTITY_MANAGER_FACTORY = "com.blazebit.persistence.view.correlation_entity_manager_factory";
+
     private ConfigurationProperties() {
     }
 }
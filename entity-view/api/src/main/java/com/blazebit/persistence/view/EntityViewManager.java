@@ -363,6 +363,20 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public void saveFullTo(EntityManager entityManager, Object view, Object entity);
 
+    /**
+     * Saves the entities which the given entity views map to.
+     * Issues partial updates if enabled for the given views. By default, the views are flushed in iteration order
+     * and every view is updated with a separate statement, but consecutive views of the same type with the same dirty attributes
+     * reuse a single update query. When {@link ConfigurationProperties#UPDATER_VALUES_JOIN} is enabled, new views are persisted first
+     * and the update statements of views of the same type with the same dirty attributes are deferred until all views are flushed,
+     * so that they can be executed as a single statement.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @since 1.6.14
+     */
+    public void saveAll(EntityManager entityManager, Iterable<?> views);
+
     /**
      * Updates the entity which the given entity view maps to.
      * Issues a partial update if enabled for the given view.
@@ -397,6 +411,21 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public FlushOperationBuilder saveWith(EntityManager entityManager, Object view);
 
+    /**
+     * Saves the entities which the given entity views map to.
+     * Issues partial updates if enabled for the given views. By default, the views are flushed in iteration order
+     * and every view is updated with a separate statement, but consecutive views of the same type with the same dirty attributes
+     * reuse a single update query. When {@link ConfigurationProperties#UPDATER_VALUES_JOIN} is enabled, new views are persisted first
+     * and the update statements of views of the same type with the same dirty attributes are deferred until all views are flushed,
+     * so that they can be executed as a single statement.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @return A flush operation builder for further configuring the flush operation
+     * @since 1.6.14
+     */
+    public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views);
+
     /**
      * Fully saves the entity which the given entity view maps to.
      *
@@ -199,6 +199,11 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         getEvm().saveFullTo(entityManager, view, entity);
     }
 
+    @Override
+    public void saveAll(EntityManager entityManager, Iterable<?> views) {
+        getEvm().saveAll(entityManager, views);
+    }
+
     @Override
     @Deprecated
     public void update(EntityManager entityManager, Object view) {
@@ -216,6 +221,11 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         return getEvm().saveWith(entityManager, view);
     }
 
+    @Override
+    public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views) {
+        return getEvm().saveAllWith(entityManager, views);
+    }
+
     @Override
     public FlushOperationBuilder saveFullWith(EntityManager entityManager, Object view) {
         return getEvm().saveFullWith(entityManager, view);
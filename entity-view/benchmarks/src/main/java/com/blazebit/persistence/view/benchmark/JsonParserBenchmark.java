@@ -0,0 +1,92 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark;
+
+import com.blazebit.persistence.parser.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding of the JSON produced for a multiset fetched collection.
+ * The JSON is an array with one object per collection element, each with the configured number of fields.
+ * With a depth greater than one, the last field of every element is a nested multiset with the same fan-out,
+ * which the parser only delimits and returns as sub-sequence for the decoding of the nested level.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParserBenchmark {
+
+    @Param({ "4", "16" })
+    public int width;
+    @Param({ "1", "2" })
+    public int depth;
+    @Param({ "10", "100" })
+    public int fanOut;
+
+    private String json;
+    private String[] fields;
+
+    @Setup
+    public void setUp() {
+        fields = new String[width];
+        for (int i = 0; i < width; i++) {
+            fields[i] = "f" + i;
+        }
+        StringBuilder sb = new StringBuilder();
+        appendArray(sb, depth);
+        json = sb.toString();
+    }
+
+    private void appendArray(StringBuilder sb, int level) {
+        sb.append('[');
+        for (int i = 0; i < fanOut; i++) {
+            if (i != 0) {
+                sb.append(',');
+            }
+            sb.append('{');
+            for (int j = 0; j < width; j++) {
+                if (j != 0) {
+                    sb.append(',');
+                }
+                sb.append('"').append(fields[j]).append("\":");
+                if (level > 1 && j == width - 1) {
+                    appendArray(sb, level - 1);
+                } else if (j % 4 == 3) {
+                    sb.append("null");
+                } else {
+                    // Include an escaped quote every now and then to exercise the unescaping
+                    sb.append("\"value").append(i).append(j % 4 == 2 ? "\\\"quoted\\\"" : "").append('"');
+                }
+            }
+            sb.append('}');
+        }
+        sb.append(']');
+    }
+
+    @Benchmark
+    public List<Object[]> parseStringOnly() {
+        return JsonParser.parseStringOnly(json, fields);
+    }
+}
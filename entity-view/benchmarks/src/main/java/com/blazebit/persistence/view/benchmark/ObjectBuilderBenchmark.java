@@ -0,0 +1,189 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.benchmark.entity.Document;
+import com.blazebit.persistence.view.benchmark.view.DeepDocumentView;
+import com.blazebit.persistence.view.benchmark.view.NarrowDocumentView;
+import com.blazebit.persistence.view.benchmark.view.WideDocumentView;
+import com.blazebit.persistence.view.impl.objectbuilder.ChainingCollectionObjectBuilder;
+import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTransformator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.persistence.TypedQuery;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the object building of entity views with a collection over the raw tuples of the entity view query.
+ * The tuples are fetched once, and every invocation works on a copy of them because the tuple transformation
+ * mutates the tuples and the tuple list. The view shape determines the width and depth of the tuples,
+ * the fan-out of the collection is configured through the {@link PersistenceState}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectBuilderBenchmark {
+
+    /**
+     * The entity view shapes to benchmark.
+     */
+    public enum ViewShape {
+        NARROW(NarrowDocumentView.class),
+        WIDE(WideDocumentView.class),
+        DEEP(DeepDocumentView.class);
+
+        private final Class<?> viewClass;
+
+        ViewShape(Class<?> viewClass) {
+            this.viewClass = viewClass;
+        }
+    }
+
+    @Param({ "NARROW", "WIDE", "DEEP" })
+    public ViewShape shape;
+
+    private EntityViewSetting<Object, CriteriaBuilder<Object>> setting;
+    private ObjectBuilder<Object> objectBuilder;
+    private ObjectBuilder<Object> viewObjectBuilder;
+    private TupleTransformator transformator;
+    private List<Object[]> tuples;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp(PersistenceState persistence) throws Exception {
+        setting = EntityViewSetting.create((Class<Object>) shape.viewClass);
+        CriteriaBuilder<Object> criteriaBuilder = createCriteriaBuilder(persistence);
+        TypedQuery<Object> query = criteriaBuilder.getQuery();
+        if (!(query instanceof ObjectBuilderTypedQuery<?>)) {
+            throw new IllegalStateException("Expected an object builder query for " + shape + " but got: " + query);
+        }
+        objectBuilder = (ObjectBuilder<Object>) readField(ObjectBuilderTypedQuery.class, "builder", query);
+        if (!(objectBuilder instanceof ChainingCollectionObjectBuilder<?>)) {
+            throw new IllegalStateException("Expected a collection object builder for " + shape + " but got: " + objectBuilder);
+        }
+        transformator = (TupleTransformator) readField(ChainingCollectionObjectBuilder.class, "transformator", objectBuilder);
+        viewObjectBuilder = (ObjectBuilder<Object>) readField(ChainingCollectionObjectBuilder.class, "objectBuilder", objectBuilder);
+        tuples = persistence.em.createQuery(criteriaBuilder.getQueryString(), Object[].class).getResultList();
+        persistence.em.clear();
+    }
+
+    private CriteriaBuilder<Object> createCriteriaBuilder(PersistenceState persistence) {
+        return persistence.evm.applySetting(setting, persistence.cbf.create(persistence.em, Document.class, "d"));
+    }
+
+    static Object readField(Class<?> clazz, String name, Object instance) throws ReflectiveOperationException {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(instance);
+    }
+
+    static List<Object[]> copy(List<Object[]> tuples) {
+        List<Object[]> copy = new ArrayList<>(tuples.size());
+        for (Object[] tuple : tuples) {
+            copy.add(tuple.clone());
+        }
+        return copy;
+    }
+
+    /**
+     * A fresh copy of the raw tuples for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class RawTuples {
+        List<Object[]> tuples;
+
+        @Setup(Level.Invocation)
+        public void setUp(ObjectBuilderBenchmark benchmark) {
+            tuples = copy(benchmark.tuples);
+        }
+    }
+
+    /**
+     * A fresh copy of the raw tuples that already went through the tuple transformation for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class TransformedTuples {
+        List<Object[]> tuples;
+
+        @Setup(Level.Invocation)
+        public void setUp(ObjectBuilderBenchmark benchmark) {
+            tuples = benchmark.transformator.transformAll(copy(benchmark.tuples));
+        }
+    }
+
+    /**
+     * Clears the object builder template cache of the entity view manager before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class UncachedTemplate {
+        Map<?, ?> objectBuilderCache;
+
+        @Setup
+        public void setUp(PersistenceState persistence) throws Exception {
+            objectBuilderCache = (Map<?, ?>) readField(persistence.evm.getClass(), "objectBuilderCache", persistence.evm);
+        }
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            objectBuilderCache.clear();
+        }
+    }
+
+    @Benchmark
+    public List<Object[]> transformAll(RawTuples rawTuples) {
+        return transformator.transformAll(rawTuples.tuples);
+    }
+
+    @Benchmark
+    public void build(TransformedTuples transformedTuples, Blackhole blackhole) {
+        List<Object[]> list = transformedTuples.tuples;
+        for (int i = 0; i < list.size(); i++) {
+            blackhole.consume(viewObjectBuilder.build(list.get(i)));
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Object> buildList(RawTuples rawTuples) {
+        return objectBuilder.buildList((List<Object>) (List<?>) rawTuples.tuples);
+    }
+
+    @Benchmark
+    public CriteriaBuilder<Object> applySetting(PersistenceState persistence) {
+        return createCriteriaBuilder(persistence);
+    }
+
+    @Benchmark
+    public CriteriaBuilder<Object> applySettingWithTemplateCreation(PersistenceState persistence, UncachedTemplate uncachedTemplate) {
+        return createCriteriaBuilder(persistence);
+    }
+}
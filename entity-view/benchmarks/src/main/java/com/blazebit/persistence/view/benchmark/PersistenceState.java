@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark;
+
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.benchmark.entity.Document;
+import com.blazebit.persistence.view.benchmark.entity.Person;
+import com.blazebit.persistence.view.benchmark.view.DeepDocumentView;
+import com.blazebit.persistence.view.benchmark.view.DeepPersonView;
+import com.blazebit.persistence.view.benchmark.view.FriendPersonView;
+import com.blazebit.persistence.view.benchmark.view.NarrowDocumentView;
+import com.blazebit.persistence.view.benchmark.view.PersonView;
+import com.blazebit.persistence.view.benchmark.view.WideDocumentView;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+/**
+ * Boots the benchmark persistence unit on an in-memory H2 database, creates an entity view manager for it
+ * and persists documents with the configured number of partners. Every partner has a chain of two friends,
+ * so that the deepest view can be fully populated.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Benchmark)
+public class PersistenceState {
+
+    @Param({ "100" })
+    public int documents;
+    @Param({ "1", "10" })
+    public int fanOut;
+
+    public EntityManagerFactory emf;
+    public EntityManager em;
+    public CriteriaBuilderFactory cbf;
+    public EntityViewManager evm;
+
+    @Setup
+    public void setUp() {
+        emf = Persistence.createEntityManagerFactory("benchmark");
+        em = emf.createEntityManager();
+        cbf = Criteria.getDefault().createCriteriaBuilderFactory(emf);
+        EntityViewConfiguration config = EntityViews.createDefaultConfiguration();
+        config.addEntityView(PersonView.class);
+        config.addEntityView(FriendPersonView.class);
+        config.addEntityView(DeepPersonView.class);
+        config.addEntityView(NarrowDocumentView.class);
+        config.addEntityView(WideDocumentView.class);
+        config.addEntityView(DeepDocumentView.class);
+        evm = config.createEntityViewManager(cbf);
+
+        em.getTransaction().begin();
+        for (int i = 0; i < documents; i++) {
+            Person owner = new Person("owner" + i, i);
+            Document document = new Document("doc" + i, owner);
+            document.setDescription("description" + i);
+            document.setAge(i);
+            document.setPageCount(i);
+            document.setRating(i / 10D);
+            document.setArchived(i % 2 == 0);
+            em.persist(owner);
+            em.persist(document);
+            for (int j = 0; j < fanOut; j++) {
+                Person secondFriend = new Person("secondFriend" + i + "_" + j, j);
+                Person firstFriend = new Person("firstFriend" + i + "_" + j, j);
+                Person partner = new Person("partner" + i + "_" + j, j);
+                firstFriend.setFriend(secondFriend);
+                partner.setFriend(firstFriend);
+                partner.setPartnerDocument(document);
+                em.persist(secondFriend);
+                em.persist(firstFriend);
+                em.persist(partner);
+            }
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+}
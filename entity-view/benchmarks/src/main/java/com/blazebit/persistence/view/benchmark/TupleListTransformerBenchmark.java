@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark;
+
+import com.blazebit.persistence.view.impl.collection.CollectionInstantiatorImplementor;
+import com.blazebit.persistence.view.impl.collection.ListCollectionInstantiator;
+import com.blazebit.persistence.view.impl.collection.ListFactory;
+import com.blazebit.persistence.view.impl.collection.PluralObjectFactory;
+import com.blazebit.persistence.view.impl.collection.SetFactory;
+import com.blazebit.persistence.view.impl.collection.UnorderedSetCollectionInstantiator;
+import com.blazebit.persistence.view.impl.objectbuilder.CollectionInstantiatorAccumulator;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.IndexedTupleListTransformer;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.NonIndexedTupleListTransformer;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the tuple list transformers that group collection elements by the parent tuple id on synthetic tuples.
+ * A tuple consists of the parent id, followed by parent attributes up to the configured width,
+ * the list index for the indexed transformer and the collection element.
+ * Every invocation works on a fresh copy of the tuples because the transformers mutate the tuples and the tuple list.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleListTransformerBenchmark {
+
+    private static final int[] PARENT_ID_POSITIONS = { 0 };
+
+    @Param({ "1000" })
+    public int parents;
+    @Param({ "4", "16" })
+    public int width;
+    @Param({ "1", "10" })
+    public int fanOut;
+
+    private TupleListTransformer nonIndexedTransformer;
+    private TupleListTransformer indexedTransformer;
+    private List<Object[]> nonIndexedTuples;
+    private List<Object[]> indexedTuples;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        CollectionInstantiatorImplementor<?, ?> setInstantiator = new UnorderedSetCollectionInstantiator(
+                (PluralObjectFactory<Collection<?>>) (PluralObjectFactory<?>) SetFactory.INSTANCE,
+                Collections.<Class<?>>emptySet(), Collections.<Class<?>>emptySet(), Collections.<Class<?>>emptySet(),
+                false, false, false
+        );
+        CollectionInstantiatorImplementor<?, ?> listInstantiator = new ListCollectionInstantiator(
+                (PluralObjectFactory<Collection<?>>) (PluralObjectFactory<?>) ListFactory.INSTANCE,
+                Collections.<Class<?>>emptySet(), Collections.<Class<?>>emptySet(), Collections.<Class<?>>emptySet(),
+                false, true, false, false, false, null
+        );
+        nonIndexedTransformer = new NonIndexedTupleListTransformer(PARENT_ID_POSITIONS, width, setInstantiator, false, null);
+        indexedTransformer = new IndexedTupleListTransformer(PARENT_ID_POSITIONS, width, width + 1, new CollectionInstantiatorAccumulator(listInstantiator, null, false), false, null, null);
+        nonIndexedTuples = createTuples(false);
+        indexedTuples = createTuples(true);
+    }
+
+    private List<Object[]> createTuples(boolean indexed) {
+        int elementIndex = indexed ? width + 1 : width;
+        List<Object[]> list = new ArrayList<>(parents * fanOut);
+        for (int i = 0; i < parents; i++) {
+            for (int j = 0; j < fanOut; j++) {
+                Object[] tuple = new Object[elementIndex + 1];
+                tuple[0] = (long) i;
+                for (int k = 1; k < width; k++) {
+                    tuple[k] = "attribute" + k + "_" + i;
+                }
+                if (indexed) {
+                    tuple[width] = j;
+                }
+                tuple[elementIndex] = "element" + i + "_" + j;
+                list.add(tuple);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * A fresh copy of the tuples for the non-indexed transformer for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class NonIndexedTuples {
+        List<Object[]> tuples;
+
+        @Setup(Level.Invocation)
+        public void setUp(TupleListTransformerBenchmark benchmark) {
+            tuples = ObjectBuilderBenchmark.copy(benchmark.nonIndexedTuples);
+        }
+    }
+
+    /**
+     * A fresh copy of the tuples for the indexed transformer for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class IndexedTuples {
+        List<Object[]> tuples;
+
+        @Setup(Level.Invocation)
+        public void setUp(TupleListTransformerBenchmark benchmark) {
+            tuples = ObjectBuilderBenchmark.copy(benchmark.indexedTuples);
+        }
+    }
+
+    @Benchmark
+    public List<Object[]> nonIndexed(NonIndexedTuples nonIndexedTuples) {
+        return nonIndexedTransformer.transform(nonIndexedTuples.tuples);
+    }
+
+    @Benchmark
+    public List<Object[]> indexed(IndexedTuples indexedTuples) {
+        return indexedTransformer.transform(indexedTuples.tuples);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark.view;
+
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import com.blazebit.persistence.view.benchmark.entity.Document;
+
+import java.util.Set;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@EntityView(Document.class)
+public interface DeepDocumentView {
+
+    @IdMapping
+    public Long getId();
+
+    public String getName();
+
+    public Set<DeepPersonView> getPartners();
+}
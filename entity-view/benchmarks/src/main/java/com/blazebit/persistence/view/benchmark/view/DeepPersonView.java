@@ -0,0 +1,26 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark.view;
+
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import com.blazebit.persistence.view.benchmark.entity.Person;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@EntityView(Person.class)
+public interface DeepPersonView {
+
+    @IdMapping
+    public Long getId();
+
+    public String getName();
+
+    public FriendPersonView getFriend();
+}
@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.benchmark.view;
+
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import com.blazebit.persistence.view.benchmark.entity.Document;
+
+import java.util.Set;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@EntityView(Document.class)
+public interface WideDocumentView {
+
+    @IdMapping
+    public Long getId();
+
+    public String getName();
+
+    public String getDescription();
+
+    public long getAge();
+
+    public int getPageCount();
+
+    public double getRating();
+
+    public boolean isArchived();
+
+    public PersonView getOwner();
+
+    public Set<PersonView> getPartners();
+}
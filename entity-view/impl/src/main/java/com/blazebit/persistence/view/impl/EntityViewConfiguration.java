@@ -19,6 +19,7 @@ import com.blazebit.persistence.view.metamodel.ViewType;
 import com.blazebit.persistence.view.spi.EmbeddingViewJpqlMacro;
 import com.blazebit.persistence.view.spi.ViewJpqlMacro;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -26,6 +27,7 @@ import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
 
 /**
  * @author Christian Beikov
@@ -42,6 +44,9 @@ public final class EntityViewConfiguration {
     private final NavigableSet<String> fetches;
     private final Map<String, Integer> batchSizeConfiguration;
     private final Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration;
+    private final Map<String, Boolean> adaptiveBatchSizeConfiguration;
+    private final Executor correlationExecutor;
+    private final EntityManagerFactory correlationEntityManagerFactory;
 
     public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, Collection<String> fetches, String attributePath) {
         this(criteriaBuilder, expressionFactory, viewJpqlMacro, embeddingViewJpqlMacro, optionalParameters, properties, getFetches(fetches, attributePath));
@@ -54,6 +59,9 @@ public final class EntityViewConfiguration {
     private EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, NavigableSet<String> fetches) {
         Map<String, Integer> batchSizeConfiguration = new HashMap<String, Integer>(properties.size());
         Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration = new HashMap<>(properties.size());
+        Map<String, Boolean> adaptiveBatchSizeConfiguration = new HashMap<>(properties.size());
+        Executor correlationExecutor = null;
+        EntityManagerFactory correlationEntityManagerFactory = null;
 
         for (Map.Entry<String, Object> entry : properties.entrySet()) {
             String key = entry.getKey();
@@ -87,6 +95,26 @@ public final class EntityViewConfiguration {
                     key = key.substring(ConfigurationProperties.EXPECT_BATCH_MODE.length() + 1);
                     expectBatchCorrelationValuesConfiguration.put(key, value);
                 }
+            } else if (key.startsWith(ConfigurationProperties.ADAPTIVE_BATCH_SIZE)) {
+                Boolean value = getAdaptiveBatchSize(key, entry.getValue());
+                if (key.length() == ConfigurationProperties.ADAPTIVE_BATCH_SIZE.length()) {
+                    adaptiveBatchSizeConfiguration.put("", value);
+                } else if (key.length() < ConfigurationProperties.ADAPTIVE_BATCH_SIZE.length() + 2) {
+                    throw new IllegalArgumentException("Invalid adaptive batch size configuration!");
+                } else {
+                    key = key.substring(ConfigurationProperties.ADAPTIVE_BATCH_SIZE.length() + 1);
+                    adaptiveBatchSizeConfiguration.put(key, value);
+                }
+            } else if (key.equals(ConfigurationProperties.CORRELATION_EXECUTOR)) {
+                if (entry.getValue() != null && !(entry.getValue() instanceof Executor)) {
+                    throw new IllegalArgumentException("Invalid correlation executor configuration, expected an instance of " + Executor.class.getName() + " but got: " + entry.getValue());
+                }
+                correlationExecutor = (Executor) entry.getValue();
+            } else if (key.equals(ConfigurationProperties.CORRELATION_ENTITY_MANAGER_FACTORY)) {
+                if (entry.getValue() != null && !(entry.getValue() instanceof EntityManagerFactory)) {
+                    throw new IllegalArgumentException("Invalid correlation entity manager factory configuration, expected an instance of " + EntityManagerFactory.class.getName() + " but got: " + entry.getValue());
+                }
+                correlationEntityManagerFactory = (EntityManagerFactory) entry.getValue();
             }
         }
 
@@ -98,6 +126,9 @@ public final class EntityViewConfiguration {
         this.fetches = fetches;
         this.batchSizeConfiguration = Collections.unmodifiableMap(batchSizeConfiguration);
         this.expectBatchCorrelationValuesConfiguration = Collections.unmodifiableMap(expectBatchCorrelationValuesConfiguration);
+        this.adaptiveBatchSizeConfiguration = Collections.unmodifiableMap(adaptiveBatchSizeConfiguration);
+        this.correlationExecutor = correlationExecutor;
+        this.correlationEntityManagerFactory = correlationEntityManagerFactory;
         this.criteriaBuilder.registerMacro("view", viewJpqlMacro);
         this.criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
     }
@@ -111,6 +142,10 @@ public final class EntityViewConfiguration {
         this.fetches = fetches;
         this.batchSizeConfiguration = original.batchSizeConfiguration;
         this.expectBatchCorrelationValuesConfiguration = original.expectBatchCorrelationValuesConfiguration;
+        this.adaptiveBatchSizeConfiguration = original.adaptiveBatchSizeConfiguration;
+        // Subview correlations might run on an executor thread already, so we don't fan out further to avoid starving the executor
+        this.correlationExecutor = null;
+        this.correlationEntityManagerFactory = null;
     }
 
     private static NavigableSet<String> getFetches(Collection<String> fetches, String attributePath) {
@@ -215,6 +250,17 @@ public final class EntityViewConfiguration {
         return criteriaBuilder;
     }
 
+    public Executor getCorrelationExecutor() {
+        return correlationExecutor;
+    }
+
+    public EntityManagerFactory getCorrelationEntityManagerFactory() {
+        if (correlationEntityManagerFactory == null) {
+            return criteriaBuilder.getEntityManager().getEntityManagerFactory();
+        }
+        return correlationEntityManagerFactory;
+    }
+
     public ExpressionFactory getExpressionFactory() {
         return expressionFactory;
     }
@@ -263,6 +309,14 @@ public final class EntityViewConfiguration {
         return value;
     }
 
+    public int getMaxBatchSize(int defaultValue) {
+        int maxBatchSize = defaultValue;
+        for (Integer batchSize : batchSizeConfiguration.values()) {
+            maxBatchSize = Math.max(maxBatchSize, batchSize);
+        }
+        return maxBatchSize;
+    }
+
     private Integer getBatchSize(String key, Object value) {
         Integer val = null;
         if (value instanceof Integer) {
@@ -280,6 +334,28 @@ public final class EntityViewConfiguration {
         return val;
     }
 
+    public boolean isAdaptiveBatchSize(String attributePath) {
+        Boolean value = adaptiveBatchSizeConfiguration.get(attributePath);
+        if (value == null) {
+            value = adaptiveBatchSizeConfiguration.get("");
+        }
+        return value != null && value;
+    }
+
+    private Boolean getAdaptiveBatchSize(String key, Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof String) {
+            String s = (String) value;
+            if ("true".equalsIgnoreCase(s)) {
+                return Boolean.TRUE;
+            } else if ("false".equalsIgnoreCase(s)) {
+                return Boolean.FALSE;
+            }
+        }
+        throw new IllegalArgumentException("Invalid adaptive batch size configuration " + value + " for key: " + key);
+    }
+
     public BatchCorrelationMode getExpectBatchCorrelationValues() {
         return getExpectBatchCorrelationValues("");
     }
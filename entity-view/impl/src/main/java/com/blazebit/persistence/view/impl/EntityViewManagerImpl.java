@@ -141,11 +141,13 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -201,6 +203,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private final Map<ViewBuilderKey, Constructor<? extends EntityViewBuilder<?>>> viewBuilderClasses;
     private final boolean unsafeDisabled;
     private final boolean strictCascadingCheck;
+    private final boolean updaterValuesJoin;
 
     public EntityViewManagerImpl(EntityViewConfigurationImpl config, CriteriaBuilderFactory cbf) {
         this.cbf = cbf;
@@ -212,6 +215,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
         this.entityIdAccessor = new EntityIdAttributeAccessor(jpaProvider);
         this.unsafeDisabled = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_UNSAFE_ALLOWED)));
         this.strictCascadingCheck = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_STRICT_CASCADING_CHECK)));
+        this.updaterValuesJoin = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_VALUES_JOIN)));
         this.proxyFactory = new ProxyFactory(unsafeDisabled, strictCascadingCheck, packageOpener);
         this.transactionSupport = config.getTransactionSupport();
         this.optionalParameters = Collections.unmodifiableMap(new HashMap<>(config.getOptionalParameters()));
@@ -1074,6 +1078,16 @@ public class EntityViewManagerImpl implements EntityViewManager {
         updateTo(em, view, entity, true);
     }
 
+    @Override
+    public void saveAll(EntityManager em, Iterable<?> views) {
+        updateAll(new DefaultUpdateContext(this, em, false, views), views);
+    }
+
+    @Override
+    public FlushOperationBuilder saveAllWith(EntityManager em, Iterable<?> views) {
+        return new DefaultUpdateContext(this, em, false, views);
+    }
+
     @Override
     public void remove(EntityManager entityManager, Object view) {
         remove(new DefaultUpdateContext(this, entityManager, false, false, true, null, view, null), view);
@@ -1187,6 +1201,52 @@ public class EntityViewManagerImpl implements EntityViewManager {
         }
     }
 
+    public void updateAll(UpdateContext context, Iterable<?> views) {
+        // Views of the same type with the same dirty attributes render the same update query, so we flush them together.
+        // Only consecutive views are grouped, so that statements are executed in the same order as with separate save calls,
+        // unless the VALUES join updater is enabled, which needs all views of a group at once to coalesce the updates
+        boolean groupAll = updaterValuesJoin;
+        Map<UpdateGroupKey, List<MutableStateTrackable>> groups = new LinkedHashMap<>();
+        try {
+            for (Object view : views) {
+                if (!(view instanceof MutableStateTrackable)) {
+                    throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
+                }
+                MutableStateTrackable updatableProxy = (MutableStateTrackable) view;
+                if (updatableProxy.$$_isNew()) {
+                    if (!groupAll) {
+                        executeUpdates(context, groups);
+                    }
+                    persist(context, updatableProxy);
+                } else {
+                    UpdateGroupKey key = new UpdateGroupKey(updatableProxy.$$_getEntityViewClass(), updatableProxy.$$_getDirty());
+                    List<MutableStateTrackable> group = groups.get(key);
+                    if (group == null) {
+                        if (!groupAll) {
+                            executeUpdates(context, groups);
+                        }
+                        group = new ArrayList<>();
+                        groups.put(key, group);
+                    }
+                    group.add(updatableProxy);
+                }
+            }
+            executeUpdates(context, groups);
+        } catch (Throwable t) {
+            context.getTransactionAccess().markRollbackOnly();
+            ExceptionUtils.doThrow(t);
+        }
+    }
+
+    private void executeUpdates(UpdateContext context, Map<UpdateGroupKey, List<MutableStateTrackable>> groups) {
+        for (Map.Entry<UpdateGroupKey, List<MutableStateTrackable>> entry : groups.entrySet()) {
+            ManagedViewTypeImplementor<?> viewType = metamodel.managedViewOrError(entry.getKey().entityViewClass);
+            EntityViewUpdater updater = getUpdater(null, viewType, null, null, null);
+            updater.executeUpdates(context, entry.getValue());
+        }
+        groups.clear();
+    }
+
     public void updateTo(UpdateContext context, Object view, Object entity) {
         if (!(view instanceof MutableStateTrackable)) {
             throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
@@ -1233,6 +1293,10 @@ public class EntityViewManagerImpl implements EntityViewManager {
         return unsafeDisabled;
     }
 
+    public boolean isUpdaterValuesJoin() {
+        return updaterValuesJoin;
+    }
+
     public boolean supportsTransientReference() {
         return supportsTransientReference;
     }
@@ -1595,4 +1659,42 @@ public class EntityViewManagerImpl implements EntityViewManager {
             return result;
         }
     }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static class UpdateGroupKey {
+        private final Class<?> entityViewClass;
+        private final long[] dirty;
+
+        public UpdateGroupKey(Class<?> entityViewClass, long[] dirty) {
+            this.entityViewClass = entityViewClass;
+            this.dirty = dirty == null ? null : dirty.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof UpdateGroupKey)) {
+                return false;
+            }
+
+            UpdateGroupKey that = (UpdateGroupKey) o;
+
+            if (!entityViewClass.equals(that.entityViewClass)) {
+                return false;
+            }
+            return Arrays.equals(dirty, that.dirty);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = entityViewClass.hashCode();
+            result = 31 * result + Arrays.hashCode(dirty);
+            return result;
+        }
+    }
 }
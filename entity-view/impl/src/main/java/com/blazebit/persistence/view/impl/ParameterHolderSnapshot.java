@@ -0,0 +1,99 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl;
+
+import com.blazebit.persistence.ParameterHolder;
+
+import javax.persistence.Parameter;
+import javax.persistence.TemporalType;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only copy of the parameters and parameter values of a parameter holder,
+ * which can be accessed by other threads than the one that owns the original parameter holder.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class ParameterHolderSnapshot implements ParameterHolder {
+
+    private final Map<String, Parameter<?>> parameters;
+    private final Set<Parameter<?>> parameterSet;
+    private final Map<String, Object> parameterValues;
+
+    public ParameterHolderSnapshot(ParameterHolder<?> parameterHolder) {
+        Set<? extends Parameter<?>> originalParameters = parameterHolder.getParameters();
+        Map<String, Parameter<?>> parameters = new HashMap<>(originalParameters.size());
+        Map<String, Object> parameterValues = new HashMap<>(originalParameters.size());
+        for (Parameter<?> parameter : originalParameters) {
+            String name = parameter.getName();
+            parameters.put(name, parameter);
+            if (parameterHolder.isParameterSet(name)) {
+                parameterValues.put(name, parameterHolder.getParameterValue(name));
+            }
+        }
+        this.parameters = parameters;
+        this.parameterSet = Collections.unmodifiableSet(new LinkedHashSet<Parameter<?>>(originalParameters));
+        this.parameterValues = parameterValues;
+    }
+
+    @Override
+    public ParameterHolder setParameter(String name, Object value) {
+        throw new UnsupportedOperationException("The parameter holder snapshot is read-only!");
+    }
+
+    @Override
+    public ParameterHolder setParameter(String name, Calendar value, TemporalType temporalType) {
+        throw new UnsupportedOperationException("The parameter holder snapshot is read-only!");
+    }
+
+    @Override
+    public ParameterHolder setParameter(String name, Date value, TemporalType temporalType) {
+        throw new UnsupportedOperationException("The parameter holder snapshot is read-only!");
+    }
+
+    @Override
+    public boolean containsParameter(String name) {
+        return parameters.containsKey(name);
+    }
+
+    @Override
+    public boolean isParameterSet(String name) {
+        return parameterValues.containsKey(name);
+    }
+
+    @Override
+    public Parameter<?> getParameter(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public Set<? extends Parameter<?>> getParameters() {
+        return parameterSet;
+    }
+
+    @Override
+    public Object getParameterValue(String name) {
+        return parameterValues.get(name);
+    }
+
+    @Override
+    public ParameterHolder setParameterType(String name, Class type) {
+        throw new UnsupportedOperationException("The parameter holder snapshot is read-only!");
+    }
+
+    @Override
+    public ParameterHolder registerCriteriaParameter(String name, ParameterExpression parameter) {
+        throw new UnsupportedOperationException("The parameter holder snapshot is read-only!");
+    }
+}
@@ -35,6 +35,11 @@ public abstract class AbstractEntityToEntityMapper implements EntityToEntityMapp
         deleter.removeById(context, elementId);
     }
 
+    @Override
+    public void removeAllById(UpdateContext context, List<Object> elementIds) {
+        deleter.removeAllById(context, elementIds);
+    }
+
     @Override
     public EntityLoaderFetchGraphNode<?> getFullGraphNode() {
         return entityLoaderFetchGraphNode;
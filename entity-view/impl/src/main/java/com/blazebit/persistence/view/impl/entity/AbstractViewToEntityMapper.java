@@ -143,6 +143,11 @@ public abstract class AbstractViewToEntityMapper implements ViewToEntityMapper {
         defaultUpdater.remove(context, id);
     }
 
+    @Override
+    public void removeAllById(UpdateContext context, List<Object> ids) {
+        defaultUpdater.removeAll(context, ids);
+    }
+
     @Override
     public Object applyToEntity(UpdateContext context, Object entity, Object element) {
         return null;
@@ -20,6 +20,8 @@ public interface ElementToEntityMapper {
 
     public void removeById(UpdateContext context, Object elementId);
 
+    public void removeAllById(UpdateContext context, List<Object> elementIds);
+
     public Object applyToEntity(UpdateContext context, Object entity, Object element);
 
     public void applyAll(UpdateContext context, List<Object> elements);
@@ -57,6 +57,11 @@ public class LoadOnlyViewToEntityMapper implements ViewToEntityMapper {
 
     }
 
+    @Override
+    public void removeAllById(UpdateContext context, List<Object> ids) {
+
+    }
+
     @Override
     public boolean cascades(Object value) {
         return false;
@@ -8,27 +8,38 @@ package com.blazebit.persistence.view.impl.objectbuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
 import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTransformator;
 import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTransformatorFactory;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
  * @author Christian Beikov
  * @since 1.6.4
  */
-public class ChainingCollectionObjectBuilder<T> implements ObjectBuilder<T> {
+public class ChainingCollectionObjectBuilder<T> implements StreamingObjectBuilder<T> {
 
     private final TupleTransformator transformator;
     private final ObjectBuilder<T> objectBuilder;
+    private final int[] rootIdPositions;
+    private final int batchSize;
 
-    public ChainingCollectionObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration) {
+    public ChainingCollectionObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int[] rootIdPositions, int batchSize) {
         this.transformator = transformatorFactory.create(parameterHolder, optionalParameters, entityViewConfiguration);
         this.objectBuilder = objectBuilder;
+        this.rootIdPositions = rootIdPositions;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     @Override
@@ -45,11 +56,95 @@ public class ChainingCollectionObjectBuilder<T> implements ObjectBuilder<T> {
     @Override
     @SuppressWarnings("unchecked")
     public List<T> buildList(List<T> list) {
-        List<Object[]> currentTuples = transformator.transformAll((List<Object[]>) list);
+        return build((List<Object[]>) list);
+    }
+
+    @Override
+    public Stream<T> buildStream(final Stream<Object[]> tupleStream) {
+        Iterator<T> iterator;
+        if (rootIdPositions == null) {
+            // Without an id we can't tell when the tuples of a view root are complete, so we have to materialize the result
+            List<Object[]> tuples = new ArrayList<>();
+            Iterator<Object[]> tupleIterator = tupleStream.iterator();
+            while (tupleIterator.hasNext()) {
+                tuples.add(tupleIterator.next());
+            }
+            iterator = build(tuples).iterator();
+        } else {
+            iterator = new GroupingIterator(tupleStream.iterator());
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                tupleStream.close();
+            }
+        });
+    }
+
+    private List<T> build(List<Object[]> tuples) {
+        List<Object[]> currentTuples = transformator.transformAll(tuples);
         List<T> resultList = new ArrayList<T>(currentTuples.size());
         for (Object[] tuple : currentTuples) {
             resultList.add(objectBuilder.build(tuple));
         }
         return objectBuilder.buildList(resultList);
     }
+
+    /**
+     * Groups consecutive tuples with the same root id and builds the objects for up to batch size groups at once,
+     * so that batched correlations don't have to issue a query per root. This requires that the tuples of a view root
+     * are adjacent, which is the case when the query is ordered by the root id.
+     */
+    private class GroupingIterator implements Iterator<T> {
+
+        private final Iterator<Object[]> tupleIterator;
+        private Object[] nextTuple;
+        private Iterator<T> currentObjects;
+
+        public GroupingIterator(Iterator<Object[]> tupleIterator) {
+            this.tupleIterator = tupleIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (currentObjects == null || !currentObjects.hasNext()) {
+                if (nextTuple == null) {
+                    if (!tupleIterator.hasNext()) {
+                        return false;
+                    }
+                    nextTuple = tupleIterator.next();
+                }
+                List<Object[]> tuples = new ArrayList<>();
+                TupleId rootId = null;
+                int roots = 0;
+                while (nextTuple != null) {
+                    TupleId tupleId = new TupleId(rootIdPositions, nextTuple);
+                    if (!tupleId.equals(rootId)) {
+                        if (roots == batchSize) {
+                            break;
+                        }
+                        rootId = tupleId;
+                        roots++;
+                    }
+                    tuples.add(nextTuple);
+                    nextTuple = tupleIterator.hasNext() ? tupleIterator.next() : null;
+                }
+                currentObjects = build(tuples).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentObjects.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
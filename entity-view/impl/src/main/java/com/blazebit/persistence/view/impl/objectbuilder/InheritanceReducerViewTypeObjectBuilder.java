@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder;
 
+import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.view.impl.proxy.ObjectInstantiator;
 
 /**
@@ -27,6 +28,19 @@ public class InheritanceReducerViewTypeObjectBuilder<T> extends ReducerViewTypeO
         this.subtypeInstantiators = subtypeInstantiators;
     }
 
+    private InheritanceReducerViewTypeObjectBuilder(InheritanceReducerViewTypeObjectBuilder<T> original, ObjectBuilder<T> delegate) {
+        super(original, delegate);
+        this.hasId = original.hasId;
+        this.nullIfEmpty = original.nullIfEmpty;
+        this.subtypeDiscriminatorIndex = original.subtypeDiscriminatorIndex;
+        this.subtypeInstantiators = original.subtypeInstantiators;
+    }
+
+    @Override
+    protected ReducerViewTypeObjectBuilder<T> copy(ObjectBuilder<T> delegate) {
+        return new InheritanceReducerViewTypeObjectBuilder<>(this, delegate);
+    }
+
     @Override
     protected T buildObject(Object[] originalTuple, Object[] tuple) {
         // Cast to Number instead of integer since datanucleus will return a Long
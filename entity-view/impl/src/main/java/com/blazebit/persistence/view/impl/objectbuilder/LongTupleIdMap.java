@@ -0,0 +1,141 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import java.util.List;
+
+/**
+ * An open addressing hash map for tuple ids that consist of a single <code>long</code> or <code>int</code> element.
+ * This avoids allocating a {@link TupleId} per tuple and boxing when grouping tuples by such a parent id.
+ *
+ * @param <V> The value type
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public final class LongTupleIdMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongTupleIdMap(int expectedSize) {
+        // Keep the load factor at or below 0.5 to have short probe sequences
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Returns whether the tuple id at the given position of all tuples can be represented as <code>long</code> key.
+     * This is the case if all non-null values are either of type {@link Long} or {@link Integer}, but not mixed.
+     *
+     * @param tuples The tuples
+     * @param idPosition The position of the tuple id
+     * @return whether a {@link LongTupleIdMap} can be used
+     */
+    public static boolean isApplicable(List<Object[]> tuples, int idPosition) {
+        if (idPosition < 0) {
+            return false;
+        }
+        Class<?> idClass = null;
+        for (int i = 0; i < tuples.size(); i++) {
+            Object id = tuples.get(i)[idPosition];
+            if (id != null) {
+                if (idClass == null) {
+                    idClass = id.getClass();
+                    if (idClass != Long.class && idClass != Integer.class) {
+                        return false;
+                    }
+                } else if (idClass != id.getClass()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the key for the given non-null tuple id.
+     *
+     * @param id The tuple id
+     * @return the key
+     */
+    public static long toKey(Object id) {
+        return ((Number) id).longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = index(key);
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public void put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int index = index(key);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity >> 1;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object value = oldValues[i];
+            if (value != null) {
+                int index = index(oldKeys[i]);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+}
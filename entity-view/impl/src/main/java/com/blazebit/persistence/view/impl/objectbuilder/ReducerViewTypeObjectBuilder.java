@@ -8,13 +8,14 @@ package com.blazebit.persistence.view.impl.objectbuilder;
 import java.util.Arrays;
 
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.spi.CopyableObjectBuilder;
 
 /**
  *
  * @author Christian Beikov
  * @since 1.0.0
  */
-public class ReducerViewTypeObjectBuilder<T> extends DelegatingObjectBuilder<T> {
+public class ReducerViewTypeObjectBuilder<T> extends DelegatingObjectBuilder<T> implements CopyableObjectBuilder<T> {
 
     private final int start;
     private final int suffix;
@@ -31,6 +32,32 @@ public class ReducerViewTypeObjectBuilder<T> extends DelegatingObjectBuilder<T>
         this.newTuple = new FastArrayList(length);
     }
 
+    protected ReducerViewTypeObjectBuilder(ReducerViewTypeObjectBuilder<T> original, ObjectBuilder<T> delegate) {
+        super(delegate);
+        this.start = original.start;
+        this.suffix = original.suffix;
+        this.length = original.length;
+        this.keepTuplePrefix = original.keepTuplePrefix;
+        this.newTuple = new FastArrayList(length);
+    }
+
+    @Override
+    public ObjectBuilder<T> copy() {
+        if (!(delegate instanceof CopyableObjectBuilder<?>)) {
+            return null;
+        }
+        ObjectBuilder<T> delegateCopy = ((CopyableObjectBuilder<T>) delegate).copy();
+        if (delegateCopy == null) {
+            return null;
+        }
+        // The tuple buffer is state of an execution, so every copy gets its own
+        return copy(delegateCopy);
+    }
+
+    protected ReducerViewTypeObjectBuilder<T> copy(ObjectBuilder<T> delegate) {
+        return new ReducerViewTypeObjectBuilder<>(this, delegate);
+    }
+
     @Override
     public T build(Object[] tuple) {
         newTuple.clear();
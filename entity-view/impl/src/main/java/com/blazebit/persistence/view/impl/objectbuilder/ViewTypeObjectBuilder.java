@@ -9,6 +9,7 @@ import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.spi.CopyableObjectBuilder;
 import com.blazebit.persistence.view.impl.objectbuilder.mapper.TupleElementMapper;
 import com.blazebit.persistence.view.impl.proxy.ObjectInstantiator;
 import com.blazebit.persistence.view.spi.EmbeddingViewJpqlMacro;
@@ -24,7 +25,7 @@ import java.util.NavigableSet;
  * @author Christian Beikov
  * @since 1.0.0
  */
-public class ViewTypeObjectBuilder<T> implements ObjectBuilder<T> {
+public class ViewTypeObjectBuilder<T> implements CopyableObjectBuilder<T> {
 
     final boolean hasId;
     final boolean nullIfEmpty;
@@ -74,6 +75,12 @@ public class ViewTypeObjectBuilder<T> implements ObjectBuilder<T> {
         return list;
     }
 
+    @Override
+    public ObjectBuilder<T> copy() {
+        // Building objects only requires the immutable state of the template
+        return this;
+    }
+
     @Override
     public <X extends SelectBuilder<X>> void applySelects(X queryBuilder) {
         if (fetches == null || fetches.isEmpty()) {
@@ -30,6 +30,7 @@ import com.blazebit.persistence.view.impl.ScalarTargetResolvingExpressionVisitor
 import com.blazebit.persistence.view.impl.metamodel.AbstractAttribute;
 import com.blazebit.persistence.view.impl.metamodel.AbstractMethodAttribute;
 import com.blazebit.persistence.view.impl.metamodel.AbstractParameterAttribute;
+import com.blazebit.persistence.view.impl.metamodel.BasicTypeImpl;
 import com.blazebit.persistence.view.impl.metamodel.ConstrainedAttribute;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImpl;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
@@ -144,6 +145,8 @@ public class ViewTypeObjectBuilderTemplate<T> {
     private final ProxyFactory proxyFactory;
     private final TupleTransformatorFactory tupleTransformatorFactory;
     private final SecondaryMapper[] secondaryMappers;
+    // The largest batch size of the SELECT fetched attributes, determined while applying the mappings
+    private int maxBatchSize = 1;
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     private ViewTypeObjectBuilderTemplate(ManagedViewTypeImplementor<?> viewRoot, String viewRootAlias, String attributePath, String aliasPrefix, String mappingPrefix, String idPrefix, TupleIdDescriptor tupleIdDescriptor, TupleIdDescriptor viewIdDescriptor, int tupleOffset, int endTupleElementsToAdd, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro,
@@ -421,6 +424,9 @@ public class ViewTypeObjectBuilderTemplate<T> {
         if (batchSize == -1) {
             batchSize = attribute.getDeclaringType().getDefaultBatchSize();
         }
+        if (attribute.getFetchStrategy() == FetchStrategy.SELECT) {
+            maxBatchSize = Math.max(maxBatchSize, batchSize);
+        }
 
         if (attribute.isSubquery()) {
             applySubqueryMapping((SubqueryAttribute<? super T, ?>) attribute, attributePath, mapperBuilder, embeddingViewJpqlMacro);
@@ -709,6 +715,8 @@ public class ViewTypeObjectBuilderTemplate<T> {
             if (batchSize == -1) {
                 batchSize = 1;
             }
+            // Concurrently executed correlations may only use a separate entity manager if the results are not managed by JPA
+            boolean supportsConcurrentTransform = attribute.getFetches().length == 0 && isUnmanagedBasicType(attribute.getElementType());
 
             if (attribute.isCollection()) {
                 PluralAttribute<?, ?, ?> pluralAttribute = (PluralAttribute<?, ?, ?>) attribute;
@@ -739,10 +747,11 @@ public class ViewTypeObjectBuilderTemplate<T> {
                         } else {
                             indexCorrelator = new BasicCorrelator();
                         }
+                        supportsConcurrentTransform = supportsConcurrentTransform && indexFetches.length == 0 && isUnmanagedBasicType(mapAttribute.getKeyType());
                         mapperBuilder.addTupleListTransformerFactory(new CorrelatedMapBatchTupleListTransformerFactory(
                                 new BasicCorrelator(),
                                 viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
-                                createLimiter(mapperBuilder, correlationAlias, attribute),
+                                createLimiter(mapperBuilder, correlationAlias, attribute), supportsConcurrentTransform,
                                 indexFetches, indexExpression, indexCorrelator, attribute.getContainerAccumulator(),
                                 dirtyTracking
                         ));
@@ -753,7 +762,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 mapperBuilder.addTupleListTransformerFactory(new CorrelatedCollectionBatchTupleListTransformerFactory(
                         new BasicCorrelator(),
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
-                        createLimiter(mapperBuilder, correlationAlias, attribute),
+                        createLimiter(mapperBuilder, correlationAlias, attribute), supportsConcurrentTransform,
                         indexFetches, indexExpression, indexCorrelator, attribute.getContainerAccumulator(),
                         dirtyTracking
                 ));
@@ -761,7 +770,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 mapperBuilder.addTupleListTransformerFactory(new CorrelatedSingularBatchTupleListTransformerFactory(
                         new BasicCorrelator(),
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
-                        createLimiter(mapperBuilder, correlationAlias, attribute)));
+                        createLimiter(mapperBuilder, correlationAlias, attribute), supportsConcurrentTransform));
             }
         } else if (attribute.getFetchStrategy() == FetchStrategy.SUBSELECT) {
             String subviewAliasPrefix = mapperBuilder.getAlias(attribute, false);
@@ -957,6 +966,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
             mapperBuilder.addMappers(template.mappers);
             mapperBuilder.addSecondaryMappers(template.secondaryMappers);
             mapperBuilder.addTupleTransformatorFactory(template.tupleTransformatorFactory);
+            maxBatchSize = Math.max(maxBatchSize, template.maxBatchSize);
             mapperBuilder.addTupleTransformerFactory(new SubviewTupleTransformerFactory(subviewAttributePath, template, updatableObjectCache, nullIfEmpty));
         }
         embeddingViewJpqlMacro.setEmbeddingViewPath(oldEmbeddingViewPath);
@@ -1056,6 +1066,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 mapperBuilder.addMappers(template.mappers);
                 mapperBuilder.addSecondaryMappers(template.secondaryMappers);
                 mapperBuilder.addTupleTransformatorFactory(template.tupleTransformatorFactory);
+                maxBatchSize = Math.max(maxBatchSize, template.maxBatchSize);
                 mapperBuilder.addTupleTransformerFactory(new CorrelatedSubviewJoinTupleTransformerFactory(template, factory, correlationAlias, mapperBuilder.getMapping(), correlationBasis, correlationExternalAlias, attributePath, embeddingViewPath, attribute.getFetches(), limiter));
             }
             embeddingViewJpqlMacro.setEmbeddingViewPath(oldEmbeddingViewPath);
@@ -1116,7 +1127,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                         mapperBuilder.addTupleListTransformerFactory(new CorrelatedMapBatchTupleListTransformerFactory(
                                 new SubviewCorrelator(managedViewType, null, evm, subviewAliasPrefix, attributePath),
                                 viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
-                                createLimiter(mapperBuilder, correlationAlias, attribute),
+                                createLimiter(mapperBuilder, correlationAlias, attribute), false,
                                 indexFetches, indexExpression, indexCorrelator, attribute.getContainerAccumulator(),
                                 dirtyTracking
                         ));
@@ -1127,7 +1138,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 mapperBuilder.addTupleListTransformerFactory(new CorrelatedCollectionBatchTupleListTransformerFactory(
                         new SubviewCorrelator(managedViewType, null, evm, subviewAliasPrefix, attributePath),
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
-                        createLimiter(mapperBuilder, correlationAlias, attribute),
+                        createLimiter(mapperBuilder, correlationAlias, attribute), false,
                         indexFetches, indexExpression, indexCorrelator, attribute.getContainerAccumulator(),
                         dirtyTracking
                 ));
@@ -1135,7 +1146,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 mapperBuilder.addTupleListTransformerFactory(new CorrelatedSingularBatchTupleListTransformerFactory(
                         new SubviewCorrelator(managedViewType, null, evm, subviewAliasPrefix, attributePath),
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
-                        createLimiter(mapperBuilder, correlationAlias, attribute)));
+                        createLimiter(mapperBuilder, correlationAlias, attribute), false));
             }
         } else if (attribute.getFetchStrategy() == FetchStrategy.SUBSELECT) {
             String subviewAliasPrefix = mapperBuilder.getAlias(attribute, false);
@@ -1278,6 +1289,10 @@ public class ViewTypeObjectBuilderTemplate<T> {
         return embeddingViewIndex;
     }
 
+    private static boolean isUnmanagedBasicType(Type<?> type) {
+        return type.getMappingType() == Type.MappingType.BASIC && !((BasicTypeImpl<?>) type).isJpaManaged();
+    }
+
     private boolean correlatesThis(EntityViewManagerImpl evm, ExpressionFactory ef, Class<?> managedTypeClass, Class<?> correlationBasisEntity, String correlationBasisExpression, Predicate correlationPredicate, String correlationKeyAlias) {
         if (correlationBasisEntity == null || !correlationBasisEntity.isAssignableFrom(managedTypeClass)) {
             return false;
@@ -1435,7 +1450,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
 
         if (tupleTransformatorFactory.hasTransformers() && !isSubview) {
             if (tupleTransformatorFactory.hasListTransformers()) {
-                result = new ChainingCollectionObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration);
+                result = new ChainingCollectionObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration, hasId ? idPositions : null, entityViewConfiguration.getMaxBatchSize(maxBatchSize));
             } else {
                 result = new ChainingObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration);
             }
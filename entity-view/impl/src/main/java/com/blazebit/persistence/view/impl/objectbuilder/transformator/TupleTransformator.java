@@ -6,14 +6,24 @@
 package com.blazebit.persistence.view.impl.objectbuilder.transformator;
 
 import com.blazebit.persistence.view.impl.objectbuilder.TupleRest;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.ConcurrentTupleListTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformer;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Christian Beikov
@@ -22,9 +32,17 @@ import java.util.Set;
 public class TupleTransformator {
 
     private final List<TupleTransformatorLevel> transformatorLevels;
+    private final Executor correlationExecutor;
+    private final EntityManagerFactory correlationEntityManagerFactory;
 
     public TupleTransformator(List<TupleTransformatorLevel> transformatorLevels) {
+        this(transformatorLevels, null, null);
+    }
+
+    public TupleTransformator(List<TupleTransformatorLevel> transformatorLevels, Executor correlationExecutor, EntityManagerFactory correlationEntityManagerFactory) {
         this.transformatorLevels = transformatorLevels;
+        this.correlationExecutor = correlationExecutor;
+        this.correlationEntityManagerFactory = correlationEntityManagerFactory;
     }
 
     public List<Object[]> transformAll(List<Object[]> tupleList) {
@@ -39,6 +57,13 @@ public class TupleTransformator {
                     newTupleListIter.set(transform(i, tuple, updatableViewMap));
                 }
             }
+            if (correlationExecutor != null) {
+                int end = getConcurrentLevelsEnd(i);
+                if (end - i > 1 && transformConcurrently(i, end, tupleList)) {
+                    i = end - 1;
+                    continue;
+                }
+            }
             tupleList = transform(i, tupleList);
         }
 
@@ -58,6 +83,119 @@ public class TupleTransformator {
         return tupleList;
     }
 
+    private int getConcurrentLevelsEnd(int start) {
+        // Subsequent correlations are independent as long as no tuple transformers consume their results in between
+        int end = start;
+        while (end < transformatorLevels.size()) {
+            TupleTransformatorLevel level = transformatorLevels.get(end);
+            if (!(level.tupleListTransformer instanceof ConcurrentTupleListTransformer)
+                    || end != start && level.tupleTransformers.length != 0) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private boolean transformConcurrently(int start, int end, final List<Object[]> tupleList) {
+        // Only correlations that produce no entities may use a separate entity manager, the others run on the current thread
+        List<TupleListTransformer> localTransformers = new ArrayList<>(end - start);
+        List<ConcurrentTupleListTransformer> concurrentTransformers = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            TupleListTransformer tupleListTransformer = transformatorLevels.get(i).tupleListTransformer;
+            if (((ConcurrentTupleListTransformer) tupleListTransformer).supportsConcurrentTransform()) {
+                concurrentTransformers.add((ConcurrentTupleListTransformer) tupleListTransformer);
+            } else {
+                localTransformers.add(tupleListTransformer);
+            }
+        }
+        if (concurrentTransformers.isEmpty() || concurrentTransformers.size() == 1 && localTransformers.isEmpty()) {
+            return false;
+        }
+        if (localTransformers.isEmpty()) {
+            localTransformers.add((TupleListTransformer) concurrentTransformers.remove(0));
+        }
+
+        // Query builders are not thread-safe, so everything that is needed from the main query builder is captured upfront
+        for (int i = 0; i < concurrentTransformers.size(); i++) {
+            concurrentTransformers.get(i).prepareConcurrentTransform();
+        }
+
+        @SuppressWarnings("unchecked")
+        FutureTask<Void>[] tasks = new FutureTask[concurrentTransformers.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            final ConcurrentTupleListTransformer tupleListTransformer = concurrentTransformers.get(i);
+            tasks[i] = new FutureTask<>(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    EntityManager entityManager = correlationEntityManagerFactory.createEntityManager();
+                    try {
+                        tupleListTransformer.transform(tupleList, entityManager);
+                        return null;
+                    } finally {
+                        entityManager.close();
+                    }
+                }
+            });
+            try {
+                correlationExecutor.execute(tasks[i]);
+            } catch (RejectedExecutionException ex) {
+                tasks[i].run();
+            }
+        }
+
+        RuntimeException exception = null;
+        try {
+            for (int i = 0; i < localTransformers.size(); i++) {
+                localTransformers.get(i).transform(tupleList);
+            }
+        } catch (RuntimeException ex) {
+            exception = ex;
+        }
+        // We must wait for all tasks, even if one fails, as they still write into the tuples
+        for (int i = 0; i < tasks.length; i++) {
+            try {
+                await(tasks[i]);
+            } catch (RuntimeException ex) {
+                if (exception == null) {
+                    exception = ex;
+                } else {
+                    exception.addSuppressed(ex);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+        return true;
+    }
+
+    private static void await(FutureTask<Void> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    task.get();
+                    return;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PersistenceException("The correlation query failed", cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     public Object[] transform(Object[] tuple) {
         if (transformatorLevels.size() != 1) {
             throw new IllegalStateException("Can only do single transformations if there is only a single level");
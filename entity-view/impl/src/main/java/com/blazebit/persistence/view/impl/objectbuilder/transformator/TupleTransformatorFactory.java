@@ -8,11 +8,13 @@ package com.blazebit.persistence.view.impl.objectbuilder.transformator;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
 import com.blazebit.persistence.view.impl.objectbuilder.ConstrainedTupleList;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.ConcurrentTupleListTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformerFactory;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformerFactory;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -82,7 +84,7 @@ public class TupleTransformatorFactory {
             }
 
             if (otherLevel.tupleListTransformer != null) {
-                thisLevel.tupleListTransformer = new ConstrainedTupleListTransformer(classMappingIndex, subtypeIndexes, otherLevel.tupleListTransformer);
+                thisLevel.tupleListTransformer = createConstrainedTupleListTransformer(classMappingIndex, subtypeIndexes, otherLevel.tupleListTransformer);
                 consumableIndexes.put(otherLevel.tupleListTransformer.getConsumableIndex(), otherLevel.tupleListTransformer);
             }
             if (otherLevel.tupleListTransformerFactory != null) {
@@ -169,9 +171,9 @@ public class TupleTransformatorFactory {
      */
     private static class ConstrainedTupleListTransformer extends TupleListTransformer {
 
-        private final int classMappingIndex;
-        private final int[] subtypeIndexes;
-        private final TupleListTransformer delegate;
+        protected final int classMappingIndex;
+        protected final int[] subtypeIndexes;
+        protected final TupleListTransformer delegate;
 
         public ConstrainedTupleListTransformer(int classMappingIndex, int[] subtypeIndexes, TupleListTransformer delegate) {
             super(-1);
@@ -195,6 +197,47 @@ public class TupleTransformatorFactory {
         }
     }
 
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static class ConstrainedConcurrentTupleListTransformer extends ConstrainedTupleListTransformer implements ConcurrentTupleListTransformer {
+
+        private final ConcurrentTupleListTransformer concurrentDelegate;
+
+        public ConstrainedConcurrentTupleListTransformer(int classMappingIndex, int[] subtypeIndexes, TupleListTransformer delegate) {
+            super(classMappingIndex, subtypeIndexes, delegate);
+            this.concurrentDelegate = (ConcurrentTupleListTransformer) delegate;
+        }
+
+        @Override
+        public boolean supportsConcurrentTransform() {
+            return concurrentDelegate.supportsConcurrentTransform();
+        }
+
+        @Override
+        public void prepareConcurrentTransform() {
+            concurrentDelegate.prepareConcurrentTransform();
+        }
+
+        @Override
+        public List<Object[]> transform(List<Object[]> tuples, EntityManager entityManager) {
+            ConstrainedTupleList tupleList = new ConstrainedTupleList(classMappingIndex, subtypeIndexes, tuples);
+            if (!tupleList.isEmpty()) {
+                concurrentDelegate.transform(tupleList, entityManager);
+            }
+            return tuples;
+        }
+    }
+
+    private static TupleListTransformer createConstrainedTupleListTransformer(int classMappingIndex, int[] subtypeIndexes, TupleListTransformer delegate) {
+        if (delegate instanceof ConcurrentTupleListTransformer) {
+            return new ConstrainedConcurrentTupleListTransformer(classMappingIndex, subtypeIndexes, delegate);
+        }
+        return new ConstrainedTupleListTransformer(classMappingIndex, subtypeIndexes, delegate);
+    }
+
     /**
      *
      * @author Christian Beikov
@@ -219,7 +262,7 @@ public class TupleTransformatorFactory {
 
         @Override
         public TupleListTransformer create(ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration) {
-            return new ConstrainedTupleListTransformer(classMappingIndex, subtypeIndexes, delegate.create(parameterHolder, optionalParameters, entityViewConfiguration));
+            return createConstrainedTupleListTransformer(classMappingIndex, subtypeIndexes, delegate.create(parameterHolder, optionalParameters, entityViewConfiguration));
         }
     }
 
@@ -266,6 +309,9 @@ public class TupleTransformatorFactory {
             newTransformatorLevels[i] = new TupleTransformatorLevel(tupleTransformers, tupleListTransformer);
         }
         
-        return new TupleTransformator(Arrays.asList(newTransformatorLevels));
+        if (entityViewConfiguration.getCorrelationExecutor() == null) {
+            return new TupleTransformator(Arrays.asList(newTransformatorLevels));
+        }
+        return new TupleTransformator(Arrays.asList(newTransformatorLevels), entityViewConfiguration.getCorrelationExecutor(), entityViewConfiguration.getCorrelationEntityManagerFactory());
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder.transformer;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * A {@link TupleListTransformer} that can be run concurrently to other list transformers of the same tuple list.
+ * This requires that the transformer returns the passed list and only writes to tuple elements that no other transformer reads.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public interface ConcurrentTupleListTransformer {
+
+    /**
+     * Returns whether the transformer can be run concurrently with a separate entity manager,
+     * which is only the case if the results don't depend on the persistence context of the query i.e. contain no entities.
+     *
+     * @return whether the transformer can be run concurrently
+     */
+    public boolean supportsConcurrentTransform();
+
+    /**
+     * Captures the state of the main query builder that is needed for the transformation.
+     * This is invoked on the thread that owns the main query builder before {@link #transform(List, EntityManager)} is invoked on a different thread,
+     * because query builders are not thread-safe.
+     */
+    public void prepareConcurrentTransform();
+
+    /**
+     * Transforms the tuples like {@link TupleListTransformer#transform(List)} but executes queries with the given entity manager.
+     * The transformation must only use the state captured by {@link #prepareConcurrentTransform()} instead of the main query builder.
+     *
+     * @param tuples The tuples to transform
+     * @param entityManager The entity manager to use for queries
+     * @return The transformed tuples
+     */
+    public List<Object[]> transform(List<Object[]> tuples, EntityManager entityManager);
+}
@@ -6,6 +6,7 @@
 package com.blazebit.persistence.view.impl.objectbuilder.transformer;
 
 import com.blazebit.persistence.view.impl.objectbuilder.ContainerAccumulator;
+import com.blazebit.persistence.view.impl.objectbuilder.LongTupleIdMap;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleId;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleIndexValue;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleReuse;
@@ -49,41 +50,39 @@ public class IndexedTupleListTransformer extends TupleListTransformer {
 
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
-        Map<TupleId, TupleIndexValue> tupleIndex = new HashMap<TupleId, TupleIndexValue>(tuples.size());
         Iterator<Object[]> tupleListIter = tuples.iterator();
 
-        while (tupleListIter.hasNext()) {
-            Object[] tuple = tupleListIter.next();
-            TupleId id = new TupleId(parentIdPositions, tuple);
-            // Skip constructing the collection and removing tuples when the parent is empty i.e. null
-            if (!id.isEmpty()) {
-                TupleIndexValue tupleIndexValue = tupleIndex.get(id);
-
-                // At startIndex we have the index/key of the list/map
-                // At valueStartIndex is the actual element that should be put into the collection
-                if (tupleIndexValue == null) {
-                    Object collection = containerAccumulator.createContainer(dirtyTracking, 0);
-                    tupleIndexValue = new TupleIndexValue(collection, tuple, startIndex, valueOffset + 1);
-                    Object key = tuple[startIndex];
-                    add(collection, key, tuple[valueStartIndex]);
-                    tuple[startIndex] = collection;
-                    tuple[valueStartIndex] = TupleReuse.CONSUMED;
-                    tupleIndex.put(id, tupleIndexValue);
-                } else if (tupleIndexValue.addRestTuple(tuple, startIndex, valueOffset + 1)) {
-                    Object collection = tupleIndexValue.getTupleValue();
-                    Object key = tuple[startIndex];
-                    add(collection, key, tuple[valueStartIndex]);
-                    tuple[startIndex] = collection;
-                    tuple[valueStartIndex] = TupleReuse.CONSUMED;
-                    // Check if the tuple after the offset is contained
-                    if (tupleIndexValue.containsRestTuple(tuple, startIndex, valueOffset + 1)) {
+        if (parentIdPositions.length == 1 && LongTupleIdMap.isApplicable(tuples, parentIdPositions[0])) {
+            // Fast path for the common case of a single integral parent id that avoids allocating tuple ids
+            int parentIdPosition = parentIdPositions[0];
+            LongTupleIdMap<TupleIndexValue> tupleIndex = new LongTupleIdMap<>(tuples.size());
+            while (tupleListIter.hasNext()) {
+                Object[] tuple = tupleListIter.next();
+                Object id = tuple[parentIdPosition];
+                // Skip constructing the collection and removing tuples when the parent is empty i.e. null
+                if (id != null) {
+                    long key = LongTupleIdMap.toKey(id);
+                    TupleIndexValue tupleIndexValue = tupleIndex.get(key);
+                    if (tupleIndexValue == null) {
+                        tupleIndex.put(key, createTupleIndexValue(tuple));
+                    } else if (addToTupleIndexValue(tupleIndexValue, tuple)) {
+                        tupleListIter.remove();
+                    }
+                }
+            }
+        } else {
+            Map<TupleId, TupleIndexValue> tupleIndex = new HashMap<TupleId, TupleIndexValue>(tuples.size());
+            while (tupleListIter.hasNext()) {
+                Object[] tuple = tupleListIter.next();
+                TupleId id = new TupleId(parentIdPositions, tuple);
+                // Skip constructing the collection and removing tuples when the parent is empty i.e. null
+                if (!id.isEmpty()) {
+                    TupleIndexValue tupleIndexValue = tupleIndex.get(id);
+                    if (tupleIndexValue == null) {
+                        tupleIndex.put(id, createTupleIndexValue(tuple));
+                    } else if (addToTupleIndexValue(tupleIndexValue, tuple)) {
                         tupleListIter.remove();
                     }
-                } else {
-                    Object key = tuple[startIndex];
-                    add(tupleIndexValue.getTupleValue(), key, tuple[valueStartIndex]);
-                    tuple[valueStartIndex] = TupleReuse.CONSUMED;
-                    tupleListIter.remove();
                 }
             }
         }
@@ -91,6 +90,35 @@ public class IndexedTupleListTransformer extends TupleListTransformer {
         return tuples;
     }
 
+    private TupleIndexValue createTupleIndexValue(Object[] tuple) {
+        // At startIndex we have the index/key of the list/map
+        // At valueStartIndex is the actual element that should be put into the collection
+        Object collection = containerAccumulator.createContainer(dirtyTracking, 0);
+        TupleIndexValue tupleIndexValue = new TupleIndexValue(collection, tuple, startIndex, valueOffset + 1);
+        Object key = tuple[startIndex];
+        add(collection, key, tuple[valueStartIndex]);
+        tuple[startIndex] = collection;
+        tuple[valueStartIndex] = TupleReuse.CONSUMED;
+        return tupleIndexValue;
+    }
+
+    private boolean addToTupleIndexValue(TupleIndexValue tupleIndexValue, Object[] tuple) {
+        if (tupleIndexValue.addRestTuple(tuple, startIndex, valueOffset + 1)) {
+            Object collection = tupleIndexValue.getTupleValue();
+            Object key = tuple[startIndex];
+            add(collection, key, tuple[valueStartIndex]);
+            tuple[startIndex] = collection;
+            tuple[valueStartIndex] = TupleReuse.CONSUMED;
+            // Check if the tuple after the offset is contained
+            return tupleIndexValue.containsRestTuple(tuple, startIndex, valueOffset + 1);
+        } else {
+            Object key = tuple[startIndex];
+            add(tupleIndexValue.getTupleValue(), key, tuple[valueStartIndex]);
+            tuple[valueStartIndex] = TupleReuse.CONSUMED;
+            return true;
+        }
+    }
+
     private void add(Object collection, Object key, Object value) {
         if (keyConverter != null) {
             key = keyConverter.convertToViewType(key);
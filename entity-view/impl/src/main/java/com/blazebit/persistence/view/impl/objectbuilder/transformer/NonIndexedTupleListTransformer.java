@@ -14,6 +14,7 @@ import java.util.Map;
 
 import com.blazebit.persistence.view.impl.collection.CollectionInstantiatorImplementor;
 import com.blazebit.persistence.view.impl.collection.RecordingCollection;
+import com.blazebit.persistence.view.impl.objectbuilder.LongTupleIdMap;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleId;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleIndexValue;
 import com.blazebit.persistence.view.spi.type.TypeConverter;
@@ -45,36 +46,43 @@ public class NonIndexedTupleListTransformer extends TupleListTransformer {
 
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
-        Map<TupleId, TupleIndexValue> tupleIndex = new HashMap<>(tuples.size());
         Iterator<Object[]> tupleListIter = tuples.iterator();
 
-        while (tupleListIter.hasNext()) {
-            Object[] tuple = tupleListIter.next();
-            TupleId id = new TupleId(parentIdPositions, tuple);
-            // Skip constructing the collection and removing tuples when the parent is empty i.e. null
-            if (!id.isEmpty()) {
-                TupleIndexValue tupleIndexValue = tupleIndex.get(id);
-
-                if (tupleIndexValue == null) {
-                    Object collection = createCollection();
-                    tupleIndexValue = new TupleIndexValue(collection, tuple, startIndex, 1);
-                    add(collection, tuple[startIndex]);
-                    tuple[startIndex] = collection;
-                    tupleIndex.put(id, tupleIndexValue);
-                } else if (tupleIndexValue.addRestTuple(tuple, startIndex, 1)) {
-                    Object collection = tupleIndexValue.getTupleValue();
-                    add(collection, tuple[startIndex]);
-                    tuple[startIndex] = collection;
-                    // Check if the tuple after the offset is contained
-                    if (tupleIndexValue.containsRestTuple(tuple, startIndex, 1)) {
+        if (parentIdPositions.length == 1 && LongTupleIdMap.isApplicable(tuples, parentIdPositions[0])) {
+            // Fast path for the common case of a single integral parent id that avoids allocating tuple ids
+            int parentIdPosition = parentIdPositions[0];
+            LongTupleIdMap<TupleIndexValue> tupleIndex = new LongTupleIdMap<>(tuples.size());
+            while (tupleListIter.hasNext()) {
+                Object[] tuple = tupleListIter.next();
+                Object id = tuple[parentIdPosition];
+                // Skip constructing the collection and removing tuples when the parent is empty i.e. null
+                if (id != null) {
+                    long key = LongTupleIdMap.toKey(id);
+                    TupleIndexValue tupleIndexValue = tupleIndex.get(key);
+                    if (tupleIndexValue == null) {
+                        tupleIndex.put(key, createTupleIndexValue(tuple));
+                    } else if (addToTupleIndexValue(tupleIndexValue, tuple)) {
+                        tupleListIter.remove();
+                    }
+                }
+            }
+        } else {
+            Map<TupleId, TupleIndexValue> tupleIndex = new HashMap<>(tuples.size());
+            while (tupleListIter.hasNext()) {
+                Object[] tuple = tupleListIter.next();
+                TupleId id = new TupleId(parentIdPositions, tuple);
+                // Skip constructing the collection and removing tuples when the parent is empty i.e. null
+                if (!id.isEmpty()) {
+                    TupleIndexValue tupleIndexValue = tupleIndex.get(id);
+                    if (tupleIndexValue == null) {
+                        tupleIndex.put(id, createTupleIndexValue(tuple));
+                    } else if (addToTupleIndexValue(tupleIndexValue, tuple)) {
                         tupleListIter.remove();
                     }
-                } else {
-                    add(tupleIndexValue.getTupleValue(), tuple[startIndex]);
-                    tupleListIter.remove();
                 }
             }
         }
+
         if (collectionInstantiator.requiresPostConstruct()) {
             IdentityHashMap<Collection<?>, Boolean> handledCollections = new IdentityHashMap<>(tuples.size());
             for (Object[] tuple : tuples) {
@@ -88,6 +96,27 @@ public class NonIndexedTupleListTransformer extends TupleListTransformer {
         return tuples;
     }
 
+    private TupleIndexValue createTupleIndexValue(Object[] tuple) {
+        Object collection = createCollection();
+        TupleIndexValue tupleIndexValue = new TupleIndexValue(collection, tuple, startIndex, 1);
+        add(collection, tuple[startIndex]);
+        tuple[startIndex] = collection;
+        return tupleIndexValue;
+    }
+
+    private boolean addToTupleIndexValue(TupleIndexValue tupleIndexValue, Object[] tuple) {
+        if (tupleIndexValue.addRestTuple(tuple, startIndex, 1)) {
+            Object collection = tupleIndexValue.getTupleValue();
+            add(collection, tuple[startIndex]);
+            tuple[startIndex] = collection;
+            // Check if the tuple after the offset is contained
+            return tupleIndexValue.containsRestTuple(tuple, startIndex, 1);
+        } else {
+            add(tupleIndexValue.getTupleValue(), tuple[startIndex]);
+            return true;
+        }
+    }
+
     protected Object createCollection() {
         if (dirtyTracking) {
             return collectionInstantiator.createRecordingCollection(0);
@@ -7,14 +7,21 @@ package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation
 
 import com.blazebit.persistence.CTEBuilder;
 import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.ParameterHolder;
+import com.blazebit.persistence.parser.EntityMetamodel;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.view.CorrelationProvider;
 import com.blazebit.persistence.view.impl.BatchCorrelationMode;
 import com.blazebit.persistence.view.CorrelationProviderFactory;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
+import com.blazebit.persistence.view.impl.ParameterHolderSnapshot;
 import com.blazebit.persistence.view.impl.macro.CorrelatedSubqueryEmbeddingViewJpqlMacro;
 import com.blazebit.persistence.view.impl.macro.CorrelatedSubqueryViewRootJpqlMacro;
 import com.blazebit.persistence.view.impl.macro.MutableViewJpqlMacro;
@@ -23,53 +30,130 @@ import com.blazebit.persistence.view.impl.objectbuilder.ContainerAccumulator;
 import com.blazebit.persistence.view.impl.objectbuilder.LateAdditionalObjectBuilder;
 import com.blazebit.persistence.view.impl.objectbuilder.Limiter;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleReuse;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.ConcurrentTupleListTransformer;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 import com.blazebit.persistence.view.metamodel.ViewType;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Parameter;
 import javax.persistence.Query;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  *
  * @author Christian Beikov
  * @since 1.2.0
  */
-public abstract class AbstractCorrelatedBatchTupleListTransformer extends AbstractCorrelatedTupleListTransformer {
+public abstract class AbstractCorrelatedBatchTupleListTransformer extends AbstractCorrelatedTupleListTransformer implements ConcurrentTupleListTransformer {
 
     public static final String CORRELATION_KEY_ALIAS = "correlationKey";
     private static final String CORRELATION_PARAM_PREFIX = "correlationParam_";
 
-    protected final int batchSize;
+    protected final int maxBatchSize;
+    protected final AdaptiveBatchSize adaptiveBatchSize;
     protected final boolean correlatesThis;
+    protected final boolean supportsConcurrentTransform;
     protected final BatchCorrelationMode expectBatchCorrelationMode;
     protected final int valueIndex;
     protected final int keyIndex;
 
+    protected int batchSize;
     protected String correlationParamName;
     protected String correlationSelectExpression;
     protected CriteriaBuilder<?> criteriaBuilder;
     protected CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro;
     protected CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro;
     protected Query query;
+    private final CriteriaBuilderFactory criteriaBuilderFactory;
+    private final String viewRootIdAttributePath;
+    private final String embeddingViewIdAttributePath;
+    private final String correlationBasisEntityIdAttributePath;
+    private EntityManager entityManager;
+    // The state of the main query builder captured for a concurrent transform
+    private ParameterHolder<?> mainParameterHolder;
+    private CTEBuilder<?> mainCteSource;
 
     public AbstractCorrelatedBatchTupleListTransformer(ExpressionFactory ef, Correlator correlator, ContainerAccumulator<?> containerAccumulator, ManagedViewTypeImplementor<?> viewRootType, ManagedViewTypeImplementor<?> embeddingViewType, Expression correlationResult, CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches, String[] indexFetches,
-                                                       Expression indexExpression, Correlator indexCorrelator, boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int defaultBatchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, Limiter limiter, EntityViewConfiguration entityViewConfiguration) {
+                                                       Expression indexExpression, Correlator indexCorrelator, boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int defaultBatchSize, AdaptiveBatchSize adaptiveBatchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, Limiter limiter, boolean supportsConcurrentTransform, EntityViewConfiguration entityViewConfiguration) {
         super(ef, correlator, containerAccumulator, viewRootType, embeddingViewType, correlationResult, correlationProviderFactory, attributePath, fetches, indexFetches, indexExpression, indexCorrelator, viewRootIndex, embeddingViewIndex, tupleIndex, correlationBasisType, correlationBasisEntity, limiter, entityViewConfiguration);
         this.batchSize = entityViewConfiguration.getBatchSize(attributePath, defaultBatchSize);
+        if (entityViewConfiguration.isAdaptiveBatchSize(attributePath)) {
+            FullQueryBuilder<?, ?> queryBuilder = entityViewConfiguration.getCriteriaBuilder();
+            DbmsDialect dbmsDialect = queryBuilder.getService(DbmsDialect.class);
+            // Leave room for the parameters of the correlation query that stem from the main query
+            int availableBindParameters = dbmsDialect.getMaxBindParameters() - getBindParameterCount(queryBuilder, entityViewConfiguration.getOptionalParameters());
+            this.maxBatchSize = AdaptiveBatchSize.getMaxBatchSize(batchSize, availableBindParameters, getColumnsPerCorrelationValue(queryBuilder), dbmsDialect.getMaxInListSize());
+            this.adaptiveBatchSize = adaptiveBatchSize;
+        } else {
+            this.maxBatchSize = batchSize;
+            this.adaptiveBatchSize = null;
+        }
         this.correlatesThis = correlatesThis;
+        this.supportsConcurrentTransform = supportsConcurrentTransform;
         this.expectBatchCorrelationMode = entityViewConfiguration.getExpectBatchCorrelationValues(attributePath);
         this.valueIndex = correlator.getElementOffset();
         this.keyIndex = valueIndex + 1;
+        this.criteriaBuilderFactory = entityViewConfiguration.getCriteriaBuilder().getCriteriaBuilderFactory();
+        this.viewRootIdAttributePath = getEntityIdName(viewRootType.getEntityClass());
+        this.embeddingViewIdAttributePath = getEntityIdName(embeddingViewType.getEntityClass());
+        this.correlationBasisEntityIdAttributePath = correlationBasisEntity == null ? null : getEntityIdName(correlationBasisEntity);
+    }
+
+    private static int getBindParameterCount(FullQueryBuilder<?, ?> queryBuilder, Map<String, Object> optionalParameters) {
+        int count = 0;
+        for (Parameter<?> parameter : queryBuilder.getParameters()) {
+            if (queryBuilder.isParameterSet(parameter.getName())) {
+                count += getBindParameterCount(queryBuilder.getParameterValue(parameter.getName()));
+            } else {
+                count++;
+            }
+        }
+        for (Object value : optionalParameters.values()) {
+            count += getBindParameterCount(value);
+        }
+        return count;
+    }
+
+    private static int getBindParameterCount(Object value) {
+        // Collection values are expanded to one bind parameter per element
+        if (value instanceof Collection<?>) {
+            return Math.max(1, ((Collection<?>) value).size());
+        }
+        return 1;
+    }
+
+    private int getColumnsPerCorrelationValue(FullQueryBuilder<?, ?> queryBuilder) {
+        Class<?> correlationValueType = correlationBasisEntity == null ? correlationBasisType : correlationBasisEntity;
+        EntityMetamodel metamodel = queryBuilder.getService(EntityMetamodel.class);
+        if (correlationValueType == null || !(metamodel.type(correlationValueType) instanceof ManagedType<?>)) {
+            return 1;
+        }
+        // Values of managed types bind all columns, just like an entity typed VALUES clause
+        ExtendedManagedType<?> managedType = metamodel.getManagedType(ExtendedManagedType.class, correlationValueType);
+        int columns = 0;
+        for (ExtendedAttribute<?, ?> attribute : managedType.getOwnedSingularAttributes().values()) {
+            if (attribute.getAttribute().getPersistentAttributeType() != Attribute.PersistentAttributeType.EMBEDDED) {
+                columns += Math.max(1, attribute.getColumnNames().length);
+            }
+        }
+        return Math.max(1, columns);
+    }
+
+    private ParameterHolder<?> getMainParameterHolder() {
+        return mainParameterHolder == null ? entityViewConfiguration.getCriteriaBuilder() : mainParameterHolder;
     }
 
     private String generateCorrelationParamName() {
-        final FullQueryBuilder<?, ?> queryBuilder = entityViewConfiguration.getCriteriaBuilder();
+        final ParameterHolder<?> queryBuilder = getMainParameterHolder();
         final Map<String, Object> optionalParameters = entityViewConfiguration.getOptionalParameters();
         int paramNumber = 0;
         String paramName;
@@ -88,10 +172,8 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
     private String applyAndGetCorrelationRoot(BatchCorrelationMode batchCorrelationMode) {
         Class<?> viewRootEntityClass = viewRootType.getEntityClass();
         Class<?> embeddingViewEntityClass = embeddingViewType.getEntityClass();
-        String viewRootIdAttributePath = getEntityIdName(viewRootEntityClass);
-        String embeddingViewIdAttributePath = getEntityIdName(embeddingViewEntityClass);
 
-        FullQueryBuilder<?, ?> queryBuilder = entityViewConfiguration.getCriteriaBuilder();
+        ParameterHolder<?> parameterHolder = getMainParameterHolder();
         Map<String, Object> optionalParameters = entityViewConfiguration.getOptionalParameters();
 
         Class<?> correlationBasisEntityType;
@@ -113,9 +195,17 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             embeddingViewExpression = CORRELATION_KEY_ALIAS;
         }
 
-        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(queryBuilder.getEntityManager(), Object[].class);
-        if (queryBuilder instanceof CTEBuilder<?>) {
-            this.criteriaBuilder.withCtesFrom((CTEBuilder<?>) queryBuilder);
+        CTEBuilder<?> cteSource;
+        if (entityManager == null) {
+            FullQueryBuilder<?, ?> queryBuilder = entityViewConfiguration.getCriteriaBuilder();
+            this.criteriaBuilder = criteriaBuilderFactory.create(queryBuilder.getEntityManager(), Object[].class);
+            cteSource = queryBuilder instanceof CTEBuilder<?> ? (CTEBuilder<?>) queryBuilder : null;
+        } else {
+            this.criteriaBuilder = criteriaBuilderFactory.create(entityManager, Object[].class);
+            cteSource = mainCteSource;
+        }
+        if (cteSource != null) {
+            this.criteriaBuilder.withCtesFrom(cteSource);
         }
         this.viewRootJpqlMacro = new CorrelatedSubqueryViewRootJpqlMacro(criteriaBuilder, optionalParameters, viewRootExpression != null, viewRootEntityClass, viewRootIdAttributePath, viewRootExpression);
         this.embeddingViewJpqlMacro = new CorrelatedSubqueryEmbeddingViewJpqlMacro(criteriaBuilder, optionalParameters, embeddingViewExpression != null, embeddingViewEntityClass, embeddingViewIdAttributePath, embeddingViewExpression, batchedIdValues, viewRootJpqlMacro);
@@ -124,8 +214,8 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         this.criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
 
         String joinBase = CORRELATION_KEY_ALIAS;
-        SubqueryCorrelationBuilder correlationBuilder = new SubqueryCorrelationBuilder(queryBuilder, optionalParameters, criteriaBuilder, correlationAlias, correlationExternalAlias, correlationResult, correlationBasisType, correlationBasisEntityType, joinBase, attributePath, batchSize, limiter, false);
-        CorrelationProvider provider = correlationProviderFactory.create(entityViewConfiguration.getCriteriaBuilder(), entityViewConfiguration.getOptionalParameters());
+        SubqueryCorrelationBuilder correlationBuilder = new SubqueryCorrelationBuilder(parameterHolder, optionalParameters, criteriaBuilder, correlationAlias, correlationExternalAlias, correlationResult, correlationBasisType, correlationBasisEntityType, joinBase, attributePath, batchSize, limiter, false);
+        CorrelationProvider provider = correlationProviderFactory.create(parameterHolder, optionalParameters);
 
         String correlationKeyExpression;
         if (batchSize > 1) {
@@ -138,7 +228,7 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             if (correlationBasisEntityType != null) {
                 correlationKeyExpression = CORRELATION_KEY_ALIAS;
                 if (batchCorrelationMode == BatchCorrelationMode.VALUES) {
-                    correlationSelectExpression = CORRELATION_KEY_ALIAS + '.' + getEntityIdName(correlationBasisEntityType);
+                    correlationSelectExpression = CORRELATION_KEY_ALIAS + '.' + correlationBasisEntityIdAttributePath;
                 } else {
                     correlationSelectExpression = CORRELATION_KEY_ALIAS + '.' + viewRootIdAttributePath;
                 }
@@ -178,8 +268,43 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         return correlationBuilder.getCorrelationRoot();
     }
 
+    @Override
+    public boolean supportsConcurrentTransform() {
+        return supportsConcurrentTransform;
+    }
+
+    @Override
+    public void prepareConcurrentTransform() {
+        FullQueryBuilder<?, ?> queryBuilder = entityViewConfiguration.getCriteriaBuilder();
+        this.mainParameterHolder = new ParameterHolderSnapshot(queryBuilder);
+        if (queryBuilder instanceof CTEBuilder<?>) {
+            // Copy the CTEs to a builder that is only accessed by the thread that runs the transform
+            this.mainCteSource = criteriaBuilderFactory.create(queryBuilder.getEntityManager(), Object.class).withCtesFrom((CTEBuilder<?>) queryBuilder);
+        } else {
+            this.mainCteSource = null;
+        }
+    }
+
+    @Override
+    public List<Object[]> transform(List<Object[]> tuples, EntityManager entityManager) {
+        if (mainParameterHolder == null) {
+            throw new IllegalStateException("The concurrent transform was not prepared!");
+        }
+        this.entityManager = entityManager;
+        try {
+            return transform(tuples);
+        } finally {
+            this.entityManager = null;
+            this.mainParameterHolder = null;
+            this.mainCteSource = null;
+        }
+    }
+
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
+        if (adaptiveBatchSize != null) {
+            batchSize = adaptiveBatchSize.getBatchSize(maxBatchSize, countDistinctCorrelationValues(tuples));
+        }
         FixedArrayList correlationParams = new FixedArrayList(batchSize);
         // We have the correlation key on the first position if we do batching
         final int tupleOffset = (batchSize > 1 ? 1 : 0) + (indexCorrelator == null && indexExpression == null ? 0 : 1);
@@ -274,9 +399,20 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         return tuples;
     }
 
+    private int countDistinctCorrelationValues(List<Object[]> tuples) {
+        Set<Object> correlationValues = new HashSet<>(tuples.size());
+        for (int i = 0; i < tuples.size(); i++) {
+            Object correlationValue = tuples.get(i)[startIndex];
+            if (correlationValue != null) {
+                correlationValues.add(correlationValue);
+            }
+        }
+        return correlationValues.size();
+    }
+
     @Override
     protected void populateParameters(FullQueryBuilder<?, ?> queryBuilder) {
-        FullQueryBuilder<?, ?> mainBuilder = entityViewConfiguration.getCriteriaBuilder();
+        ParameterHolder<?> mainBuilder = getMainParameterHolder();
         for (Parameter<?> paramEntry : mainBuilder.getParameters()) {
             if (!paramEntry.getName().equals(correlationParamName) && queryBuilder.containsParameter(paramEntry.getName()) && !queryBuilder.isParameterSet(paramEntry.getName())) {
                 queryBuilder.setParameter(paramEntry.getName(), mainBuilder.getParameterValue(paramEntry.getName()));
@@ -477,7 +613,15 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             }
         }
 
-        populateResult(correlationValues, defaultKey, (List<Object>) query.getResultList());
+        List<Object> resultList;
+        if (adaptiveBatchSize == null) {
+            resultList = (List<Object>) query.getResultList();
+        } else {
+            long start = System.nanoTime();
+            resultList = (List<Object>) query.getResultList();
+            adaptiveBatchSize.recordLatency(batchSize, System.nanoTime() - start);
+        }
+        populateResult(correlationValues, defaultKey, resultList);
 
         batchParameters.reset();
         if (viewRootIds != null) {
@@ -0,0 +1,93 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the batch size of the correlation queries for an attribute based on the number of distinct correlation keys,
+ * an upper bound derived from the configured batch size and the bind parameter and IN list limits of the dbms, and the observed query latency.
+ * Batch sizes are always powers of two, so that at most a few differently sized queries end up in the query plan caches.
+ * The largest batch size is lowered while batch queries are slower than {@link #TARGET_LATENCY_NANOS} and raised again when they become fast.
+ *
+ * Instances are shared by all transformers of an attribute, so the state is updated without locking. Lost updates only delay the adaption.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public final class AdaptiveBatchSize {
+
+    static final long TARGET_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // The largest batch size that is used when no batch size is configured for an attribute
+    static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+    private static final int MAX_EXPONENT = 30;
+    // Below a batch size of 2 we would switch to non-batched queries which won't be faster
+    private static final int MIN_CAP_EXPONENT = 1;
+
+    private volatile int capExponent = MAX_EXPONENT;
+
+    /**
+     * Returns the upper bound for the batch size of an attribute.
+     *
+     * @param configuredBatchSize The batch size configured for the attribute, 1 if none is configured
+     * @param availableBindParameters The number of bind parameters that are available for correlation values
+     * @param columnsPerValue The number of columns that are bound for a correlation value
+     * @param maxInListSize The maximum number of elements of an IN list
+     * @return The maximum batch size
+     */
+    public static int getMaxBatchSize(int configuredBatchSize, int availableBindParameters, int columnsPerValue, int maxInListSize) {
+        int maxBatchSize = configuredBatchSize == 1 ? DEFAULT_MAX_BATCH_SIZE : configuredBatchSize;
+        // Correlation values might be rendered as IN list and every value might bind multiple columns
+        maxBatchSize = Math.min(maxBatchSize, maxInListSize);
+        maxBatchSize = Math.min(maxBatchSize, availableBindParameters / Math.max(1, columnsPerValue));
+        return Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Returns the batch size to use for the given number of distinct correlation keys.
+     *
+     * @param maxBatchSize The maximum batch size
+     * @param distinctKeys The number of distinct correlation keys
+     * @return The batch size
+     */
+    public int getBatchSize(int maxBatchSize, int distinctKeys) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid max batch size: " + maxBatchSize);
+        }
+        int maxExponent = Math.min(floorExponent(maxBatchSize), capExponent);
+        int exponent = Math.min(ceilExponent(distinctKeys), maxExponent);
+        return 1 << exponent;
+    }
+
+    /**
+     * Records the latency of a correlation query that was executed with the given batch size.
+     *
+     * @param batchSize The batch size of the query
+     * @param nanos The latency of the query in nanoseconds
+     */
+    public void recordLatency(int batchSize, long nanos) {
+        int exponent = floorExponent(batchSize);
+        int cap = capExponent;
+        if (nanos > TARGET_LATENCY_NANOS) {
+            if (exponent > MIN_CAP_EXPONENT && exponent <= cap) {
+                capExponent = exponent - 1;
+            }
+        } else if (nanos < TARGET_LATENCY_NANOS / 4 && exponent == cap && cap < MAX_EXPONENT) {
+            capExponent = cap + 1;
+        }
+    }
+
+    private static int floorExponent(int value) {
+        return 31 - Integer.numberOfLeadingZeros(value);
+    }
+
+    private static int ceilExponent(int value) {
+        if (value <= 1) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(value - 1);
+    }
+}
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.view.impl.type;
 
+import com.blazebit.persistence.parser.CharSequenceUtils;
 import com.blazebit.persistence.view.spi.type.BasicUserType;
 import com.blazebit.persistence.view.spi.type.VersionBasicUserType;
 import com.blazebit.persistence.view.spi.type.ImmutableBasicUserType;
@@ -29,7 +30,7 @@ public class IntegerBasicUserType extends ImmutableBasicUserType<Integer> implem
 
     @Override
     public Integer fromString(CharSequence sequence) {
-        return Integer.parseInt(sequence.toString());
+        return CharSequenceUtils.parseInt(sequence);
     }
 
     @Override
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.view.impl.type;
 
+import com.blazebit.persistence.parser.CharSequenceUtils;
 import com.blazebit.persistence.view.spi.type.BasicUserType;
 import com.blazebit.persistence.view.spi.type.VersionBasicUserType;
 import com.blazebit.persistence.view.spi.type.ImmutableBasicUserType;
@@ -29,7 +30,7 @@ public class LongBasicUserType extends ImmutableBasicUserType<Long> implements V
 
     @Override
     public Long fromString(CharSequence sequence) {
-        return Long.valueOf(sequence.toString());
+        return CharSequenceUtils.parseLong(sequence);
     }
 
     @Override
@@ -26,6 +26,7 @@ import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
 import com.blazebit.persistence.view.spi.type.MutableStateTrackable;
 import com.blazebit.persistence.view.impl.tx.TransactionHelper;
 import com.blazebit.persistence.view.impl.update.flush.PostFlushDeleter;
+import com.blazebit.persistence.view.impl.update.flush.PostFlushDeleterUtil;
 import com.blazebit.persistence.view.impl.update.listener.ViewAndEntityPostPersistListenerImpl;
 import com.blazebit.persistence.view.impl.update.listener.ViewAndEntityPrePersistListenerImpl;
 import com.blazebit.persistence.view.impl.update.listener.ViewPostCommitListenerImpl;
@@ -70,6 +71,7 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
     private final Class<?> entityViewClass;
     private final Object object;
     private final Object entity;
+    private final Iterable<?> objects;
     private final TransactionAccess transactionAccess;
     private final InitialStateResetter initialStateResetter;
     private final ListenerManager listenerManager;
@@ -79,6 +81,14 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
     private List<PostFlushDeleter> orphanRemovalDeleters = new ArrayList<>();
 
     public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, boolean forceEntity, boolean remove, Class<?> entityViewClass, Object object, Object entity) {
+        this(evm, em, forceFull, forceEntity, remove, entityViewClass, object, entity, null);
+    }
+
+    public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, Iterable<?> objects) {
+        this(evm, em, forceFull, false, false, null, null, null, objects);
+    }
+
+    private DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, boolean forceEntity, boolean remove, Class<?> entityViewClass, Object object, Object entity, Iterable<?> objects) {
         this.evm = evm;
         this.em = em;
         this.forceFull = forceFull;
@@ -88,6 +98,7 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
         this.entityViewClass = entityViewClass;
         this.object = object;
         this.entity = entity;
+        this.objects = objects;
 
         if (!transactionAccess.isActive()) {
             throw new IllegalStateException("Transaction is not active!");
@@ -234,10 +245,7 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
 
     @Override
     public void removeOrphans(int orphanRemovalStartIndex) {
-        for (int i = orphanRemovalStartIndex; i < orphanRemovalDeleters.size(); i++) {
-            PostFlushDeleter postFlushDeleter = orphanRemovalDeleters.get(i);
-            postFlushDeleter.execute(this);
-        }
+        PostFlushDeleterUtil.executeAll(this, orphanRemovalDeleters, orphanRemovalStartIndex);
     }
 
     @Override
@@ -675,6 +683,8 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
             } else {
                 evm.remove(this, entityViewClass, object);
             }
+        } else if (objects != null) {
+            evm.updateAll(this, objects);
         } else {
             if (entity == null) {
                 evm.update(this, object);
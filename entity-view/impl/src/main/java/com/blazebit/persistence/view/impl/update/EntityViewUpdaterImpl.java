@@ -97,6 +97,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -106,6 +108,7 @@ import java.util.TreeMap;
 public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     public static final String WHERE_CLAUSE_PREFIX = "_";
+    private static final int UPDATE_QUERY_STRING_CACHE_MAXIMUM_SIZE = 128;
 
     private final boolean rootUpdateAllowed;
     private final ManagedViewTypeImplementor<?> managedViewType;
@@ -118,6 +121,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
     private final String updatePostfixString;
     private final String versionedUpdatePostfixString;
     private final String fullUpdateQueryString;
+    private final ConcurrentMap<UpdateQueryStringKey, UpdateQueryString> updateQueryStringCache = new ConcurrentHashMap<>();
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public EntityViewUpdaterImpl(EntityViewManagerImpl evm, Map<Object, EntityViewUpdaterImpl> localCache, ManagedViewTypeImplementor<?> viewType, ManagedViewTypeImplementor<?> declaredViewType, EntityViewUpdaterImpl owner, String ownerMapping) {
@@ -637,38 +641,33 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     @Override
     public Query createUpdateQuery(UpdateContext context, MutableStateTrackable updatableProxy, DirtyAttributeFlusher<?, ?, ?> flusher) {
+        return createUpdateQuery(context, updatableProxy, flusher, null);
+    }
+
+    private Query createUpdateQuery(UpdateContext context, MutableStateTrackable updatableProxy, DirtyAttributeFlusher<?, ?, ?> flusher, Map<String, Query> queryCache) {
         String queryString;
         boolean needsOptimisticLocking;
         if (flusher == fullFlusher) {
             queryString = fullUpdateQueryString;
             needsOptimisticLocking = fullFlusher.hasVersionFlusher();
         } else {
-            StringBuilder sb = new StringBuilder(updatePrefixString.length() + updatePostfixString.length() + 250);
-            sb.append(updatePrefixString);
-            int initialLength = sb.length();
-            flusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
-            if (sb.length() == initialLength) {
-                // If we still need optimistic locking, we just append a flush for the version increment
-                if (needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
-                    versionFlusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
-                    sb.append(versionedUpdatePostfixString);
-                    queryString = sb.toString();
-                } else {
-                    queryString = null;
-                }
-            } else {
-                if (needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
-                    sb.append(versionedUpdatePostfixString);
-                } else {
-                    sb.append(updatePostfixString);
-                }
-                queryString = sb.toString();
-            }
+            UpdateQueryString updateQueryString = getUpdateQueryString(context, flusher);
+            queryString = updateQueryString.queryString;
+            needsOptimisticLocking = updateQueryString.needsOptimisticLocking;
         }
 
         Query query = null;
         if (queryString != null) {
-            query = context.getEntityManager().createQuery(queryString);
+            if (queryCache == null) {
+                query = context.getEntityManager().createQuery(queryString);
+            } else {
+                // All parameters of the query string are bound by every flush, so the query can be reused
+                query = queryCache.get(queryString);
+                if (query == null) {
+                    query = context.getEntityManager().createQuery(queryString);
+                    queryCache.put(queryString, query);
+                }
+            }
             if (idFlusher != null) {
                 idFlusher.flushQuery(context, WHERE_CLAUSE_PREFIX, null, query, updatableProxy, updatableProxy, updatableProxy.$$_getId(), null, null);
             }
@@ -680,7 +679,58 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         return query;
     }
 
+    private UpdateQueryString getUpdateQueryString(UpdateContext context, DirtyAttributeFlusher<?, ?, ?> flusher) {
+        // The update query string of a dirty flusher for basic attributes only depends on the flushed attributes
+        UpdateQueryStringKey key = null;
+        if (flusher instanceof CompositeAttributeFlusher) {
+            long[] masks = ((CompositeAttributeFlusher) flusher).getUpdateQueryFragmentMasks();
+            if (masks != null) {
+                key = new UpdateQueryStringKey(masks[0], masks[1]);
+                UpdateQueryString updateQueryString = updateQueryStringCache.get(key);
+                if (updateQueryString != null) {
+                    return updateQueryString;
+                }
+            }
+        }
+
+        UpdateQueryString updateQueryString = renderUpdateQueryString(context, flusher);
+        // Stop caching when the bound is reached, as the number of distinct dirty attribute combinations is usually small
+        if (key != null && updateQueryStringCache.size() < UPDATE_QUERY_STRING_CACHE_MAXIMUM_SIZE) {
+            updateQueryStringCache.putIfAbsent(key, updateQueryString);
+        }
+        return updateQueryString;
+    }
+
+    private UpdateQueryString renderUpdateQueryString(UpdateContext context, DirtyAttributeFlusher<?, ?, ?> flusher) {
+        StringBuilder sb = new StringBuilder(updatePrefixString.length() + updatePostfixString.length() + 250);
+        sb.append(updatePrefixString);
+        int initialLength = sb.length();
+        flusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
+        if (sb.length() == initialLength) {
+            // If we still need optimistic locking, we just append a flush for the version increment
+            if (fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
+                versionFlusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
+                sb.append(versionedUpdatePostfixString);
+                return new UpdateQueryString(sb.toString(), true);
+            } else {
+                return new UpdateQueryString(null, false);
+            }
+        } else {
+            if (fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
+                sb.append(versionedUpdatePostfixString);
+                return new UpdateQueryString(sb.toString(), true);
+            } else {
+                sb.append(updatePostfixString);
+                return new UpdateQueryString(sb.toString(), false);
+            }
+        }
+    }
+
     private boolean update(UpdateContext context, Object entity, MutableStateTrackable updatableProxy) {
+        return update(context, entity, updatableProxy, this);
+    }
+
+    private boolean update(UpdateContext context, Object entity, MutableStateTrackable updatableProxy, UpdateQueryFactory queryFactory) {
         if (!rootUpdateAllowed && entity == null) {
             throw new IllegalArgumentException("Updating instances of the view type [" + updatableProxy.getClass().getName() + "] is not allowed because no entity id is known!");
         }
@@ -697,7 +747,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
             return flusher.flushEntity(context, entity, updatableProxy, updatableProxy, updatableProxy, null);
         } else {
             int orphanRemovalStartIndex = context.getOrphanRemovalDeleters().size();
-            Query query = flusher.flushQuery(context, null, this, null, updatableProxy, updatableProxy, updatableProxy, null, flusher);
+            Query query = flusher.flushQuery(context, null, queryFactory, null, updatableProxy, updatableProxy, updatableProxy, null, flusher);
             if (query != null) {
                 int updated = query.executeUpdate();
 
@@ -710,6 +760,111 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         }
     }
 
+    @Override
+    public void executeUpdates(UpdateContext context, List<MutableStateTrackable> updatableProxies) {
+        if (flushStrategy != FlushStrategy.ENTITY && !context.isForceEntity() && context.getEntityViewManager().isUpdaterValuesJoin() && updatableProxies.size() > 1) {
+            executeValuesJoinUpdates(context, updatableProxies);
+            return;
+        }
+
+        // Every view is flushed and updated before the next one, just like with separate save calls.
+        // Views with the same dirty attributes render the same query string though, so the query is reused
+        final Map<String, Query> queryCache = new HashMap<>();
+        UpdateQueryFactory queryFactory = new UpdateQueryFactory() {
+            @Override
+            public Query createUpdateQuery(UpdateContext context, MutableStateTrackable view, DirtyAttributeFlusher<?, ?, ?> nestedGraphNode) {
+                return EntityViewUpdaterImpl.this.createUpdateQuery(context, view, nestedGraphNode, queryCache);
+            }
+        };
+        for (int i = 0; i < updatableProxies.size(); i++) {
+            update(context, null, updatableProxies.get(i), queryFactory);
+        }
+    }
+
+    private void executeValuesJoinUpdates(UpdateContext context, List<MutableStateTrackable> updatableProxies) {
+        if (!rootUpdateAllowed) {
+            throw new IllegalArgumentException("Updating instances of the view type [" + managedViewType.getJavaType().getName() + "] is not allowed because no entity id is known!");
+        }
+
+        // The root updates are deferred until all views are flushed, so that updates of the same attributes can be grouped.
+        // The update query created for a view holds the parameter values of the view until the group is executed
+        int orphanRemovalStartIndex = context.getOrphanRemovalDeleters().size();
+        List<Query> singleRowQueries = new ArrayList<>();
+        List<MutableStateTrackable> singleRowViews = new ArrayList<>();
+        // Full updates are grouped by the full flusher, partial updates by the flushed attributes
+        Map<Object, List<Query>> groupQueries = new LinkedHashMap<>();
+        Map<Object, List<MutableStateTrackable>> groupViews = new HashMap<>();
+        Map<Object, CompositeAttributeFlusher> groupFlushers = new HashMap<>();
+        for (int i = 0; i < updatableProxies.size(); i++) {
+            MutableStateTrackable updatableProxy = updatableProxies.get(i);
+            @SuppressWarnings("unchecked")
+            DirtyAttributeFlusher<?, Object, Object> flusher = getNestedDirtyFlusher(context, updatableProxy, (DirtyAttributeFlusher) null);
+            if (flusher == null) {
+                continue;
+            }
+            if (!flusher.supportsQueryFlush()) {
+                flusher.flushEntity(context, null, updatableProxy, updatableProxy, updatableProxy, null);
+                continue;
+            }
+            Query query = flusher.flushQuery(context, null, this, null, updatableProxy, updatableProxy, updatableProxy, null, flusher);
+            if (query != null) {
+                Object key = null;
+                if (flusher == fullFlusher) {
+                    key = fullFlusher;
+                } else if (flusher instanceof CompositeAttributeFlusher) {
+                    long[] masks = ((CompositeAttributeFlusher) flusher).getUpdateQueryFragmentMasks();
+                    if (masks != null) {
+                        key = new UpdateQueryStringKey(masks[0], masks[1]);
+                    }
+                }
+                if (key == null) {
+                    singleRowQueries.add(query);
+                    singleRowViews.add(updatableProxy);
+                } else {
+                    List<Query> queries = groupQueries.get(key);
+                    if (queries == null) {
+                        queries = new ArrayList<>();
+                        groupQueries.put(key, queries);
+                        groupViews.put(key, new ArrayList<MutableStateTrackable>());
+                        groupFlushers.put(key, (CompositeAttributeFlusher) flusher);
+                    }
+                    queries.add(query);
+                    groupViews.get(key).add(updatableProxy);
+                }
+            }
+        }
+
+        ValuesJoinUpdater.executeSingleRowUpdates(singleRowQueries, singleRowViews);
+        for (Map.Entry<Object, List<Query>> entry : groupQueries.entrySet()) {
+            List<Query> queries = entry.getValue();
+            List<MutableStateTrackable> views = groupViews.get(entry.getKey());
+            ValuesJoinUpdater valuesJoinUpdater = null;
+            if (queries.size() > 1) {
+                valuesJoinUpdater = createValuesJoinUpdater(context, groupFlushers.get(entry.getKey()));
+            }
+            if (valuesJoinUpdater == null) {
+                ValuesJoinUpdater.executeSingleRowUpdates(queries, views);
+            } else {
+                valuesJoinUpdater.execute(context, queries, views);
+            }
+        }
+        context.removeOrphans(orphanRemovalStartIndex);
+    }
+
+    private ValuesJoinUpdater createValuesJoinUpdater(UpdateContext context, CompositeAttributeFlusher flusher) {
+        List<BasicAttributeFlusher<?, ?>> setFlushers = flusher.getUpdateQueryFragmentFlushers();
+        if (setFlushers == null) {
+            return null;
+        }
+        boolean needsOptimisticLocking;
+        if (flusher == fullFlusher) {
+            needsOptimisticLocking = fullFlusher.hasVersionFlusher();
+        } else {
+            needsOptimisticLocking = getUpdateQueryString(context, flusher).needsOptimisticLocking;
+        }
+        return ValuesJoinUpdater.create(context.getEntityViewManager(), fullEntityLoader, idFlusher, needsOptimisticLocking ? versionFlusher : null, setFlushers);
+    }
+
     @Override
     public Object executePersist(UpdateContext context, MutableStateTrackable updatableProxy) {
         Object entity = fullEntityLoader.toEntity(context, updatableProxy, null);
@@ -735,6 +890,11 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         fullFlusher.remove(context, viewId);
     }
 
+    @Override
+    public void removeAll(UpdateContext context, List<Object> viewIds) {
+        fullFlusher.removeAll(context, viewIds);
+    }
+
     @SuppressWarnings({"unchecked", "checkstyle:methodlength"})
     private DirtyAttributeFlusher<?, ?, ?> createAttributeFlusher(EntityViewManagerImpl evm, Map<Object, EntityViewUpdaterImpl> localCache, ManagedViewTypeImplementor<?> viewType, String idAttributeName, FlushStrategy flushStrategy, AbstractMethodAttribute<?, ?> attribute, DirtyAttributeFlusher<?, ?, ?> ownerIdFlusher, EntityViewUpdaterImpl owner, String ownerMapping) {
         if (attribute.isCollection()) {
@@ -1423,4 +1583,52 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         );
     }
 
+    /**
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static final class UpdateQueryStringKey {
+
+        private final long flushedMask;
+        private final long updatedMask;
+
+        public UpdateQueryStringKey(long flushedMask, long updatedMask) {
+            this.flushedMask = flushedMask;
+            this.updatedMask = updatedMask;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof UpdateQueryStringKey)) {
+                return false;
+            }
+            UpdateQueryStringKey that = (UpdateQueryStringKey) o;
+            return flushedMask == that.flushedMask && updatedMask == that.updatedMask;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (flushedMask ^ (flushedMask >>> 32));
+            result = 31 * result + (int) (updatedMask ^ (updatedMask >>> 32));
+            return result;
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static final class UpdateQueryString {
+
+        private final String queryString;
+        private final boolean needsOptimisticLocking;
+
+        public UpdateQueryString(String queryString, boolean needsOptimisticLocking) {
+            this.queryString = queryString;
+            this.needsOptimisticLocking = needsOptimisticLocking;
+        }
+    }
 }
@@ -0,0 +1,324 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl.update;
+
+import com.blazebit.persistence.UpdateCriteriaBuilder;
+import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.impl.EntityViewManagerImpl;
+import com.blazebit.persistence.view.impl.entity.EntityLoader;
+import com.blazebit.persistence.view.impl.update.flush.BasicAttributeFlusher;
+import com.blazebit.persistence.view.impl.update.flush.DirtyAttributeFlusher;
+import com.blazebit.persistence.view.impl.update.flush.VersionAttributeFlusher;
+import com.blazebit.persistence.view.spi.type.MutableStateTrackable;
+
+import javax.persistence.Query;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.IdentifiableType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes the update queries of views that render to the same query string as one <code>UPDATE</code> statement per batch,
+ * that joins the updated entity with a <code>VALUES</code> clause containing the new attribute values of the rows.
+ * The rendering of the join is left to the {@link UpdateJoinStyle} of the DBMS, which might e.g. produce a <code>MERGE</code> statement.
+ *
+ * The statement is built from the flushers that render the update query, so only updates that set top-level basic attributes
+ * of entities with a single basic id attribute are supported. The values are bound through transient entity instances,
+ * because an entity typed <code>VALUES</code> clause is the only way to bind multiple columns per row.
+ * Optimistic locking is only supported for numeric versions, which are incremented in SQL,
+ * because the <code>VALUES</code> clause row has to carry the initial version for the check.
+ * When the update count of a batch doesn't match the number of rows, the stale row is determined by reading the state of the batch ids.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public final class ValuesJoinUpdater {
+
+    private static final String VALUES_ALIAS = "v";
+
+    private final EntityViewManagerImpl evm;
+    private final EntityLoader entityLoader;
+    private final Class<Object> entityClass;
+    private final String entityName;
+    private final String idPath;
+    private final String idParameter;
+    private final String versionPath;
+    private final String versionParameter;
+    private final String nextVersionParameter;
+    private final String[] setPaths;
+    private final String[] setParameters;
+    private final ExtendedAttribute<Object, Object>[] setAttributes;
+    private final ExtendedAttribute<Object, Object> idAttribute;
+    private final ExtendedAttribute<Object, Object> versionAttribute;
+    private final int batchSize;
+
+    @SuppressWarnings("unchecked")
+    private ValuesJoinUpdater(EntityViewManagerImpl evm, EntityLoader entityLoader, ExtendedManagedType<Object> managedType, String idPath, String idParameter, String versionPath, String versionParameter, String nextVersionParameter, String[] setPaths, String[] setParameters) {
+        this.evm = evm;
+        this.entityLoader = entityLoader;
+        this.entityClass = managedType.getType().getJavaType();
+        this.entityName = ((EntityType<?>) managedType.getType()).getName();
+        this.idPath = idPath;
+        this.idParameter = idParameter;
+        this.versionPath = versionPath;
+        this.versionParameter = versionParameter;
+        this.nextVersionParameter = nextVersionParameter;
+        this.setPaths = setPaths;
+        this.setParameters = setParameters;
+        this.setAttributes = new ExtendedAttribute[setPaths.length];
+        for (int i = 0; i < setPaths.length; i++) {
+            setAttributes[i] = (ExtendedAttribute<Object, Object>) managedType.getAttribute(setPaths[i]);
+        }
+        this.idAttribute = (ExtendedAttribute<Object, Object>) managedType.getAttribute(idPath);
+        this.versionAttribute = versionPath == null ? null : (ExtendedAttribute<Object, Object>) managedType.getAttribute(versionPath);
+        // Every row of an entity typed VALUES clause binds all columns of the entity
+        int columnsPerRow = 0;
+        for (ExtendedAttribute<Object, ?> attribute : managedType.getOwnedSingularAttributes().values()) {
+            if (attribute.getAttribute().getPersistentAttributeType() != Attribute.PersistentAttributeType.EMBEDDED) {
+                columnsPerRow += Math.max(1, attribute.getColumnNames().length);
+            }
+        }
+        this.batchSize = Math.max(1, evm.getDbmsDialect().getMaxBindParameters() / Math.max(1, columnsPerRow));
+    }
+
+    /**
+     * Returns an updater for the update query rendered by the given flushers, or <code>null</code> if the query can't be executed via a <code>VALUES</code> join.
+     *
+     * @param evm The entity view manager
+     * @param entityLoader The entity loader to create the transient entity instances for the rows with
+     * @param idFlusher The flusher of the id attribute that is bound in the where clause
+     * @param versionFlusher The flusher of the version attribute if the update query checks the version, or <code>null</code>
+     * @param setFlushers The flushers that render the set clause items of the update query
+     * @return the updater or <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    public static ValuesJoinUpdater create(EntityViewManagerImpl evm, EntityLoader entityLoader, DirtyAttributeFlusher<?, ?, ?> idFlusher, VersionAttributeFlusher<?, ?> versionFlusher, List<BasicAttributeFlusher<?, ?>> setFlushers) {
+        if (evm.getDbmsDialect().getUpdateJoinStyle() == UpdateJoinStyle.NONE || entityLoader == null || !(idFlusher instanceof BasicAttributeFlusher<?, ?>)) {
+            return null;
+        }
+        Class<?> entityClass = entityLoader.getEntityClass();
+        EntityMetamodel metamodel = evm.getMetamodel().getEntityMetamodel();
+        ExtendedManagedType<Object> managedType = metamodel.getManagedType(ExtendedManagedType.class, entityClass);
+        if (!(managedType.getType() instanceof EntityType<?>) || Modifier.isAbstract(entityClass.getModifiers())
+                || managedType.getIdAttributes().size() != 1 || hasEntityHierarchy(metamodel, (EntityType<?>) managedType.getType())) {
+            return null;
+        }
+
+        BasicAttributeFlusher<?, ?> basicIdFlusher = (BasicAttributeFlusher<?, ?>) idFlusher;
+        String idPath = basicIdFlusher.getUpdateFragment();
+        if (!managedType.getIdAttribute().getName().equals(idPath) || !isBasic(managedType, idPath)) {
+            return null;
+        }
+        String versionPath = null;
+        if (versionFlusher != null) {
+            versionPath = versionFlusher.getUpdateFragment();
+            if (!isBasic(managedType, versionPath) || !isNumeric(managedType.getAttribute(versionPath).getElementClass())) {
+                return null;
+            }
+        }
+
+        String[] setPaths = new String[setFlushers.size()];
+        String[] setParameters = new String[setFlushers.size()];
+        for (int i = 0; i < setFlushers.size(); i++) {
+            BasicAttributeFlusher<?, ?> setFlusher = setFlushers.get(i);
+            String path = setFlusher.getUpdateFragment();
+            // Only top level attributes can be set on the transient entity instances
+            if (!isBasic(managedType, path) || path.equals(idPath) || path.equals(versionPath)) {
+                return null;
+            }
+            setPaths[i] = path;
+            setParameters[i] = setFlusher.getParameterName();
+        }
+
+        return new ValuesJoinUpdater(
+                evm,
+                entityLoader,
+                managedType,
+                idPath,
+                EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX + basicIdFlusher.getParameterName(),
+                versionPath,
+                versionFlusher == null ? null : EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX + versionFlusher.getParameterName(),
+                versionFlusher == null ? null : versionFlusher.getParameterName(),
+                setPaths,
+                setParameters
+        );
+    }
+
+    private static boolean isBasic(ExtendedManagedType<?> managedType, String path) {
+        if (path == null || path.indexOf('.') != -1) {
+            return false;
+        }
+        ExtendedAttribute<?, ?> attribute = managedType.getOwnedSingularAttributes().get(path);
+        return attribute != null && attribute.getAttribute().getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC;
+    }
+
+    private static boolean isNumeric(Class<?> versionClass) {
+        return versionClass == Integer.class || versionClass == int.class
+                || versionClass == Long.class || versionClass == long.class
+                || versionClass == Short.class || versionClass == short.class;
+    }
+
+    private static boolean hasEntityHierarchy(EntityMetamodel metamodel, EntityType<?> entityType) {
+        IdentifiableType<?> supertype = entityType.getSupertype();
+        if (supertype instanceof EntityType<?>) {
+            return true;
+        }
+        for (EntityType<?> otherType : metamodel.getEntities()) {
+            if (otherType.getSupertype() == entityType) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Executes the given update queries, which must all be created for the flushers this updater was created for.
+     * The queries provide the bound parameter values of the rows. If an entity is updated by multiple queries,
+     * the queries are executed one by one instead, as a row of the target table must only be matched by a single row of the <code>VALUES</code> clause.
+     *
+     * @param context The update context
+     * @param queries The update queries with bound parameters
+     * @param views The views of the update queries
+     */
+    public void execute(UpdateContext context, List<Query> queries, List<MutableStateTrackable> views) {
+        Set<Object> ids = new HashSet<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            if (!ids.add(queries.get(i).getParameterValue(idParameter))) {
+                executeSingleRowUpdates(queries, views);
+                return;
+            }
+        }
+
+        Query query = null;
+        int queryBatchSize = 0;
+        for (int start = 0; start < queries.size(); start += batchSize) {
+            int end = Math.min(queries.size(), start + batchSize);
+            List<Object> rows = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                rows.add(createRow(context, queries.get(i)));
+            }
+            if (query == null || queryBatchSize != rows.size()) {
+                query = createQuery(context, rows.size());
+                queryBatchSize = rows.size();
+            }
+            query.setParameter(VALUES_ALIAS, rows);
+            int updated = query.executeUpdate();
+
+            if (updated != rows.size()) {
+                throw createOptimisticLockException(context, queries.subList(start, end), views.subList(start, end));
+            }
+        }
+    }
+
+    /**
+     * Executes the given update queries one by one.
+     *
+     * @param queries The update queries with bound parameters
+     * @param views The views of the update queries
+     */
+    public static void executeSingleRowUpdates(List<Query> queries, List<MutableStateTrackable> views) {
+        for (int i = 0; i < queries.size(); i++) {
+            int updated = queries.get(i).executeUpdate();
+
+            if (updated != 1) {
+                throw new OptimisticLockException("The update operation did not return the expected update count!", null, views.get(i));
+            }
+        }
+    }
+
+    private Query createQuery(UpdateContext context, int rowCount) {
+        UpdateCriteriaBuilder<Object> cb = evm.getCriteriaBuilderFactory().update(context.getEntityManager(), entityClass, "e");
+        cb.fromValues(entityClass, VALUES_ALIAS, rowCount);
+        for (int i = 0; i < setPaths.length; i++) {
+            cb.setExpression(setPaths[i], VALUES_ALIAS + "." + setPaths[i]);
+        }
+        cb.where("e." + idPath).eqExpression(VALUES_ALIAS + "." + idPath);
+        if (versionPath != null) {
+            // The row carries the initial version for the check, so the next version is computed in SQL
+            cb.setExpression(versionPath, "e." + versionPath + " + 1");
+            cb.where("e." + versionPath).eqExpression(VALUES_ALIAS + "." + versionPath);
+        }
+        return cb.getQuery();
+    }
+
+    private Object createRow(UpdateContext context, Query query) {
+        // Without an id, the entity loader creates a new instance
+        Object row = entityLoader.toEntity(context, null, null);
+        idAttribute.getAccessor().set(row, query.getParameterValue(idParameter));
+        if (versionAttribute != null) {
+            versionAttribute.getAccessor().set(row, query.getParameterValue(versionParameter));
+        }
+        for (int i = 0; i < setAttributes.length; i++) {
+            setAttributes[i].getAccessor().set(row, query.getParameterValue(setParameters[i]));
+        }
+        return row;
+    }
+
+    private OptimisticLockException createOptimisticLockException(UpdateContext context, List<Query> queries, List<MutableStateTrackable> views) {
+        List<Object> ids = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            ids.add(queries.get(i).getParameterValue(idParameter));
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT e.").append(idPath);
+        if (versionPath != null) {
+            sb.append(", e.").append(versionPath);
+            for (int i = 0; i < setPaths.length; i++) {
+                sb.append(", e.").append(setPaths[i]);
+            }
+        }
+        sb.append(" FROM ").append(entityName).append(" e WHERE e.").append(idPath).append(" IN :ids");
+        List<?> result = context.getEntityManager().createQuery(sb.toString())
+                .setParameter("ids", ids)
+                .getResultList();
+        Map<Object, Object[]> currentStates = new HashMap<>(result.size());
+        for (Object o : result) {
+            if (versionPath == null) {
+                currentStates.put(o, null);
+            } else {
+                Object[] tuple = (Object[]) o;
+                currentStates.put(tuple[0], tuple);
+            }
+        }
+
+        // A row wasn't updated if its entity doesn't exist anymore or has a different version than the one the update sets.
+        // Since a concurrent update might have incremented the version to the same value, rows that don't have the new values are considered next
+        int candidateIndex = -1;
+        for (int i = 0; i < queries.size(); i++) {
+            Object id = ids.get(i);
+            if (!currentStates.containsKey(id)) {
+                return new OptimisticLockException("The update operation did not return the expected update count!", null, views.get(i));
+            }
+            if (versionPath != null) {
+                Object[] currentState = currentStates.get(id);
+                Query query = queries.get(i);
+                if (currentState[1] == null || !currentState[1].equals(query.getParameterValue(nextVersionParameter))) {
+                    return new OptimisticLockException("The update operation did not return the expected update count!", null, views.get(i));
+                }
+                if (candidateIndex == -1) {
+                    for (int j = 0; j < setParameters.length; j++) {
+                        Object value = query.getParameterValue(setParameters[j]);
+                        if (value == null ? currentState[j + 2] != null : !value.equals(currentState[j + 2])) {
+                            candidateIndex = i;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return new OptimisticLockException("The update operation did not return the expected update count!", null, views.get(Math.max(0, candidateIndex)));
+    }
+}
@@ -5,6 +5,9 @@
 
 package com.blazebit.persistence.view.impl.update.flush;
 
+import com.blazebit.persistence.impl.query.CustomSQLQuery;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.JoinTable;
 import com.blazebit.persistence.view.FlushStrategy;
 import com.blazebit.persistence.view.impl.accessor.AttributeAccessor;
 import com.blazebit.persistence.view.impl.accessor.InitialValueAttributeAccessor;
@@ -22,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -357,6 +361,57 @@ public abstract class AbstractPluralAttributeFlusher<X extends AbstractPluralAtt
         }
     }
 
+    /**
+     * Returns the number of values that fit into a single <code>VALUES</code> clause of a collection insert query
+     * without exceeding the bind parameter limit of the DBMS.
+     *
+     * @param context The update context
+     * @return the number of values
+     */
+    protected final int getValuesBatchSize(UpdateContext context) {
+        ExtendedManagedType<?> ownerType = context.getEntityViewManager().getMetamodel().getEntityMetamodel().getManagedType(ExtendedManagedType.class, ownerEntityClass);
+        JoinTable joinTable = ownerType.getAttribute(getMapping()).getJoinTable();
+        int parametersPerValue = 1;
+        // The owner id and the collection index or key are bound once per query
+        int fixedParameters = ownerIdBindFragments == null ? 0 : ownerIdBindFragments.length / 2;
+        if (joinTable != null) {
+            parametersPerValue = Math.max(1, joinTable.getTargetColumnMappings().size());
+            if (joinTable.getKeyColumnMappings() != null) {
+                fixedParameters += joinTable.getKeyColumnMappings().size();
+            }
+        }
+        int maxBindParameters = context.getEntityViewManager().getDbmsDialect().getMaxBindParameters() - fixedParameters;
+        return Math.max(1, maxBindParameters / parametersPerValue);
+    }
+
+    /**
+     * Executes the given modification query once for every given map of parameter values.
+     * Collection modification queries are executed as JDBC batch if the persistence provider supports it.
+     *
+     * @param query The modification query
+     * @param batchParameterValues The parameter values by parameter name for every execution
+     */
+    protected static void executeBatchUpdate(Query query, List<Map<String, Object>> batchParameterValues) {
+        if (query instanceof CustomSQLQuery) {
+            ((CustomSQLQuery) query).executeBatchUpdate(batchParameterValues);
+        } else {
+            for (Map<String, Object> parameterValues : batchParameterValues) {
+                for (Map.Entry<String, Object> entry : parameterValues.entrySet()) {
+                    query.setParameter(entry.getKey(), entry.getValue());
+                }
+                query.executeUpdate();
+            }
+        }
+    }
+
+    protected void throwTransientReference(Query query, List<Map<String, Object>> batchParameterValues, Object transientInstance) {
+        // Execute the entries collected so far to retain the statement order of a flush without batching
+        if (batchParameterValues != null && !batchParameterValues.isEmpty()) {
+            executeBatchUpdate(query, batchParameterValues);
+        }
+        throw new IllegalStateException("Collection " + attributeName + " references an unsaved transient instance - save the transient instance before flushing: " + transientInstance);
+    }
+
     protected abstract boolean mergeCollectionElements(UpdateContext context, Object ownerView, Object view, E entity, V value);
 
     protected abstract void replaceCollection(UpdateContext context, Object ownerView, Object view, E entity, V value, FlushStrategy flushStrategy);
@@ -9,7 +9,9 @@ import com.blazebit.persistence.parser.EntityMetamodel;
 import com.blazebit.persistence.spi.ExtendedAttribute;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.view.impl.EntityViewManagerImpl;
+import com.blazebit.persistence.view.impl.update.UpdateContext;
 
+import java.util.List;
 
 /**
  *
@@ -49,6 +51,13 @@ public abstract class AbstractUnmappedAttributeCascadeDeleter implements Unmappe
         this.cascadeDeleteElement = original.cascadeDeleteElement;
     }
 
+    @Override
+    public void removeAllById(UpdateContext context, List<Object> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            removeById(context, ids.get(i));
+        }
+    }
+
     @Override
     public String getAttributeValuePath() {
         return attributeValuePath;
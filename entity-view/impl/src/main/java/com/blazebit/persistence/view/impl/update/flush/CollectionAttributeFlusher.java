@@ -34,7 +34,6 @@ import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.persistence.Tuple;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -482,58 +481,45 @@ public class CollectionAttributeFlusher<E, V extends Collection<?>> extends Abst
 
         String mapping = getMapping();
         if (inverseFlusher == null) {
-            InsertCriteriaBuilder<?> insertCb = context.getEntityViewManager().getCriteriaBuilderFactory().insertCollection(context.getEntityManager(), ownerEntityClass, mapping);
-
             String entityIdAttributeName = elementDescriptor.getEntityIdAttributeName();
             String attributeIdAttributeName = elementDescriptor.getAttributeIdAttributeName();
-            if (flushAtOnce) {
-                if (entityIdAttributeName == null) {
-                    insertCb.fromValues(ownerEntityClass, mapping, "val", elementsToAdd);
-                } else if (attributeIdAttributeName.equals(entityIdAttributeName)) {
-                    insertCb.fromIdentifiableValues((Class<Object>) elementDescriptor.getJpaType(), "val", elementsToAdd);
-                } else {
-                    insertCb.fromIdentifiableValues((Class<Object>) elementDescriptor.getJpaType(), attributeIdAttributeName, "val", elementsToAdd);
-                }
-            } else {
-                if (entityIdAttributeName == null) {
-                    insertCb.fromValues(ownerEntityClass, mapping, "val", 1);
-                } else if (attributeIdAttributeName.equals(entityIdAttributeName)) {
-                    insertCb.fromIdentifiableValues((Class<Object>) elementDescriptor.getJpaType(), "val", 1);
-                } else {
-                    insertCb.fromIdentifiableValues((Class<Object>) elementDescriptor.getJpaType(), attributeIdAttributeName, "val", 1);
-                }
-            }
-            for (int i = 0; i < ownerIdBindFragments.length; i += 2) {
-                insertCb.bind(ownerIdBindFragments[i]).select(ownerIdBindFragments[i + 1]);
-            }
-            insertCb.bind(mapping).select("val");
-            Query insertQuery = insertCb.getQuery();
-            ownerIdFlusher.flushQuery(context, null, null, insertQuery, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
-
             boolean checkTransient = elementDescriptor.isJpaEntity() && !elementDescriptor.shouldJpaPersist();
-            if (flushAtOnce) {
-                if (checkTransient) {
-                    for (Object o : elementsToAdd) {
-                        if (elementDescriptor.getBasicUserType().shouldPersist(o)) {
-                            throw new IllegalStateException("Collection " + attributeName + " references an unsaved transient instance - save the transient instance before flushing: " + o);
-                        }
+            List<Object> elements = new ArrayList<>(elementsToAdd.size());
+            for (Object o : elementsToAdd) {
+                // Null elements are only inserted when flushing at once
+                if (o != null || flushAtOnce) {
+                    if (o != null && checkTransient && elementDescriptor.getBasicUserType().shouldPersist(o)) {
+                        throw new IllegalStateException("Collection " + attributeName + " references an unsaved transient instance - save the transient instance before flushing: " + o);
                     }
-                }
-                insertQuery.executeUpdate();
-            } else {
-                // TODO: Use batching when we implement #657
-                Object[] singletonArray = new Object[1];
-                List<Object> singletonList = Arrays.asList(singletonArray);
-                for (Object o : elementsToAdd) {
-                    if (o != null) {
-                        if (checkTransient && elementDescriptor.getBasicUserType().shouldPersist(o)) {
-                            throw new IllegalStateException("Collection " + attributeName + " references an unsaved transient instance - save the transient instance before flushing: " + o);
-                        }
-                        singletonArray[0] = o;
-                        insertQuery.setParameter("val", singletonList);
-                        insertQuery.executeUpdate();
+                    elements.add(o);
+                }
+            }
+
+            // Insert the elements in batches so that we don't exceed the bind parameter limit
+            int batchSize = getValuesBatchSize(context);
+            Query insertQuery = null;
+            int insertQueryBatchSize = 0;
+            for (int i = 0; i < elements.size(); i += batchSize) {
+                List<Object> batch = elements.subList(i, Math.min(elements.size(), i + batchSize));
+                if (insertQuery == null || insertQueryBatchSize != batch.size()) {
+                    InsertCriteriaBuilder<?> insertCb = context.getEntityViewManager().getCriteriaBuilderFactory().insertCollection(context.getEntityManager(), ownerEntityClass, mapping);
+                    if (entityIdAttributeName == null) {
+                        insertCb.fromValues(ownerEntityClass, mapping, "val", batch.size());
+                    } else if (attributeIdAttributeName.equals(entityIdAttributeName)) {
+                        insertCb.fromIdentifiableValues((Class<Object>) elementDescriptor.getJpaType(), "val", batch.size());
+                    } else {
+                        insertCb.fromIdentifiableValues((Class<Object>) elementDescriptor.getJpaType(), attributeIdAttributeName, "val", batch.size());
                     }
+                    for (int j = 0; j < ownerIdBindFragments.length; j += 2) {
+                        insertCb.bind(ownerIdBindFragments[j]).select(ownerIdBindFragments[j + 1]);
+                    }
+                    insertCb.bind(mapping).select("val");
+                    insertQuery = insertCb.getQuery();
+                    insertQueryBatchSize = batch.size();
+                    ownerIdFlusher.flushQuery(context, null, null, insertQuery, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
                 }
+                insertQuery.setParameter("val", batch);
+                insertQuery.executeUpdate();
             }
         } else {
             if (removedAllWithoutCollectionActions) {
@@ -85,6 +85,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
     private final EntityLoader entityLoader;
     private final EntityLoader referenceEntityLoader;
     private final String deleteQuery;
+    private final String deleteByIdsQuery;
     private final String versionedDeleteQuery;
     private final String lockOwner;
     private final int features;
@@ -118,6 +119,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         this.entityLoader = new FlusherBasedEntityLoader(evm, entityClass, jpaIdAttribute, viewIdMapper, entityIdAccessor, flushers);
         this.referenceEntityLoader = new ReferenceEntityLoader(evm, entityClass, jpaIdAttribute, viewIdMappingAttribute, viewIdMapper, entityIdAccessor, false);
         this.deleteQuery = createDeleteQuery(managedType, jpaIdAttribute);
+        this.deleteByIdsQuery = createDeleteByIdsQuery(managedType, jpaIdAttribute);
         this.versionedDeleteQuery = createVersionedDeleteQuery(deleteQuery, versionFlusher);
         this.features = determineFeatures(flushStrategy, flushers);
         this.element = null;
@@ -146,6 +148,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         this.entityLoader = new FlusherBasedEntityLoader(evm, entityClass, jpaIdAttribute, viewIdMapper, entityIdAccessor, flushers);
         this.referenceEntityLoader = original.referenceEntityLoader;
         this.deleteQuery = original.deleteQuery;
+        this.deleteByIdsQuery = original.deleteByIdsQuery;
         int features = determineFeatures(flushStrategy, flushers);
         this.element = element;
         // When flushing references that have no version set, we do a normal flush, not a versioned one
@@ -222,6 +225,15 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         return null;
     }
 
+    private String createDeleteByIdsQuery(ManagedType<?> managedType, SingularAttribute<?, ?> jpaIdAttribute) {
+        // Deleting by a list of ids is only possible for non-composite ids
+        if (managedType instanceof EntityType<?> && jpaIdAttribute != null && !(idFlusher instanceof EmbeddableAttributeFlusher<?, ?>)) {
+            return "DELETE FROM " + ((EntityType) managedType).getName() + " e WHERE e." + idFlusher.getMapping() + " IN :ids";
+        }
+
+        return null;
+    }
+
     private String createVersionedDeleteQuery(String deleteQuery, DirtyAttributeFlusher versionFlusher) {
         if (deleteQuery != null && versionFlusher != null) {
             StringBuilder sb = new StringBuilder();
@@ -273,6 +285,56 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         return versionFlusher != null;
     }
 
+    /**
+     * Returns the masks of the attributes that determine the update query fragment rendered by this dirty flusher,
+     * or <code>null</code> if the fragment depends on the state of nested flushers.
+     * The first mask has a bit set for every flushed attribute, the second one for every attribute that renders a set clause item.
+     *
+     * @return the attribute masks or <code>null</code>
+     */
+    public long[] getUpdateQueryFragmentMasks() {
+        if (flushers == fullFlushers || flushers.length > Long.SIZE) {
+            return null;
+        }
+        long flushedMask = 0L;
+        long updatedMask = 0L;
+        for (int i = 0; i < flushers.length; i++) {
+            DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
+            if (flusher != null) {
+                if (!(flusher instanceof BasicAttributeFlusher<?, ?>)) {
+                    return null;
+                }
+                flushedMask |= 1L << i;
+                if (((BasicAttributeFlusher<?, ?>) flusher).hasUpdateQueryFragment()) {
+                    updatedMask |= 1L << i;
+                }
+            }
+        }
+        return new long[]{ flushedMask, updatedMask };
+    }
+
+    /**
+     * Returns the flushers that render a set clause item into the update query of this flusher,
+     * or <code>null</code> if a flushed attribute isn't flushed by a {@link BasicAttributeFlusher}.
+     *
+     * @return the flushers that render a set clause item or <code>null</code>
+     */
+    public List<BasicAttributeFlusher<?, ?>> getUpdateQueryFragmentFlushers() {
+        List<BasicAttributeFlusher<?, ?>> updateQueryFragmentFlushers = new ArrayList<>(flushers.length);
+        for (int i = 0; i < flushers.length; i++) {
+            DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
+            if (flusher != null) {
+                if (!(flusher instanceof BasicAttributeFlusher<?, ?>)) {
+                    return null;
+                }
+                if (((BasicAttributeFlusher<?, ?>) flusher).hasUpdateQueryFragment()) {
+                    updateQueryFragmentFlushers.add((BasicAttributeFlusher<?, ?>) flusher);
+                }
+            }
+        }
+        return updateQueryFragmentFlushers;
+    }
+
     @Override
     public Object cloneDeep(Object view, Object oldValue, Object newValue) {
         return newValue;
@@ -926,6 +988,72 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         }
     }
 
+    public void removeAll(UpdateContext context, List<Object> viewIds) {
+        if (viewIds.size() < 2 || !supportsRemoveAll()) {
+            for (int i = 0; i < viewIds.size(); i++) {
+                remove(context, viewIds.get(i));
+            }
+            return;
+        }
+
+        // Cascade deletes that must happen before the removal are done per object,
+        // but the objects themselves are deleted in batches before the post flush deleters run
+        List<EntityViewProxy> removedViews = new ArrayList<>(viewIds.size());
+        List<Object> removedIds = new ArrayList<>(viewIds.size());
+        List<List<PostFlushDeleter>> flusherPostFlushDeleters = new ArrayList<>(flushers.length);
+        for (int i = 0; i < flushers.length; i++) {
+            flusherPostFlushDeleters.add(new ArrayList<PostFlushDeleter>());
+        }
+        for (int i = 0; i < viewIds.size(); i++) {
+            Object viewId = viewIds.get(i);
+            EntityViewProxy reference = (EntityViewProxy) context.getEntityViewManager().getReference(viewType, viewId);
+            if (context.invokePreRemove(reference)) {
+                context.getInitialStateResetter().addRemovedView(reference);
+                for (int j = 0; j < unmappedPreRemoveCascadeDeleters.length; j++) {
+                    unmappedPreRemoveCascadeDeleters[j].removeByOwnerId(context, viewId);
+                }
+                for (int j = 0; j < flushers.length; j++) {
+                    final DirtyAttributeFlusher<?, Object, Object> flusher = flushers[j];
+                    if (flusher != null) {
+                        flusherPostFlushDeleters.get(j).addAll(flusher.removeByOwnerId(context, viewId));
+                    }
+                }
+                removedViews.add(reference);
+                removedIds.add(viewId);
+            }
+        }
+
+        if (removedIds.isEmpty()) {
+            return;
+        }
+
+        PostFlushDeleterUtil.deleteByIds(context, deleteByIdsQuery, "ids", removedIds);
+        for (int i = 0; i < removedViews.size(); i++) {
+            context.invokePostRemove(removedViews.get(i));
+        }
+
+        // Grouping the deleters by attribute allows to coalesce the deletes of the elements of all removed objects
+        List<PostFlushDeleter> postFlushDeleters = new ArrayList<>();
+        for (int i = 0; i < flusherPostFlushDeleters.size(); i++) {
+            postFlushDeleters.addAll(flusherPostFlushDeleters.get(i));
+        }
+        PostFlushDeleterUtil.executeAll(context, postFlushDeleters, 0);
+    }
+
+    private boolean supportsRemoveAll() {
+        if (flushStrategy == FlushStrategy.ENTITY || deleteByIdsQuery == null || unmappedPostRemoveCascadeDeleters.length != 0) {
+            return false;
+        }
+        // Cascades after the removal require the element ids to be "returned" from the delete for every object
+        for (int i = 0; i < flushers.length; i++) {
+            final DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
+            if (flusher != null && flusher.requiresDeleteCascadeAfterRemove()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void removeFromEntity(UpdateContext context, Object entity) {
         // A composite flusher needs to be wrapped in a subview or collection flusher
@@ -33,9 +33,11 @@ import com.blazebit.persistence.view.spi.type.BasicUserType;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -278,37 +280,30 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
             Query query = insertCb.getQuery();
             ownerIdFlusher.flushQuery(context, null, null, query, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
 
-            // TODO: Use batching when we implement #657
-            Object[] singletonArray = new Object[1];
-            List<Object> singletonList = Arrays.asList(singletonArray);
-            if (elementDescriptor.getViewToEntityMapper() == null) {
-                boolean checkTransient = elementDescriptor.isJpaEntity() && !elementDescriptor.shouldJpaPersist();
-                for (Object object : appends) {
-                    if (object != null) {
+            // Every element needs its own index which a VALUES clause can't provide, so we execute the query once per element as JDBC batch
+            List<Map<String, Object>> batchParameterValues = new ArrayList<>(appends.size());
+            boolean checkTransient = elementDescriptor.isJpaEntity() && !elementDescriptor.shouldJpaPersist();
+            ViewToEntityMapper loadOnlyViewToEntityMapper = elementDescriptor.getViewToEntityMapper() == null ? null : elementDescriptor.getLoadOnlyViewToEntityMapper();
+            for (Object object : appends) {
+                if (object != null) {
+                    Object element;
+                    if (loadOnlyViewToEntityMapper == null) {
                         if (checkTransient && elementDescriptor.getBasicUserType().shouldPersist(object)) {
-                            throw new IllegalStateException("Collection " + attributeName + " references an unsaved transient instance - save the transient instance before flushing: " + object);
+                            throwTransientReference(query, batchParameterValues, object);
                         }
-                        singletonArray[0] = object;
-                        if (initialKnown) {
-                            query.setParameter("idx", appendIndex++);
-                        }
-                        query.setParameter("val", singletonList);
-                        query.executeUpdate();
+                        element = object;
+                    } else {
+                        element = loadOnlyViewToEntityMapper.applyToEntity(context, null, object);
                     }
-                }
-            } else {
-                ViewToEntityMapper loadOnlyViewToEntityMapper = elementDescriptor.getLoadOnlyViewToEntityMapper();
-                for (Object object : appends) {
-                    if (object != null) {
-                        singletonArray[0] = loadOnlyViewToEntityMapper.applyToEntity(context, null, object);
-                        if (initialKnown) {
-                            query.setParameter("idx", appendIndex++);
-                        }
-                        query.setParameter("val", singletonList);
-                        query.executeUpdate();
+                    Map<String, Object> parameterValues = new HashMap<>(2);
+                    if (initialKnown) {
+                        parameterValues.put("idx", appendIndex++);
                     }
+                    parameterValues.put("val", Collections.singletonList(element));
+                    batchParameterValues.add(parameterValues);
                 }
             }
+            executeBatchUpdate(query, batchParameterValues);
         }
     }
 
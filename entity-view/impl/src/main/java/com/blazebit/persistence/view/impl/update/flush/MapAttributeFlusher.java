@@ -451,8 +451,6 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
             processRemovedObjects(context, removedObjects);
         }
 
-        // TODO: Think about allowing to use batching when we implement #657
-
         return false;
     }
 
@@ -570,7 +568,10 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
             Query query = insertCb.getQuery();
             ownerIdFlusher.flushQuery(context, null, null, query, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
 
-            // TODO: Use batching when we implement #657
+            // Keys and values come from separate VALUES clauses which are only correlated when both contain a single row,
+            // so we execute the query once per entry as JDBC batch. An upsert needs the update count of every entry,
+            // so in that case we execute the query for every entry separately
+            List<Map<String, Object>> batchParameterValues = upsert ? null : new ArrayList<Map<String, Object>>(appends.size());
             Object[] singletonKeyArray = new Object[1];
             Object[] singletonValueArray = new Object[1];
             List<Object> singletonKeyList = Arrays.asList(singletonKeyArray);
@@ -585,7 +586,7 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
                 if (k != null && v != null) {
                     if (keyViewToEntityMapper == null) {
                         if (checkTransient && keyDescriptor.getBasicUserType().shouldPersist(k)) {
-                            throw new IllegalStateException("Collection " + attributeName + " references an unsaved transient instance - save the transient instance before flushing: " + k);
+                            throwTransientReference(query, batchParameterValues, k);
                         }
                         singletonKeyArray[0] = k;
                     } else {
@@ -593,12 +594,19 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
                     }
                     if (valueViewToEntityMapper == null) {
                         if (checkTransient && elementDescriptor.getBasicUserType().shouldPersist(v)) {
-                            throw new IllegalStateException("Collection " + attributeName + " references an unsaved transient instance - save the transient instance before flushing: " + v);
+                            throwTransientReference(query, batchParameterValues, v);
                         }
                         singletonValueArray[0] = v;
                     } else {
                         singletonValueArray[0] = valueViewToEntityMapper.applyToEntity(context, null, v);
                     }
+                    if (batchParameterValues != null) {
+                        Map<String, Object> parameterValues = new HashMap<>(2);
+                        parameterValues.put("key", Collections.singletonList(singletonKeyArray[0]));
+                        parameterValues.put("val", Collections.singletonList(singletonValueArray[0]));
+                        batchParameterValues.add(parameterValues);
+                        continue;
+                    }
                     query.setParameter("key", singletonKeyList);
                     query.setParameter("val", singletonValueList);
                     if (query.executeUpdate() == 0 && upsert) {
@@ -634,6 +642,9 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
                     }
                 }
             }
+            if (batchParameterValues != null) {
+                executeBatchUpdate(query, batchParameterValues);
+            }
         }
     }
 
@@ -25,10 +25,20 @@ public class PostFlushCollectionElementByIdDeleter implements PostFlushDeleter {
         this.elementIds = elementIds;
     }
 
+    public ElementToEntityMapper getElementToEntityMapper() {
+        return elementToEntityMapper;
+    }
+
+    public List<Object> getElementIds() {
+        return elementIds;
+    }
+
     @Override
     public void execute(UpdateContext context) {
-        for (Object elementId : elementIds) {
-            elementToEntityMapper.removeById(context, elementId);
+        if (elementIds.size() == 1) {
+            elementToEntityMapper.removeById(context, elementIds.get(0));
+        } else if (!elementIds.isEmpty()) {
+            elementToEntityMapper.removeAllById(context, elementIds);
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.impl.update.flush;
+
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.view.impl.update.UpdateContext;
+
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class PostFlushDeleterUtil {
+
+    private PostFlushDeleterUtil() {
+    }
+
+    /**
+     * Executes the given deleters in order. Consecutive deleters that remove elements by id through the same mapper or deleter
+     * are coalesced, so that the elements can be deleted in batches.
+     *
+     * @param context The update context
+     * @param postFlushDeleters The deleters to execute
+     * @param start The index of the first deleter to execute
+     */
+    public static void executeAll(UpdateContext context, List<PostFlushDeleter> postFlushDeleters, int start) {
+        // Deleters might register further deleters while executing, so we have to re-check the size
+        int i = start;
+        while (i < postFlushDeleters.size()) {
+            PostFlushDeleter current = postFlushDeleters.get(i++);
+            while (i < postFlushDeleters.size()) {
+                PostFlushDeleter merged = merge(current, postFlushDeleters.get(i));
+                if (merged == null) {
+                    break;
+                }
+                current = merged;
+                i++;
+            }
+            current.execute(context);
+        }
+    }
+
+    private static PostFlushDeleter merge(PostFlushDeleter deleter1, PostFlushDeleter deleter2) {
+        if (deleter1 instanceof PostFlushCollectionElementByIdDeleter && deleter2 instanceof PostFlushCollectionElementByIdDeleter) {
+            PostFlushCollectionElementByIdDeleter byIdDeleter1 = (PostFlushCollectionElementByIdDeleter) deleter1;
+            PostFlushCollectionElementByIdDeleter byIdDeleter2 = (PostFlushCollectionElementByIdDeleter) deleter2;
+            if (byIdDeleter1.getElementToEntityMapper() == byIdDeleter2.getElementToEntityMapper()) {
+                return new PostFlushCollectionElementByIdDeleter(byIdDeleter1.getElementToEntityMapper(), concat(byIdDeleter1.getElementIds(), byIdDeleter2.getElementIds()));
+            }
+        } else if (deleter1 instanceof PostFlushInverseCollectionElementByIdDeleter && deleter2 instanceof PostFlushInverseCollectionElementByIdDeleter) {
+            PostFlushInverseCollectionElementByIdDeleter byIdDeleter1 = (PostFlushInverseCollectionElementByIdDeleter) deleter1;
+            PostFlushInverseCollectionElementByIdDeleter byIdDeleter2 = (PostFlushInverseCollectionElementByIdDeleter) deleter2;
+            if (byIdDeleter1.getDeleter() == byIdDeleter2.getDeleter()) {
+                return new PostFlushInverseCollectionElementByIdDeleter(byIdDeleter1.getDeleter(), concat(byIdDeleter1.getElementIds(), byIdDeleter2.getElementIds()));
+            }
+        }
+        return null;
+    }
+
+    private static List<Object> concat(List<Object> list1, List<Object> list2) {
+        List<Object> list = new ArrayList<>(list1.size() + list2.size());
+        list.addAll(list1);
+        list.addAll(list2);
+        return list;
+    }
+
+    /**
+     * Executes the given delete query that has a collection valued parameter for the ids of the objects to delete.
+     * The ids are bound in chunks so that the bind parameter and IN list limits of the DBMS are honored.
+     *
+     * @param context The update context
+     * @param deleteByIdsQuery The delete query string
+     * @param parameterName The name of the collection valued parameter
+     * @param ids The ids of the objects to delete
+     * @return The number of deleted objects
+     */
+    public static int deleteByIds(UpdateContext context, String deleteByIdsQuery, String parameterName, List<Object> ids) {
+        DbmsDialect dbmsDialect = context.getEntityViewManager().getDbmsDialect();
+        int chunkSize = Math.max(1, Math.min(ids.size(), Math.min(dbmsDialect.getMaxBindParameters(), dbmsDialect.getMaxInListSize())));
+        int deleted = 0;
+        for (int i = 0; i < ids.size(); i += chunkSize) {
+            Query query = context.getEntityManager().createQuery(deleteByIdsQuery);
+            query.setParameter(parameterName, ids.subList(i, Math.min(ids.size(), i + chunkSize)));
+            deleted += query.executeUpdate();
+        }
+        return deleted;
+    }
+}
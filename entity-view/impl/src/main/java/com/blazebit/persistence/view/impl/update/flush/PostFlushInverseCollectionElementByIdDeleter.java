@@ -24,10 +24,20 @@ public class PostFlushInverseCollectionElementByIdDeleter implements PostFlushDe
         this.elementIds = elementIds;
     }
 
+    public UnmappedAttributeCascadeDeleter getDeleter() {
+        return deleter;
+    }
+
+    public List<Object> getElementIds() {
+        return elementIds;
+    }
+
     @Override
     public void execute(UpdateContext context) {
-        for (Object elementId : elementIds) {
-            deleter.removeById(context, elementId);
+        if (elementIds.size() == 1) {
+            deleter.removeById(context, elementIds.get(0));
+        } else if (!elementIds.isEmpty()) {
+            deleter.removeAllById(context, elementIds);
         }
     }
 }
@@ -7,6 +7,8 @@ package com.blazebit.persistence.view.impl.update.flush;
 
 import com.blazebit.persistence.view.impl.update.UpdateContext;
 
+import java.util.List;
+
 /**
  *
  * @author Christian Beikov
@@ -16,6 +18,8 @@ public interface UnmappedAttributeCascadeDeleter {
 
     public void removeById(UpdateContext context, Object id);
 
+    public void removeAllById(UpdateContext context, List<Object> ids);
+
     public void removeByOwnerId(UpdateContext context, Object ownerId);
 
     public String getAttributeValuePath();
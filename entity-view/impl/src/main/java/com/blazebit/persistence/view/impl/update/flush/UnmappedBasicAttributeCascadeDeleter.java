@@ -32,6 +32,7 @@ public class UnmappedBasicAttributeCascadeDeleter extends AbstractUnmappedAttrib
 
     private final String ownerIdAttributeName;
     private final String deleteQuery;
+    private final String deleteByIdsQuery;
     private final String deleteByOwnerIdQuery;
     private final boolean requiresDeleteCascadeAfterRemove;
     private final boolean requiresDeleteAsEntity;
@@ -53,6 +54,7 @@ public class UnmappedBasicAttributeCascadeDeleter extends AbstractUnmappedAttrib
         this.ownerIdAttributeName = ownerIdPath;
 
         this.deleteQuery = "DELETE FROM " + entityType.getName() + " e WHERE e." + elementIdAttributeName + " = :id";
+        this.deleteByIdsQuery = "DELETE FROM " + entityType.getName() + " e WHERE e." + elementIdAttributeName + " IN :ids";
         this.deleteByOwnerIdQuery = "DELETE FROM " + entityType.getName() + " e WHERE e." + ownerIdPath + " = :ownerId";
 
         if (elementIdAttributeName == null) {
@@ -97,6 +99,31 @@ public class UnmappedBasicAttributeCascadeDeleter extends AbstractUnmappedAttrib
         }
     }
 
+    @Override
+    public void removeAllById(UpdateContext context, List<Object> ids) {
+        // We can only delete in batches if the values for post remove cascades don't have to be "returned" for every element
+        if (requiresDeleteAsEntity || elementIdAttributeName == null || unmappedPostRemoveCascadeDeleters.length != 0) {
+            super.removeAllById(context, ids);
+            return;
+        }
+        List<Object> removedIds = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Object id = ids.get(i);
+            if (context.invokePreRemove(elementEntityClass, id)) {
+                for (int j = 0; j < unmappedPreRemoveCascadeDeleters.length; j++) {
+                    unmappedPreRemoveCascadeDeleters[j].removeByOwnerId(context, id);
+                }
+                removedIds.add(id);
+            }
+        }
+        if (!removedIds.isEmpty()) {
+            PostFlushDeleterUtil.deleteByIds(context, deleteByIdsQuery, "ids", removedIds);
+            for (int i = 0; i < removedIds.size(); i++) {
+                context.invokePostRemove(elementEntityClass, removedIds.get(i));
+            }
+        }
+    }
+
     public void remove(UpdateContext context, Object o) {
         if (context.hasRemoveListeners(elementEntityClass)) {
             PersistenceUnitUtil persistenceUnitUtil = context.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
@@ -19,6 +19,7 @@ import javax.persistence.metamodel.ManagedType;
 import javax.persistence.metamodel.SingularAttribute;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -89,6 +90,13 @@ public class UnmappedWritableBasicAttributeSetNullCascadeDeleter implements Unma
         updateCb.executeUpdate();
     }
 
+    @Override
+    public void removeAllById(UpdateContext context, List<Object> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            removeById(context, ids.get(i));
+        }
+    }
+
     @Override
     public void removeByOwnerId(UpdateContext context, Object ownerId) {
         UpdateCriteriaBuilder<?> updateCb = context.getEntityViewManager().getCriteriaBuilderFactory().update(context.getEntityManager(), ownerEntityClass, "e");
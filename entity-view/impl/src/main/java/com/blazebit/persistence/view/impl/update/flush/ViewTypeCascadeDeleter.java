@@ -8,6 +8,8 @@ package com.blazebit.persistence.view.impl.update.flush;
 import com.blazebit.persistence.view.impl.entity.ViewToEntityMapper;
 import com.blazebit.persistence.view.impl.update.UpdateContext;
 
+import java.util.List;
+
 
 /**
  *
@@ -27,6 +29,11 @@ public class ViewTypeCascadeDeleter implements UnmappedAttributeCascadeDeleter {
         viewToEntityMapper.removeById(context, id);
     }
 
+    @Override
+    public void removeAllById(UpdateContext context, List<Object> ids) {
+        viewToEntityMapper.removeAllById(context, ids);
+    }
+
     @Override
     public void removeByOwnerId(UpdateContext context, Object ownerId) {
         throw new UnsupportedOperationException();
@@ -0,0 +1,56 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class LongTupleIdMapTest {
+
+    @Test
+    public void putAndGetWithResize() {
+        LongTupleIdMap<String> map = new LongTupleIdMap<>(0);
+        for (long i = -500; i < 500; i++) {
+            map.put(i * 1024, "value" + i);
+        }
+        assertEquals(1000, map.size());
+        for (long i = -500; i < 500; i++) {
+            assertEquals("value" + i, map.get(i * 1024));
+        }
+        assertNull(map.get(1));
+        assertNull(map.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void putReplacesValue() {
+        LongTupleIdMap<String> map = new LongTupleIdMap<>(1);
+        map.put(0L, "a");
+        map.put(0L, "b");
+        assertEquals(1, map.size());
+        assertEquals("b", map.get(0L));
+    }
+
+    @Test
+    public void applicability() {
+        assertTrue(LongTupleIdMap.isApplicable(Arrays.asList(new Object[]{ 1L }, new Object[]{ null }, new Object[]{ 2L }), 0));
+        assertTrue(LongTupleIdMap.isApplicable(Arrays.asList(new Object[]{ "a", 1 }, new Object[]{ "b", 2 }), 1));
+        assertTrue(LongTupleIdMap.isApplicable(Collections.<Object[]>emptyList(), 0));
+        assertFalse(LongTupleIdMap.isApplicable(Arrays.asList(new Object[]{ 1L }, new Object[]{ 2 }), 0));
+        assertFalse(LongTupleIdMap.isApplicable(Collections.singletonList(new Object[]{ "a" }), 0));
+        assertFalse(LongTupleIdMap.isApplicable(Collections.singletonList(new Object[]{ 1L }), -1));
+    }
+}
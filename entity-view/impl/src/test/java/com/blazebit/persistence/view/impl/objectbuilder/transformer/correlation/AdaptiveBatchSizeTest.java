@@ -0,0 +1,72 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class AdaptiveBatchSizeTest {
+
+    @Test
+    public void roundsUpToPowerOfTwo() {
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize();
+        assertEquals(1, adaptiveBatchSize.getBatchSize(100, 0));
+        assertEquals(1, adaptiveBatchSize.getBatchSize(100, 1));
+        assertEquals(4, adaptiveBatchSize.getBatchSize(100, 3));
+        assertEquals(16, adaptiveBatchSize.getBatchSize(100, 16));
+        assertEquals(32, adaptiveBatchSize.getBatchSize(100, 17));
+    }
+
+    @Test
+    public void staysBelowMaxBatchSize() {
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize();
+        assertEquals(64, adaptiveBatchSize.getBatchSize(100, 1000));
+        assertEquals(2048, adaptiveBatchSize.getBatchSize(2100, 100000));
+        assertEquals(1, adaptiveBatchSize.getBatchSize(1, 1000));
+    }
+
+    @Test
+    public void limitsMaxBatchSize() {
+        // Without a configured batch size the default cap applies
+        assertEquals(AdaptiveBatchSize.DEFAULT_MAX_BATCH_SIZE, AdaptiveBatchSize.getMaxBatchSize(1, 65535, 1, Integer.MAX_VALUE));
+        assertEquals(100, AdaptiveBatchSize.getMaxBatchSize(100, 65535, 1, Integer.MAX_VALUE));
+        // Composite correlation values bind multiple columns
+        assertEquals(50, AdaptiveBatchSize.getMaxBatchSize(100, 100, 2, Integer.MAX_VALUE));
+        assertEquals(333, AdaptiveBatchSize.getMaxBatchSize(1, 1000, 3, Integer.MAX_VALUE));
+        // IN list limits like the one of Oracle
+        assertEquals(1000, AdaptiveBatchSize.getMaxBatchSize(5000, 65535, 1, 1000));
+        // Parameters of the main query might use up all bind parameters
+        assertEquals(1, AdaptiveBatchSize.getMaxBatchSize(100, -5, 1, 1000));
+    }
+
+    @Test
+    public void adaptsToLatency() {
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize();
+        adaptiveBatchSize.recordLatency(64, AdaptiveBatchSize.TARGET_LATENCY_NANOS + 1);
+        assertEquals(32, adaptiveBatchSize.getBatchSize(100, 1000));
+        adaptiveBatchSize.recordLatency(32, AdaptiveBatchSize.TARGET_LATENCY_NANOS + 1);
+        assertEquals(16, adaptiveBatchSize.getBatchSize(100, 1000));
+        // Latency of smaller batches doesn't influence the cap
+        adaptiveBatchSize.recordLatency(8, 0);
+        assertEquals(16, adaptiveBatchSize.getBatchSize(100, 1000));
+        adaptiveBatchSize.recordLatency(16, 0);
+        assertEquals(32, adaptiveBatchSize.getBatchSize(100, 1000));
+    }
+
+    @Test
+    public void keepsBatching() {
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize();
+        for (int i = 0; i < 10; i++) {
+            adaptiveBatchSize.recordLatency(adaptiveBatchSize.getBatchSize(4, 4), AdaptiveBatchSize.TARGET_LATENCY_NANOS + 1);
+        }
+        assertEquals(2, adaptiveBatchSize.getBatchSize(4, 4));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.basic;
+
+import com.blazebit.persistence.CompiledQuery;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.FetchStrategy;
+import com.blazebit.persistence.view.Mapping;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.basic.model.IdHolderView;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class CompiledEntityViewQueryTest extends AbstractEntityViewTest {
+
+    protected EntityViewManager evm;
+
+    @Before
+    public void initEvm() {
+        evm = build(DocumentCompiledView.class, DocumentWithPartnersView.class, PersonNameView.class);
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                Document doc1 = new Document("doc1", o1);
+                Document doc2 = new Document("doc2", o1);
+                Document doc3 = new Document("doc3", o2);
+
+                em.persist(o1);
+                em.persist(o2);
+                em.persist(doc1);
+                em.persist(doc2);
+                em.persist(doc3);
+            }
+        });
+    }
+
+    @Test
+    public void testCompileEntityViewQuery() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eqExpression(":name")
+                .orderByAsc("d.name");
+        CriteriaBuilder<DocumentCompiledView> viewCriteria = evm.applySetting(EntityViewSetting.create(DocumentCompiledView.class), criteria);
+        CompiledQuery<DocumentCompiledView> compiledQuery = cbf.compile(viewCriteria);
+
+        List<DocumentCompiledView> karl1Documents = compiledQuery.createQuery(em).setParameter("name", "Karl1").getResultList();
+        List<DocumentCompiledView> karl2Documents = compiledQuery.createQuery(em).setParameter("name", "Karl2").getResultList();
+
+        assertEquals(2, karl1Documents.size());
+        assertEquals("doc1", karl1Documents.get(0).getName());
+        assertEquals("Karl1", karl1Documents.get(0).getOwnerName());
+        assertEquals("doc2", karl1Documents.get(1).getName());
+        assertEquals("Karl1", karl1Documents.get(1).getOwnerName());
+        assertEquals(1, karl2Documents.size());
+        assertEquals("doc3", karl2Documents.get(0).getName());
+        assertEquals("Karl2", karl2Documents.get(0).getOwnerName());
+    }
+
+    @Test
+    public void testCompileEntityViewQueryWithSubselectCollectionFails() {
+        CriteriaBuilder<DocumentWithPartnersView> viewCriteria = evm.applySetting(EntityViewSetting.create(DocumentWithPartnersView.class), cbf.create(em, Document.class));
+        try {
+            cbf.compile(viewCriteria);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            // Expected, because the subselect fetching is bound to the criteria builder
+        }
+    }
+
+    @EntityView(Document.class)
+    public interface DocumentCompiledView extends IdHolderView<Long> {
+
+        public String getName();
+
+        @Mapping("owner.name")
+        public String getOwnerName();
+    }
+
+    @EntityView(Document.class)
+    public interface DocumentWithPartnersView extends IdHolderView<Long> {
+
+        public String getName();
+
+        @Mapping(fetch = FetchStrategy.SUBSELECT)
+        public Set<PersonNameView> getPartners();
+    }
+
+    @EntityView(Person.class)
+    public interface PersonNameView extends IdHolderView<Long> {
+
+        public String getName();
+    }
+}
@@ -12,6 +12,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 
@@ -178,6 +180,34 @@ public class NestedCollectionsTest<T extends PersonForCollectionsMasterView, U e
         assertSubviewCollectionEquals(pers2.getOwnedDocuments(), results.get(1).getOwnedDocuments());
     }
 
+    @Test
+    public void testCollectionsStream() {
+        EntityViewManager evm = build(
+                viewType,
+                subviewType,
+                SubviewPersonForCollectionsView.class,
+                PersonForCollectionsListNestedView.class
+        );
+
+        CriteriaBuilder<PersonForCollections> criteria = cbf.create(em, PersonForCollections.class, "p")
+            .where("id").in(pers1.getId(), pers2.getId())
+            .orderByAsc("id");
+        CriteriaBuilder<T> cb = evm.applySetting(EntityViewSetting.create(viewType), criteria);
+        List<T> results;
+        try (Stream<T> stream = cb.getResultStream()) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(2, results.size());
+        // Pers1
+        assertEquals(pers1.getName(), results.get(0).getName());
+        assertSubviewCollectionEquals(pers1.getOwnedDocuments(), results.get(0).getOwnedDocuments());
+
+        // Pers2
+        assertEquals(pers2.getName(), results.get(1).getName());
+        assertSubviewCollectionEquals(pers2.getOwnedDocuments(), results.get(1).getOwnedDocuments());
+    }
+
     private void assertSubviewCollectionEquals(Set<DocumentForCollections> ownedDocuments, Set<? extends SubviewDocumentCollectionsView> ownedSubviewDocuments) {
         assertEquals(ownedDocuments.size(), ownedSubviewDocuments.size());
         for (DocumentForCollections doc : ownedDocuments) {
@@ -22,7 +22,9 @@ import org.junit.Before;
 
 import javax.persistence.EntityManager;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 
@@ -79,20 +81,11 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
     }
 
     protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize) {
-        EntityViewManager evm = build(
-                entityView,
-                SimpleDocumentCorrelatedView.class,
-                SimplePersonCorrelatedSubView.class,
-                SimpleVersionCorrelatedView.class
-        );
+        testCorrelation(entityView, batchSize, Collections.<String, Object>emptyMap());
+    }
 
-        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
-        EntityViewSetting<T, CriteriaBuilder<T>> setting = EntityViewSetting.create(entityView);
-        if (batchSize != null) {
-            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", batchSize);
-        }
-        CriteriaBuilder<T> cb = evm.applySetting(setting, criteria);
-        List<T> results = cb.getResultList();
+    protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize, Map<String, Object> properties) {
+        List<T> results = getCorrelationResults(entityView, batchSize, properties);
 
         assertEquals(4, results.size());
 
@@ -181,6 +174,26 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
         assertEquals(0, results.get(3).getThisCorrelatedEmptyViewList().size());
     }
 
+    protected <T extends DocumentCorrelationView> List<T> getCorrelationResults(Class<T> entityView, Integer batchSize, Map<String, Object> properties) {
+        EntityViewManager evm = build(
+                entityView,
+                SimpleDocumentCorrelatedView.class,
+                SimplePersonCorrelatedSubView.class,
+                SimpleVersionCorrelatedView.class
+        );
+
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<T, CriteriaBuilder<T>> setting = EntityViewSetting.create(entityView);
+        if (batchSize != null) {
+            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", batchSize);
+        }
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            setting.setProperty(entry.getKey(), entry.getValue());
+        }
+        CriteriaBuilder<T> cb = evm.applySetting(setting, criteria);
+        return cb.getResultList();
+    }
+
     private void assertExistsByName(String expectedName, Collection<SimpleDocumentCorrelatedView> views) {
         for (SimpleDocumentCorrelatedView v : views) {
             if (expectedName.equals(v.getName())) {
@@ -5,6 +5,7 @@
 
 package com.blazebit.persistence.view.testsuite.correlation.general;
 
+import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus4;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
@@ -12,16 +13,37 @@ import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate42;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate43;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate50;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
 import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.model.DocumentCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimpleDocumentCorrelatedView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimplePersonCorrelatedSubView;
+import com.blazebit.persistence.view.testsuite.correlation.model.SimpleVersionCorrelatedView;
 import com.blazebit.persistence.view.testsuite.correlation.general.model.DocumentCorrelationViewJoinId;
 import com.blazebit.persistence.view.testsuite.correlation.general.model.DocumentCorrelationViewJoinNormal;
 import com.blazebit.persistence.view.testsuite.correlation.general.model.DocumentCorrelationViewSubqueryId;
 import com.blazebit.persistence.view.testsuite.correlation.general.model.DocumentCorrelationViewSubqueryNormal;
 import com.blazebit.persistence.view.testsuite.correlation.general.model.DocumentCorrelationViewSubselectId;
 import com.blazebit.persistence.view.testsuite.correlation.general.model.DocumentCorrelationViewSubselectNormal;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
 /**
  *
  * @author Christian Beikov
@@ -85,6 +107,115 @@ public class GeneralCorrelationTest extends AbstractCorrelationTest {
         testCorrelation(DocumentCorrelationViewSubqueryId.class, 20);
     }
 
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationNormalConcurrent() throws Exception {
+        testCorrelationConcurrently(DocumentCorrelationViewSubqueryNormal.class, 2);
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testSubqueryCorrelationIdConcurrent() throws Exception {
+        testCorrelationConcurrently(DocumentCorrelationViewSubqueryId.class, null);
+    }
+
+    private void testCorrelationConcurrently(Class<? extends DocumentCorrelationView> entityView, Integer batchSize) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final AtomicInteger submittedTasks = new AtomicInteger();
+        try {
+            Executor executor = new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    submittedTasks.incrementAndGet();
+                    executorService.execute(command);
+                }
+            };
+            List<? extends DocumentCorrelationView> sequentialResults = getCorrelationResults(entityView, batchSize, Collections.<String, Object>emptyMap());
+            List<? extends DocumentCorrelationView> concurrentResults = getCorrelationResults(entityView, batchSize, Collections.<String, Object>singletonMap(ConfigurationProperties.CORRELATION_EXECUTOR, executor));
+            Assert.assertTrue(submittedTasks.get() > 0);
+            assertEquals(sequentialResults.size(), concurrentResults.size());
+            for (int i = 0; i < sequentialResults.size(); i++) {
+                assertCorrelationsEqual(sequentialResults.get(i), concurrentResults.get(i));
+            }
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void assertCorrelationsEqual(DocumentCorrelationView expected, DocumentCorrelationView actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getCorrelatedOwnerId(), actual.getCorrelatedOwnerId());
+        assertEquals(expected.getCorrelatedOwnerIdList(), actual.getCorrelatedOwnerIdList());
+        assertEquals(expected.getOwnerRelatedDocumentIds(), actual.getOwnerRelatedDocumentIds());
+        assertEquals(expected.getOwnerOnlyRelatedDocumentIds(), actual.getOwnerOnlyRelatedDocumentIds());
+        assertEquals(expected.getThisCorrelatedId(), actual.getThisCorrelatedId());
+        assertEquals(expected.getThisCorrelatedIdList(), actual.getThisCorrelatedIdList());
+        assertEquals(expected.getThisCorrelatedEmptyIdList(), actual.getThisCorrelatedEmptyIdList());
+        assertEquals(expected.getCorrelatedOwnerView(), actual.getCorrelatedOwnerView());
+        assertEquals(expected.getOwnerRelatedDocumentViews(), actual.getOwnerRelatedDocumentViews());
+        assertEquals(expected.getThisCorrelatedViewList(), actual.getThisCorrelatedViewList());
+        // Correlated entities are still loaded through the entity manager of the query
+        assertEquals(expected.getCorrelatedOwner().getId(), actual.getCorrelatedOwner().getId());
+        Assert.assertTrue(em.contains(actual.getCorrelatedOwner()));
+        assertEquals(expected.getOwnerRelatedDocuments().size(), actual.getOwnerRelatedDocuments().size());
+        for (Document document : actual.getOwnerRelatedDocuments()) {
+            Assert.assertTrue(em.contains(document));
+        }
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationNormalAdaptive() {
+        testCorrelation(DocumentCorrelationViewSubqueryNormal.class, null, Collections.<String, Object>singletonMap(ConfigurationProperties.ADAPTIVE_BATCH_SIZE, true));
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationIdAdaptive() {
+        testCorrelation(DocumentCorrelationViewSubqueryId.class, 2, Collections.<String, Object>singletonMap(ConfigurationProperties.ADAPTIVE_BATCH_SIZE, true));
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryBatchedCorrelationStream() {
+        EntityViewManager evm = build(
+                DocumentCorrelationViewSubqueryNormal.class,
+                SimpleDocumentCorrelatedView.class,
+                SimplePersonCorrelatedSubView.class,
+                SimpleVersionCorrelatedView.class
+        );
+        EntityViewSetting<DocumentCorrelationViewSubqueryNormal, CriteriaBuilder<DocumentCorrelationViewSubqueryNormal>> setting = EntityViewSetting.create(DocumentCorrelationViewSubqueryNormal.class);
+        setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", 20);
+        CriteriaBuilder<DocumentCorrelationViewSubqueryNormal> cb = evm.applySetting(setting, cbf.create(em, Document.class, "d").orderByAsc("id"));
+
+        enableQueryCollecting();
+        try {
+            List<DocumentCorrelationViewSubqueryNormal> listResults = cb.getResultList();
+            int listQueryCount = QueryInspectorListener.EXECUTED_QUERIES.size();
+            clearQueries();
+            List<DocumentCorrelationViewSubqueryNormal> streamResults;
+            try (Stream<DocumentCorrelationViewSubqueryNormal> stream = cb.getResultStream()) {
+                streamResults = stream.collect(Collectors.toList());
+            }
+
+            // Assert that streaming batches the correlations over multiple roots just like the list
+            assertQueryCount(listQueryCount);
+            assertEquals(4, streamResults.size());
+            for (int i = 0; i < listResults.size(); i++) {
+                assertEquals(listResults.get(i).getName(), streamResults.get(i).getName());
+                assertEquals(listResults.get(i).getOwnerRelatedDocumentIds(), streamResults.get(i).getOwnerRelatedDocumentIds());
+            }
+        } finally {
+            disableQueryCollecting();
+        }
+    }
+
     // TODO: test batch correlation expectation configuration
     // TODO: make explicit test for correlation key batching with view root usage maybe via nested subviews through collections?
 
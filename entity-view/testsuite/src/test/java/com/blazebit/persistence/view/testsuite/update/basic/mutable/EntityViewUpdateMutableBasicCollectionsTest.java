@@ -199,6 +199,37 @@ public class EntityViewUpdateMutableBasicCollectionsTest extends AbstractEntityV
         assertEquals(Collections.singletonList("test"), doc1.getStrings());
     }
 
+    @Test
+    public void testSaveAllKeepsStatementOrder() {
+        // Given
+        final UpdatableDocumentBasicWithCollectionsView docView1 = getDoc1View();
+        final UpdatableDocumentBasicWithCollectionsView docView2 = getDoc2View();
+        clearQueries();
+
+        // When
+        docView1.setName("newDoc1");
+        docView1.getStrings().add("newString1");
+        docView2.setName("newDoc2");
+        docView2.getStrings().add("newString2");
+        saveAll(docView1, docView2);
+
+        // Then
+        // Assert that every view is flushed completely before the next one, just like with separate save calls
+        if (isQueryStrategy() && !isFullMode()) {
+            assertOrderedQuerySequence()
+                    .insert(Document.class, "strings")
+                    .update(Document.class)
+                    .insert(Document.class, "strings")
+                    .update(Document.class)
+                    .validate();
+        }
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc1", doc1.getName());
+        assertEquals(docView1.getStrings(), doc1.getStrings());
+        assertEquals("newDoc2", doc2.getName());
+        assertEquals(docView2.getStrings(), doc2.getStrings());
+    }
+
     protected void assertChangesUpdateAndFlush(UpdatableDocumentBasicWithCollectionsView docView) {
         if (!isFullMode()) {
             SingularChangeModel<UpdatableDocumentBasicWithCollectionsView> changeModel = evm.getChangeModel(docView);
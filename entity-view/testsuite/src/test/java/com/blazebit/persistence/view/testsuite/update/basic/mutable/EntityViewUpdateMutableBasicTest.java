@@ -142,6 +142,63 @@ public class EntityViewUpdateMutableBasicTest extends AbstractEntityViewUpdateBa
         assertEquals(doc1.getVersion(), docView.getVersion());
     }
 
+    @Test
+    public void testSaveAll() {
+        final UpdatableDocumentBasicView docView1 = getDoc1View();
+        final UpdatableDocumentBasicView docView2 = getDoc2View();
+        Long oldVersion1 = docView1.getVersion();
+        Long oldVersion2 = docView2.getVersion();
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        clearQueries();
+        saveAll(docView1, docView2);
+
+        // Then
+        if (isQueryStrategy()) {
+            assertUnorderedQuerySequence()
+                    .update(Document.class)
+                    .update(Document.class)
+                    .validate();
+        }
+        assertVersionDiff(oldVersion1, docView1.getVersion(), 1, 1);
+        assertVersionDiff(oldVersion2, docView2.getVersion(), 1, 1);
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc1", doc1.getName());
+        assertEquals("newDoc2", doc2.getName());
+        assertEquals(doc1.getVersion(), docView1.getVersion());
+        assertEquals(doc2.getVersion(), docView2.getVersion());
+        assertNoUpdateAndReload(docView1);
+    }
+
+    @Test
+    public void testUpdateDifferentAttributesRepeatedly() {
+        // Given
+        final UpdatableDocumentBasicView docView = getDoc1View();
+        Long oldVersion = docView.getVersion();
+
+        // When
+        docView.setName("newDoc1");
+        update(docView);
+        docView.setArchived(true);
+        update(docView);
+        // The update query string for the same dirty attributes is reused
+        docView.setName("newDoc2");
+        update(docView);
+        docView.setName("newDoc3");
+        docView.setArchived(false);
+        update(docView);
+
+        // Then
+        assertVersionDiff(oldVersion, docView.getVersion(), 4, 4);
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc3", doc1.getName());
+        assertEquals(false, doc1.isArchived());
+        assertEquals(doc1.getVersion(), docView.getVersion());
+        assertNoUpdateAndReload(docView);
+    }
+
     @Test
     public void testUpdateViaReference() {
         doc1.setArchived(true);
@@ -0,0 +1,182 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.update.basic.mutable;
+
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.update.basic.AbstractEntityViewUpdateBasicTest;
+import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class, NoMySQL.class })
+public class EntityViewUpdateMutableBasicValuesJoinTest extends AbstractEntityViewUpdateBasicTest<UpdatableDocumentBasicView> {
+
+    public EntityViewUpdateMutableBasicValuesJoinTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, UpdatableDocumentBasicView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.setProperty(ConfigurationProperties.UPDATER_VALUES_JOIN, "true");
+    }
+
+    @Test
+    public void testSaveAll() {
+        final UpdatableDocumentBasicView docView1 = getDoc1View();
+        final UpdatableDocumentBasicView docView2 = getDoc2View();
+        Long oldVersion1 = docView1.getVersion();
+        Long oldVersion2 = docView2.getVersion();
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        clearQueries();
+        saveAll(docView1, docView2);
+
+        // Then
+        // Assert that both documents are updated with a single statement when using the query strategy
+        if (isQueryStrategy()) {
+            assertUnorderedQuerySequence()
+                    .update(Document.class)
+                    .validate();
+        }
+        assertVersionDiff(oldVersion1, docView1.getVersion(), 1, 1);
+        assertVersionDiff(oldVersion2, docView2.getVersion(), 1, 1);
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc1", doc1.getName());
+        assertEquals("newDoc2", doc2.getName());
+        assertEquals(doc1.getVersion(), docView1.getVersion());
+        assertEquals(doc2.getVersion(), docView2.getVersion());
+        assertNoUpdateAndReload(docView1);
+    }
+
+    @Test
+    public void testSaveAllOptimisticLock() {
+        final UpdatableDocumentBasicView docView1 = getDoc1View();
+        final UpdatableDocumentBasicView docView2 = getDoc2View();
+        // Bump the version of the second document concurrently
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.createQuery("UPDATE Document d SET d.version = d.version + 1 WHERE d.id = :id")
+                        .setParameter("id", doc2.getId())
+                        .executeUpdate();
+            }
+        });
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        try {
+            saveAll(docView1, docView2);
+            if (version) {
+                fail("Expected an optimistic lock exception");
+            }
+        } catch (OptimisticLockException ex) {
+            if (!version) {
+                throw ex;
+            }
+            // The stale view is determined per row
+            if (isQueryStrategy()) {
+                assertSame(docView2, ex.getEntityView());
+            }
+        }
+
+        // Then
+        clearPersistenceContextAndReload();
+        if (version) {
+            assertEquals("doc1", doc1.getName());
+            assertEquals("doc2", doc2.getName());
+        } else {
+            assertEquals("newDoc1", doc1.getName());
+            assertEquals("newDoc2", doc2.getName());
+        }
+    }
+
+    @Test
+    public void testSaveAllSameEntityTwice() {
+        final UpdatableDocumentBasicView docView1 = getDoc1View();
+        final UpdatableDocumentBasicView otherDocView1 = getDoc1View();
+
+        // When
+        docView1.setName("newDoc1");
+        otherDocView1.setName("otherDoc1");
+        clearQueries();
+        boolean optimisticLockFailure = false;
+        try {
+            saveAll(docView1, otherDocView1);
+        } catch (OptimisticLockException ex) {
+            // Just like with separate save calls, the second update fails the version check
+            assertSame(otherDocView1, ex.getEntityView());
+            optimisticLockFailure = true;
+        }
+
+        // Then
+        // Assert that the updates of the same entity are executed one by one
+        if (isQueryStrategy()) {
+            assertEquals(version, optimisticLockFailure);
+            assertUnorderedQuerySequence()
+                    .update(Document.class)
+                    .update(Document.class)
+                    .validate();
+        }
+        clearPersistenceContextAndReload();
+        if (optimisticLockFailure) {
+            assertEquals("doc1", doc1.getName());
+        } else {
+            assertEquals("otherDoc1", doc1.getName());
+        }
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder.assertSelect()
+                .fetching(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder fullUpdate(AssertStatementBuilder builder) {
+        return builder.assertUpdate()
+                .forEntity(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder.update(Document.class);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.update.elementcollection;
+
+import com.blazebit.persistence.impl.dialect.H2DbmsDialect;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.DelegatingDbmsDialect;
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.collections.entity.simple.DocumentForElementCollections;
+import com.blazebit.persistence.view.testsuite.collections.entity.simple.PersonForElementCollections;
+import com.blazebit.persistence.view.testsuite.update.AbstractEntityViewUpdateTest;
+import com.blazebit.persistence.view.testsuite.update.elementcollection.model.DocumentForElementCollectionsEmbeddableElementsView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that collection inserts are split into multiple <code>VALUES</code> batches when the bind parameter limit of the DBMS is reached.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@RunWith(Parameterized.class)
+// NOTE: No EclipseLink and Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class ElementCollectionUpdateValuesBatchTest extends AbstractEntityViewUpdateTest<DocumentForElementCollectionsEmbeddableElementsView> {
+
+    private DocumentForElementCollections doc1;
+
+    public ElementCollectionUpdateValuesBatchTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, DocumentForElementCollectionsEmbeddableElementsView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[] {
+            DocumentForElementCollections.class,
+            PersonForElementCollections.class
+        };
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.addEntityView(DocumentForElementCollectionsEmbeddableElementsView.class);
+    }
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        if ("h2".equals(dbms)) {
+            // Restrict the bind parameters so that adding many elements requires multiple insert batches
+            config.registerDialect("h2", new DelegatingDbmsDialect(new H2DbmsDialect()) {
+                @Override
+                public int getMaxBindParameters() {
+                    return 5;
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void prepareData(EntityManager em) {
+        doc1 = new DocumentForElementCollections("doc1");
+        doc1.getPartners().add(new PersonForElementCollections("pers1"));
+        em.persist(doc1);
+    }
+
+    @Test
+    public void testUpdateAddManyEmbeddables() {
+        DocumentForElementCollectionsEmbeddableElementsView doc1View = evm.find(em, DocumentForElementCollectionsEmbeddableElementsView.class, doc1.getId());
+        clearQueries();
+        for (int i = 1; i <= 5; i++) {
+            doc1View.getPartners().add(new PersonForElementCollections("Test" + i));
+        }
+
+        update(doc1View);
+
+        // Embeddable elements can't be identified, so the collection is recreated
+        // Every embeddable binds two parameters and the owner id takes one of the five bind parameters, so we insert two elements per batch
+        if (isQueryStrategy() && dbmsDialect instanceof DelegatingDbmsDialect) {
+            assertUnorderedQuerySequence()
+                    .delete(DocumentForElementCollections.class, "partners")
+                    .insert(DocumentForElementCollections.class, "partners")
+                    .insert(DocumentForElementCollections.class, "partners")
+                    .insert(DocumentForElementCollections.class, "partners")
+                    .validate();
+        }
+
+        List<DocumentForElementCollections> entities = cbf.create(em, DocumentForElementCollections.class, "d")
+                .fetch("partners")
+                .where("id").eq(doc1.getId())
+                .getResultList();
+        assertEquals(6, entities.get(0).getPartners().size());
+    }
+
+    @Override
+    protected void reload() {
+
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder;
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder;
+    }
+}
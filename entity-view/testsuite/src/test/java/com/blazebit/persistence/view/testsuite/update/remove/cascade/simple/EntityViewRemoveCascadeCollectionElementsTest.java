@@ -0,0 +1,201 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.update.remove.cascade.simple;
+
+import com.blazebit.persistence.impl.dialect.H2DbmsDialect;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.DelegatingDbmsDialect;
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.PrimitiveDocument;
+import com.blazebit.persistence.testsuite.entity.PrimitiveFamily;
+import com.blazebit.persistence.testsuite.entity.PrimitivePerson;
+import com.blazebit.persistence.testsuite.entity.PrimitiveVersion;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.update.AbstractEntityViewUpdateTest;
+import com.blazebit.persistence.view.testsuite.update.remove.cascade.simple.model.DocumentPeopleView;
+import com.blazebit.persistence.view.testsuite.update.remove.cascade.simple.model.PersonIdView;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.EntityManager;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class EntityViewRemoveCascadeCollectionElementsTest extends AbstractEntityViewUpdateTest<DocumentPeopleView> {
+
+    private PrimitiveDocument document;
+
+    public EntityViewRemoveCascadeCollectionElementsTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, DocumentPeopleView.class);
+    }
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        if ("h2".equals(dbms)) {
+            // Restrict the IN list size like on Oracle so that deleting many elements requires multiple statements
+            config.registerDialect("h2", new DelegatingDbmsDialect(new H2DbmsDialect()) {
+                @Override
+                public int getMaxInListSize() {
+                    return 1000;
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.addEntityView(PersonIdView.class);
+    }
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class[]{
+                PrimitivePerson.class,
+                PrimitiveDocument.class,
+                PrimitiveVersion.class,
+                PrimitiveFamily.class
+        };
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected void prepareData(EntityManager em) {
+        document = new PrimitiveDocument("doc1");
+        for (int i = 0; i < 3; i++) {
+            PrimitivePerson person = new PrimitivePerson("pers" + (i + 1));
+            em.persist(person);
+            document.getPeopleListBag().add(person);
+        }
+        em.persist(document);
+    }
+
+    @Test
+    public void testRemoveById() {
+        // Given
+        clearQueries();
+
+        // When
+        remove(DocumentPeopleView.class, document.getId());
+
+        // Then
+        if (isQueryStrategy()) {
+            AssertStatementBuilder builder = assertUnorderedQuerySequence();
+            if (!dbmsDialect.supportsReturningColumns()) {
+                // Select the ids of the people before deleting the collection
+                builder.assertSelect()
+                        .forEntity(PrimitiveDocument.class)
+                        .forRelation(PrimitiveDocument.class, "peopleListBag")
+                        .fetching(PrimitivePerson.class)
+                        .and();
+            }
+            // The owned documents of the people are deleted per person
+            builder.select(PrimitiveDocument.class)
+                    .select(PrimitiveDocument.class)
+                    .select(PrimitiveDocument.class);
+
+            builder.delete(PrimitiveDocument.class, "contacts")
+                    .delete(PrimitiveDocument.class, "people")
+                    .delete(PrimitiveDocument.class, "peopleCollectionBag")
+                    .delete(PrimitiveDocument.class, "peopleListBag")
+                    .delete(PrimitiveVersion.class)
+                    .delete(PrimitiveDocument.class)
+                    // The people are deleted with a single statement
+                    .delete(PrimitivePerson.class)
+                    .validate();
+        }
+
+        clearPersistenceContextAndReload();
+        Assert.assertNull(document);
+        Assert.assertEquals(0L, em.createQuery("SELECT COUNT(*) FROM PrimitivePerson").getSingleResult());
+    }
+
+    @Test
+    public void testRemoveManyById() {
+        // Given
+        final int additionalPeople = 1001;
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                PrimitiveDocument doc = em.find(PrimitiveDocument.class, document.getId());
+                for (int i = 0; i < additionalPeople; i++) {
+                    PrimitivePerson person = new PrimitivePerson("additional" + i);
+                    em.persist(person);
+                    doc.getPeopleListBag().add(person);
+                }
+            }
+        });
+        clearQueries();
+
+        // When
+        remove(DocumentPeopleView.class, document.getId());
+
+        // Then
+        if (isQueryStrategy()) {
+            AssertStatementBuilder builder = assertUnorderedQuerySequence();
+            if (!dbmsDialect.supportsReturningColumns()) {
+                builder.assertSelect()
+                        .forEntity(PrimitiveDocument.class)
+                        .forRelation(PrimitiveDocument.class, "peopleListBag")
+                        .fetching(PrimitivePerson.class)
+                        .and();
+            }
+            for (int i = 0; i < additionalPeople + 3; i++) {
+                builder.select(PrimitiveDocument.class);
+            }
+
+            builder.delete(PrimitiveDocument.class, "contacts")
+                    .delete(PrimitiveDocument.class, "people")
+                    .delete(PrimitiveDocument.class, "peopleCollectionBag")
+                    .delete(PrimitiveDocument.class, "peopleListBag")
+                    .delete(PrimitiveVersion.class)
+                    .delete(PrimitiveDocument.class);
+            // The people are deleted in chunks that respect the IN list size limit
+            int chunkSize = Math.min(dbmsDialect.getMaxBindParameters(), dbmsDialect.getMaxInListSize());
+            for (int i = 0; i < additionalPeople + 3; i += chunkSize) {
+                builder.delete(PrimitivePerson.class);
+            }
+            builder.validate();
+        }
+
+        clearPersistenceContextAndReload();
+        Assert.assertNull(document);
+        Assert.assertEquals(0L, em.createQuery("SELECT COUNT(*) FROM PrimitivePerson").getSingleResult());
+    }
+
+    @Override
+    protected void reload() {
+        document = em.find(PrimitiveDocument.class, document.getId());
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder;
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.view.testsuite.update.remove.cascade.simple.model;
+
+import com.blazebit.persistence.testsuite.entity.PrimitiveDocument;
+import com.blazebit.persistence.view.CascadeType;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import com.blazebit.persistence.view.UpdatableEntityView;
+import com.blazebit.persistence.view.UpdatableMapping;
+
+import java.util.List;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+@UpdatableEntityView
+@EntityView(PrimitiveDocument.class)
+public interface DocumentPeopleView {
+
+    @IdMapping
+    long getId();
+
+    @UpdatableMapping(cascade = { CascadeType.DELETE })
+    List<PersonIdView> getPeopleListBag();
+
+    void setPeopleListBag(List<PersonIdView> peopleListBag);
+
+}
@@ -7,6 +7,7 @@ package com.blazebit.persistence.integration.datanucleus;
 
 import com.blazebit.apt.service.ServiceProvider;
 import com.blazebit.persistence.ReturningResult;
+import com.blazebit.persistence.spi.BatchParameterBinder;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import org.datanucleus.store.rdbms.query.JPQLQuery;
 import org.datanucleus.store.rdbms.query.RDBMSQueryCompilation;
@@ -117,12 +118,29 @@ public class DataNucleusExtendedQuerySupport implements ExtendedQuerySupport {
         return query.executeUpdate();
     }
 
+    @Override
+    public int[] executeBatchUpdate(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, BatchParameterBinder batchParameterBinder, boolean queryPlanCacheEnabled) {
+        // TODO: use JDBC batching
+        int[] updateCounts = new int[batchParameterBinder.size()];
+        for (int i = 0; i < updateCounts.length; i++) {
+            batchParameterBinder.bind(i);
+            updateCounts[i] = executeUpdate(serviceProvider, participatingQueries, baseQuery, query, sqlOverride, queryPlanCacheEnabled);
+        }
+        return updateCounts;
+    }
+
     @Override
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
         // TODO: implement
         throw new UnsupportedOperationException("Not yet implemeneted!");
     }
     
+    @Override
+    public List<Object> getNativeResultList(EntityManager em, Query query, String sql) {
+        // TODO: implement
+        return null;
+    }
+
     private void applySql(Query query, String sqlOverride) {
         // TODO: parameter handling
         org.datanucleus.store.query.Query<?> dnQuery = query.unwrap(org.datanucleus.store.query.Query.class);
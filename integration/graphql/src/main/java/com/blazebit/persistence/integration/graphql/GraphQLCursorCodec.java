@@ -0,0 +1,151 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.KeysetCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Encodes and decodes {@link GraphQLCursor} objects in a versioned binary format.
+ * A cursor starts with a version byte, followed by the variable length encoded offset and page size and the keyset as encoded by {@link KeysetCodec}.
+ * Cursors in the legacy format, which is based on Java serialization, are still decoded via {@link GraphQLCursorObjectInputStream}.
+ * Java serialization is only used for keyset elements of uncommon types, for which the same whitelist of serializable basic types applies when decoding.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class GraphQLCursorCodec {
+
+    private static final int VERSION_1 = 1;
+    // The first byte of the Java serialization stream magic
+    private static final int LEGACY_FORMAT = 0xAC;
+    // Cursors are encoded from keysets of query results, so every element may be serialized, decoding is restricted though
+    private static final KeysetCodec ENCODING_CODEC = new KeysetCodec() {
+        @Override
+        protected boolean isSerializable(String className) {
+            return true;
+        }
+    };
+
+    private final Set<String> serializableBasicTypes;
+    private final KeysetCodec keysetCodec;
+
+    /**
+     * Creates a new codec that only deserializes the given basic types for keyset elements without a dedicated encoding.
+     *
+     * @param serializableBasicTypes The allowed set of fully qualified class names for deserialization
+     */
+    public GraphQLCursorCodec(final Set<String> serializableBasicTypes) {
+        this.serializableBasicTypes = serializableBasicTypes;
+        this.keysetCodec = new KeysetCodec() {
+            @Override
+            protected boolean isSerializable(String className) {
+                return serializableBasicTypes.contains(className);
+            }
+
+            @Override
+            protected ObjectInputStream createObjectInputStream(InputStream is) throws IOException {
+                return new GraphQLCursorObjectInputStream(is, serializableBasicTypes);
+            }
+        };
+    }
+
+    /**
+     * Encodes the given cursor components to a byte array.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param keyset The keyset
+     * @return the encoded cursor
+     */
+    public static byte[] encode(int offset, int pageSize, Keyset keyset) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            baos.write(VERSION_1);
+            writeVarInt(baos, offset);
+            writeVarInt(baos, pageSize);
+            ENCODING_CODEC.encode(keyset, baos);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Decodes the given encoded cursor.
+     *
+     * @param bytes The encoded cursor
+     * @return the decoded cursor
+     * @throws IOException if the bytes are no valid encoding of a cursor
+     * @throws ClassNotFoundException if a class of a legacy cursor can't be found
+     */
+    public GraphQLCursor decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        if (bytes.length == 0) {
+            throw new IOException("Empty cursor");
+        }
+        int version = bytes[0] & 0xFF;
+        if (version == LEGACY_FORMAT) {
+            return decodeLegacy(bytes);
+        } else if (version != VERSION_1) {
+            throw new IOException("Unsupported cursor version: " + version);
+        }
+        ByteArrayInputStream is = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+        int offset = readVarInt(is);
+        int pageSize = readVarInt(is);
+        Serializable[] tuple = keysetCodec.decode(is).getTuple();
+        if (is.available() != 0) {
+            throw new IOException("Trailing bytes after the encoded cursor");
+        }
+        return new GraphQLCursor(offset, pageSize, tuple);
+    }
+
+    private GraphQLCursor decodeLegacy(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(new ByteArrayInputStream(bytes), serializableBasicTypes)) {
+            int offset = ois.read();
+            int pageSize = ois.read();
+            Serializable[] tuple = (Serializable[]) ois.readObject();
+            return new GraphQLCursor(offset, pageSize, tuple);
+        }
+    }
+
+    private static void writeVarInt(OutputStream os, int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative cursor component: " + value);
+        }
+        while ((value & ~0x7F) != 0) {
+            os.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        os.write(value);
+    }
+
+    private static int readVarInt(InputStream is) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = is.read();
+            if (b == -1) {
+                throw new IOException("Unexpected end of cursor");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Invalid cursor component: " + value);
+                }
+                return value;
+            }
+        }
+        throw new IOException("Invalid variable length integer in cursor");
+    }
+}
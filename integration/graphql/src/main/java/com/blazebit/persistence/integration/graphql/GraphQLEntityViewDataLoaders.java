@@ -0,0 +1,236 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.metamodel.MappingAttribute;
+import com.blazebit.persistence.view.metamodel.MethodAttribute;
+import com.blazebit.persistence.view.metamodel.ViewType;
+import com.blazebit.persistence.view.spi.type.EntityViewProxy;
+import com.blazebit.reflection.ReflectionUtils;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+import org.dataloader.MappedBatchLoader;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Loads entity views by id through graphql-java {@link DataLoader}s, so that the ids requested by the data fetchers of all parent objects
+ * are collected until the data loaders are dispatched and then loaded with a single query that restricts the id with an <code>IN</code> predicate.
+ * A data loader is registered in the {@link DataLoaderRegistry} of the execution for every entity view type and set of fetches
+ * that is determined from the selection set through {@link GraphQLEntityViewSupport#applyFetches(DataFetchingEnvironment, EntityViewSetting)}.
+ * The registry must be passed to the execution input, so that graphql-java dispatches the data loaders.
+ *
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class GraphQLEntityViewDataLoaders {
+
+    private final GraphQLEntityViewSupport graphQLEntityViewSupport;
+    private final CriteriaBuilderFactory criteriaBuilderFactory;
+    private final EntityViewManager entityViewManager;
+    private final EntityManager entityManager;
+    private final int maxBatchSize;
+
+    /**
+     * Creates a new instance that loads at most as many ids with a single query as the DBMS allows in an <code>IN</code> list.
+     *
+     * @param graphQLEntityViewSupport The GraphQL entity view support for determining fetches
+     * @param criteriaBuilderFactory The criteria builder factory
+     * @param entityViewManager The entity view manager
+     * @param entityManager The entity manager to use for queries
+     */
+    public GraphQLEntityViewDataLoaders(GraphQLEntityViewSupport graphQLEntityViewSupport, CriteriaBuilderFactory criteriaBuilderFactory, EntityViewManager entityViewManager, EntityManager entityManager) {
+        this(graphQLEntityViewSupport, criteriaBuilderFactory, entityViewManager, entityManager, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new instance that loads at most the given number of ids with a single query,
+     * but not more than the DBMS allows in an <code>IN</code> list.
+     *
+     * @param graphQLEntityViewSupport The GraphQL entity view support for determining fetches
+     * @param criteriaBuilderFactory The criteria builder factory
+     * @param entityViewManager The entity view manager
+     * @param entityManager The entity manager to use for queries
+     * @param maxBatchSize The maximum number of ids to load with a single query
+     */
+    public GraphQLEntityViewDataLoaders(GraphQLEntityViewSupport graphQLEntityViewSupport, CriteriaBuilderFactory criteriaBuilderFactory, EntityViewManager entityViewManager, EntityManager entityManager, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid max batch size: " + maxBatchSize);
+        }
+        this.graphQLEntityViewSupport = graphQLEntityViewSupport;
+        this.criteriaBuilderFactory = criteriaBuilderFactory;
+        this.entityViewManager = entityViewManager;
+        this.entityManager = entityManager;
+        DbmsDialect dbmsDialect = criteriaBuilderFactory.getService(DbmsDialect.class);
+        // Every id is bound as separate parameter
+        this.maxBatchSize = Math.min(maxBatchSize, Math.min(dbmsDialect.getMaxInListSize(), dbmsDialect.getMaxBindParameters()));
+    }
+
+    /**
+     * Loads the entity view of the given type with the given id and the fetches requested by the selection set of the data fetching environment.
+     * The returned future is completed when the data loaders of the execution are dispatched.
+     *
+     * @param dataFetchingEnvironment The GraphQL data fetching environment
+     * @param entityViewClass The entity view class
+     * @param id The id of the entity view to load
+     * @param <K> The id type
+     * @param <T> The entity view type
+     * @return the future for the entity view, which is completed with <code>null</code> if no entity view exists for the id
+     */
+    public <K, T> CompletableFuture<T> load(DataFetchingEnvironment dataFetchingEnvironment, Class<T> entityViewClass, K id) {
+        if (id == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.<K, T>getDataLoader(dataFetchingEnvironment, entityViewClass).load(id);
+    }
+
+    /**
+     * Loads the entity views of the given type with the given ids and the fetches requested by the selection set of the data fetching environment.
+     * The returned future is completed when the data loaders of the execution are dispatched.
+     *
+     * @param dataFetchingEnvironment The GraphQL data fetching environment
+     * @param entityViewClass The entity view class
+     * @param ids The ids of the entity views to load
+     * @param <K> The id type
+     * @param <T> The entity view type
+     * @return the future for the entity views in the order of the ids, containing <code>null</code> for ids for which no entity view exists
+     */
+    public <K, T> CompletableFuture<List<T>> loadMany(DataFetchingEnvironment dataFetchingEnvironment, Class<T> entityViewClass, List<K> ids) {
+        return this.<K, T>getDataLoader(dataFetchingEnvironment, entityViewClass).loadMany(ids);
+    }
+
+    private <K, T> DataLoader<K, T> getDataLoader(DataFetchingEnvironment dataFetchingEnvironment, Class<T> entityViewClass) {
+        ViewType<T> viewType = entityViewManager.getMetamodel().view(entityViewClass);
+        if (viewType == null) {
+            throw new IllegalArgumentException("The class " + entityViewClass.getName() + " is no entity view with an id attribute!");
+        }
+        EntityViewSetting<T, CriteriaBuilder<T>> setting = EntityViewSetting.create(entityViewClass);
+        graphQLEntityViewSupport.applyFetches(dataFetchingEnvironment, setting);
+        // Entity views with the same fetches can share a query, so the sorted fetches serve as fingerprint of the selection
+        Set<String> fetches = new TreeSet<>(setting.getFetches());
+        if (!fetches.isEmpty()) {
+            fetches.add(viewType.getIdAttribute().getName());
+        }
+        StringBuilder sb = new StringBuilder(entityViewClass.getName());
+        for (String fetch : fetches) {
+            sb.append('|').append(fetch);
+        }
+        DataLoaderRegistry dataLoaderRegistry = dataFetchingEnvironment.getDataLoaderRegistry();
+        return dataLoaderRegistry.computeIfAbsent(sb.toString(), key -> DataLoaderFactory.newMappedDataLoader(
+                new EntityViewBatchLoader<K, T>(viewType, fetches),
+                DataLoaderOptions.newOptions().setMaxBatchSize(maxBatchSize)
+        ));
+    }
+
+    private class EntityViewBatchLoader<K, T> implements MappedBatchLoader<K, T> {
+
+        private final ViewType<T> viewType;
+        private final Set<String> fetches;
+
+        public EntityViewBatchLoader(ViewType<T> viewType, Set<String> fetches) {
+            this.viewType = viewType;
+            this.fetches = fetches;
+        }
+
+        @Override
+        public CompletionStage<Map<K, T>> load(Set<K> keys) {
+            CompletableFuture<Map<K, T>> future = new CompletableFuture<>();
+            try {
+                future.complete(loadViews(keys));
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+            return future;
+        }
+
+        private Map<K, T> loadViews(Set<K> keys) {
+            if (keys.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            MethodAttribute<? super T, ?> idAttribute = viewType.getIdAttribute();
+            // The keys are matched against the ids of the loaded views, so they must be converted to the id type
+            Map<Object, List<K>> idToKeys = new HashMap<>(keys.size());
+            for (K key : keys) {
+                Object id = convertKey(key, idAttribute.getJavaType());
+                List<K> idKeys = idToKeys.get(id);
+                if (idKeys == null) {
+                    idKeys = new ArrayList<>(1);
+                    idToKeys.put(id, idKeys);
+                }
+                idKeys.add(key);
+            }
+            EntityViewSetting<T, CriteriaBuilder<T>> setting = EntityViewSetting.create(viewType.getJavaType());
+            for (String fetch : fetches) {
+                setting.fetch(fetch);
+            }
+            CriteriaBuilder<?> criteriaBuilder = criteriaBuilderFactory.create(entityManager, viewType.getEntityClass());
+            criteriaBuilder.where(((MappingAttribute<?, ?>) idAttribute).getMapping()).in(new ArrayList<>(idToKeys.keySet()));
+            List<T> views = entityViewManager.applySetting(setting, criteriaBuilder).getResultList();
+            Map<K, T> result = new HashMap<>(views.size());
+            for (T view : views) {
+                List<K> idKeys = idToKeys.get(((EntityViewProxy) view).$$_getId());
+                if (idKeys != null) {
+                    for (K key : idKeys) {
+                        result.put(key, view);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private Object convertKey(K key, Class<?> idType) {
+            Class<?> type = idType.isPrimitive() ? ReflectionUtils.getObjectClassOfPrimitve(idType) : idType;
+            if (type.isInstance(key)) {
+                return key;
+            }
+            try {
+                if (key instanceof Number || key instanceof String) {
+                    String value = key.toString();
+                    if (type == Long.class) {
+                        return Long.valueOf(value);
+                    } else if (type == Integer.class) {
+                        return Integer.valueOf(value);
+                    } else if (type == Short.class) {
+                        return Short.valueOf(value);
+                    } else if (type == Byte.class) {
+                        return Byte.valueOf(value);
+                    } else if (type == BigInteger.class) {
+                        return new BigInteger(value);
+                    } else if (type == BigDecimal.class) {
+                        return new BigDecimal(value);
+                    } else if (type == String.class) {
+                        return value;
+                    } else if (type == UUID.class && key instanceof String) {
+                        return UUID.fromString(value);
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("The key '" + key + "' can't be converted to the id type " + idType.getName() + " of the entity view " + viewType.getJavaType().getName(), ex);
+            }
+            throw new IllegalArgumentException("The key '" + key + "' of type " + key.getClass().getName() + " doesn't match the id type " + idType.getName() + " of the entity view " + viewType.getJavaType().getName());
+        }
+    }
+}
@@ -30,17 +30,13 @@ import graphql.schema.GraphQLType;
 import graphql.schema.GraphQLUnmodifiedType;
 import graphql.schema.SelectedField;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -97,12 +93,16 @@ public class GraphQLEntityViewSupport {
 
     // GraphQL defines meta fields that can be used on any type: https://graphql.org/learn/queries/#meta-fields
     private static final Set<String> META_FIELDS = new HashSet<>(Arrays.asList("__typename"));
+    // The number of distinct selection sets for which fetch plans are cached, to bound the memory used for ad-hoc queries
+    private static final int FETCH_PLAN_CACHE_MAX_SIZE = 1024;
 
     private final Map<String, ManagedViewType<?>> typeNameToViewType;
     private final Map<String, Map<String, String>> typeNameToFieldMapping;
     private final Set<String> serializableBasicTypes;
+    private final GraphQLCursorCodec cursorCodec;
     private final ConcurrentMap<TypeRootCacheKey, GraphQLUnmodifiedType> typeReferenceCache = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, String> selectedFieldCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<FetchPlanCacheKey, String[]> fetchPlanCache = new ConcurrentHashMap<>();
 
     private final String pageSizeName;
     private final String offsetName;
@@ -186,6 +186,7 @@ public class GraphQLEntityViewSupport {
         this.typeNameToViewType = typeNameToViewType;
         this.typeNameToFieldMapping = typeNameToFieldMapping;
         this.serializableBasicTypes = serializableBasicTypes;
+        this.cursorCodec = new GraphQLCursorCodec(serializableBasicTypes);
         this.pageElementObjectName = pageElementObjectName;
         this.elementCursorName = elementCursorName;
     }
@@ -588,6 +589,8 @@ public class GraphQLEntityViewSupport {
     /**
      * Applies the fetches to the {@link EntityViewSetting} as requested by the selection set of {@link DataFetchingEnvironment}
      * and interpreting the only paths below the given element root.
+     * The fetches are cached by the element root and the fully qualified field names of the selection set,
+     * so repeated executions of the same GraphQL document skip the translation of the selection set.
      *
      * @param dataFetchingEnvironment The GraphQL data fetching environment
      * @param setting The entity view setting
@@ -595,12 +598,34 @@ public class GraphQLEntityViewSupport {
      */
     public void applyFetches(DataFetchingEnvironment dataFetchingEnvironment, EntityViewSetting<?, ?> setting, String elementRoot) {
         DataFetchingFieldSelectionSet selectionSet = dataFetchingEnvironment.getSelectionSet();
+        List<SelectedField> fields = selectionSet.getFields();
+        // The fully qualified names of the normalized selection set determine the fetches, so they serve as fingerprint for the fetch plan
+        String[] fqFieldNames = new String[fields.size()];
+        for (int i = 0; i < fqFieldNames.length; i++) {
+            fqFieldNames[i] = fields.get(i).getFullyQualifiedName();
+        }
+        FetchPlanCacheKey cacheKey = new FetchPlanCacheKey(elementRoot, fqFieldNames);
+        String[] fetches = fetchPlanCache.get(cacheKey);
+        if (fetches == null) {
+            fetches = computeFetches(fields, elementRoot);
+            // Once the cache is full, the fetches of further selection sets are computed on every call
+            if (fetchPlanCache.size() < FETCH_PLAN_CACHE_MAX_SIZE) {
+                fetchPlanCache.putIfAbsent(cacheKey, fetches);
+            }
+        }
+        for (String fetch : fetches) {
+            setting.fetch(fetch);
+        }
+    }
+
+    private String[] computeFetches(List<SelectedField> fields, String elementRoot) {
+        Set<String> fetches = new LinkedHashSet<>();
         OUTER:
-        for (SelectedField field : selectionSet.getFields()) {
+        for (SelectedField field : fields) {
             String fqFieldName = field.getFullyQualifiedName();
             String resolvedField = selectedFieldCache.get(fqFieldName);
             if (resolvedField != null) {
-                setting.fetch(resolvedField);
+                fetches.add(resolvedField);
                 continue;
             }
             if (!isLeaf(field.getType())) {
@@ -649,10 +674,11 @@ public class GraphQLEntityViewSupport {
             }
             if (!mappedFields.isEmpty()) {
                 resolvedField = String.join(".", mappedFields);
-                setting.fetch(resolvedField);
+                fetches.add(resolvedField);
                 selectedFieldCache.putIfAbsent(fqFieldName, resolvedField);
             }
         }
+        return fetches.toArray(new String[fetches.size()]);
     }
 
     /**
@@ -662,11 +688,8 @@ public class GraphQLEntityViewSupport {
      * @return a new cursor
      */
     protected GraphQLCursor deserialize(String beforeCursor) {
-        try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(Base64.getDecoder().wrap(new ByteArrayInputStream(beforeCursor.getBytes())), serializableBasicTypes)) {
-            int offset = ois.read();
-            int pageSize = ois.read();
-            Serializable[] tuple = (Serializable[]) ois.readObject();
-            return new GraphQLCursor(offset, pageSize, tuple);
+        try {
+            return cursorCodec.decode(Base64.getDecoder().decode(beforeCursor));
         } catch (Exception e) {
             throw new RuntimeException("Couldn't read cursor", e);
         }
@@ -681,15 +704,20 @@ public class GraphQLEntityViewSupport {
      * @return the serialized form of the cursor
      */
     protected byte[] serializeCursor(int offset, int pageSize, Serializable[] tuple) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
-            oos.write(offset);
-            oos.write(pageSize);
-            oos.writeObject(tuple);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
+        return GraphQLCursorCodec.encode(offset, pageSize, new DefaultKeyset(tuple));
+    }
+
+    /**
+     * Serializes the given cursor components to a byte array by delegating to {@link #serializeCursor(int, int, Serializable[])}.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param keyset The keyset
+     * @return the serialized form of the cursor
+     * @since 1.6.14
+     */
+    protected byte[] serializeCursor(int offset, int pageSize, Keyset keyset) {
+        return serializeCursor(offset, pageSize, keyset.getTuple());
     }
 
     /**
@@ -702,6 +730,36 @@ public class GraphQLEntityViewSupport {
         return typeNameToViewType.get(typeName).getJavaType();
     }
 
+    /**
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static class FetchPlanCacheKey {
+        private final String elementRoot;
+        private final String[] fqFieldNames;
+        private final int hashCode;
+
+        public FetchPlanCacheKey(String elementRoot, String[] fqFieldNames) {
+            this.elementRoot = elementRoot;
+            this.fqFieldNames = fqFieldNames;
+            this.hashCode = 31 * elementRoot.hashCode() + Arrays.hashCode(fqFieldNames);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FetchPlanCacheKey)) {
+                return false;
+            }
+            FetchPlanCacheKey that = (FetchPlanCacheKey) o;
+            return hashCode == that.hashCode && elementRoot.equals(that.elementRoot) && Arrays.equals(fqFieldNames, that.fqFieldNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     /**
      * @author Christian Beikov
      * @since 1.6.2
@@ -763,16 +821,16 @@ public class GraphQLEntityViewSupport {
             int listSize = list.size();
             if (listSize != 0 && keysets.size() != listSize) {
                 int end = listSize - 1;
-                edges.add(new DefaultEdge<>(list.get(0), new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysetPage.getLowest().getTuple())))));
+                edges.add(new DefaultEdge<>(list.get(0), new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysetPage.getLowest())))));
                 for (int i = 1; i < end; i++) {
                     T node = list.get(i);
                     edges.add(new DefaultEdge<>(node, new DefaultConnectionCursor(Integer.toString(i + 1))));
                 }
-                edges.add(new DefaultEdge<>(list.get(end), new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysetPage.getHighest().getTuple())))));
+                edges.add(new DefaultEdge<>(list.get(end), new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysetPage.getHighest())))));
             } else {
                 for (int i = 0; i < list.size(); i++) {
                     T node = list.get(i);
-                    edges.add(new DefaultEdge<>(node, new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysets.get(i).getTuple())))));
+                    edges.add(new DefaultEdge<>(node, new DefaultConnectionCursor(Base64.getEncoder().encodeToString(serializeCursor(data.getFirstResult(), data.getMaxResults(), keysets.get(i))))));
                 }
             }
         }
@@ -75,7 +75,7 @@ public class GraphQLRelayConnection<T> implements Serializable {
             edges = new ArrayList<>(list.size());
             for (int i = 0; i < list.size(); i++) {
                 X node = list.get(i);
-                edges.add(new GraphQLRelayEdge<>(Base64.getEncoder().encodeToString(pageInfo.serialize(offset, pageSize, keysets.get(i).getTuple())), node));
+                edges.add(new GraphQLRelayEdge<>(Base64.getEncoder().encodeToString(pageInfo.serialize(offset, pageSize, keysets.get(i))), node));
             }
         } else {
             edges = new ArrayList<>(list.size());
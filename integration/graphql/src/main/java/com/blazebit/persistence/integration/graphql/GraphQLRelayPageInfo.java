@@ -5,12 +5,11 @@
 
 package com.blazebit.persistence.integration.graphql;
 
+import com.blazebit.persistence.DefaultKeyset;
+import com.blazebit.persistence.Keyset;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PagedList;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Base64;
 
@@ -46,12 +45,12 @@ public class GraphQLRelayPageInfo implements Serializable {
         this.hasNextPage = data.getTotalSize() == -1 || data.getFirstResult() + data.getMaxResults() < data.getTotalSize();
         KeysetPage keysetPage = data.getKeysetPage();
         if (keysetPage != null && keysetPage.getLowest() != null) {
-            this.startCursor = Base64.getEncoder().encodeToString(serialize(data.getFirstResult(), data.getMaxResults(), keysetPage.getLowest().getTuple()));
+            this.startCursor = Base64.getEncoder().encodeToString(serialize(data.getFirstResult(), data.getMaxResults(), keysetPage.getLowest()));
         } else {
             this.startCursor = null;
         }
         if (keysetPage != null && keysetPage.getHighest() != null) {
-            this.endCursor = Base64.getEncoder().encodeToString(serialize(data.getFirstResult(), data.getMaxResults(), keysetPage.getHighest().getTuple()));
+            this.endCursor = Base64.getEncoder().encodeToString(serialize(data.getFirstResult(), data.getMaxResults(), keysetPage.getHighest()));
         } else {
             this.endCursor = null;
         }
@@ -115,6 +114,19 @@ public class GraphQLRelayPageInfo implements Serializable {
         return serializeCursor(offset, pageSize, tuple);
     }
 
+    /**
+     * Serializes the given cursor components to a byte array by delegating to {@link #serialize(int, int, Serializable[])}.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param keyset The keyset
+     * @return the serialized form of the cursor
+     * @since 1.6.14
+     */
+    protected byte[] serialize(int offset, int pageSize, Keyset keyset) {
+        return serialize(offset, pageSize, keyset.getTuple());
+    }
+
     /**
      * Serializes the given cursor components to a byte array.
      *
@@ -124,14 +136,6 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @return the serialized form of the cursor
      */
     protected static byte[] serializeCursor(int offset, int pageSize, Serializable[] tuple) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
-            oos.write(offset);
-            oos.write(pageSize);
-            oos.writeObject(tuple);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
+        return GraphQLCursorCodec.encode(offset, pageSize, new DefaultKeyset(tuple));
     }
 }
@@ -5,6 +5,8 @@
 
 package com.blazebit.persistence.integration.graphql;
 
+import com.blazebit.persistence.DefaultKeyset;
+import com.blazebit.persistence.KeysetPage;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -12,7 +14,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Base64;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 
@@ -59,4 +63,60 @@ public class GraphQLDeserializerTest {
             Assert.assertEquals("Illegal attempt to deserialize disallowed type: java.util.UUID", ex.getMessage());
         }
     }
+
+    @Test
+    public void testBinaryCursor() throws Exception {
+        Set<String> allowedTypes = new HashSet<>();
+        UUID uuid = UUID.randomUUID();
+        byte[] bytes = GraphQLCursorCodec.encode(1000, 20, new DefaultKeyset(new Serializable[]{ "name", 12345678901L, uuid }));
+
+        GraphQLCursor cursor = new GraphQLCursorCodec(allowedTypes).decode(bytes);
+        Assert.assertEquals(1000, cursor.getOffset());
+        Assert.assertEquals(20, cursor.getPageSize());
+        Assert.assertArrayEquals(new Serializable[]{ "name", 12345678901L, uuid }, cursor.getTuple());
+    }
+
+    @Test
+    public void testBinaryCursorInvalidSerializedElement() throws Exception {
+        Set<String> allowedTypes = new HashSet<>();
+        allowedTypes.add(Integer.class.getName());
+        byte[] bytes = GraphQLCursorCodec.encode(0, 10, new DefaultKeyset(new Serializable[]{ Locale.GERMANY }));
+
+        try {
+            new GraphQLCursorCodec(allowedTypes).decode(bytes);
+            Assert.fail("Expected to fail deserializing of Locale");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("Illegal attempt to deserialize disallowed type: java.util.Locale", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testLegacyCursor() throws Exception {
+        Set<String> allowedTypes = new HashSet<>();
+        allowedTypes.add(Integer.class.getName());
+        allowedTypes.add(Number.class.getName());
+        allowedTypes.add(Serializable[].class.getName());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.write(10);
+            oos.write(5);
+            oos.writeObject(new Serializable[]{ 1 });
+        }
+
+        GraphQLCursor cursor = new GraphQLCursorCodec(allowedTypes).decode(baos.toByteArray());
+        Assert.assertEquals(10, cursor.getOffset());
+        Assert.assertEquals(5, cursor.getPageSize());
+        Assert.assertArrayEquals(new Serializable[]{ 1 }, cursor.getTuple());
+    }
+
+    @Test
+    public void testExtractKeysetPageFromBinaryCursor() {
+        String cursor = Base64.getEncoder().encodeToString(GraphQLCursorCodec.encode(300, 10, new DefaultKeyset(new Serializable[]{ 7L })));
+
+        KeysetPage keysetPage = TestSchemaHelpers.getGraphQLEntityViewSupport().extractKeysetPage(10, null, null, cursor);
+        Assert.assertEquals(300, keysetPage.getFirstResult());
+        Assert.assertEquals(10, keysetPage.getMaxResults());
+        Assert.assertArrayEquals(new Serializable[]{ 7L }, keysetPage.getHighest().getTuple());
+    }
 }
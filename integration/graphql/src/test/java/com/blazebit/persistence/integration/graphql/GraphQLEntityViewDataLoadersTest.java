@@ -0,0 +1,163 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright Blazebit
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.integration.graphql.views.DocumentView;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.metamodel.MappingAttribute;
+import com.blazebit.persistence.view.metamodel.MethodAttribute;
+import com.blazebit.persistence.view.metamodel.ViewMetamodel;
+import com.blazebit.persistence.view.metamodel.ViewType;
+import com.blazebit.persistence.view.spi.type.EntityViewProxy;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.blazebit.persistence.integration.graphql.TestSchemaHelpers.documentObjectType;
+import static com.blazebit.persistence.integration.graphql.TestSchemaHelpers.getGraphQLEntityViewSupport;
+import static com.blazebit.persistence.integration.graphql.TestSchemaHelpers.makeFieldDefinition;
+import static com.blazebit.persistence.integration.graphql.TestSchemaHelpers.makeMockDataFetchingEnvironment;
+import static com.blazebit.persistence.integration.graphql.TestSchemaHelpers.makeMockSelectionSet;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.14
+ */
+public class GraphQLEntityViewDataLoadersTest {
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testBatchLoadPerSelection() {
+        EntityViewManager evm = mockEntityViewManager();
+        CriteriaBuilderFactory cbf = mockCriteriaBuilderFactory(Integer.MAX_VALUE);
+
+        GraphQLEntityViewDataLoaders dataLoaders = new GraphQLEntityViewDataLoaders(getGraphQLEntityViewSupport(), cbf, evm, mock(EntityManager.class));
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        GraphQLFieldDefinition fieldDefinition = makeFieldDefinition("document", documentObjectType);
+        DataFetchingEnvironment dfe1 = makeMockDataFetchingEnvironment(fieldDefinition, makeMockSelectionSet("Document", "name"));
+        when(dfe1.getDataLoaderRegistry()).thenReturn(registry);
+        DataFetchingEnvironment dfe2 = makeMockDataFetchingEnvironment(fieldDefinition, makeMockSelectionSet("Document", "name"));
+        when(dfe2.getDataLoaderRegistry()).thenReturn(registry);
+
+        CompletableFuture<DocumentView> future1 = dataLoaders.load(dfe1, DocumentView.class, 1L);
+        CompletableFuture<DocumentView> future2 = dataLoaders.load(dfe2, DocumentView.class, 2L);
+        CompletableFuture<DocumentView> future3 = dataLoaders.load(dfe2, DocumentView.class, 3L);
+        Assert.assertEquals(1, registry.getKeys().size());
+        registry.dispatchAll();
+
+        Assert.assertEquals(1L, ((EntityViewProxy) future1.join()).$$_getId());
+        Assert.assertEquals(2L, ((EntityViewProxy) future2.join()).$$_getId());
+        Assert.assertNull(future3.join());
+        ArgumentCaptor<EntityViewSetting> settingCaptor = ArgumentCaptor.forClass(EntityViewSetting.class);
+        Mockito.verify(evm, Mockito.times(1)).applySetting(settingCaptor.capture(), any(CriteriaBuilder.class));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("id", "name")), settingCaptor.getValue().getFetches());
+        ArgumentCaptor<Collection> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(cbf.create(any(EntityManager.class), any(Class.class)).where("id")).in(idsCaptor.capture());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L)), new HashSet<>(idsCaptor.getValue()));
+
+        DataFetchingEnvironment dfe3 = makeMockDataFetchingEnvironment(fieldDefinition, makeMockSelectionSet("Document", "name", "owner", "owner/name"));
+        when(dfe3.getDataLoaderRegistry()).thenReturn(registry);
+        dataLoaders.load(dfe3, DocumentView.class, 1L);
+        Assert.assertEquals(2, registry.getKeys().size());
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testBatchLoadConvertsKeysAndUsesInListSize() {
+        EntityViewManager evm = mockEntityViewManager();
+        CriteriaBuilderFactory cbf = mockCriteriaBuilderFactory(1);
+
+        GraphQLEntityViewDataLoaders dataLoaders = new GraphQLEntityViewDataLoaders(getGraphQLEntityViewSupport(), cbf, evm, mock(EntityManager.class));
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        GraphQLFieldDefinition fieldDefinition = makeFieldDefinition("document", documentObjectType);
+        DataFetchingEnvironment dfe = makeMockDataFetchingEnvironment(fieldDefinition, makeMockSelectionSet("Document", "name"));
+        when(dfe.getDataLoaderRegistry()).thenReturn(registry);
+
+        CompletableFuture<DocumentView> future1 = dataLoaders.load(dfe, DocumentView.class, "1");
+        CompletableFuture<DocumentView> future2 = dataLoaders.load(dfe, DocumentView.class, 2);
+        registry.dispatchAll();
+
+        Assert.assertEquals(1L, ((EntityViewProxy) future1.join()).$$_getId());
+        Assert.assertEquals(2L, ((EntityViewProxy) future2.join()).$$_getId());
+        // The IN list size of the DBMS limits the batch size
+        Mockito.verify(evm, Mockito.times(2)).applySetting(any(EntityViewSetting.class), any(CriteriaBuilder.class));
+    }
+
+    @Test
+    public void testBatchLoadRejectsIncompatibleKey() {
+        EntityViewManager evm = mockEntityViewManager();
+        CriteriaBuilderFactory cbf = mockCriteriaBuilderFactory(Integer.MAX_VALUE);
+
+        GraphQLEntityViewDataLoaders dataLoaders = new GraphQLEntityViewDataLoaders(getGraphQLEntityViewSupport(), cbf, evm, mock(EntityManager.class));
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        GraphQLFieldDefinition fieldDefinition = makeFieldDefinition("document", documentObjectType);
+        DataFetchingEnvironment dfe = makeMockDataFetchingEnvironment(fieldDefinition, makeMockSelectionSet("Document", "name"));
+        when(dfe.getDataLoaderRegistry()).thenReturn(registry);
+
+        CompletableFuture<DocumentView> future = dataLoaders.load(dfe, DocumentView.class, "abc");
+        registry.dispatchAll();
+
+        try {
+            future.join();
+            Assert.fail("Expected failure");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static EntityViewManager mockEntityViewManager() {
+        ViewType<DocumentView> viewType = mock(ViewType.class);
+        MethodAttribute idAttribute = mock(MethodAttribute.class, Mockito.withSettings().extraInterfaces(MappingAttribute.class));
+        when(idAttribute.getName()).thenReturn("id");
+        when(idAttribute.getJavaType()).thenReturn(Long.class);
+        when(((MappingAttribute) idAttribute).getMapping()).thenReturn("id");
+        when(viewType.getIdAttribute()).thenReturn(idAttribute);
+        when(viewType.getJavaType()).thenReturn(DocumentView.class);
+        when(viewType.getEntityClass()).thenReturn((Class) Object.class);
+        ViewMetamodel metamodel = mock(ViewMetamodel.class);
+        when(metamodel.view(DocumentView.class)).thenReturn(viewType);
+
+        DocumentView document1 = mock(DocumentView.class, Mockito.withSettings().extraInterfaces(EntityViewProxy.class));
+        when(((EntityViewProxy) document1).$$_getId()).thenReturn(1L);
+        DocumentView document2 = mock(DocumentView.class, Mockito.withSettings().extraInterfaces(EntityViewProxy.class));
+        when(((EntityViewProxy) document2).$$_getId()).thenReturn(2L);
+        CriteriaBuilder<DocumentView> viewCriteriaBuilder = mock(CriteriaBuilder.class);
+        when(viewCriteriaBuilder.getResultList()).thenReturn(Arrays.asList(document1, document2));
+        EntityViewManager evm = mock(EntityViewManager.class);
+        when(evm.getMetamodel()).thenReturn(metamodel);
+        when(evm.applySetting(any(EntityViewSetting.class), any(CriteriaBuilder.class))).thenReturn(viewCriteriaBuilder);
+        return evm;
+    }
+
+    private static CriteriaBuilderFactory mockCriteriaBuilderFactory(int maxInListSize) {
+        CriteriaBuilderFactory cbf = mock(CriteriaBuilderFactory.class, Mockito.RETURNS_DEEP_STUBS);
+        DbmsDialect dbmsDialect = mock(DbmsDialect.class);
+        when(dbmsDialect.getMaxInListSize()).thenReturn(maxInListSize);
+        when(dbmsDialect.getMaxBindParameters()).thenReturn(Integer.MAX_VALUE);
+        when(cbf.getService(DbmsDialect.class)).thenReturn(dbmsDialect);
+        return cbf;
+    }
+}
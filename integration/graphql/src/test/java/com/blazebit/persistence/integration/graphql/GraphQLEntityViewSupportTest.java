@@ -14,8 +14,10 @@ import com.blazebit.persistence.view.EntityViewSetting;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.DataFetchingFieldSelectionSet;
 import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.SelectedField;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -87,4 +89,20 @@ public class GraphQLEntityViewSupportTest {
 
         Assert.assertEquals(new HashSet<>(Arrays.asList("name", "animal.name")), setting.getFetches());
     }
+
+    @Test
+    public void testFetchPlanReusedForSameSelectionSet() {
+        GraphQLFieldDefinition rootFieldDefinition = makeFieldDefinition("getDocument", documentObjectType);
+        DataFetchingFieldSelectionSet selectionSet = makeMockSelectionSet("Document", "name", "owner", "owner/name");
+        EntityViewSetting<DocumentView, CriteriaBuilder<DocumentView>> setting = graphQLEntityViewSupport.createSetting(makeMockDataFetchingEnvironment(rootFieldDefinition, selectionSet));
+
+        DataFetchingFieldSelectionSet sameSelectionSet = makeMockSelectionSet("Document", "name", "owner", "owner/name");
+        EntityViewSetting<DocumentView, CriteriaBuilder<DocumentView>> cachedSetting = graphQLEntityViewSupport.createSetting(makeMockDataFetchingEnvironment(rootFieldDefinition, sameSelectionSet));
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("name", "owner.name")), setting.getFetches());
+        Assert.assertEquals(setting.getFetches(), cachedSetting.getFetches());
+        for (SelectedField field : sameSelectionSet.getFields()) {
+            Mockito.verify(field, Mockito.never()).getType();
+        }
+    }
 }
@@ -9,6 +9,7 @@ import antlr.collections.AST;
 import com.blazebit.apt.service.ServiceProvider;
 import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.ReturningResult;
+import com.blazebit.persistence.spi.BatchParameterBinder;
 import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.CteQueryWrapper;
 import com.blazebit.persistence.spi.DbmsDialect;
@@ -46,6 +47,7 @@ import org.hibernate.hql.spi.ParameterTranslations;
 import org.hibernate.hql.spi.QueryTranslator;
 import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
 import org.hibernate.loader.hql.QueryLoader;
+import org.hibernate.param.NamedParameterSpecification;
 import org.hibernate.param.ParameterSpecification;
 import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.hibernate.type.ManyToOneType;
@@ -58,7 +60,18 @@ import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -84,6 +97,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
 
     private static final Logger LOG = Logger.getLogger(HibernateExtendedQuerySupport.class.getName());
     private static final String[] KNOWN_STATEMENTS = { "select ", "insert ", "update ", "delete " };
+    private static final Method PARAMETER_SPECIFICATION_BIND_METHOD = getParameterSpecificationBindMethod();
     
     private final ConcurrentMap<SessionFactoryImplementor, BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue>> queryPlanCachesCache = new ConcurrentHashMap<>();
     private final ConcurrentMap<FieldKey, Field> fieldCache = new ConcurrentHashMap<>();
@@ -483,12 +497,75 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         DbmsDialect dbmsDialect = serviceProvider.getService(DbmsDialect.class);
         EntityManager em = serviceProvider.getService(EntityManager.class);
         SessionImplementor session = em.unwrap(SessionImplementor.class);
-        SessionFactoryImplementor sfi = session.getFactory();
 
         if (session.isClosed()) {
             throw new PersistenceException("Entity manager is closed!");
         }
 
+        UpdateQueryPlanEntry queryPlanEntry = prepareUpdateQueryPlan(serviceProvider, em, session, participatingQueries, baseQuery, query, finalSql, queryPlanCacheEnabled);
+        autoFlush(queryPlanEntry.querySpaces, session);
+        return executeUpdate(em, session, dbmsDialect, queryPlanEntry, queryPlanEntry.queryParameters, finalSql);
+    }
+
+    @Override
+    public int[] executeBatchUpdate(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String finalSql, BatchParameterBinder batchParameterBinder, boolean queryPlanCacheEnabled) {
+        DbmsDialect dbmsDialect = serviceProvider.getService(DbmsDialect.class);
+        EntityManager em = serviceProvider.getService(EntityManager.class);
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+
+        if (session.isClosed()) {
+            throw new PersistenceException("Entity manager is closed!");
+        }
+
+        int[] updateCounts = new int[batchParameterBinder.size()];
+        if (updateCounts.length == 0) {
+            return updateCounts;
+        }
+
+        batchParameterBinder.bind(0);
+        UpdateQueryPlanEntry queryPlanEntry = prepareUpdateQueryPlan(serviceProvider, em, session, participatingQueries, baseQuery, query, finalSql, queryPlanCacheEnabled);
+        autoFlush(queryPlanEntry.querySpaces, session);
+        // The first entry is executed through Hibernate so that the cleanup of the second level cache regions for the affected tables is registered
+        updateCounts[0] = executeUpdate(em, session, dbmsDialect, queryPlanEntry, queryPlanEntry.queryParameters, finalSql);
+        if (updateCounts.length == 1) {
+            return updateCounts;
+        }
+
+        StatementExecutor executor = getField(queryPlanEntry.queryPlan.getTranslators()[0], "statementExecutor");
+        // Only plain DML statements without a returning clause can be executed as JDBC batch
+        if (queryPlanEntry.queryPlan.getReturnMetadata() != null || executor == null || executor.getClass() != BasicExecutor.class) {
+            for (int i = 1; i < updateCounts.length; i++) {
+                batchParameterBinder.bind(i);
+                QueryParameters queryParameters = createQueryParameters(em, baseQuery, participatingQueries, new ArrayList<String>(participatingQueries.size()), new HashSet<String>()).queryParameters;
+                updateCounts[i] = executeUpdate(em, session, dbmsDialect, queryPlanEntry, queryParameters, finalSql);
+            }
+            return updateCounts;
+        }
+
+        List<ParameterSpecification> parameterSpecifications = getField(executor, "parameterSpecifications");
+        try (PreparedStatement ps = session.connection().prepareStatement(finalSql)) {
+            for (int i = 1; i < updateCounts.length; i++) {
+                batchParameterBinder.bind(i);
+                QueryParameters queryParameters = createQueryParameters(em, baseQuery, participatingQueries, new ArrayList<String>(participatingQueries.size()), new HashSet<String>()).queryParameters;
+                int position = 1;
+                for (ParameterSpecification parameterSpecification : parameterSpecifications) {
+                    position += bindParameter(parameterSpecification, ps, queryParameters, session, position);
+                }
+                ps.addBatch();
+            }
+            int[] batchUpdateCounts = ps.executeBatch();
+            System.arraycopy(batchUpdateCounts, 0, updateCounts, 1, batchUpdateCounts.length);
+            return updateCounts;
+        } catch (SQLException ex) {
+            LOG.severe("Could not execute the following SQL query: " + finalSql);
+            hibernateAccess.throwPersistenceException(em, session.getFactory().getSQLExceptionHelper().convert(ex, "could not execute batch update", finalSql));
+            return updateCounts;
+        }
+    }
+
+    private UpdateQueryPlanEntry prepareUpdateQueryPlan(com.blazebit.persistence.spi.ServiceProvider serviceProvider, EntityManager em, SessionImplementor session, List<Query> participatingQueries, Query baseQuery, Query query, String finalSql, boolean queryPlanCacheEnabled) {
+        DbmsDialect dbmsDialect = serviceProvider.getService(DbmsDialect.class);
+        SessionFactoryImplementor sfi = session.getFactory();
         Integer firstResult = null;
         Integer maxResults = null;
 
@@ -534,15 +611,18 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
             }
         }
 
-        autoFlush(querySpaces, session);
+        return new UpdateQueryPlanEntry(queryPlan, queryParameters, querySpaces, returningColumns, returningColumnTypes);
+    }
 
+    private int executeUpdate(EntityManager em, SessionImplementor session, DbmsDialect dbmsDialect, UpdateQueryPlanEntry queryPlanEntry, QueryParameters queryParameters, String finalSql) {
+        HQLQueryPlan queryPlan = queryPlanEntry.queryPlan;
         if (queryPlan.getReturnMetadata() == null) {
             return hibernateAccess.performExecuteUpdate(queryPlan, session, queryParameters);
         }
 
         try {
             @SuppressWarnings("unchecked")
-            List<Object> results = hibernateAccess.performList(queryPlan, wrapSession(session, dbmsDialect, returningColumns, returningColumnTypes, null), queryParameters);
+            List<Object> results = hibernateAccess.performList(queryPlan, wrapSession(session, dbmsDialect, queryPlanEntry.returningColumns, queryPlanEntry.returningColumnTypes, null), queryParameters);
             
             if (results.size() != 1) {
                 throw new IllegalArgumentException("Expected size 1 but was: " + results.size());
@@ -563,6 +643,31 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    private static int bindParameter(ParameterSpecification parameterSpecification, PreparedStatement ps, QueryParameters queryParameters, SessionImplementor session, int position) throws SQLException {
+        // The session parameter type of ParameterSpecification.bind differs between Hibernate versions, so we invoke it reflectively
+        try {
+            return (Integer) PARAMETER_SPECIFICATION_BIND_METHOD.invoke(parameterSpecification, ps, queryParameters, session, position);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof SQLException) {
+                throw (SQLException) ex.getCause();
+            } else if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("Could not bind parameter", ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Could not bind parameter", ex);
+        }
+    }
+
+    private static Method getParameterSpecificationBindMethod() {
+        for (Method method : ParameterSpecification.class.getMethods()) {
+            if ("bind".equals(method.getName()) && method.getParameterTypes().length == 4) {
+                return method;
+            }
+        }
+        throw new IllegalStateException("Could not find the bind method of " + ParameterSpecification.class.getName());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
@@ -671,6 +776,131 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public List<Object> getNativeResultList(EntityManager em, Query query, String sql) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        List<TypedValue> parameterValues = getSqlParameterValues(session, query);
+        if (parameterValues == null) {
+            return null;
+        }
+        Object[] jdbcValues = new Object[parameterValues.size()];
+        int[] jdbcTypes = new int[parameterValues.size()];
+        for (int i = 0; i < jdbcValues.length; i++) {
+            TypedValue typedValue = parameterValues.get(i);
+            jdbcTypes[i] = typedValue.getType().sqlTypes(session.getFactory())[0];
+            jdbcValues[i] = getJdbcValue(typedValue.getValue(), jdbcTypes[i]);
+            if (jdbcValues[i] == null) {
+                return null;
+            }
+        }
+
+        try {
+            Connection connection = session.connection();
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try {
+                List<Object> resultRows = new ArrayList<>();
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < jdbcValues.length; i++) {
+                        ps.setObject(i + 1, jdbcValues[i], jdbcTypes[i]);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        int columnCount = rs.getMetaData().getColumnCount();
+                        while (rs.next()) {
+                            if (columnCount == 1) {
+                                resultRows.add(rs.getObject(1));
+                            } else {
+                                Object[] row = new Object[columnCount];
+                                for (int i = 0; i < columnCount; i++) {
+                                    row[i] = rs.getObject(i + 1);
+                                }
+                                resultRows.add(row);
+                            }
+                        }
+                    }
+                }
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return resultRows;
+            } catch (SQLException ex) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new PersistenceException("Could not execute the following SQL query: " + sql, ex);
+        }
+    }
+
+    private List<TypedValue> getSqlParameterValues(SessionImplementor session, Query query) {
+        org.hibernate.Query hibernateQuery = query.unwrap(org.hibernate.Query.class);
+        Map<String, TypedValue> namedParams = new HashMap<String, TypedValue>(hibernateAccess.getNamedParams(hibernateQuery));
+        String queryString = hibernateAccess.expandParameterLists(session, hibernateQuery, namedParams);
+        HQLQueryPlan queryPlan = session.getFactory().getQueryPlanCache().getHQLQueryPlan(queryString, false, Collections.EMPTY_MAP);
+        if (queryPlan.getTranslators().length > 1 || queryPlan.getTranslators()[0].isManipulationStatement()) {
+            return null;
+        }
+        List<ParameterSpecification> specifications = getField(queryPlan.getTranslators()[0], "collectedParameterSpecifications");
+        // After expanding collection valued parameters, the named parameters contain one entry per collection element
+        Map<String, TypedValue> boundParams = hibernateAccess.getQueryParameters(hibernateQuery, namedParams).getNamedParameters();
+        List<TypedValue> parameterValues = new ArrayList<>(specifications.size());
+        // The specifications are collected in the order in which the parameters appear in the SQL
+        for (ParameterSpecification specification : specifications) {
+            // Positional, filter and version parameters are not supported
+            if (!(specification instanceof NamedParameterSpecification)) {
+                return null;
+            }
+            TypedValue typedValue = boundParams.get(((NamedParameterSpecification) specification).getName());
+            // Only values of single column basic types can be bound without the type
+            if (typedValue == null || typedValue.getType().isAssociationType() || typedValue.getType().isComponentType() || typedValue.getType().getColumnSpan(session.getFactory()) != 1) {
+                return null;
+            }
+            parameterValues.add(typedValue);
+        }
+        return parameterValues;
+    }
+
+    private static Object getJdbcValue(Object value, int jdbcType) {
+        if (value instanceof Calendar) {
+            value = ((Calendar) value).getTime();
+        }
+        // Types with a conversion, like converters or YesNoType, bind a different value than the Java value, so we skip such values
+        switch (jdbcType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return value instanceof String ? value : value instanceof Character ? value.toString() : null;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return value instanceof Number ? value : null;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return value instanceof Boolean ? value : null;
+            case Types.DATE:
+                return value instanceof java.util.Date ? new java.sql.Date(((java.util.Date) value).getTime()) : null;
+            case Types.TIME:
+                return value instanceof java.util.Date ? new Time(((java.util.Date) value).getTime()) : null;
+            case Types.TIMESTAMP:
+                if (value instanceof Timestamp) {
+                    return value;
+                }
+                return value instanceof java.util.Date ? new Timestamp(((java.util.Date) value).getTime()) : null;
+            default:
+                return null;
+        }
+    }
+
     public void autoFlush(Set<String> querySpaces, SessionImplementor sessionImplementor) {
         AutoFlushEvent event = new AutoFlushEvent(querySpaces, (EventSource) sessionImplementor);
         for (AutoFlushEventListener listener : sessionImplementor.getFactory().getServiceRegistry().getService(EventListenerRegistry.class).getEventListenerGroup(EventType.AUTO_FLUSH).listeners()) {
@@ -1171,6 +1401,26 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    /**
+     * @author Christian Beikov
+     * @since 1.6.14
+     */
+    private static class UpdateQueryPlanEntry {
+        final HQLQueryPlan queryPlan;
+        final QueryParameters queryParameters;
+        final Set<String> querySpaces;
+        final String[][] returningColumns;
+        final int[] returningColumnTypes;
+
+        public UpdateQueryPlanEntry(HQLQueryPlan queryPlan, QueryParameters queryParameters, Set<String> querySpaces, String[][] returningColumns, int[] returningColumnTypes) {
+            this.queryPlan = queryPlan;
+            this.queryParameters = queryParameters;
+            this.querySpaces = querySpaces;
+            this.returningColumns = returningColumns;
+            this.returningColumnTypes = returningColumnTypes;
+        }
+    }
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
@@ -8,6 +8,7 @@ package com.blazebit.persistence.integration.hibernate.base;
 import com.blazebit.apt.service.ServiceProvider;
 import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.ReturningResult;
+import com.blazebit.persistence.spi.BatchParameterBinder;
 import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
@@ -82,6 +83,7 @@ import org.hibernate.sql.ast.spi.FromClauseAccess;
 import org.hibernate.sql.ast.spi.SqlSelection;
 import org.hibernate.sql.ast.tree.Statement;
 import org.hibernate.sql.ast.tree.delete.DeleteStatement;
+import org.hibernate.sql.ast.tree.expression.JdbcParameter;
 import org.hibernate.sql.ast.tree.from.CollectionTableGroup;
 import org.hibernate.sql.ast.tree.from.LazyTableGroup;
 import org.hibernate.sql.ast.tree.from.NamedTableReference;
@@ -103,6 +105,7 @@ import org.hibernate.sql.exec.spi.JdbcOperationQueryMutation;
 import org.hibernate.sql.exec.spi.JdbcOperationQuerySelect;
 import org.hibernate.sql.exec.spi.JdbcOperationQueryUpdate;
 import org.hibernate.sql.exec.spi.JdbcParameterBinder;
+import org.hibernate.sql.exec.spi.JdbcParameterBinding;
 import org.hibernate.sql.exec.spi.JdbcParameterBindings;
 import org.hibernate.sql.exec.spi.JdbcParametersList;
 import org.hibernate.sql.results.internal.RowTransformerJpaTupleImpl;
@@ -119,8 +122,16 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -966,6 +977,17 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public int[] executeBatchUpdate(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String finalSql, BatchParameterBinder batchParameterBinder, boolean queryPlanCacheEnabled) {
+        // TODO: use JDBC batching
+        int[] updateCounts = new int[batchParameterBinder.size()];
+        for (int i = 0; i < updateCounts.length; i++) {
+            batchParameterBinder.bind(i);
+            updateCounts[i] = executeUpdate(serviceProvider, participatingQueries, baseQuery, query, finalSql, queryPlanCacheEnabled);
+        }
+        return updateCounts;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
@@ -1274,6 +1296,137 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return sb.substring(0, i + 1);
     }
 
+    @Override
+    public List<Object> getNativeResultList(EntityManager em, Query query, String sql) {
+        QuerySqmImpl<?> hqlQuery = query.unwrap(QuerySqmImpl.class);
+        SharedSessionContractImplementor session = hqlQuery.getSession();
+        SessionFactoryImplementor sessionFactory = hqlQuery.getSessionFactory();
+        CacheableSqmInterpretation interpretation = buildQueryPlan(query);
+        Object[] jdbcValues;
+        int[] jdbcTypes;
+        try {
+            JdbcOperationQuery jdbcOperation = getJdbcOperation(sessionFactory, interpretation, hqlQuery);
+            final Map<QueryParameterImplementor<?>, Map<SqmParameter<?>, List<JdbcParametersList>>> jdbcParamsXref = SqmUtil.generateJdbcParamsXref(
+                    interpretation.domainParameterXref,
+                    interpretation.getSqmTranslation()::getJdbcParamsBySqmParam
+            );
+            final JdbcParameterBindings jdbcParameterBindings = SqmUtil.createJdbcParameterBindings(
+                    hqlQuery.getQueryParameterBindings(),
+                    interpretation.domainParameterXref,
+                    jdbcParamsXref,
+                    sessionFactory.getRuntimeMetamodels().getMappingMetamodel(),
+                    interpretation.tableGroupAccess::findTableGroup,
+                    new SqmParameterMappingModelResolutionAccess() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public <T> MappingModelExpressible<T> getResolvedMappingModelType(SqmParameter<T> parameter) {
+                            return (MappingModelExpressible<T>) interpretation.sqmTranslation.getSqmParameterMappingModelTypeResolutions().get(parameter);
+                        }
+                    },
+                    session
+            );
+            // The parameter binders are ordered like the JDBC parameters in the SQL
+            List<JdbcParameterBinder> parameterBinders = jdbcOperation.getParameterBinders();
+            jdbcValues = new Object[parameterBinders.size()];
+            jdbcTypes = new int[parameterBinders.size()];
+            for (int i = 0; i < jdbcValues.length; i++) {
+                JdbcParameterBinder parameterBinder = parameterBinders.get(i);
+                if (!(parameterBinder instanceof JdbcParameter)) {
+                    return null;
+                }
+                JdbcParameterBinding binding = jdbcParameterBindings.getBinding((JdbcParameter) parameterBinder);
+                if (binding == null) {
+                    return null;
+                }
+                jdbcTypes[i] = binding.getBindType().getJdbcType().getDefaultSqlTypeCode();
+                jdbcValues[i] = getJdbcValue(binding.getBindValue(), jdbcTypes[i]);
+                if (jdbcValues[i] == null) {
+                    return null;
+                }
+            }
+        } finally {
+            interpretation.domainParameterXref.clearExpansions();
+        }
+
+        try {
+            Connection connection = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try {
+                List<Object> resultRows = new ArrayList<>();
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < jdbcValues.length; i++) {
+                        ps.setObject(i + 1, jdbcValues[i], jdbcTypes[i]);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        int columnCount = rs.getMetaData().getColumnCount();
+                        while (rs.next()) {
+                            if (columnCount == 1) {
+                                resultRows.add(rs.getObject(1));
+                            } else {
+                                Object[] row = new Object[columnCount];
+                                for (int i = 0; i < columnCount; i++) {
+                                    row[i] = rs.getObject(i + 1);
+                                }
+                                resultRows.add(row);
+                            }
+                        }
+                    }
+                }
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return resultRows;
+            } catch (SQLException ex) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new PersistenceException("Could not execute the following SQL query: " + sql, ex);
+        }
+    }
+
+    private static Object getJdbcValue(Object value, int jdbcType) {
+        if (value instanceof Calendar) {
+            value = ((Calendar) value).getTime();
+        }
+        // Values that need a conversion to be bound, like java.time values, are skipped
+        switch (jdbcType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return value instanceof String ? value : value instanceof Character ? value.toString() : null;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return value instanceof Number ? value : null;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return value instanceof Boolean ? value : null;
+            case Types.DATE:
+                return value instanceof java.util.Date ? new java.sql.Date(((java.util.Date) value).getTime()) : null;
+            case Types.TIME:
+                return value instanceof java.util.Date ? new Time(((java.util.Date) value).getTime()) : null;
+            case Types.TIMESTAMP:
+                if (value instanceof Timestamp) {
+                    return value;
+                }
+                return value instanceof java.util.Date ? new Timestamp(((java.util.Date) value).getTime()) : null;
+            default:
+                return null;
+        }
+    }
+
     //    public void autoFlush(Set<String> querySpaces, SessionImplementor sessionImplementor) {
     //        AutoFlushEvent event = new AutoFlushEvent(querySpaces, (EventSource) sessionImplementor);
     //        for (AutoFlushEventListener listener : sessionImplementor.getFactory().getServiceRegistry().getService(EventListenerRegistry.class).getEventListenerGroup(EventType.AUTO_FLUSH).listeners()) {
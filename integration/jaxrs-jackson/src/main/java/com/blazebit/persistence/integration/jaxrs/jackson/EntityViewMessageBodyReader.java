@@ -478,6 +478,10 @@ public class EntityViewMessageBodyReader implements MessageBodyReader<Object> {
             entityViewManager.get().saveFullTo(entityManager, view, entity);
         }
 
+        public void saveAll(EntityManager entityManager, Iterable<?> views) {
+            entityViewManager.get().saveAll(entityManager, views);
+        }
+
         @Deprecated
         public void update(EntityManager entityManager, Object view) {
             entityViewManager.get().update(entityManager, view);
@@ -492,6 +496,10 @@ public class EntityViewMessageBodyReader implements MessageBodyReader<Object> {
             return entityViewManager.get().saveWith(entityManager, view);
         }
 
+        public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views) {
+            return entityViewManager.get().saveAllWith(entityManager, views);
+        }
+
         public FlushOperationBuilder saveFullWith(EntityManager entityManager, Object view) {
             return entityViewManager.get().saveFullWith(entityManager, view);
         }